@@ -0,0 +1,35 @@
+-- ============================================================================
+-- Insert cost of the transaction_master triggers
+-- Times one INSERT ... SELECT of 100,000 rows spread over 50 merchants, three times, with whatever triggers the
+-- database has, and rolls every insert back. Run against a copy of the schema: psql -f benchmark-inserts.sql
+-- ============================================================================
+
+BEGIN;
+
+CREATE TEMP TABLE insert_timings (run INTEGER, inserted_rows INTEGER, ms NUMERIC) ON COMMIT DROP;
+
+DO $$
+DECLARE
+    v_start TIMESTAMP WITH TIME ZONE;
+    v_ms NUMERIC[] := '{}';
+BEGIN
+    FOR v_run IN 1..3 LOOP
+        BEGIN
+            v_start := clock_timestamp();
+            INSERT INTO operators.transaction_master (merchant_id, txn_date, local_txn_date_time, amount, status)
+            SELECT 'MCH-BENCH-' || (i % 50), (NOW() AT TIME ZONE 'UTC')::DATE, NOW(), 1.00, 'completed'
+            FROM generate_series(1, 100000) i;
+            v_ms := v_ms || round(EXTRACT(EPOCH FROM clock_timestamp() - v_start) * 1000);
+            -- Undoes the insert, keeping v_ms
+            RAISE EXCEPTION USING ERRCODE = 'P0001';
+        EXCEPTION WHEN raise_exception THEN
+            NULL;
+        END;
+    END LOOP;
+    INSERT INTO insert_timings SELECT r, 100000, v_ms[r] FROM generate_series(1, 3) r;
+END;
+$$;
+
+SELECT * FROM insert_timings ORDER BY run;
+
+ROLLBACK;
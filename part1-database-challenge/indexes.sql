@@ -20,3 +20,35 @@ ON operators.transaction_details (master_txn_id, local_txn_date_time DESC);
 
 
 
+
+
+-- Covering indexes for the API query shapes (TransactionRepository, MemberRepository)
+
+-- Every transaction query filters on merchant_id first. The aggregates (summarize, countByStatus,
+-- countByMerchantAndDateRange, the count query of findByMerchantAndDateRange, findVersion) and existsByMerchantId
+-- only need status, currency, amount and txn_id on top of the key, so they run as index-only scans of the
+-- requested range. txn_id is the last key column so the export reads a range in (txn_date, txn_id) keyset batches
+-- without sorting
+CREATE INDEX IF NOT EXISTS idx_tm_merchant_date_cover
+ON operators.transaction_master (merchant_id, txn_date, txn_id)
+INCLUDE (status, currency, amount);
+
+-- Listings (findByMerchantAndDateRange, the keyset pages, member transactions) read whole rows in
+-- (local_txn_date_time DESC, txn_id DESC) order. The key gives that order so a page stops after LIMIT rows,
+-- the INCLUDE list carries the remaining columns so no heap page is read for a listing.
+-- Costs roughly one more copy of the row per transaction, paid on insert; keep the list in sync with the entity
+CREATE INDEX IF NOT EXISTS idx_tm_merchant_time_listing
+ON operators.transaction_master (merchant_id, local_txn_date_time DESC, txn_id DESC)
+INCLUDE (txn_date, status, currency, amount, gp_acquirer_id, gp_issuer_id,
+         card_type, card_last4, auth_code, response_code, created_at);
+
+-- Both indexes above lead with merchant_id, the single column index is redundant write overhead
+DROP INDEX IF EXISTS operators.idx_transaction_master_merchant_id;
+
+-- Member list: default sort is created_at DESC, type and status are the optional filters
+-- (name search uses idx_members_member_name_trgm, code and id searches their unique indexes)
+CREATE INDEX IF NOT EXISTS idx_members_created_at
+ON operators.members (created_at DESC, member_id);
+
+CREATE INDEX IF NOT EXISTS idx_members_type_status
+ON operators.members (member_type, status, created_at DESC);
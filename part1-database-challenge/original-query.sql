@@ -38,7 +38,7 @@ FROM operators.transaction_master tm
 WHERE 1=1
    AND tm.txn_date > DATE '2025-11-16' 
    AND tm.txn_date < DATE '2025-11-18' 
-GROUP BY tm.txn_id, ins.member_id, iss.member_id 
+GROUP BY tm.txn_id, tm.txn_date, ins.member_id, iss.member_id 
 ORDER BY tm.local_txn_date_time DESC;
 
 -- ============================================================================
@@ -165,7 +165,7 @@ SELECT
     COUNT(td.txn_detail_id) AS detail_count
 FROM operators.transaction_master tm
 LEFT JOIN operators.transaction_details td ON tm.txn_id = td.master_txn_id
-GROUP BY tm.txn_id
+GROUP BY tm.txn_id, tm.txn_date
 ORDER BY tm.txn_id
 LIMIT 10;
 
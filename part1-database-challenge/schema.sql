@@ -29,13 +29,15 @@ CREATE TABLE operators.members (
 
 -- ============================================================================
 -- Table: transaction_master
--- Primary transaction records
+-- Primary transaction records, range partitioned on txn_date
 -- ============================================================================
 
 DROP TABLE IF EXISTS operators.transaction_master CASCADE;
 
+-- The primary key of a partitioned table has to contain the partition key, so it is (txn_id, txn_date);
+-- txn_id stays unique through its sequence.
 CREATE TABLE operators.transaction_master (
-    txn_id BIGSERIAL PRIMARY KEY,
+    txn_id BIGSERIAL,
     merchant_id VARCHAR(50) NOT NULL,
     gp_acquirer_id BIGINT REFERENCES operators.members(member_id),
     gp_issuer_id BIGINT REFERENCES operators.members(member_id),
@@ -48,8 +50,85 @@ CREATE TABLE operators.transaction_master (
     card_last4 VARCHAR(4),
     auth_code VARCHAR(20),
     response_code VARCHAR(10),
-    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
-);
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    PRIMARY KEY (txn_id, txn_date)
+) PARTITION BY RANGE (txn_date);
+
+-- Catches rows outside every range partition so inserts never fail; it should stay empty.
+-- A partition can not be created for a range the default partition already holds rows for.
+CREATE TABLE operators.transaction_master_default PARTITION OF operators.transaction_master DEFAULT;
+
+-- Creates the partitions covering [p_from, p_to), one per month ('month') or per day ('day'),
+-- named transaction_master_pYYYYMM / transaction_master_pYYYYMMDD. Periods that already exist or overlap
+-- an existing partition (e.g. after switching granularity) are skipped. Returns the created partitions.
+CREATE OR REPLACE FUNCTION operators.create_transaction_partitions(
+    p_from DATE,
+    p_to DATE,
+    p_granularity TEXT DEFAULT 'month'
+) RETURNS SETOF TEXT AS $$
+DECLARE
+    v_step INTERVAL;
+    v_start DATE;
+    v_end DATE;
+    v_name TEXT;
+BEGIN
+    IF p_granularity = 'month' THEN
+        v_step := INTERVAL '1 month';
+        v_start := date_trunc('month', p_from)::DATE;
+    ELSIF p_granularity = 'day' THEN
+        v_step := INTERVAL '1 day';
+        v_start := p_from;
+    ELSE
+        RAISE EXCEPTION 'granularity must be month or day, got %', p_granularity;
+    END IF;
+
+    WHILE v_start < p_to LOOP
+        v_end := (v_start + v_step)::DATE;
+        v_name := 'transaction_master_p' ||
+                  to_char(v_start, CASE WHEN p_granularity = 'month' THEN 'YYYYMM' ELSE 'YYYYMMDD' END);
+
+        IF to_regclass('operators.' || v_name) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE operators.%I PARTITION OF operators.transaction_master ' ||
+                               'FOR VALUES FROM (%L) TO (%L)', v_name, v_start, v_end);
+                RETURN NEXT v_name;
+            EXCEPTION WHEN invalid_object_definition THEN
+                -- Overlaps an existing partition of another granularity
+                RAISE NOTICE 'Skipping partition %: %', v_name, SQLERRM;
+            END;
+        END IF;
+
+        v_start := v_end;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches every range partition that ends on or before p_before and returns its name.
+-- Detached partitions stay as plain tables in the operators schema for archiving or DROP.
+CREATE OR REPLACE FUNCTION operators.detach_transaction_partitions(p_before DATE) RETURNS SETOF TEXT AS $$
+DECLARE
+    v_partition RECORD;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname,
+               substring(pg_get_expr(c.relpartbound, c.oid) FROM 'TO \(''([0-9-]+)''\)')::DATE AS upper_bound
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'operators.transaction_master'::regclass
+          AND pg_get_expr(c.relpartbound, c.oid) <> 'DEFAULT'
+        ORDER BY 2
+    LOOP
+        IF v_partition.upper_bound <= p_before THEN
+            EXECUTE format('ALTER TABLE operators.transaction_master DETACH PARTITION operators.%I', v_partition.relname);
+            RETURN NEXT v_partition.relname::TEXT;
+        END IF;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Initial partitions: from the start of the sample data to a few months ahead.
+-- The application keeps creating future partitions (transaction-partitions.* in application.yml).
+SELECT operators.create_transaction_partitions(DATE '2025-01-01', (date_trunc('month', CURRENT_DATE) + INTERVAL '4 months')::DATE);
 
 -- ============================================================================
 -- Table: transaction_details
@@ -60,7 +139,7 @@ DROP TABLE IF EXISTS operators.transaction_details CASCADE;
 
 CREATE TABLE operators.transaction_details (
     txn_detail_id BIGSERIAL PRIMARY KEY,
-    master_txn_id BIGINT NOT NULL REFERENCES operators.transaction_master(txn_id),
+    master_txn_id BIGINT NOT NULL,
     detail_type VARCHAR(50) NOT NULL CHECK (detail_type IN ('fee', 'tax', 'adjustment', 'refund', 'chargeback')),
     amount DECIMAL(15,2) NOT NULL,
     currency VARCHAR(3) NOT NULL DEFAULT 'USD',
@@ -69,6 +148,550 @@ CREATE TABLE operators.transaction_details (
     created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
 );
 
+-- ============================================================================
+-- Table: member_stats
+-- Per-merchant transaction rollup, maintained by triggers on transaction_master
+-- ============================================================================
+
+DROP TABLE IF EXISTS operators.member_stats CASCADE;
+
+CREATE TABLE operators.member_stats (
+    merchant_id VARCHAR(50) PRIMARY KEY,
+    txn_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(20,2) NOT NULL DEFAULT 0,
+    last_txn_date_time TIMESTAMP WITH TIME ZONE,
+    -- Bumped by every statement that updates or deletes transactions of the merchant, status-only updates
+    -- included; with txn_count it changes whenever the merchant's transactions do. Never goes back, rows are
+    -- zeroed rather than deleted.
+    revision BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
+);
+
+-- Applies the rows one statement inserted, updated or deleted to member_stats, read from the statement's
+-- transition tables: one upsert per merchant in merchant_id order, so a COPY chunk or multi-row insert takes
+-- each merchant's row lock once and concurrent statements lock their merchants in the same order.
+-- Updates and deletes bump revision and recompute last_txn_date_time of the merchants whose latest
+-- transaction they changed or removed.
+CREATE OR REPLACE FUNCTION operators.member_stats_apply() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO operators.member_stats AS s (merchant_id, txn_count, total_amount, last_txn_date_time, updated_at)
+        SELECT n.merchant_id, COUNT(*), SUM(n.amount), MAX(n.local_txn_date_time), NOW()
+        FROM new_rows n
+        GROUP BY n.merchant_id
+        ORDER BY n.merchant_id
+        ON CONFLICT (merchant_id) DO UPDATE
+        SET txn_count = s.txn_count + EXCLUDED.txn_count,
+            total_amount = s.total_amount + EXCLUDED.total_amount,
+            last_txn_date_time = GREATEST(s.last_txn_date_time, EXCLUDED.last_txn_date_time),
+            updated_at = NOW();
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'UPDATE' THEN
+        INSERT INTO operators.member_stats AS s (merchant_id, txn_count, total_amount, last_txn_date_time, revision, updated_at)
+        SELECT c.merchant_id, SUM(c.sign), SUM(c.sign * c.amount), MAX(c.added_time), 1, NOW()
+        FROM (SELECT o.merchant_id, -1 AS sign, o.amount, NULL::TIMESTAMP WITH TIME ZONE AS added_time FROM old_rows o
+              UNION ALL
+              SELECT n.merchant_id, 1, n.amount, n.local_txn_date_time FROM new_rows n) c
+        GROUP BY c.merchant_id
+        ORDER BY c.merchant_id
+        ON CONFLICT (merchant_id) DO UPDATE
+        SET txn_count = s.txn_count + EXCLUDED.txn_count,
+            total_amount = s.total_amount + EXCLUDED.total_amount,
+            last_txn_date_time = GREATEST(s.last_txn_date_time, EXCLUDED.last_txn_date_time),
+            revision = s.revision + 1,
+            updated_at = NOW();
+    ELSE
+        INSERT INTO operators.member_stats AS s (merchant_id, txn_count, total_amount, revision, updated_at)
+        SELECT o.merchant_id, -COUNT(*), -SUM(o.amount), 1, NOW()
+        FROM old_rows o
+        GROUP BY o.merchant_id
+        ORDER BY o.merchant_id
+        ON CONFLICT (merchant_id) DO UPDATE
+        SET txn_count = s.txn_count + EXCLUDED.txn_count,
+            total_amount = s.total_amount + EXCLUDED.total_amount,
+            revision = s.revision + 1,
+            updated_at = NOW();
+    END IF;
+
+    UPDATE operators.member_stats s
+    SET last_txn_date_time = (SELECT MAX(tm.local_txn_date_time)
+                              FROM operators.transaction_master tm
+                              WHERE tm.merchant_id = s.merchant_id)
+    WHERE EXISTS (SELECT 1 FROM old_rows o
+                  WHERE o.merchant_id = s.merchant_id AND o.local_txn_date_time = s.last_txn_date_time);
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables rule out column lists and WHEN conditions, so every update statement is applied
+CREATE TRIGGER trg_member_stats_insert
+AFTER INSERT ON operators.transaction_master
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.member_stats_apply();
+
+CREATE TRIGGER trg_member_stats_update
+AFTER UPDATE ON operators.transaction_master
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.member_stats_apply();
+
+CREATE TRIGGER trg_member_stats_delete
+AFTER DELETE ON operators.transaction_master
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.member_stats_apply();
+
+-- Zeroes the rows instead of emptying the table, so revision keeps counting up
+CREATE OR REPLACE FUNCTION operators.member_stats_truncate() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE operators.member_stats
+    SET txn_count = 0,
+        total_amount = 0,
+        last_txn_date_time = NULL,
+        revision = revision + 1,
+        updated_at = NOW();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_member_stats_truncate
+AFTER TRUNCATE ON operators.transaction_master
+FOR EACH STATEMENT EXECUTE FUNCTION operators.member_stats_truncate();
+
+-- Rebuilds member_stats from transaction_master and returns the rows that had drifted.
+-- The EXCLUSIVE lock holds back concurrent trigger writes until the rebuild commits.
+CREATE OR REPLACE FUNCTION operators.rebuild_member_stats()
+RETURNS TABLE (
+    merchant_id VARCHAR(50),
+    stored_count BIGINT,
+    actual_count BIGINT,
+    stored_amount DECIMAL(20,2),
+    actual_amount DECIMAL(20,2)
+) AS $$
+#variable_conflict use_column
+BEGIN
+    LOCK TABLE operators.member_stats IN EXCLUSIVE MODE;
+
+    CREATE TEMP TABLE member_stats_actual AS
+    SELECT tm.merchant_id,
+           COUNT(*) AS txn_count,
+           COALESCE(SUM(tm.amount), 0) AS total_amount,
+           MAX(tm.local_txn_date_time) AS last_txn_date_time
+    FROM operators.transaction_master tm
+    GROUP BY tm.merchant_id;
+
+    RETURN QUERY
+    SELECT COALESCE(a.merchant_id, s.merchant_id)::VARCHAR(50),
+           s.txn_count,
+           a.txn_count,
+           s.total_amount,
+           a.total_amount::DECIMAL(20,2)
+    FROM member_stats_actual a
+    FULL OUTER JOIN operators.member_stats s ON s.merchant_id = a.merchant_id
+    WHERE s.txn_count IS DISTINCT FROM COALESCE(a.txn_count, 0)
+       OR s.total_amount IS DISTINCT FROM COALESCE(a.total_amount, 0)
+       OR s.last_txn_date_time IS DISTINCT FROM a.last_txn_date_time;
+
+    -- Rows are corrected in place, so revision keeps counting up; merchants without transactions are zeroed
+    INSERT INTO operators.member_stats AS s (merchant_id, txn_count, total_amount, last_txn_date_time, revision, updated_at)
+    SELECT COALESCE(a.merchant_id, stored.merchant_id), COALESCE(a.txn_count, 0), COALESCE(a.total_amount, 0),
+           a.last_txn_date_time, 1, NOW()
+    FROM member_stats_actual a
+    FULL OUTER JOIN operators.member_stats stored ON stored.merchant_id = a.merchant_id
+    WHERE stored.txn_count IS DISTINCT FROM COALESCE(a.txn_count, 0)
+       OR stored.total_amount IS DISTINCT FROM COALESCE(a.total_amount, 0)
+       OR stored.last_txn_date_time IS DISTINCT FROM a.last_txn_date_time
+    ORDER BY 1
+    ON CONFLICT (merchant_id) DO UPDATE
+    SET txn_count = EXCLUDED.txn_count,
+        total_amount = EXCLUDED.total_amount,
+        last_txn_date_time = EXCLUDED.last_txn_date_time,
+        revision = s.revision + 1,
+        updated_at = NOW();
+
+    DROP TABLE member_stats_actual;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================================================
+-- Table: merchant_daily_rollup
+-- Per (merchant, day, currency, status) counts and sums of transaction_master
+-- ============================================================================
+
+DROP TABLE IF EXISTS operators.merchant_daily_rollup CASCADE;
+DROP TABLE IF EXISTS operators.merchant_daily_rollup_state CASCADE;
+
+CREATE TABLE operators.merchant_daily_rollup (
+    merchant_id VARCHAR(50) NOT NULL,
+    txn_date DATE NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    txn_count BIGINT NOT NULL,
+    total_amount DECIMAL(20,2) NOT NULL,
+    PRIMARY KEY (merchant_id, txn_date, currency, status)
+);
+
+-- Single row: the rollup holds every day up to and including complete_through.
+-- Later days (normally only today) are summarized from transaction_master directly.
+CREATE TABLE operators.merchant_daily_rollup_state (
+    id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    complete_through DATE NOT NULL,
+    refreshed_at TIMESTAMP WITH TIME ZONE
+);
+
+INSERT INTO operators.merchant_daily_rollup_state (id, complete_through) VALUES (TRUE, DATE '-infinity');
+
+-- Adds (p_sign = 1) or removes (p_sign = -1) one transaction from its rollup row
+CREATE OR REPLACE FUNCTION operators.merchant_daily_rollup_add(
+    p_merchant_id VARCHAR, p_txn_date DATE, p_currency VARCHAR, p_status VARCHAR, p_amount DECIMAL, p_sign INTEGER
+) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO operators.merchant_daily_rollup AS r (merchant_id, txn_date, currency, status, txn_count, total_amount)
+    VALUES (p_merchant_id, p_txn_date, p_currency, p_status, p_sign, p_sign * p_amount)
+    ON CONFLICT (merchant_id, txn_date, currency, status) DO UPDATE
+    SET txn_count = r.txn_count + EXCLUDED.txn_count,
+        total_amount = r.total_amount + EXCLUDED.total_amount;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Keeps rolled up days in step with late changes (reversals, corrections, back-dated inserts).
+-- Rows of today and later are never rolled up yet, so the usual insert returns before touching any lock.
+-- Otherwise the state row is read FOR KEY SHARE, which waits for a running refresh, so a change is either
+-- seen by the refresh or applied here after it, never lost or counted twice.
+CREATE OR REPLACE FUNCTION operators.merchant_daily_rollup_apply() RETURNS TRIGGER AS $$
+DECLARE
+    v_today DATE := (NOW() AT TIME ZONE 'UTC')::DATE;
+    v_complete_through DATE;
+BEGIN
+    IF (TG_OP = 'DELETE' OR NEW.txn_date >= v_today) AND (TG_OP = 'INSERT' OR OLD.txn_date >= v_today) THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT complete_through INTO v_complete_through
+    FROM operators.merchant_daily_rollup_state
+    FOR KEY SHARE;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.txn_date <= v_complete_through THEN
+        PERFORM operators.merchant_daily_rollup_add(OLD.merchant_id, OLD.txn_date, OLD.currency, OLD.status, OLD.amount, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.txn_date <= v_complete_through THEN
+        PERFORM operators.merchant_daily_rollup_add(NEW.merchant_id, NEW.txn_date, NEW.currency, NEW.status, NEW.amount, 1);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_merchant_daily_rollup_insert_delete
+AFTER INSERT OR DELETE ON operators.transaction_master
+FOR EACH ROW EXECUTE FUNCTION operators.merchant_daily_rollup_apply();
+
+CREATE TRIGGER trg_merchant_daily_rollup_update
+AFTER UPDATE OF merchant_id, txn_date, currency, status, amount ON operators.transaction_master
+FOR EACH ROW
+WHEN (OLD.merchant_id IS DISTINCT FROM NEW.merchant_id
+   OR OLD.txn_date IS DISTINCT FROM NEW.txn_date
+   OR OLD.currency IS DISTINCT FROM NEW.currency
+   OR OLD.status IS DISTINCT FROM NEW.status
+   OR OLD.amount IS DISTINCT FROM NEW.amount)
+EXECUTE FUNCTION operators.merchant_daily_rollup_apply();
+
+CREATE OR REPLACE FUNCTION operators.merchant_daily_rollup_truncate() RETURNS TRIGGER AS $$
+BEGIN
+    TRUNCATE operators.merchant_daily_rollup;
+    UPDATE operators.merchant_daily_rollup_state SET complete_through = DATE '-infinity', refreshed_at = NOW();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_merchant_daily_rollup_truncate
+AFTER TRUNCATE ON operators.transaction_master
+FOR EACH STATEMENT EXECUTE FUNCTION operators.merchant_daily_rollup_truncate();
+
+-- Rolls up the days after complete_through up to p_through (at most yesterday, UTC) and advances
+-- complete_through. Only new days are aggregated, each day once. Returns the number of rollup rows written.
+CREATE OR REPLACE FUNCTION operators.refresh_merchant_daily_rollup(
+    p_through DATE DEFAULT (NOW() AT TIME ZONE 'UTC')::DATE - 1
+) RETURNS INTEGER AS $$
+DECLARE
+    v_from DATE;
+    v_through DATE := LEAST(p_through, (NOW() AT TIME ZONE 'UTC')::DATE - 1);
+    v_rows INTEGER := 0;
+BEGIN
+    SELECT complete_through INTO v_from
+    FROM operators.merchant_daily_rollup_state
+    FOR UPDATE;
+
+    IF v_through > v_from THEN
+        INSERT INTO operators.merchant_daily_rollup (merchant_id, txn_date, currency, status, txn_count, total_amount)
+        SELECT tm.merchant_id, tm.txn_date, tm.currency, tm.status, COUNT(*), SUM(tm.amount)
+        FROM operators.transaction_master tm
+        WHERE tm.txn_date > v_from AND tm.txn_date <= v_through
+        GROUP BY tm.merchant_id, tm.txn_date, tm.currency, tm.status;
+        GET DIAGNOSTICS v_rows = ROW_COUNT;
+
+        UPDATE operators.merchant_daily_rollup_state SET complete_through = v_through, refreshed_at = NOW();
+    END IF;
+
+    RETURN v_rows;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============================================================================
+-- Table: merchant_day_revisions
+-- Per (merchant, day) change counter for the listing ETags (TransactionRepository.findVersion), bumped by changes to
+-- transaction_master and transaction_details
+-- ============================================================================
+
+DROP TABLE IF EXISTS operators.merchant_day_revisions CASCADE;
+
+-- Inserts show in a range's count and highest txn_id. Updates and deletes, status-only updates included, may leave
+-- both unchanged, so every statement that updates or deletes transactions bumps revision of each merchant day it
+-- touched, on both sides of a move. Revisions never go back: rows are not deleted, not even by a TRUNCATE.
+CREATE TABLE operators.merchant_day_revisions (
+    merchant_id VARCHAR(50) NOT NULL,
+    txn_date DATE NOT NULL,
+    revision BIGINT NOT NULL,
+    PRIMARY KEY (merchant_id, txn_date)
+);
+
+-- One upsert per merchant day in (merchant_id, txn_date) order, like member_stats_apply()
+CREATE OR REPLACE FUNCTION operators.merchant_day_revisions_bump() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        INSERT INTO operators.merchant_day_revisions AS r (merchant_id, txn_date, revision)
+        SELECT c.merchant_id, c.txn_date, 1
+        FROM (SELECT o.merchant_id, o.txn_date FROM old_rows o
+              UNION
+              SELECT n.merchant_id, n.txn_date FROM new_rows n) c
+        ORDER BY c.merchant_id, c.txn_date
+        ON CONFLICT (merchant_id, txn_date) DO UPDATE
+        SET revision = r.revision + 1;
+    ELSE
+        INSERT INTO operators.merchant_day_revisions AS r (merchant_id, txn_date, revision)
+        SELECT DISTINCT o.merchant_id, o.txn_date, 1
+        FROM old_rows o
+        ORDER BY o.merchant_id, o.txn_date
+        ON CONFLICT (merchant_id, txn_date) DO UPDATE
+        SET revision = r.revision + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_merchant_day_revisions_update
+AFTER UPDATE ON operators.transaction_master
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.merchant_day_revisions_bump();
+
+CREATE TRIGGER trg_merchant_day_revisions_delete
+AFTER DELETE ON operators.transaction_master
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.merchant_day_revisions_bump();
+
+-- Detail rows change listings that include details without touching their masters, so every statement on
+-- transaction_details bumps the days of the masters it touched. Details inserted in the same transaction as their
+-- master (creates, imports) are skipped: the new master already shows in the count and highest txn_id, and bumping
+-- today's row on every create would serialise a merchant's writes. Details of a deleted master find no master and
+-- are covered by the master's own bump.
+CREATE OR REPLACE FUNCTION operators.merchant_day_revisions_bump_details() RETURNS TRIGGER AS $$
+DECLARE
+    -- xmin holds the low 32 bits of the inserting transaction's id
+    v_xid BIGINT := txid_current() % 4294967296;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO operators.merchant_day_revisions AS r (merchant_id, txn_date, revision)
+        SELECT DISTINCT m.merchant_id, m.txn_date, 1
+        FROM (SELECT DISTINCT n.master_txn_id FROM new_rows n) c
+        JOIN operators.transaction_master m ON m.txn_id = c.master_txn_id
+        WHERE m.xmin::TEXT::BIGINT <> v_xid
+        ORDER BY m.merchant_id, m.txn_date
+        ON CONFLICT (merchant_id, txn_date) DO UPDATE
+        SET revision = r.revision + 1;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO operators.merchant_day_revisions AS r (merchant_id, txn_date, revision)
+        SELECT DISTINCT m.merchant_id, m.txn_date, 1
+        FROM (SELECT o.master_txn_id FROM old_rows o
+              UNION
+              SELECT n.master_txn_id FROM new_rows n) c
+        JOIN operators.transaction_master m ON m.txn_id = c.master_txn_id
+        ORDER BY m.merchant_id, m.txn_date
+        ON CONFLICT (merchant_id, txn_date) DO UPDATE
+        SET revision = r.revision + 1;
+    ELSE
+        INSERT INTO operators.merchant_day_revisions AS r (merchant_id, txn_date, revision)
+        SELECT DISTINCT m.merchant_id, m.txn_date, 1
+        FROM (SELECT DISTINCT o.master_txn_id FROM old_rows o) c
+        JOIN operators.transaction_master m ON m.txn_id = c.master_txn_id
+        ORDER BY m.merchant_id, m.txn_date
+        ON CONFLICT (merchant_id, txn_date) DO UPDATE
+        SET revision = r.revision + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_merchant_day_revisions_details_insert
+AFTER INSERT ON operators.transaction_details
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.merchant_day_revisions_bump_details();
+
+CREATE TRIGGER trg_merchant_day_revisions_details_update
+AFTER UPDATE ON operators.transaction_details
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.merchant_day_revisions_bump_details();
+
+CREATE TRIGGER trg_merchant_day_revisions_details_delete
+AFTER DELETE ON operators.transaction_details
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.merchant_day_revisions_bump_details();
+
+-- ============================================================================
+-- Notifications: transaction_history_changed
+-- Tells listening application instances which merchant day changed, so they can drop cached pages of closed date
+-- ranges and reload the day in their hot window. Sent for inserts dated before today, for every update and delete,
+-- and for every change to the details of an existing transaction. Payload "merchant_id|txn_date", "*" after a
+-- TRUNCATE.
+-- Equal payloads of one transaction are delivered once, so a bulk change of one day sends one notification.
+-- ============================================================================
+
+CREATE OR REPLACE FUNCTION operators.transaction_history_notify() RETURNS TRIGGER AS $$
+DECLARE
+    v_today DATE := (NOW() AT TIME ZONE 'UTC')::DATE;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM pg_notify('transaction_history_changed', OLD.merchant_id || '|' || OLD.txn_date);
+    END IF;
+    IF TG_OP = 'UPDATE' OR (TG_OP = 'INSERT' AND NEW.txn_date < v_today) THEN
+        PERFORM pg_notify('transaction_history_changed', NEW.merchant_id || '|' || NEW.txn_date);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Inserts of today, the usual case, are filtered out before the function is called
+CREATE TRIGGER trg_transaction_history_notify_insert
+AFTER INSERT ON operators.transaction_master
+FOR EACH ROW
+WHEN (NEW.txn_date < (NOW() AT TIME ZONE 'UTC')::DATE)
+EXECUTE FUNCTION operators.transaction_history_notify();
+
+CREATE TRIGGER trg_transaction_history_notify_update_delete
+AFTER UPDATE OR DELETE ON operators.transaction_master
+FOR EACH ROW EXECUTE FUNCTION operators.transaction_history_notify();
+
+-- Changes to the details of an existing transaction notify the master's day. Details inserted in the same
+-- transaction as their master are covered by the master's own insert notification, as in
+-- merchant_day_revisions_bump_details()
+CREATE OR REPLACE FUNCTION operators.transaction_history_notify_details() RETURNS TRIGGER AS $$
+DECLARE
+    v_xid BIGINT := txid_current() % 4294967296;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM pg_notify('transaction_history_changed', d.merchant_id || '|' || d.txn_date)
+        FROM (SELECT DISTINCT m.merchant_id, m.txn_date
+              FROM (SELECT DISTINCT n.master_txn_id FROM new_rows n) c
+              JOIN operators.transaction_master m ON m.txn_id = c.master_txn_id
+              WHERE m.xmin::TEXT::BIGINT <> v_xid) d;
+    ELSIF TG_OP = 'UPDATE' THEN
+        PERFORM pg_notify('transaction_history_changed', d.merchant_id || '|' || d.txn_date)
+        FROM (SELECT DISTINCT m.merchant_id, m.txn_date
+              FROM (SELECT o.master_txn_id FROM old_rows o
+                    UNION
+                    SELECT n.master_txn_id FROM new_rows n) c
+              JOIN operators.transaction_master m ON m.txn_id = c.master_txn_id) d;
+    ELSE
+        PERFORM pg_notify('transaction_history_changed', d.merchant_id || '|' || d.txn_date)
+        FROM (SELECT DISTINCT m.merchant_id, m.txn_date
+              FROM (SELECT DISTINCT o.master_txn_id FROM old_rows o) c
+              JOIN operators.transaction_master m ON m.txn_id = c.master_txn_id) d;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transaction_history_notify_details_insert
+AFTER INSERT ON operators.transaction_details
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.transaction_history_notify_details();
+
+CREATE TRIGGER trg_transaction_history_notify_details_update
+AFTER UPDATE ON operators.transaction_details
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.transaction_history_notify_details();
+
+CREATE TRIGGER trg_transaction_history_notify_details_delete
+AFTER DELETE ON operators.transaction_details
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION operators.transaction_history_notify_details();
+
+CREATE OR REPLACE FUNCTION operators.transaction_history_notify_truncate() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('transaction_history_changed', '*');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transaction_history_notify_truncate
+AFTER TRUNCATE ON operators.transaction_master
+FOR EACH STATEMENT EXECUTE FUNCTION operators.transaction_history_notify_truncate();
+
+CREATE TRIGGER trg_transaction_history_notify_details_truncate
+AFTER TRUNCATE ON operators.transaction_details
+FOR EACH STATEMENT EXECUTE FUNCTION operators.transaction_history_notify_truncate();
+
+-- ============================================================================
+-- Tables: transaction_imports, transaction_import_chunks
+-- Bulk imports by client key; each chunk is committed together with its chunk row
+-- ============================================================================
+
+DROP TABLE IF EXISTS operators.transaction_import_chunks CASCADE;
+DROP TABLE IF EXISTS operators.transaction_imports CASCADE;
+
+-- chunk_rows is fixed by the first attempt, so a retry with the same key cuts the file into the same chunks
+CREATE TABLE operators.transaction_imports (
+    import_key VARCHAR(100) PRIMARY KEY,
+    chunk_rows INTEGER NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMP WITH TIME ZONE
+);
+
+-- A chunk is copied at most once: its row is inserted in the COPY transaction, a concurrent or
+-- retried copy of the same chunk fails on the primary key and rolls back.
+CREATE TABLE operators.transaction_import_chunks (
+    import_key VARCHAR(100) NOT NULL REFERENCES operators.transaction_imports(import_key) ON DELETE CASCADE,
+    chunk_no INTEGER NOT NULL,
+    master_rows INTEGER NOT NULL,
+    detail_rows INTEGER NOT NULL,
+    copy_ms BIGINT NOT NULL,
+    imported_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (import_key, chunk_no)
+);
+
+-- ============================================================================
+-- Table: transaction_idempotency_keys
+-- One row per transaction created through the API, written in the same statement as the transaction
+-- ============================================================================
+
+DROP TABLE IF EXISTS operators.transaction_idempotency_keys CASCADE;
+
+-- A key is used at most once per merchant: the key row and its transaction_master row commit together,
+-- so a retry finds either both or neither. request_hash (SHA-256 of the normalized request, hex) tells a
+-- replay of the same request apart from a different request reusing the key.
+CREATE TABLE operators.transaction_idempotency_keys (
+    merchant_id VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    txn_id BIGINT NOT NULL,
+    txn_date DATE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (merchant_id, idempotency_key)
+);
+
+-- Keys past transaction-write.key-retention are purged oldest first
+CREATE INDEX idx_idempotency_keys_created_at ON operators.transaction_idempotency_keys (created_at);
+
 -- ============================================================================
 -- INDEXES (Current - Suboptimal)
 -- ============================================================================
@@ -79,6 +702,10 @@ CREATE INDEX idx_transaction_master_txn_date ON operators.transaction_master(txn
 CREATE INDEX idx_transaction_details_master_txn_id ON operators.transaction_details(master_txn_id);
 CREATE INDEX idx_members_member_id ON operators.members(member_id);
 
+-- Member search: trigram index for member_name ILIKE '%x%' (pg_trgm is enabled above).
+-- Numeric ids and member codes are matched exactly through the primary key and the member_code unique index.
+CREATE INDEX idx_members_member_name_trgm ON operators.members USING GIN (member_name gin_trgm_ops);
+
 -- ============================================================================
 -- COMMENTS
 -- ============================================================================
@@ -86,10 +713,15 @@ CREATE INDEX idx_members_member_id ON operators.members(member_id);
 COMMENT ON TABLE operators.transaction_master IS 'Main transaction records - header level';
 COMMENT ON TABLE operators.transaction_details IS 'Transaction detail records - multiple per transaction';
 COMMENT ON TABLE operators.members IS 'Acquirer and issuer member directory';
+COMMENT ON TABLE operators.member_stats IS 'Per-merchant transaction rollup maintained by triggers, rebuilt by rebuild_member_stats()';
+COMMENT ON TABLE operators.merchant_daily_rollup IS 'Per merchant, day, currency and status totals up to merchant_daily_rollup_state.complete_through, extended by refresh_merchant_daily_rollup()';
+COMMENT ON TABLE operators.merchant_day_revisions IS 'Per merchant and day change counter bumped by every update and delete of transaction_master and every change to the details of an existing transaction, part of the listing ETag version';
+COMMENT ON TABLE operators.transaction_imports IS 'Bulk transaction imports by client idempotency key, see transaction_import_chunks for the copied chunks';
+COMMENT ON TABLE operators.transaction_idempotency_keys IS 'Idempotency-Key of each transaction created through the API, with the transaction it created';
 
-COMMENT ON COLUMN operators.transaction_master.txn_date IS 'Transaction date (used for partitioning in production)';
+COMMENT ON COLUMN operators.transaction_master.txn_date IS 'Transaction date, range partition key - filter on it so the planner prunes partitions';
 COMMENT ON COLUMN operators.transaction_master.local_txn_date_time IS 'Transaction timestamp in local timezone';
-COMMENT ON COLUMN operators.transaction_details.master_txn_id IS 'Foreign key to transaction_master';
+COMMENT ON COLUMN operators.transaction_details.master_txn_id IS 'References transaction_master.txn_id (not a declared foreign key: the partitioned master is unique on (txn_id, txn_date) only)';
 
 -- ============================================================================
 -- TABLE STATISTICS
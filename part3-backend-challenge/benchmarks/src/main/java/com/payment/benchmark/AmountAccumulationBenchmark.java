@@ -0,0 +1,86 @@
+package com.payment.benchmark;
+
+import com.payment.util.AmountAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing amounts: BigDecimal reduce and double sum (the old summary / stats code)
+ * against AmountAccumulator fed with BigDecimal and with raw cents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx4g"})
+public class AmountAccumulationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private BigDecimal[] amounts;
+    private long[] cents;
+    private String[] currencies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        amounts = new BigDecimal[rows];
+        cents = new long[rows];
+        currencies = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            cents[i] = 1_000 + (i * 7_919L) % 499_000;
+            amounts[i] = BigDecimal.valueOf(cents[i], 2);
+            currencies[i] = i % 20 == 0 ? "EUR" : "USD";
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReduce() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double doubleSum() {
+        double total = 0.0;
+        for (BigDecimal amount : amounts) {
+            total += amount.doubleValue();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long accumulatorFromBigDecimal() {
+        AmountAccumulator accumulator = new AmountAccumulator();
+        for (int i = 0; i < rows; i++) {
+            accumulator.add(currencies[i], amounts[i]);
+        }
+        return accumulator.getTotalCents();
+    }
+
+    @Benchmark
+    public long accumulatorFromCents() {
+        AmountAccumulator accumulator = new AmountAccumulator();
+        for (int i = 0; i < rows; i++) {
+            accumulator.add(currencies[i], cents[i]);
+        }
+        return accumulator.getTotalCents();
+    }
+}
@@ -0,0 +1,202 @@
+package com.payment.benchmark;
+
+import com.payment.entity.Member;
+import com.payment.entity.MemberStats;
+import com.payment.entity.TransactionDetail;
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.TransactionRepository;
+import com.payment.util.AmountAccumulator;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic history for one merchant, newest first, spread evenly over a 30 day window.
+ * Status and currency mixes follow sample-data.sql (80% completed, 10% pending, 10% failed, 5% EUR).
+ */
+public class BenchmarkData {
+
+    public static final String MERCHANT_ID = "MCH-00001";
+    public static final Instant END = Instant.parse("2025-11-30T23:59:59Z");
+    public static final Instant START = END.minus(Duration.ofDays(30));
+    public static final int DETAILS_PER_TRANSACTION = 3;
+
+    private static final String[] STATUSES = {
+            "completed", "completed", "completed", "completed", "completed",
+            "completed", "completed", "completed", "pending", "failed"
+    };
+    private static final String[] CARD_TYPES = {"VISA", "MASTERCARD", "AMEX", "DISCOVER"};
+    private static final String[] DETAIL_TYPES = {"fee", "tax", "adjustment"};
+
+    private final int size;
+    private final List<TransactionMaster> rows;
+    private final long[] epochMillis;
+    private final long[] txnIds;
+    private final List<TransactionRepository.SummaryRow> summaryRows;
+    private final MemberStats memberStats;
+    private final Member member;
+
+    private BenchmarkData(int size) {
+        this.size = size;
+        this.rows = new ArrayList<>(size);
+        this.epochMillis = new long[size];
+        this.txnIds = new long[size];
+
+        long spanMillis = Duration.between(START, END).toMillis();
+        long endMillis = END.toEpochMilli();
+        Map<String, long[]> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            long txnId = size - i;
+            long millis = endMillis - (spanMillis * i) / size;
+            long cents = 1_000 + (i * 7_919L) % 499_000;
+            String status = STATUSES[i % STATUSES.length];
+            String currency = i % 20 == 0 ? "EUR" : "USD";
+
+            TransactionMaster row = new TransactionMaster();
+            row.setTxnId(txnId);
+            row.setMerchantId(MERCHANT_ID);
+            row.setGpAcquirerId((long) (i % 3) + 1);
+            row.setGpIssuerId((long) (i % 5) + 4);
+            Instant timestamp = Instant.ofEpochMilli(millis);
+            row.setLocalTxnDateTime(timestamp);
+            row.setTxnDate(java.sql.Date.valueOf(timestamp.atZone(ZoneOffset.UTC).toLocalDate()));
+            row.setAmount(BigDecimal.valueOf(cents, 2));
+            row.setCurrency(currency);
+            row.setStatus(TransactionStatus.fromValue(status));
+            row.setCardType(CARD_TYPES[i % CARD_TYPES.length]);
+            row.setCardLast4(String.valueOf(1000 + i % 9000));
+            row.setResponseCode("completed".equals(status) ? "00" : "05");
+            rows.add(row);
+
+            epochMillis[i] = millis;
+            txnIds[i] = txnId;
+
+            long[] group = groups.computeIfAbsent(currency + '|' + status, key -> new long[2]);
+            group[0]++;
+            group[1] += cents;
+        }
+
+        List<TransactionRepository.SummaryRow> summary = new ArrayList<>();
+        AmountAccumulator total = new AmountAccumulator();
+        for (Map.Entry<String, long[]> group : groups.entrySet()) {
+            String[] key = group.getKey().split("\\|");
+            long[] value = group.getValue();
+            summary.add(new TransactionRepository.SummaryRow(key[0], key[1], value[0], BigDecimal.valueOf(value[1], 2)));
+            total.add(key[0], value[1], value[0]);
+        }
+        this.summaryRows = Collections.unmodifiableList(summary);
+
+        this.memberStats = new MemberStats();
+        memberStats.setMerchantId(MERCHANT_ID);
+        memberStats.setTxnCount(total.getTotalCount());
+        memberStats.setTotalAmount(total.getTotalAmount());
+        memberStats.setLastTxnDateTime(size > 0 ? rows.get(0).getLocalTxnDateTime() : null);
+
+        this.member = new Member();
+        member.setMemberId(1L);
+        member.setMemberCode(MERCHANT_ID);
+        member.setMemberName("Benchmark Merchant");
+        member.setMemberType("acquirer");
+        member.setCountry("USA");
+        member.setStatus("active");
+    }
+
+    public static BenchmarkData generate(int size) {
+        return new BenchmarkData(size);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getMerchantId() {
+        return MERCHANT_ID;
+    }
+
+    public List<TransactionMaster> getRows() {
+        return rows;
+    }
+
+    public List<TransactionRepository.SummaryRow> getSummaryRows() {
+        return summaryRows;
+    }
+
+    public MemberStats getMemberStats() {
+        return memberStats;
+    }
+
+    public Member getMember() {
+        return member;
+    }
+
+    // First index whose timestamp is at or before end
+    public int indexAtOrBefore(Instant end) {
+        long bound = end.toEpochMilli();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochMillis[mid] > bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First index whose timestamp is before start, i.e. the exclusive end of the range
+    public int indexAfter(Instant start) {
+        long bound = start.toEpochMilli();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochMillis[mid] >= bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First index strictly after (cursorTime, cursorTxnId) in (time desc, id desc) order
+    public int indexAfterCursor(Instant cursorTime, long cursorTxnId) {
+        long bound = cursorTime.toEpochMilli();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            boolean beforeOrAtCursor = epochMillis[mid] > bound
+                    || (epochMillis[mid] == bound && txnIds[mid] >= cursorTxnId);
+            if (beforeOrAtCursor) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public void addDetails(Long masterTxnId, List<TransactionDetail> target) {
+        for (int d = 0; d < DETAILS_PER_TRANSACTION; d++) {
+            TransactionDetail detail = new TransactionDetail();
+            detail.setTxnDetailId(masterTxnId * DETAILS_PER_TRANSACTION + d);
+            detail.setMasterTxnId(masterTxnId);
+            detail.setDetailType(DETAIL_TYPES[d]);
+            detail.setAmount(BigDecimal.valueOf(50 + d * 25L, 2));
+            detail.setCurrency("USD");
+            target.add(detail);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.payment.benchmark;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.hotwindow.HotWindow;
+import com.payment.repository.TransactionRepository;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pages and summaries served from the off-heap HotWindow. The entities used to fill it are dropped after setup, so
+ * the heap only holds the window's row lists; compare with the fake repository paths of TransactionServiceBenchmark
+ * and SummaryBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g", "-XX:MaxDirectMemorySize=4g"})
+public class HotWindowBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private HotWindow window;
+    private int middlePage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        window = new HotWindow(LocalDate.ofInstant(BenchmarkData.START, ZoneOffset.UTC), Math.max(rows, 1));
+        List<TransactionMaster> data = BenchmarkData.generate(rows).getRows();
+        // Oldest first, the order a warm-up reads
+        for (int i = data.size() - 1; i >= 0; i--) {
+            window.put(data.get(i));
+        }
+        middlePage = Math.max(0, rows / pageSize / 2);
+    }
+
+    @Benchmark
+    public Page<TransactionMaster> firstPage() {
+        return window.findPage(BenchmarkData.MERCHANT_ID, BenchmarkData.START, BenchmarkData.END, null,
+                Pageable.from(0, pageSize));
+    }
+
+    @Benchmark
+    public Page<TransactionMaster> middlePage() {
+        return window.findPage(BenchmarkData.MERCHANT_ID, BenchmarkData.START, BenchmarkData.END, null,
+                Pageable.from(middlePage, pageSize));
+    }
+
+    @Benchmark
+    public List<TransactionRepository.SummaryRow> summarize() {
+        return window.summarize(BenchmarkData.MERCHANT_ID, BenchmarkData.START, BenchmarkData.END);
+    }
+}
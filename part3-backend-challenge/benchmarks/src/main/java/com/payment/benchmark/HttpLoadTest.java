@@ -0,0 +1,110 @@
+package com.payment.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator for a running payment-api: keeps a fixed number of requests in flight
+ * against one URL and prints throughput, latency percentiles and the status code mix (503 = shed by the limiter).
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.payment.benchmark.HttpLoadTest \
+ *     "http://localhost:8080/api/v1/merchants/MCH-00001/transactions?startDate=2025-11-01&amp;endDate=2025-11-18" 2000 60 10
+ * </pre>
+ * Arguments: url, concurrency (default 500), duration seconds (default 60), warmup seconds (default 10).
+ */
+public class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: HttpLoadTest <url> [concurrency] [durationSeconds] [warmupSeconds]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+        System.out.printf("Warmup %ds at concurrency %d%n", warmupSeconds, concurrency);
+        run(client, request, concurrency, warmupSeconds);
+
+        System.out.printf("Measuring %ds at concurrency %d%n", durationSeconds, concurrency);
+        Result result = run(client, request, concurrency, durationSeconds);
+        result.print(durationSeconds);
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds) throws InterruptedException {
+        Result result = new Result();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        result.record(System.nanoTime() - start, error != null ? -1 : response.statusCode());
+                        inFlight.release();
+                    });
+        }
+        // Drain the requests still in flight so the next phase starts clean
+        inFlight.acquire(concurrency);
+        return result;
+    }
+
+    private static final class Result {
+
+        private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        private long[] latencies = new long[1 << 16];
+        private int size;
+
+        void record(long nanos, int status) {
+            statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+            synchronized (this) {
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, size * 2);
+                }
+                latencies[size++] = nanos;
+            }
+        }
+
+        synchronized void print(int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            System.out.printf("requests   %d%n", size);
+            System.out.printf("throughput %.1f req/s%n", size / (double) seconds);
+            System.out.printf("p50        %.2f ms%n", percentile(sorted, 0.50));
+            System.out.printf("p90        %.2f ms%n", percentile(sorted, 0.90));
+            System.out.printf("p99        %.2f ms%n", percentile(sorted, 0.99));
+            System.out.printf("p99.9      %.2f ms%n", percentile(sorted, 0.999));
+            System.out.printf("max        %.2f ms%n", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+            Map<Integer, Long> statuses = new TreeMap<>();
+            statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+            // -1 counts transport errors (connection refused, timeouts)
+            System.out.printf("statuses   %s%n", statuses);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
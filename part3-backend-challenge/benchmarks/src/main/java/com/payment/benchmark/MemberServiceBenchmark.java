@@ -0,0 +1,51 @@
+package com.payment.benchmark;
+
+import com.payment.dto.MemberStatsResponse;
+import com.payment.dto.MemberTransactionListResponse;
+import com.payment.service.impl.MemberServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberServiceImpl.getStats and the paged member transaction listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class MemberServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private MemberServiceImpl memberService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memberService = new ServiceFixture(rows).memberService();
+    }
+
+    @Benchmark
+    public MemberStatsResponse getStats() {
+        return memberService.getStats(BenchmarkData.MERCHANT_ID);
+    }
+
+    @Benchmark
+    public MemberTransactionListResponse getTransactionsFirstPage() {
+        return memberService.getTransactions(BenchmarkData.MERCHANT_ID, 0, 20, true);
+    }
+}
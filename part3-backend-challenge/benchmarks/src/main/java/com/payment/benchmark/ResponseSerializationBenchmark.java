@@ -0,0 +1,85 @@
+package com.payment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.payment.dto.TransactionResponse;
+import com.payment.dto.TransactionResponseWriter;
+import com.payment.service.impl.TransactionServiceImpl;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of one TransactionResponse page: reflective Jackson databind
+ * (the API's previous path, configured like the jackson section of application.yml), compile-time Serde and the
+ * streaming TransactionResponseWriter the API now uses, which writes into a pooled Netty buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int pageSize;
+
+    private TransactionServiceImpl transactionService;
+    private TransactionResponse response;
+    private ObjectMapper objectMapper;
+    private io.micronaut.serde.ObjectMapper serdeMapper;
+    private TransactionResponseWriter responseWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionService = new ServiceFixture(10_000).transactionService();
+        response = mapPage();
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        serdeMapper = io.micronaut.serde.ObjectMapper.getDefault();
+        responseWriter = new TransactionResponseWriter();
+    }
+
+    @Benchmark
+    public TransactionResponse mapPage() {
+        return transactionService.getTransactions(BenchmarkData.MERCHANT_ID,
+                BenchmarkData.START, BenchmarkData.END, null, 0, pageSize, true);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializePageSerde() throws IOException {
+        return serdeMapper.writeValueAsBytes(response);
+    }
+
+    // Released like Netty does after writing the body, so the pooled buffer is reused across operations
+    @Benchmark
+    public int writePageToByteBuf() {
+        ByteBuf buffer = responseWriter.write(response);
+        try {
+            return buffer.readableBytes();
+        } finally {
+            buffer.release();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.payment.benchmark;
+
+import com.payment.benchmark.fake.FakeMemberStatsRepository;
+import com.payment.benchmark.fake.FakeTransactionDetailRepository;
+import com.payment.benchmark.fake.FakeTransactionRepository;
+import com.payment.benchmark.fake.Fakes;
+import com.payment.cache.LookupCache;
+import com.payment.cache.LookupCacheConfiguration;
+import com.payment.cache.RangeResultCache;
+import com.payment.cache.RangeResultCacheConfiguration;
+import com.payment.repository.MemberRepository;
+import com.payment.repository.MemberStatsRepository;
+import com.payment.repository.TransactionDetailRepository;
+import com.payment.repository.TransactionRepository;
+import com.payment.service.impl.MemberServiceImpl;
+import com.payment.service.impl.TransactionServiceImpl;
+
+/**
+ * Wires the real service implementations to the in-memory fakes, the same way the bean context would.
+ */
+public class ServiceFixture {
+
+    private final BenchmarkData data;
+    private final TransactionRepository transactionRepository;
+    private final TransactionDetailRepository transactionDetailRepository;
+    private final MemberRepository memberRepository;
+    private final MemberStatsRepository memberStatsRepository;
+    private final LookupCache lookupCache;
+    private final RangeResultCache rangeResultCache;
+
+    public ServiceFixture(int rows) {
+        this.data = BenchmarkData.generate(rows);
+        this.transactionRepository = new FakeTransactionRepository(data);
+        this.transactionDetailRepository = new FakeTransactionDetailRepository(data);
+        this.memberRepository = Fakes.memberRepository(data);
+        this.memberStatsRepository = new FakeMemberStatsRepository(data);
+        this.lookupCache = new LookupCache(transactionRepository, memberRepository, new LookupCacheConfiguration());
+        // Off, the benchmarks measure building the page rather than a cache hit
+        RangeResultCacheConfiguration rangeCacheConfiguration = new RangeResultCacheConfiguration();
+        rangeCacheConfiguration.setEnabled(false);
+        this.rangeResultCache = new RangeResultCache(rangeCacheConfiguration);
+    }
+
+    public BenchmarkData getData() {
+        return data;
+    }
+
+    public TransactionServiceImpl transactionService() {
+        return new TransactionServiceImpl(transactionRepository, transactionDetailRepository, lookupCache,
+                rangeResultCache, null);
+    }
+
+    public MemberServiceImpl memberService() {
+        return new MemberServiceImpl(memberRepository, transactionRepository, transactionDetailRepository,
+                memberStatsRepository, lookupCache);
+    }
+}
@@ -0,0 +1,47 @@
+package com.payment.benchmark;
+
+import com.payment.dto.TransactionResponse;
+import com.payment.service.impl.TransactionServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The range summary, measured through TransactionServiceImpl.getTransactions with a one-row page and no details.
+ * The fake repository returns the grouped rows the database would, so the service only folds one row per currency
+ * and status: its cost depends on the number of groups, not on the number of transactions, and there is no rows
+ * param. The aggregation itself is the database's and is not measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class SummaryBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private TransactionServiceImpl transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionService = new ServiceFixture(ROWS).transactionService();
+    }
+
+    @Benchmark
+    public TransactionResponse.Summary summaryWithOneRowPage() {
+        return transactionService.getTransactions(BenchmarkData.MERCHANT_ID,
+                BenchmarkData.START, BenchmarkData.END, null, 0, 1, false).getSummary();
+    }
+}
@@ -0,0 +1,73 @@
+package com.payment.benchmark;
+
+import com.payment.dto.TransactionResponse;
+import com.payment.service.impl.TransactionServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionServiceImpl.getTransactions in offset and keyset mode, with and without details.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class TransactionServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private TransactionServiceImpl transactionService;
+    private int middlePage;
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionService = new ServiceFixture(rows).transactionService();
+        middlePage = Math.max(0, rows / pageSize / 2);
+        secondPageCursor = transactionService.getTransactionsByCursor(BenchmarkData.MERCHANT_ID,
+                BenchmarkData.START, BenchmarkData.END, null, null, pageSize, false, false)
+                .getPagination().getNextCursor();
+    }
+
+    @Benchmark
+    public TransactionResponse offsetFirstPage() {
+        return transactionService.getTransactions(BenchmarkData.MERCHANT_ID,
+                BenchmarkData.START, BenchmarkData.END, null, 0, pageSize, true);
+    }
+
+    @Benchmark
+    public TransactionResponse offsetMiddlePage() {
+        return transactionService.getTransactions(BenchmarkData.MERCHANT_ID,
+                BenchmarkData.START, BenchmarkData.END, null, middlePage, pageSize, true);
+    }
+
+    @Benchmark
+    public TransactionResponse offsetFirstPageWithoutDetails() {
+        return transactionService.getTransactions(BenchmarkData.MERCHANT_ID,
+                BenchmarkData.START, BenchmarkData.END, null, 0, pageSize, false);
+    }
+
+    @Benchmark
+    public TransactionResponse keysetNextPageWithoutTotal() {
+        return transactionService.getTransactionsByCursor(BenchmarkData.MERCHANT_ID,
+                BenchmarkData.START, BenchmarkData.END, null, secondPageCursor, pageSize, true, false);
+    }
+}
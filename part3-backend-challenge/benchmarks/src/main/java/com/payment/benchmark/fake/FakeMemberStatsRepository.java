@@ -0,0 +1,31 @@
+package com.payment.benchmark.fake;
+
+import com.payment.benchmark.BenchmarkData;
+import com.payment.entity.MemberStats;
+import com.payment.repository.MemberStatsRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Returns the rollup row the member_stats triggers would have maintained for the benchmark merchant.
+ */
+public class FakeMemberStatsRepository extends UnsupportedCrudRepository<MemberStats, String>
+        implements MemberStatsRepository {
+
+    private final BenchmarkData data;
+
+    public FakeMemberStatsRepository(BenchmarkData data) {
+        this.data = data;
+    }
+
+    @Override
+    public Optional<MemberStats> findById(String merchantId) {
+        return data.getMerchantId().equals(merchantId) ? Optional.of(data.getMemberStats()) : Optional.empty();
+    }
+
+    @Override
+    public List<StatsDrift> rebuild() {
+        throw unsupported();
+    }
+}
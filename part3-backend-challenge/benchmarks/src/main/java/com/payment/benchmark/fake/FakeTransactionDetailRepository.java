@@ -0,0 +1,37 @@
+package com.payment.benchmark.fake;
+
+import com.payment.benchmark.BenchmarkData;
+import com.payment.entity.TransactionDetail;
+import com.payment.repository.TransactionDetailRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materialises detail rows on demand, a fixed number per master, instead of holding them all in memory.
+ */
+public class FakeTransactionDetailRepository extends UnsupportedCrudRepository<TransactionDetail, Long>
+        implements TransactionDetailRepository {
+
+    private final BenchmarkData data;
+
+    public FakeTransactionDetailRepository(BenchmarkData data) {
+        this.data = data;
+    }
+
+    @Override
+    public List<TransactionDetail> findByMasterTxnId(Long masterTxnId) {
+        List<TransactionDetail> details = new ArrayList<>(BenchmarkData.DETAILS_PER_TRANSACTION);
+        data.addDetails(masterTxnId, details);
+        return details;
+    }
+
+    @Override
+    public List<TransactionDetail> findByMasterTxnIdInList(List<Long> masterTxnIds) {
+        List<TransactionDetail> details = new ArrayList<>(masterTxnIds.size() * BenchmarkData.DETAILS_PER_TRANSACTION);
+        for (Long masterTxnId : masterTxnIds) {
+            data.addDetails(masterTxnId, details);
+        }
+        return details;
+    }
+}
@@ -0,0 +1,151 @@
+package com.payment.benchmark.fake;
+
+import com.payment.benchmark.BenchmarkData;
+import com.payment.entity.TransactionMaster;
+import com.payment.repository.TransactionRepository;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Slice;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * TransactionRepository over one merchant's rows held in memory, newest first,
+ * so range lookups are binary searches like an index range scan would be.
+ */
+public class FakeTransactionRepository extends UnsupportedCrudRepository<TransactionMaster, Long>
+        implements TransactionRepository {
+
+    private final BenchmarkData data;
+
+    public FakeTransactionRepository(BenchmarkData data) {
+        this.data = data;
+    }
+
+    @Override
+    public List<TransactionMaster> findByMerchantId(String merchantId) {
+        return owns(merchantId) ? data.getRows() : List.of();
+    }
+
+    @Override
+    public boolean existsByMerchantId(String merchantId) {
+        return owns(merchantId);
+    }
+
+    @Override
+    public Page<TransactionMaster> findByMerchantId(String merchantId, Pageable pageable) {
+        List<TransactionMaster> rows = findByMerchantId(merchantId);
+        return Page.of(slice(rows, 0, rows.size(), pageable), pageable, (long) rows.size());
+    }
+
+    @Override
+    public Slice<TransactionMaster> listByMerchantId(String merchantId, Pageable pageable) {
+        List<TransactionMaster> rows = findByMerchantId(merchantId);
+        return Slice.of(slice(rows, 0, rows.size(), pageable), pageable);
+    }
+
+    @Override
+    public Page<TransactionMaster> findByMerchantAndDateRange(String merchantId, Instant startDate, Instant endDate,
+                                                              String status, Pageable pageable) {
+        if (!owns(merchantId)) {
+            return Page.of(List.of(), pageable, 0L);
+        }
+        int from = data.indexAtOrBefore(endDate);
+        int to = data.indexAfter(startDate);
+        if (status == null) {
+            return Page.of(slice(data.getRows(), from, to, pageable), pageable, (long) (to - from));
+        }
+        List<TransactionMaster> matching = filter(from, to, status);
+        return Page.of(slice(matching, 0, matching.size(), pageable), pageable, (long) matching.size());
+    }
+
+    @Override
+    public List<TransactionMaster> findFirstByMerchantAndDateRange(String merchantId, Instant startDate, Instant endDate,
+                                                                   String status, int limit) {
+        if (!owns(merchantId)) {
+            return List.of();
+        }
+        return take(data.indexAtOrBefore(endDate), data.indexAfter(startDate), status, limit);
+    }
+
+    @Override
+    public List<TransactionMaster> findNextByMerchantAndDateRange(String merchantId, Instant startDate, Instant endDate,
+                                                                  String status, Instant cursorTime, Long cursorTxnId,
+                                                                  int limit) {
+        if (!owns(merchantId)) {
+            return List.of();
+        }
+        int from = Math.max(data.indexAtOrBefore(endDate), data.indexAfterCursor(cursorTime, cursorTxnId));
+        return take(from, data.indexAfter(startDate), status, limit);
+    }
+
+    @Override
+    public long countByMerchantAndDateRange(String merchantId, Instant startDate, Instant endDate, String status) {
+        if (!owns(merchantId)) {
+            return 0L;
+        }
+        int from = data.indexAtOrBefore(endDate);
+        int to = data.indexAfter(startDate);
+        return status == null ? to - from : filter(from, to, status).size();
+    }
+
+    // The grouping is the database's work, the fake hands back the rows it would return
+    @Override
+    public List<SummaryRow> summarize(String merchantId, Instant startDate, Instant endDate) {
+        return owns(merchantId) ? data.getSummaryRows() : List.of();
+    }
+
+    @Override
+    public List<StatusCount> countByStatus(String merchantId, Instant startDate, Instant endDate) {
+        return owns(merchantId)
+                ? data.getSummaryRows().stream()
+                    .collect(Collectors.groupingBy(SummaryRow::getStatus, Collectors.summingLong(SummaryRow::getCount)))
+                    .entrySet().stream()
+                    .map(e -> new StatusCount(e.getKey(), e.getValue()))
+                    .collect(Collectors.toList())
+                : List.of();
+    }
+
+    // Rows are newest first with falling txn ids, the first row of the range has the highest
+    @Override
+    public RangeVersion findVersion(String merchantId, Instant startDate, Instant endDate) {
+        if (!owns(merchantId)) {
+            return new RangeVersion(0L, 0L);
+        }
+        int from = data.indexAtOrBefore(endDate);
+        int to = data.indexAfter(startDate);
+        return to > from ? new RangeVersion(to - from, data.getRows().get(from).getTxnId()) : new RangeVersion(0L, 0L);
+    }
+
+    private boolean owns(String merchantId) {
+        return data.getMerchantId().equals(merchantId);
+    }
+
+    private List<TransactionMaster> take(int from, int to, String status, int limit) {
+        if (status == null) {
+            return List.copyOf(data.getRows().subList(from, Math.max(from, Math.min(to, from + limit))));
+        }
+        return data.getRows().subList(from, Math.max(from, to)).stream()
+                .filter(row -> status.equals(row.getStatus().getValue()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private List<TransactionMaster> filter(int from, int to, String status) {
+        return data.getRows().subList(from, Math.max(from, to)).stream()
+                .filter(row -> status.equals(row.getStatus().getValue()))
+                .collect(Collectors.toList());
+    }
+
+    // Copies the page so callers see a materialised result set like JDBC would give them
+    private static List<TransactionMaster> slice(List<TransactionMaster> rows, int from, int to, Pageable pageable) {
+        long start = from + pageable.getOffset();
+        if (start >= to) {
+            return List.of();
+        }
+        int end = (int) Math.min(to, start + pageable.getSize());
+        return List.copyOf(rows.subList((int) start, end));
+    }
+}
@@ -0,0 +1,42 @@
+package com.payment.benchmark.fake;
+
+import com.payment.benchmark.BenchmarkData;
+import com.payment.entity.Member;
+import com.payment.repository.MemberRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+/**
+ * Fakes for repositories with a large generated surface (specification executor etc.)
+ * where the benchmarks only touch one or two methods. Calls go through a JDK proxy,
+ * which only matters on cache misses since these lookups sit behind LookupCache.
+ */
+public final class Fakes {
+
+    private Fakes() {
+    }
+
+    public static MemberRepository memberRepository(BenchmarkData data) {
+        Member member = data.getMember();
+        return (MemberRepository) Proxy.newProxyInstance(
+                MemberRepository.class.getClassLoader(),
+                new Class<?>[]{MemberRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByMemberCode")) {
+                        return member.getMemberCode().equals(args[0]) ? Optional.of(member) : Optional.empty();
+                    }
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "FakeMemberRepository";
+                        default:
+                            break;
+                    }
+                    throw new UnsupportedOperationException(method.getName() + " is not used by the benchmarks");
+                });
+    }
+}
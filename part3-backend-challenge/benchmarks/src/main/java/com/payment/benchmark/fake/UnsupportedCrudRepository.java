@@ -0,0 +1,76 @@
+package com.payment.benchmark.fake;
+
+import io.micronaut.data.repository.CrudRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Base for in-memory repository fakes, every CRUD operation the benchmarks don't use fails loudly.
+ */
+public abstract class UnsupportedCrudRepository<E, ID> implements CrudRepository<E, ID> {
+
+    @Override
+    public <S extends E> S save(S entity) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends E> S update(S entity) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends E> List<S> updateAll(Iterable<S> entities) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends E> List<S> saveAll(Iterable<S> entities) {
+        throw unsupported();
+    }
+
+    @Override
+    public Optional<E> findById(ID id) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean existsById(ID id) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<E> findAll() {
+        throw unsupported();
+    }
+
+    @Override
+    public long count() {
+        throw unsupported();
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        throw unsupported();
+    }
+
+    @Override
+    public void delete(E entity) {
+        throw unsupported();
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends E> entities) {
+        throw unsupported();
+    }
+
+    @Override
+    public void deleteAll() {
+        throw unsupported();
+    }
+
+    protected static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not used by the benchmarks");
+    }
+}
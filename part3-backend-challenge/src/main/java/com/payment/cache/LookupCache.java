@@ -0,0 +1,113 @@
+package com.payment.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.payment.entity.Member;
+import com.payment.repository.MemberRepository;
+import com.payment.repository.TransactionRepository;
+import jakarta.inject.Singleton;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Read-through cache for the lookups every listing starts with:
+ * merchant existence (existsByMerchantId) and member by code (findByMemberCode).
+ * Entries are bounded by size and expire after a TTL, misses expire after the shorter negative TTL.
+ */
+@Singleton
+public class LookupCache {
+
+    private final TransactionRepository transactionRepository;
+    private final MemberRepository memberRepository;
+    private final LookupCacheConfiguration configuration;
+
+    private final Cache<String, Boolean> merchantExists;
+    private final Cache<String, Optional<Member>> membersByCode;
+
+    public LookupCache(TransactionRepository transactionRepository,
+                       MemberRepository memberRepository,
+                       LookupCacheConfiguration configuration) {
+        this.transactionRepository = transactionRepository;
+        this.memberRepository = memberRepository;
+        this.configuration = configuration;
+        this.merchantExists = build(Boolean::booleanValue);
+        this.membersByCode = build(Optional::isPresent);
+    }
+
+    public boolean merchantExists(String merchantId) {
+        if (!configuration.isEnabled()) {
+            return transactionRepository.existsByMerchantId(merchantId);
+        }
+        return merchantExists.get(merchantId, transactionRepository::existsByMerchantId);
+    }
+
+    public Optional<Member> findMemberByCode(String memberCode) {
+        if (!configuration.isEnabled()) {
+            return memberRepository.findByMemberCode(memberCode);
+        }
+        return membersByCode.get(memberCode, memberRepository::findByMemberCode);
+    }
+
+    public void invalidateMember(String memberCode) {
+        membersByCode.invalidate(memberCode);
+    }
+
+    public void invalidateMerchant(String merchantId) {
+        merchantExists.invalidate(merchantId);
+    }
+
+    public void invalidateAll() {
+        merchantExists.invalidateAll();
+        membersByCode.invalidateAll();
+    }
+
+    // Hit / miss figures per cache for the management endpoint
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("merchantExists", describe(merchantExists));
+        stats.put("membersByCode", describe(membersByCode));
+        return stats;
+    }
+
+    private Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", cache.estimatedSize());
+        description.put("hitCount", stats.hitCount());
+        description.put("missCount", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("missRate", stats.missRate());
+        description.put("evictionCount", stats.evictionCount());
+        return description;
+    }
+
+    private <V> Cache<String, V> build(Predicate<V> positive) {
+        long ttlNanos = configuration.getTtl().toNanos();
+        long negativeTtlNanos = configuration.getNegativeTtl().toNanos();
+        return Caffeine.newBuilder()
+                .maximumSize(configuration.getMaximumSize())
+                .expireAfter(new Expiry<String, V>() {
+                    @Override
+                    public long expireAfterCreate(String key, V value, long currentTime) {
+                        return positive.test(value) ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.payment.cache;
+
+import io.micronaut.management.endpoint.annotation.Delete;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.Map;
+
+/**
+ * Management endpoint at /lookupcache with hit and miss rates of the lookup cache.
+ * DELETE clears both caches and is sensitive, so it needs an authenticated caller.
+ */
+@Endpoint(id = "lookupcache")
+public class LookupCacheEndpoint {
+
+    private final LookupCache lookupCache;
+
+    public LookupCacheEndpoint(LookupCache lookupCache) {
+        this.lookupCache = lookupCache;
+    }
+
+    @Read
+    public Map<String, Object> stats() {
+        return lookupCache.stats();
+    }
+
+    @Delete(sensitive = true)
+    public void invalidateAll() {
+        lookupCache.invalidateAll();
+    }
+}
@@ -0,0 +1,283 @@
+package com.payment.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.payment.dto.TransactionResponse;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache of offset-paged transaction listings. Pages of closed date ranges (ending before today, UTC) no longer
+ * change except through late writes, so they are kept for range-cache.closed-ttl; ranges reaching today are kept
+ * for the short open-ttl, or not at all when it is 0. Entries are weighed by their estimated heap size and evicted
+ * once range-cache.maximum-bytes is reached.
+ * <p>
+ * Late writes to past days (reversals, corrections, back-dated inserts, changes to details) drop the cached pages
+ * of every range covering the merchant's day: this application's own writes directly, every other writer through
+ * the transaction_history_changed notification (see {@link TransactionHistoryListener}). While that listener is
+ * not connected closed ranges are not cached. Cached responses are shared and must not be modified.
+ */
+@Singleton
+public class RangeResultCache {
+
+    // Rough heap footprint of the response DTO graph: envelope and summary, one transaction with its strings,
+    // amount and timestamp, one detail
+    private static final int RESPONSE_BYTES = 1_024;
+    private static final int TRANSACTION_BYTES = 480;
+    private static final int DETAIL_BYTES = 160;
+
+    private final RangeResultCacheConfiguration configuration;
+    private final Clock clock;
+    private final long settleMillis;
+
+    private final Cache<Key, TransactionResponse> results;
+    // Cached keys by merchant, so a late write only looks at the merchant's pages. May briefly hold a key that is
+    // no longer cached, never misses one that is
+    private final ConcurrentMap<String, Set<Key>> keysByMerchant = new ConcurrentHashMap<>();
+    // When each merchant was last invalidated, kept for twice the settle time so it outlives slow loads
+    private final Cache<String, Long> invalidatedAt;
+    private final LongAdder bypassCount = new LongAdder();
+
+    private volatile long allInvalidatedAt = Long.MIN_VALUE;
+    private volatile boolean listening;
+
+    @Inject
+    public RangeResultCache(RangeResultCacheConfiguration configuration) {
+        this(configuration, Clock.systemUTC());
+    }
+
+    RangeResultCache(RangeResultCacheConfiguration configuration, Clock clock) {
+        this.configuration = configuration;
+        this.clock = clock;
+        this.settleMillis = configuration.getSettleTime().toMillis();
+        long closedTtlNanos = configuration.getClosedTtl().toNanos();
+        long openTtlNanos = configuration.getOpenTtl().toNanos();
+        this.results = Caffeine.newBuilder()
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .maximumWeight(configuration.getMaximumBytes())
+                // Evicting on the writing thread keeps the budget when put returns, before a burst of pages piles up
+                .executor(Runnable::run)
+                .weigher((Key key, TransactionResponse response) -> weigh(response))
+                // Runs atomically with the eviction, before the key can be cached again
+                .evictionListener((Key key, TransactionResponse response, RemovalCause cause) -> unindex(key))
+                .expireAfter(new Expiry<Key, TransactionResponse>() {
+                    @Override
+                    public long expireAfterCreate(Key key, TransactionResponse value, long currentTime) {
+                        return isClosed(key, clock.millis()) ? closedTtlNanos : openTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, TransactionResponse value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, TransactionResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .expireAfterWrite(configuration.getSettleTime().multipliedBy(2))
+                .build();
+    }
+
+    /**
+     * The cached page for the key, or the loader's page, cached when its range allows it and no write to the
+     * merchant's past days was seen within the settle time before loading (the load may have read from a lagging
+     * replica or raced with that write).
+     */
+    public TransactionResponse get(Key key, Supplier<TransactionResponse> loader) {
+        long now = clock.millis();
+        if (!isCacheable(key, now)) {
+            bypassCount.increment();
+            return loader.get();
+        }
+        TransactionResponse cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        TransactionResponse loaded = loader.get();
+        if (isSettled(key.merchantId, now)) {
+            results.put(key, loaded);
+            // Indexed after the put: an eviction in between only leaves a stale index entry behind
+            keysByMerchant.compute(key.merchantId, (merchantId, keys) -> {
+                Set<Key> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                indexed.add(key);
+                return indexed;
+            });
+            // An invalidation between the check and the indexing found nothing to drop yet
+            if (!isSettled(key.merchantId, now)) {
+                results.invalidate(key);
+            }
+        }
+        return loaded;
+    }
+
+    // Drops the pages of every cached range of the merchant that covers the day. Writes of today are left to
+    // the open TTL, ranges reaching today are allowed to be that stale
+    public void invalidate(String merchantId, LocalDate txnDate) {
+        long now = clock.millis();
+        if (!txnDate.isBefore(day(Instant.ofEpochMilli(now)))) {
+            return;
+        }
+        invalidatedAt.put(merchantId, now);
+        Set<Key> keys = keysByMerchant.get(merchantId);
+        if (keys == null) {
+            return;
+        }
+        // Stale entries go too; a load of the merchant racing with this drops its own page, it is not settled
+        keys.removeIf(key -> {
+            boolean covered = !txnDate.isBefore(day(key.startDate)) && !txnDate.isAfter(day(key.endDate));
+            if (covered) {
+                results.invalidate(key);
+            }
+            return covered || !results.asMap().containsKey(key);
+        });
+        keysByMerchant.computeIfPresent(merchantId, (merchant, remaining) -> remaining.isEmpty() ? null : remaining);
+    }
+
+    public void invalidateAll() {
+        allInvalidatedAt = clock.millis();
+        results.invalidateAll();
+        keysByMerchant.clear();
+    }
+
+    // Hit / miss figures and the memory in use for the management endpoint
+    public Map<String, Object> stats() {
+        CacheStats stats = results.stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", results.estimatedSize());
+        description.put("weightedBytes", results.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        description.put("maximumBytes", configuration.getMaximumBytes());
+        description.put("hitCount", stats.hitCount());
+        description.put("missCount", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("bypassCount", bypassCount.sum());
+        description.put("evictionCount", stats.evictionCount());
+        description.put("listening", listening);
+        return description;
+    }
+
+    void setListening(boolean listening) {
+        this.listening = listening;
+    }
+
+    int indexedKeyCount() {
+        return keysByMerchant.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void unindex(Key key) {
+        keysByMerchant.computeIfPresent(key.merchantId, (merchantId, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    //    Helper deciding whether a range may be cached: never while disabled, closed ranges only while late writes
+    //    are heard of, ranges reaching today only with an open TTL
+    private boolean isCacheable(Key key, long now) {
+        if (!configuration.isEnabled()) {
+            return false;
+        }
+        if (isClosed(key, now)) {
+            return listening || !configuration.isListen();
+        }
+        return !configuration.getOpenTtl().isZero();
+    }
+
+    // The range ends before today; for the settle time after midnight yesterday still counts as open, rows of
+    // yesterday committed just before midnight may not have reached the replica yet
+    private boolean isClosed(Key key, long now) {
+        return day(key.endDate).isBefore(day(Instant.ofEpochMilli(now - settleMillis)));
+    }
+
+    private boolean isSettled(String merchantId, long loadStart) {
+        long threshold = loadStart - settleMillis;
+        Long merchantInvalidated = invalidatedAt.getIfPresent(merchantId);
+        return allInvalidatedAt < threshold && (merchantInvalidated == null || merchantInvalidated < threshold);
+    }
+
+    private static LocalDate day(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static int weigh(TransactionResponse response) {
+        List<TransactionResponse.Transaction> transactions = response.getTransactions();
+        long bytes = RESPONSE_BYTES;
+        if (transactions != null) {
+            for (TransactionResponse.Transaction transaction : transactions) {
+                bytes += TRANSACTION_BYTES;
+                if (transaction.getDetails() != null) {
+                    bytes += (long) transaction.getDetails().size() * DETAIL_BYTES;
+                }
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * One page of one listing: the range and filter with the paging and detail options of the request.
+     */
+    public static final class Key {
+        private final String merchantId;
+        private final Instant startDate;
+        private final Instant endDate;
+        private final String status;
+        private final int page;
+        private final int size;
+        private final boolean includeDetails;
+
+        public Key(String merchantId, Instant startDate, Instant endDate, String status,
+                   int page, int size, boolean includeDetails) {
+            this.merchantId = merchantId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.status = status;
+            this.page = page;
+            this.size = size;
+            this.includeDetails = includeDetails;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return page == key.page && size == key.size && includeDetails == key.includeDetails
+                    && merchantId.equals(key.merchantId) && startDate.equals(key.startDate)
+                    && endDate.equals(key.endDate) && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(merchantId, startDate, endDate, status, page, size, includeDetails);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.payment.cache;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the transaction page cache of closed date ranges, bound from range-cache.* in application.yml.
+ */
+@ConfigurationProperties("range-cache")
+public class RangeResultCacheConfiguration {
+
+    private boolean enabled = true;
+    private long maximumBytes = 64L * 1024 * 1024;
+    private Duration closedTtl = Duration.ofHours(1);
+    private Duration openTtl = Duration.ofSeconds(5);
+    private Duration settleTime = Duration.ofSeconds(10);
+    private boolean listen = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    public void setMaximumBytes(long maximumBytes) {
+        this.maximumBytes = maximumBytes;
+    }
+
+    public Duration getClosedTtl() {
+        return closedTtl;
+    }
+
+    public void setClosedTtl(Duration closedTtl) {
+        this.closedTtl = closedTtl;
+    }
+
+    public Duration getOpenTtl() {
+        return openTtl;
+    }
+
+    public void setOpenTtl(Duration openTtl) {
+        this.openTtl = openTtl;
+    }
+
+    public Duration getSettleTime() {
+        return settleTime;
+    }
+
+    public void setSettleTime(Duration settleTime) {
+        this.settleTime = settleTime;
+    }
+
+    public boolean isListen() {
+        return listen;
+    }
+
+    public void setListen(boolean listen) {
+        this.listen = listen;
+    }
+}
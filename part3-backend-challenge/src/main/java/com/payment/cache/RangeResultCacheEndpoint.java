@@ -0,0 +1,31 @@
+package com.payment.cache;
+
+import io.micronaut.management.endpoint.annotation.Delete;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.Map;
+
+/**
+ * Management endpoint at /rangecache with hit and miss rates and the memory in use of the range result cache.
+ * DELETE clears it and is sensitive, so it needs an authenticated caller.
+ */
+@Endpoint(id = "rangecache")
+public class RangeResultCacheEndpoint {
+
+    private final RangeResultCache rangeResultCache;
+
+    public RangeResultCacheEndpoint(RangeResultCache rangeResultCache) {
+        this.rangeResultCache = rangeResultCache;
+    }
+
+    @Read
+    public Map<String, Object> stats() {
+        return rangeResultCache.stats();
+    }
+
+    @Delete(sensitive = true)
+    public void invalidateAll() {
+        rangeResultCache.invalidateAll();
+    }
+}
@@ -0,0 +1,64 @@
+package com.payment.cache;
+
+import io.micronaut.core.annotation.Nullable;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A committed write to the transactions of one merchant's day, heard of on the transaction_history_changed channel
+ * and published by the {@link TransactionHistoryListener}. After a TRUNCATE merchant and day are null: every day of
+ * every merchant may have changed.
+ */
+public final class TransactionHistoryChangedEvent {
+
+    private static final TransactionHistoryChangedEvent ALL = new TransactionHistoryChangedEvent(null, null);
+
+    private final String merchantId;
+    private final LocalDate txnDate;
+
+    public TransactionHistoryChangedEvent(@Nullable String merchantId, @Nullable LocalDate txnDate) {
+        this.merchantId = merchantId;
+        this.txnDate = txnDate;
+    }
+
+    public static TransactionHistoryChangedEvent all() {
+        return ALL;
+    }
+
+    public boolean isAll() {
+        return merchantId == null;
+    }
+
+    @Nullable
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    @Nullable
+    public LocalDate getTxnDate() {
+        return txnDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransactionHistoryChangedEvent)) {
+            return false;
+        }
+        TransactionHistoryChangedEvent that = (TransactionHistoryChangedEvent) o;
+        return Objects.equals(merchantId, that.merchantId) && Objects.equals(txnDate, that.txnDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(merchantId, txnDate);
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "*" : merchantId + '|' + txnDate;
+    }
+}
@@ -0,0 +1,131 @@
+package com.payment.cache;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.jdbc.DataSourceResolver;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Listens on the transaction_history_changed channel, notified by the trg_transaction_history_notify triggers of
+ * transaction_master with a "merchantId|yyyy-mm-dd" payload ("*" after a TRUNCATE) for inserts dated before today
+ * and for every update and delete. Drops the affected pages from the {@link RangeResultCache} and publishes a
+ * {@link TransactionHistoryChangedEvent} for other in-process copies of the data.
+ * Keeps one connection of the default datasource, polled every range-cache.poll-interval. Until it is listening,
+ * and after losing the connection until it listens again, the cache keeps no closed ranges; reconnecting clears
+ * it, notifications sent in between are lost.
+ */
+@Singleton
+@Requires(property = "range-cache.listen", notEquals = "false")
+public class TransactionHistoryListener {
+
+    public static final String CHANNEL = "transaction_history_changed";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionHistoryListener.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource dataSource;
+    private final RangeResultCache rangeResultCache;
+    private final ApplicationEventPublisher<TransactionHistoryChangedEvent> eventPublisher;
+
+    private Connection connection;
+    private PGConnection pgConnection;
+
+    public TransactionHistoryListener(DataSource dataSource,
+                                      @Nullable DataSourceResolver dataSourceResolver,
+                                      RangeResultCache rangeResultCache,
+                                      ApplicationEventPublisher<TransactionHistoryChangedEvent> eventPublisher) {
+        this.dataSource = dataSourceResolver != null ? dataSourceResolver.resolve(dataSource) : dataSource;
+        this.rangeResultCache = rangeResultCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelay = "${range-cache.poll-interval:1s}")
+    public synchronized void poll() {
+        try {
+            if (connection == null || !connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                listen();
+            }
+            PGNotification[] notifications = pgConnection.getNotifications();
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    apply(notification.getParameter());
+                }
+            }
+        } catch (SQLException e) {
+            if (connection != null) {
+                LOG.warn("Lost the {} listener connection, closed date ranges are not cached: {}", CHANNEL, e.getMessage());
+            }
+            close();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        rangeResultCache.setListening(false);
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOG.debug("Closing the {} listener connection failed: {}", CHANNEL, e.getMessage());
+            }
+        }
+        connection = null;
+        pgConnection = null;
+    }
+
+    //    Helper (re)opening the connection; whatever was cached or copied before may have missed notifications
+    private void listen() throws SQLException {
+        close();
+        Connection opened = dataSource.getConnection();
+        try {
+            opened.setAutoCommit(true);
+            try (Statement statement = opened.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+            }
+            pgConnection = opened.unwrap(PGConnection.class);
+        } catch (SQLException e) {
+            opened.close();
+            throw e;
+        }
+        connection = opened;
+        rangeResultCache.invalidateAll();
+        rangeResultCache.setListening(true);
+        eventPublisher.publishEvent(TransactionHistoryChangedEvent.all());
+        LOG.info("Listening on {}, closed date ranges are cached", CHANNEL);
+    }
+
+    // "merchantId|yyyy-mm-dd", or "*" for every merchant and day
+    void apply(String payload) {
+        int separator = payload.lastIndexOf('|');
+        TransactionHistoryChangedEvent event = TransactionHistoryChangedEvent.all();
+        if (separator >= 0) {
+            try {
+                event = new TransactionHistoryChangedEvent(payload.substring(0, separator),
+                        LocalDate.parse(payload.substring(separator + 1)));
+            } catch (DateTimeParseException e) {
+                LOG.warn("Unexpected {} payload {}, treating it as a change to every day", CHANNEL, payload);
+            }
+        }
+        if (event.isAll()) {
+            rangeResultCache.invalidateAll();
+        } else {
+            rangeResultCache.invalidate(event.getMerchantId(), event.getTxnDate());
+        }
+        eventPublisher.publishEvent(event);
+    }
+}
@@ -0,0 +1,264 @@
+package com.payment.coalescer;
+
+import com.payment.exception.LimitExceededException;
+import com.payment.metrics.RequestTrace;
+import com.payment.metrics.SlowRequestLog;
+import com.payment.repository.TransactionWriteRepository;
+import com.payment.repository.TransactionWriteRepository.WriteRequest;
+import com.payment.repository.TransactionWriteRepository.WriteResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups transaction creates from concurrent requests into one multi-row INSERT.
+ * Requests are queued without holding a thread or a connection; each flusher thread takes what is queued and
+ * writes it once max-batch-rows are collected or max-delay has passed since the first one, whichever comes first.
+ * A burst of N requests costs about N / max-batch-rows statements instead of N, on flush-threads connections.
+ * The flushers run outside of any request, so each batch INSERT is added to the slow request trace of every
+ * request it wrote.
+ */
+@Singleton
+public class TransactionWriteCoalescer {
+
+    public static final String BATCH_TIMER = "transaction.write.batch";
+    public static final String BATCH_ROWS = "transaction.write.batch.rows";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionWriteCoalescer.class);
+
+    private static final long IDLE_POLL_MS = 100;
+
+    private final TransactionWriteRepository transactionWriteRepository;
+    private final MeterRegistry meterRegistry;
+    private final SlowRequestLog slowRequestLog;
+    private final boolean coalesce;
+    private final int maxBatchRows;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingWrite> queue;
+    private final DistributionSummary batchRows;
+    private final List<Thread> flushers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public TransactionWriteCoalescer(TransactionWriteRepository transactionWriteRepository,
+                                     MeterRegistry meterRegistry,
+                                     SlowRequestLog slowRequestLog,
+                                     TransactionWriteConfiguration configuration) {
+        this.transactionWriteRepository = transactionWriteRepository;
+        this.meterRegistry = meterRegistry;
+        this.slowRequestLog = slowRequestLog;
+        this.coalesce = configuration.isCoalesce();
+        this.maxBatchRows = Math.max(1, configuration.getMaxBatchRows());
+        this.maxDelayNanos = configuration.getMaxDelay().toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, configuration.getMaxPending()));
+        this.batchRows = DistributionSummary.builder(BATCH_ROWS)
+                .description("Transactions per coalesced INSERT")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        if (coalesce) {
+            for (int i = 0; i < Math.max(1, configuration.getFlushThreads()); i++) {
+                Thread flusher = new Thread(this::flushLoop, "transaction-write-" + i);
+                flusher.setDaemon(true);
+                flusher.start();
+                flushers.add(flusher);
+            }
+        }
+    }
+
+    /**
+     * Queues the request and returns its outcome once its batch is written.
+     * Fails right away with {@link LimitExceededException} when max-pending requests are already queued.
+     * With coalescing disabled the request is written on the calling thread, as a batch of one.
+     */
+    public CompletableFuture<WriteResult> submit(WriteRequest request) {
+        if (!coalesce) {
+            // Written on the request's thread, the repository call traces itself
+            PendingWrite pending = new PendingWrite(request, null);
+            write(List.of(pending));
+            return pending.result;
+        }
+        PendingWrite pending = new PendingWrite(request, slowRequestLog.currentTrace());
+        if (!running || !queue.offer(pending)) {
+            throw new LimitExceededException("Too many pending transaction writes");
+        }
+        return pending.result;
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    // Flushers finish what is queued before they stop, requests arriving meanwhile are rejected
+    @PreDestroy
+    public void close() {
+        running = false;
+        for (Thread flusher : flushers) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchRows);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchRows) {
+                    // Whatever is queued already is taken without waiting, the deadline only bounds the wait for more
+                    if (queue.drainTo(batch, maxBatchRows - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failAll(batch, new LimitExceededException("Transaction write was interrupted"));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        // The same key twice in one batch: the first request writes, the others get its outcome as a replay
+        Map<String, PendingWrite> writers = new LinkedHashMap<>(batch.size() * 2);
+        for (PendingWrite pending : batch) {
+            PendingWrite first = writers.putIfAbsent(pending.key(), pending);
+            if (first != null) {
+                first.duplicates.add(pending);
+            }
+        }
+        List<PendingWrite> unique = new ArrayList<>(writers.values());
+
+        long start = System.nanoTime();
+        String outcome = "ok";
+        try {
+            List<WriteResult> results = transactionWriteRepository.insert(requestsOf(unique));
+            trace(batch, System.nanoTime() - start, unique.size());
+            complete(unique, results);
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            trace(batch, System.nanoTime() - start, -1);
+            if (unique.size() == 1) {
+                failAll(unique, e);
+            } else {
+                // One bad row fails the whole statement; write the rows one by one so only its caller gets the error
+                LOG.debug("Batch of {} transactions rejected, writing them one by one: {}", unique.size(), e.getMessage());
+                for (PendingWrite pending : unique) {
+                    writeOne(pending);
+                }
+            }
+        } catch (RuntimeException e) {
+            outcome = "error";
+            trace(batch, System.nanoTime() - start, -1);
+            LOG.error("Could not write a batch of {} transactions", unique.size(), e);
+            failAll(unique, e);
+        }
+        batchRows.record(unique.size());
+        Timer.builder(BATCH_TIMER)
+                .description("Duration of one coalesced transaction INSERT")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void writeOne(PendingWrite pending) {
+        long start = System.nanoTime();
+        try {
+            List<WriteResult> results = transactionWriteRepository.insert(List.of(pending.request));
+            trace(List.of(pending), System.nanoTime() - start, 1);
+            complete(List.of(pending), results);
+        } catch (RuntimeException e) {
+            trace(List.of(pending), System.nanoTime() - start, -1);
+            failAll(List.of(pending), e);
+        }
+    }
+
+    // Recorded before the futures complete, while their requests are still waiting; rows is -1 for a failed INSERT
+    private static void trace(List<PendingWrite> batch, long nanos, long rows) {
+        for (PendingWrite pending : batch) {
+            if (pending.trace != null) {
+                pending.trace.recordStatement("TransactionWriteRepository", "insert", null, nanos, rows);
+            }
+        }
+    }
+
+    private static List<WriteRequest> requestsOf(List<PendingWrite> batch) {
+        List<WriteRequest> requests = new ArrayList<>(batch.size());
+        for (PendingWrite pending : batch) {
+            requests.add(pending.request);
+        }
+        return requests;
+    }
+
+    private static void complete(List<PendingWrite> batch, List<WriteResult> results) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite pending = batch.get(i);
+            WriteResult result = results.get(i);
+            pending.result.complete(result);
+            for (PendingWrite duplicate : pending.duplicates) {
+                duplicate.result.complete(new WriteResult(false, result.getTxnId(), result.getTxnDate(),
+                        result.getCreatedAt(), result.getRequestHash()));
+            }
+        }
+    }
+
+    private static void failAll(List<PendingWrite> batch, RuntimeException e) {
+        for (PendingWrite pending : batch) {
+            pending.result.completeExceptionally(e);
+            for (PendingWrite duplicate : pending.duplicates) {
+                duplicate.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class PendingWrite {
+        private final WriteRequest request;
+        // Trace of the request that submitted the write, null outside of a request
+        private final RequestTrace trace;
+        private final CompletableFuture<WriteResult> result = new CompletableFuture<>();
+        private final List<PendingWrite> duplicates = new ArrayList<>(0);
+
+        private PendingWrite(WriteRequest request, RequestTrace trace) {
+            this.request = request;
+            this.trace = trace;
+        }
+
+        private String key() {
+            return request.getTransaction().getMerchantId() + '\u0000' + request.getIdempotencyKey();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.payment.coalescer;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for API transaction creates, bound from transaction-write.* in application.yml.
+ */
+@ConfigurationProperties("transaction-write")
+public class TransactionWriteConfiguration {
+
+    private boolean coalesce = true;
+    private int maxBatchRows = 500;
+    private Duration maxDelay = Duration.ofMillis(5);
+    private int maxPending = 20_000;
+    private int flushThreads = 2;
+    private Duration writeTimeout = Duration.ofSeconds(10);
+    private Duration keyRetention = Duration.ofDays(7);
+
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    public void setCoalesce(boolean coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    public int getMaxBatchRows() {
+        return maxBatchRows;
+    }
+
+    public void setMaxBatchRows(int maxBatchRows) {
+        this.maxBatchRows = maxBatchRows;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public int getFlushThreads() {
+        return flushThreads;
+    }
+
+    public void setFlushThreads(int flushThreads) {
+        this.flushThreads = flushThreads;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    public Duration getKeyRetention() {
+        return keyRetention;
+    }
+
+    public void setKeyRetention(Duration keyRetention) {
+        this.keyRetention = keyRetention;
+    }
+}
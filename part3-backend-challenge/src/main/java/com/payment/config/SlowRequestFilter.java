@@ -0,0 +1,53 @@
+package com.payment.config;
+
+import com.payment.metrics.RequestTrace;
+import com.payment.metrics.ResponseBytesCustomizer;
+import com.payment.metrics.SlowRequestLog;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.server.netty.NettyHttpRequest;
+import io.netty.channel.Channel;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+/**
+ * Opens a trace for every request, kept as an attribute of the request and of its response. Repository calls add
+ * their statements to it and the trace is completed when the last response byte is written; requests over
+ * slow-request-log.threshold are logged with the breakdown.
+ */
+@Filter("/**")
+@Requires(property = "slow-request-log.enabled", notEquals = "false")
+public class SlowRequestFilter implements HttpServerFilter {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public SlowRequestFilter(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        // Numbered by ResponseBytesCustomizer, missing on connections it does not handle
+        String sequence = request.getHeaders().get(ResponseBytesCustomizer.SEQUENCE_HEADER);
+        if (!(request instanceof NettyHttpRequest<?> nettyRequest) || sequence == null) {
+            return chain.proceed(request);
+        }
+        RequestTrace trace = slowRequestLog.start(request);
+        Channel channel = nettyRequest.getChannelHandlerContext().channel();
+        ResponseBytesCustomizer.attach(channel, Long.parseLong(sequence), trace);
+
+        return Flux.from(chain.proceed(request))
+            .doOnNext(response -> {
+                response.setAttribute(SlowRequestLog.TRACE_ATTRIBUTE, trace);
+                trace.setResponse(
+                    request.getAttribute(HttpAttributes.URI_TEMPLATE, String.class).orElse(null),
+                    response.code()
+                );
+            });
+    }
+}
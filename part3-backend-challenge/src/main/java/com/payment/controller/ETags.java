@@ -0,0 +1,73 @@
+package com.payment.controller;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Weak ETags for the listing GETs. A tag hashes the version of the rows a response is built from (from the
+ * service: row count, highest txn_id and day revisions of a transaction range, or a member's txn_count and revision)
+ * with the request parameters that shape the page, so a poll whose If-None-Match still matches is answered 304
+ * before the page is loaded or serialized.
+ * <p>
+ * The same tag goes on the identity body and on the gzip or deflate body the server compresses from it, which is
+ * only allowed for weak validators (RFC 9110 section 8.8.1), and responses vary on Accept-Encoding.
+ */
+final class ETags {
+
+    // Clients and proxies may keep the page but have to revalidate it on every use
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private ETags() {
+    }
+
+    static String of(String version, Object... parameters) {
+        StringBuilder text = new StringBuilder(String.valueOf(version));
+        for (Object parameter : parameters) {
+            text.append('\n').append(parameter == null ? "\u0000" : parameter.toString());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.toString().getBytes(StandardCharsets.UTF_8));
+            // 128 bits are plenty to tell versions of one URL apart
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // If-None-Match uses the weak comparison: W/ prefixes are ignored and * matches any current representation
+    static boolean matches(@Nullable String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaqueTag = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaque(candidate.trim());
+            if (tag.equals("*") || tag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T> MutableHttpResponse<T> notModified(String etag) {
+        return tag(HttpResponse.notModified(), etag);
+    }
+
+    static <T> MutableHttpResponse<T> tag(MutableHttpResponse<T> response, String etag) {
+        return response
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -3,11 +3,16 @@ package com.payment.controller;
 import com.payment.dto.*;
 import com.payment.service.MemberService;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import jakarta.validation.Valid;
 
+// Blocking JDBC calls: runs on virtual threads on JDK 21+, on the IO pool otherwise (micronaut.executors.blocking)
 @Controller("/api/v1/merchants")
+@ExecuteOn(TaskExecutors.BLOCKING)
 public class MemberController {
 
     private final MemberService memberService;
@@ -28,19 +33,31 @@ public class MemberController {
             @Nullable @QueryValue String sortBy,
             @Nullable @QueryValue String sortOrder,
             @QueryValue(defaultValue = "1") int page,
-            @QueryValue(defaultValue = "20") int size) {
+            @QueryValue(defaultValue = "20") int size,
+            @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+
+        String etag = ETags.of(memberService.findAllVersion(), search, memberType, status, sortBy, sortOrder, page, size);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
 
         MemberListResponse response = memberService.findAll(
             search, memberType, status, sortBy, sortOrder, page, size
         );
         
-        return HttpResponse.ok(response);
+        return ETags.tag(HttpResponse.ok(response), etag);
     }
 
     @Get("/{memberId}")
-    public HttpResponse<MemberResponse> findById(@PathVariable Long memberId) {
+    public HttpResponse<MemberResponse> findById(@PathVariable Long memberId,
+                                                 @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         MemberResponse response = memberService.findById(memberId);
-        return HttpResponse.ok(response);
+        // One row, its updatedAt is the version; only serialization is saved
+        String etag = ETags.of(response.getUpdatedAt(), memberId);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        return ETags.tag(HttpResponse.ok(response), etag);
     }
 
     @Post
@@ -63,17 +80,29 @@ public class MemberController {
     }
 
     @Get("/{memberId}/stats")
-    public HttpResponse<MemberStatsResponse> getStats(@PathVariable String memberCode) {
+    public HttpResponse<MemberStatsResponse> getStats(@PathVariable("memberId") String memberCode,
+                                                      @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        String etag = ETags.of(memberService.getTransactionsVersion(memberCode), "stats", memberCode);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
         MemberStatsResponse stats = memberService.getStats(memberCode);
-        return HttpResponse.ok(stats);
+        return ETags.tag(HttpResponse.ok(stats), etag);
     }
 
     @Get("/{memberId}/transactions")
     public HttpResponse<MemberTransactionListResponse> getTransactions(
-            @PathVariable String memberCode,
+            @PathVariable("memberId") String memberCode,
             @QueryValue(defaultValue = "0") int page,
-            @QueryValue(defaultValue = "10") int size) {
-        MemberTransactionListResponse response = memberService.getTransactions(memberCode, page, size);
-        return HttpResponse.ok(response);
+            @QueryValue(defaultValue = "10") int size,
+            @QueryValue(defaultValue = "true") boolean includeTotal,
+            @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        String etag = ETags.of(memberService.getTransactionsVersion(memberCode), "transactions", memberCode,
+            page, size, includeTotal);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        MemberTransactionListResponse response = memberService.getTransactions(memberCode, page, size, includeTotal);
+        return ETags.tag(HttpResponse.ok(response), etag);
     }
 }
@@ -1,6 +1,11 @@
 package com.payment.controller;
 
+import com.payment.dto.TransactionCreateRequest;
+import com.payment.dto.TransactionCreateResponse;
 import com.payment.dto.TransactionResponse;
+import com.payment.dto.TransactionResponseWriter;
+import com.payment.service.TransactionCreateService;
+import com.payment.service.TransactionExportService;
 import com.payment.service.TransactionService;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.annotation.Controller;
@@ -10,23 +15,31 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.Post;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.annotation.QueryValue;
 import io.micronaut.http.annotation.Header;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.netty.buffer.ByteBuf;
 import io.swagger.v3.oas.annotations.Operation;
-import com.payment.entity.TransactionMaster;
-import com.payment.repository.TransactionRepository;
+import jakarta.validation.Valid;
+import org.reactivestreams.Publisher;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Transaction Controller - BASIC IMPLEMENTATION PROVIDED
@@ -41,27 +54,40 @@ import java.util.Optional;
  * 7. Add error handling
  */
 @Controller("/api/v1/merchants")
+@ExecuteOn(TaskExecutors.BLOCKING)
 @Tag(name = "Transactions")
 public class TransactionController {
 
+    private static final MediaType NDJSON = new MediaType("application/x-ndjson");
+
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionCreateService transactionCreateService;
+    private final TransactionResponseWriter transactionResponseWriter;
     
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionExportService transactionExportService,
+                                 TransactionCreateService transactionCreateService,
+                                 TransactionResponseWriter transactionResponseWriter) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.transactionCreateService = transactionCreateService;
+        this.transactionResponseWriter = transactionResponseWriter;
     }
     @Get("/{merchantId}/transactions")
     @Operation(
         summary = "Get merchant transactions",
-        description = "Returns paginated list of transactions for a merchant. TODO: Implement proper pagination, filtering, and database queries."
+        description = "Returns paginated list of transactions for a merchant. Responses carry a weak ETag of the range's version (transaction count, highest txnId and day revisions) and the query; a poll with a matching If-None-Match is answered 304 without loading the page."
     )
     @ApiResponse(
             responseCode = "200",
             description = "Fetched Merchant Transactions Successfully.",
             content=@Content(schema = @Schema(implementation = TransactionResponse.class))
     )
+    @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match")
     @ApiResponse(responseCode = "400", description = "Invalid input parameters")
     @ApiResponse(responseCode = "404", description = "Merchant not found")
-    public HttpResponse<TransactionResponse> getTransactions(
+    public HttpResponse<ByteBuf> getTransactions(
             @PathVariable
             @Parameter(description = "Merchant ID", example = "MCH-001")
             String merchantId,
@@ -85,7 +111,29 @@ public class TransactionController {
             @QueryValue
             @Nullable
             @Parameter(description = "Transaction status filter", example = "COMPLETED")
-            String status
+            String status,
+
+            @QueryValue(defaultValue = "true")
+            @Parameter(description = "Include transaction details (fees, taxes, adjustments) for each row", example = "true")
+            boolean includeDetails,
+
+            @QueryValue(defaultValue = "offset")
+            @Parameter(description = "Paging mode: offset (page/size) or keyset (cursor/size)", example = "offset")
+            String paging,
+
+            @QueryValue
+            @Nullable
+            @Parameter(description = "Opaque cursor from pagination.nextCursor, keyset mode only")
+            String cursor,
+
+            @QueryValue(defaultValue = "true")
+            @Parameter(description = "Compute totalElements/totalPages, keyset mode only", example = "true")
+            boolean includeTotal,
+
+            @Header(HttpHeaders.IF_NONE_MATCH)
+            @Nullable
+            @Parameter(description = "ETag of a previous response, answered 304 while the result is unchanged")
+            String ifNoneMatch
             ) {
         Instant start = parseDate(startDate, "startDate");
         Instant end = parseDate(endDate, "endDate");
@@ -97,38 +145,135 @@ public class TransactionController {
             throw new IllegalArgumentException("Page size must be greater than 1");
         }
 
-        TransactionResponse response = TransactionService.getTransactions(
+        boolean keyset = "keyset".equalsIgnoreCase(paging);
+        if (!keyset && !"offset".equalsIgnoreCase(paging)) {
+            throw new IllegalArgumentException("paging must be offset or keyset got: " + paging);
+        }
+
+        //        Checked before the page is loaded, dashboards poll unchanged ranges
+        String etag = ETags.of(transactionService.getTransactionsVersion(merchantId, start, end),
+                merchantId, start, end, status, size, includeDetails,
+                keyset ? "keyset" : "offset", keyset ? cursor : page, keyset && includeTotal);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        if (keyset) {
+            return ETags.tag(json(transactionService.getTransactionsByCursor(
+                    merchantId,
+                    start,
+                    end,
+                    status,
+                    cursor,
+                    size,
+                    includeDetails,
+                    includeTotal
+            )), etag);
+        }
+
+        TransactionResponse response = transactionService.getTransactions(
                 merchantId,
                 start,
                 end,
                 status,
                 page,
-                size
+                size,
+                includeDetails
         );
-        return HttpResponse.ok(response);
+        return ETags.tag(json(response), etag);
     }
 
-//    @Post("/{merchantId}/transactions")
-//    @Operation(
-//        summary = "Create new transaction",
-//        description = "Creates a new transaction for a merchant. TODO: Add validation, error handling, and business logic."
-//    )
-//    public HttpResponse<Map<String, Object>> createTransaction(
-//            @PathVariable String merchantId,
-//            @Body TransactionMaster transaction
-//    ) {
-//        // TODO: Add validation
-//        // TODO: Add error handling
-//        // TODO: Move to service layer
-//        transaction.setMerchantId(merchantId);
-//        TransactionMaster saved = transactionRepository.save(transaction);
-//        return HttpResponse.created(Map.of(
-//            "message", "Transaction created",
-//            "transactionId", saved.getTxnId(),
-//            "note", "TODO: Add proper validation and error handling"
-//        ));
-//    }
+    @Get(value = "/{merchantId}/transactions/export", produces = {"application/x-ndjson", MediaType.TEXT_CSV})
+    @Operation(
+        summary = "Export merchant transactions",
+        description = "Streams every transaction in the date range with its details as NDJSON (one transaction per line) or CSV (one line per transaction detail). Memory use does not depend on the size of the range."
+    )
+    @ApiResponse(responseCode = "200", description = "Export stream")
+    @ApiResponse(responseCode = "400", description = "Invalid input parameters")
+    @ApiResponse(responseCode = "404", description = "Merchant not found")
+    public HttpResponse<Publisher<byte[]>> exportTransactions(
+            @PathVariable
+            @Parameter(description = "Merchant ID", example = "MCH-001")
+            String merchantId,
 
+            @QueryValue
+            @Parameter(description = "Start date", example = "2025-11-16", required = true)
+            String startDate,
+
+            @QueryValue
+            @Parameter(description = "End date", example = "2025-11-18", required = true)
+            String endDate,
+
+            @QueryValue
+            @Nullable
+            @Parameter(description = "Transaction status filter", example = "COMPLETED")
+            String status,
+
+            @QueryValue(defaultValue = "ndjson")
+            @Parameter(description = "Export format: ndjson or csv", example = "ndjson")
+            String format
+    ) {
+        Instant start = parseDate(startDate, "startDate");
+        Instant end = parseDate(endDate, "endDate");
+        TransactionExportService.Format exportFormat = parseFormat(format);
+
+        Publisher<byte[]> body = transactionExportService.export(merchantId, start, end, status, exportFormat);
+        String extension = exportFormat.name().toLowerCase(Locale.ROOT);
+        return HttpResponse.ok(body)
+                .contentType(exportFormat == TransactionExportService.Format.CSV ? MediaType.TEXT_CSV_TYPE : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + merchantId + "_" + startDate + "_" + endDate + "." + extension + "\"");
+    }
+
+    @Post("/{merchantId}/transactions")
+    @Operation(
+        summary = "Create new transaction",
+        description = "Creates one transaction for the merchant. Concurrent creates are coalesced into one multi-row INSERT (transaction-write.max-batch-rows rows or transaction-write.max-delay, whichever comes first); each caller gets its own txnId. An Idempotency-Key is required: a retry with the same key and body returns the stored transaction with replayed=true, the same key with a different body is rejected."
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "Transaction created",
+            content = @Content(schema = @Schema(implementation = TransactionCreateResponse.class))
+    )
+    @ApiResponse(responseCode = "200", description = "Replay of an earlier request with this Idempotency-Key, nothing was written")
+    @ApiResponse(responseCode = "400", description = "Missing Idempotency-Key or invalid transaction")
+    @ApiResponse(responseCode = "409", description = "Idempotency-Key already used for a different transaction")
+    @ApiResponse(responseCode = "503", description = "Write queue full or write timed out, retry with the same Idempotency-Key")
+    public CompletableFuture<HttpResponse<TransactionCreateResponse>> createTransaction(
+            @PathVariable
+            @Parameter(description = "Merchant ID", example = "MCH-001")
+            String merchantId,
+
+            @Header("Idempotency-Key")
+            @Nullable
+            @Parameter(description = "Client key of the transaction, reused on retries", example = "auth-7f3c2a9e")
+            String idempotencyKey,
+
+            @Valid
+            @Body
+            TransactionCreateRequest request
+    ) {
+        return transactionCreateService.createTransaction(merchantId, idempotencyKey, request)
+                .thenApply(created -> created.isReplayed()
+                        ? HttpResponse.ok(created)
+                        : HttpResponse.created(created));
+    }
+
+
+//    Helper writing the page with the streaming writer, the transactions array is the bulk of a large page
+private MutableHttpResponse<ByteBuf> json(TransactionResponse response) {
+    return HttpResponse.ok(transactionResponseWriter.write(response))
+            .contentType(MediaType.APPLICATION_JSON_TYPE);
+}
+
+//    Helper to parse the export format
+private TransactionExportService.Format parseFormat(String format) {
+    try {
+        return TransactionExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("format must be ndjson or csv got: " + format);
+    }
+}
 
 //    Helper to parse Date
 private Instant parseDate(String dateString, String fieldName) {
@@ -0,0 +1,78 @@
+package com.payment.controller;
+
+import com.payment.dto.TransactionImportResponse;
+import com.payment.service.TransactionImportService;
+import com.payment.util.BoundedInputStream;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.convert.format.ReadableBytes;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.InputStream;
+
+/**
+ * Bulk ingestion of acquirer feeds. The body is read as a stream on the blocking executor and copied into the
+ * database chunk by chunk. This is the only route whose body may go past the 10 MB max-request-buffer-size; it is
+ * bounded by transaction-import.max-request-size instead and answered with 413 past that.
+ */
+@Controller("/api/v1/transactions")
+@ExecuteOn(TaskExecutors.BLOCKING)
+@Tag(name = "Transactions")
+public class TransactionImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final TransactionImportService transactionImportService;
+    private final long maxRequestSize;
+
+    public TransactionImportController(TransactionImportService transactionImportService,
+                                       @Property(name = "transaction-import.max-request-size") @ReadableBytes long maxRequestSize) {
+        this.transactionImportService = transactionImportService;
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    @Post(value = "/imports", consumes = {NDJSON, MediaType.TEXT_CSV})
+    @Operation(
+        summary = "Bulk import transactions",
+        description = "Imports transactions with their details from NDJSON (one TransactionMaster object per line, details nested in \"details\") or CSV (one line per transaction detail, lines sharing a txn_ref form one transaction). Rows are written with COPY in chunks of transaction-import.chunk-rows transactions, each chunk committed on its own. Retrying with the same Idempotency-Key skips the chunks already imported."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Import finished, or had already finished for this key",
+            content = @Content(schema = @Schema(implementation = TransactionImportResponse.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Missing key or invalid row; chunks before the bad row stay imported")
+    @ApiResponse(responseCode = "413", description = "Body larger than transaction-import.max-request-size; chunks read before stay imported")
+    public HttpResponse<TransactionImportResponse> importTransactions(
+            @Header("Idempotency-Key")
+            @Nullable
+            @Parameter(description = "Client key of the feed, reused on retries", example = "acquirer-feed-2025-11-16")
+            String importKey,
+
+            @Header(HttpHeaders.CONTENT_TYPE)
+            String contentType,
+
+            @Body
+            InputStream body
+    ) {
+        TransactionImportService.Format format = MediaType.of(contentType).getName().equals(MediaType.TEXT_CSV)
+                ? TransactionImportService.Format.CSV
+                : TransactionImportService.Format.NDJSON;
+        return HttpResponse.ok(transactionImportService.importTransactions(
+                importKey, new BoundedInputStream(body, maxRequestSize), format));
+    }
+}
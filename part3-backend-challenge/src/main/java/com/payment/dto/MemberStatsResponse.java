@@ -2,11 +2,13 @@ package com.payment.dto;
 
 import io.micronaut.serde.annotation.Serdeable;
 
+import java.math.BigDecimal;
+
 @Serdeable
 public class MemberStatsResponse {
     private Long totalTransactions;
-    private Double totalRevenue;
-    private Double avgTransactionAmount;
+    private BigDecimal totalRevenue;
+    private BigDecimal avgTransactionAmount;
     private String lastTransactionDate;
 
     public Long getTotalTransactions() {
@@ -17,19 +19,19 @@ public class MemberStatsResponse {
         this.totalTransactions = totalTransactions;
     }
 
-    public Double getTotalRevenue() {
+    public BigDecimal getTotalRevenue() {
         return totalRevenue;
     }
 
-    public void setTotalRevenue(Double totalRevenue) {
+    public void setTotalRevenue(BigDecimal totalRevenue) {
         this.totalRevenue = totalRevenue;
     }
 
-    public Double getAvgTransactionAmount() {
+    public BigDecimal getAvgTransactionAmount() {
         return avgTransactionAmount;
     }
 
-    public void setAvgTransactionAmount(Double avgTransactionAmount) {
+    public void setAvgTransactionAmount(BigDecimal avgTransactionAmount) {
         this.avgTransactionAmount = avgTransactionAmount;
     }
 
@@ -28,8 +28,8 @@ public class MemberTransactionListResponse {
     public static class Pagination {
         private int currentPage;
         private int pageSize;
-        private int totalPages;
-        private long totalRecords;
+        private Integer totalPages;
+        private Long totalRecords;
 
         public int getCurrentPage() {
             return currentPage;
@@ -47,19 +47,19 @@ public class MemberTransactionListResponse {
             this.pageSize = pageSize;
         }
 
-        public int getTotalPages() {
+        public Integer getTotalPages() {
             return totalPages;
         }
 
-        public void setTotalPages(int totalPages) {
+        public void setTotalPages(Integer totalPages) {
             this.totalPages = totalPages;
         }
 
-        public long getTotalRecords() {
+        public Long getTotalRecords() {
             return totalRecords;
         }
 
-        public void setTotalRecords(long totalRecords) {
+        public void setTotalRecords(Long totalRecords) {
             this.totalRecords = totalRecords;
         }
     }
@@ -0,0 +1,135 @@
+package com.payment.dto;
+
+import io.micronaut.serde.annotation.Serdeable;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Serdeable
+public class TransactionCreateRequest {
+
+    private Long gpAcquirerId;
+    private Long gpIssuerId;
+
+    // Defaults to the UTC date of localTxnDateTime
+    private LocalDate txnDate;
+
+    @NotNull(message = "localTxnDateTime is required")
+    private Instant localTxnDateTime;
+
+    @NotNull(message = "amount is required")
+    @Digits(integer = 13, fraction = 2, message = "amount must have at most 13 integer and 2 fraction digits")
+    private BigDecimal amount;
+
+    @Size(min = 3, max = 3, message = "currency must be a 3 letter code")
+    private String currency;
+
+    @NotBlank(message = "status is required")
+    private String status;
+
+    @Size(max = 20, message = "cardType must not exceed 20 characters")
+    private String cardType;
+
+    @Pattern(regexp = "\\d{4}", message = "cardLast4 must be 4 digits")
+    private String cardLast4;
+
+    @Size(max = 20, message = "authCode must not exceed 20 characters")
+    private String authCode;
+
+    @Size(max = 10, message = "responseCode must not exceed 10 characters")
+    private String responseCode;
+
+    public Long getGpAcquirerId() {
+        return gpAcquirerId;
+    }
+
+    public void setGpAcquirerId(Long gpAcquirerId) {
+        this.gpAcquirerId = gpAcquirerId;
+    }
+
+    public Long getGpIssuerId() {
+        return gpIssuerId;
+    }
+
+    public void setGpIssuerId(Long gpIssuerId) {
+        this.gpIssuerId = gpIssuerId;
+    }
+
+    public LocalDate getTxnDate() {
+        return txnDate;
+    }
+
+    public void setTxnDate(LocalDate txnDate) {
+        this.txnDate = txnDate;
+    }
+
+    public Instant getLocalTxnDateTime() {
+        return localTxnDateTime;
+    }
+
+    public void setLocalTxnDateTime(Instant localTxnDateTime) {
+        this.localTxnDateTime = localTxnDateTime;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCardType() {
+        return cardType;
+    }
+
+    public void setCardType(String cardType) {
+        this.cardType = cardType;
+    }
+
+    public String getCardLast4() {
+        return cardLast4;
+    }
+
+    public void setCardLast4(String cardLast4) {
+        this.cardLast4 = cardLast4;
+    }
+
+    public String getAuthCode() {
+        return authCode;
+    }
+
+    public void setAuthCode(String authCode) {
+        this.authCode = authCode;
+    }
+
+    public String getResponseCode() {
+        return responseCode;
+    }
+
+    public void setResponseCode(String responseCode) {
+        this.responseCode = responseCode;
+    }
+}
@@ -0,0 +1,136 @@
+package com.payment.dto;
+
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Serdeable
+public class TransactionImportResponse {
+
+    public static final String STATUS_IMPORTED = "imported";
+    public static final String STATUS_ALREADY_IMPORTED = "already_imported";
+
+    private String importKey;
+    private String status;
+    private long transactions;
+    private long details;
+    private int skippedChunks;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private List<Chunk> chunks = new ArrayList<>();
+
+    public String getImportKey() {
+        return importKey;
+    }
+
+    public void setImportKey(String importKey) {
+        this.importKey = importKey;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(long transactions) {
+        this.transactions = transactions;
+    }
+
+    public long getDetails() {
+        return details;
+    }
+
+    public void setDetails(long details) {
+        this.details = details;
+    }
+
+    public int getSkippedChunks() {
+        return skippedChunks;
+    }
+
+    public void setSkippedChunks(int skippedChunks) {
+        this.skippedChunks = skippedChunks;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<Chunk> chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * One chunk of the import. skipped chunks were imported by an earlier request with the same key,
+     * copyMs and rowsPerSecond are those of the COPY statements, master and detail rows together.
+     */
+    @Serdeable
+    public static class Chunk {
+        private int chunk;
+        private int transactions;
+        private int details;
+        private boolean skipped;
+        private long copyMs;
+        private long rowsPerSecond;
+
+        public Chunk() {
+        }
+
+        public Chunk(int chunk, int transactions, int details, boolean skipped, long copyMs) {
+            this.chunk = chunk;
+            this.transactions = transactions;
+            this.details = details;
+            this.skipped = skipped;
+            this.copyMs = copyMs;
+            this.rowsPerSecond = skipped ? 0 : (transactions + details) * 1000L / Math.max(copyMs, 1);
+        }
+
+        public int getChunk() {
+            return chunk;
+        }
+
+        public int getTransactions() {
+            return transactions;
+        }
+
+        public int getDetails() {
+            return details;
+        }
+
+        public boolean isSkipped() {
+            return skipped;
+        }
+
+        public long getCopyMs() {
+            return copyMs;
+        }
+
+        public long getRowsPerSecond() {
+            return rowsPerSecond;
+        }
+    }
+}
@@ -1,16 +1,14 @@
 package com.payment.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-
-import com.vladsch.flexmark.ext.ins.Ins;
 import io.micronaut.serde.annotation.Serdeable;
-import lombok.Getter;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
+@Serdeable
 public class TransactionResponse {
 
     @JsonProperty("merchantId")
@@ -75,6 +73,9 @@ public class TransactionResponse {
         @JsonProperty("byStatus")
         private Map<String, Integer> byStatus;
 
+        @JsonProperty("byCurrency")
+        private Map<String, BigDecimal> byCurrency;
+
         public Summary() {}
 
         public Integer getTotalTransactions() {
@@ -108,9 +109,16 @@ public class TransactionResponse {
         public void setByStatus(Map<String, Integer> byStatus) {
             this.byStatus = byStatus;
         }
+
+        public Map<String, BigDecimal> getByCurrency() {
+            return byCurrency;
+        }
+
+        public void setByCurrency(Map<String, BigDecimal> byCurrency) {
+            this.byCurrency = byCurrency;
+        }
     }
 
-    @Getter
     @Serdeable
     public static class Transaction{
         @JsonProperty("txnId")
@@ -266,7 +274,6 @@ public class TransactionResponse {
         }
     }
 
-    @Getter
     @Serdeable
     public static class Pagination{
         @JsonProperty("page")
@@ -281,6 +288,9 @@ public class TransactionResponse {
         @JsonProperty("totalElements")
         private Long totalElements;
 
+        @JsonProperty("nextCursor")
+        private String nextCursor;
+
         public Pagination(Integer page, Integer size, Integer totalPages, Long totalElements) {
             this.page = page;
             this.size = size;
@@ -319,6 +329,14 @@ public class TransactionResponse {
         public void setTotalElements(Long totalElements) {
             this.totalElements = totalElements;
         }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
     }
 
     public TransactionResponse() {
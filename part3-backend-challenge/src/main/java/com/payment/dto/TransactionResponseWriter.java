@@ -0,0 +1,264 @@
+package com.payment.dto;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a TransactionResponse as JSON straight into a pooled Netty buffer with Jackson's streaming generator.
+ * The output is the same as the Serde serialization of the DTO (null values and empty collections left out),
+ * without going through the generic bean serializers for every transaction and detail of the page.
+ */
+@Singleton
+public class TransactionResponseWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Typical serialized sizes, so most pages fit the first buffer
+    private static final int ENVELOPE_BYTES = 512;
+    private static final int TRANSACTION_BYTES = 200;
+    private static final int DETAIL_BYTES = 64;
+    // Formatted instants have at most 30 characters (9 fraction digits)
+    private static final int INSTANT_CHARS = 32;
+
+    private final ByteBufAllocator allocator;
+
+    public TransactionResponseWriter() {
+        this.allocator = ByteBufAllocator.DEFAULT;
+    }
+
+    /**
+     * The response as UTF-8 JSON. The caller owns the returned buffer; handed to Netty as a response body it is
+     * released once written.
+     */
+    public ByteBuf write(TransactionResponse response) {
+        ByteBuf buffer = allocator.buffer(estimateBytes(response));
+        OutputStream out = new ByteBufOutputStream(buffer);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            writeResponse(generator, response, new char[INSTANT_CHARS]);
+        } catch (IOException | RuntimeException e) {
+            buffer.release();
+            throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+        }
+        return buffer;
+    }
+
+    private static void writeResponse(JsonGenerator generator, TransactionResponse response, char[] scratch) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "merchantId", response.getMerchantId());
+
+        TransactionResponse.DateRange dateRange = response.getDateRange();
+        if (dateRange != null) {
+            generator.writeObjectFieldStart("dateRange");
+            writeInstant(generator, "start", dateRange.getStart(), scratch);
+            writeInstant(generator, "end", dateRange.getEnd(), scratch);
+            generator.writeEndObject();
+        }
+
+        TransactionResponse.Summary summary = response.getSummary();
+        if (summary != null) {
+            writeSummary(generator, summary);
+        }
+
+        List<TransactionResponse.Transaction> transactions = response.getTransactions();
+        if (!isEmpty(transactions)) {
+            generator.writeArrayFieldStart("transactions");
+            for (TransactionResponse.Transaction transaction : transactions) {
+                writeTransaction(generator, transaction, scratch);
+            }
+            generator.writeEndArray();
+        }
+
+        TransactionResponse.Pagination pagination = response.getPagination();
+        if (pagination != null) {
+            generator.writeObjectFieldStart("pagination");
+            writeNumber(generator, "page", pagination.getPage());
+            writeNumber(generator, "size", pagination.getSize());
+            writeNumber(generator, "totalPages", pagination.getTotalPages());
+            writeNumber(generator, "totalElements", pagination.getTotalElements());
+            writeString(generator, "nextCursor", pagination.getNextCursor());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeSummary(JsonGenerator generator, TransactionResponse.Summary summary) throws IOException {
+        generator.writeObjectFieldStart("summary");
+        writeNumber(generator, "totalTransactions", summary.getTotalTransactions());
+        writeDecimal(generator, "totalAmount", summary.getTotalAmount());
+        writeString(generator, "currency", summary.getCurrency());
+        Map<String, Integer> byStatus = summary.getByStatus();
+        if (byStatus != null && !byStatus.isEmpty()) {
+            generator.writeObjectFieldStart("byStatus");
+            for (Map.Entry<String, Integer> entry : byStatus.entrySet()) {
+                writeNumber(generator, entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+        }
+        Map<String, BigDecimal> byCurrency = summary.getByCurrency();
+        if (byCurrency != null && !byCurrency.isEmpty()) {
+            generator.writeObjectFieldStart("byCurrency");
+            for (Map.Entry<String, BigDecimal> entry : byCurrency.entrySet()) {
+                writeDecimal(generator, entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeTransaction(JsonGenerator generator, TransactionResponse.Transaction transaction,
+                                         char[] scratch) throws IOException {
+        generator.writeStartObject();
+        writeNumber(generator, "txnId", transaction.getTxnId());
+        writeDecimal(generator, "amount", transaction.getAmount());
+        writeString(generator, "currency", transaction.getCurrency());
+        writeString(generator, "status", transaction.getStatus());
+        writeInstant(generator, "timestamp", transaction.getTimestamp(), scratch);
+        writeString(generator, "cardType", transaction.getCardType());
+        writeString(generator, "cardLast4", transaction.getCardLast4());
+        writeString(generator, "acquirer", transaction.getAcquirer());
+        writeString(generator, "issuer", transaction.getIssuer());
+        List<TransactionResponse.Detail> details = transaction.getDetails();
+        if (!isEmpty(details)) {
+            generator.writeArrayFieldStart("details");
+            for (TransactionResponse.Detail detail : details) {
+                generator.writeStartObject();
+                writeString(generator, "type", detail.getType());
+                writeDecimal(generator, "amount", detail.getAmount());
+                writeString(generator, "currency", detail.getCurrency());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    //    Helpers leaving out null and empty values like Serde's default inclusion
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static void writeInstant(JsonGenerator generator, String name, Instant value, char[] scratch) throws IOException {
+        if (value == null) {
+            return;
+        }
+        generator.writeFieldName(name);
+        int length = formatInstant(value, scratch);
+        if (length < 0) {
+            generator.writeString(value.toString());
+        } else {
+            generator.writeString(scratch, 0, length);
+        }
+    }
+
+    /**
+     * Formats like Instant.toString() (UTC, fraction in groups of 3 digits, none for whole seconds) into out,
+     * without the String and formatter objects of toString(). Returns the length, or -1 for years outside
+     * 0000-9999, left to toString().
+     */
+    static int formatInstant(Instant value, char[] out) {
+        long seconds = value.getEpochSecond();
+        long epochDay = Math.floorDiv(seconds, 86_400);
+        int secondOfDay = (int) Math.floorMod(seconds, 86_400);
+
+        // Civil date of the day, March based years so the leap day is the last day of the year
+        long days = epochDay + 719_468;
+        long era = Math.floorDiv(days, 146_097);
+        long dayOfEra = days - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9_999) {
+            return -1;
+        }
+
+        writeDigits(out, 0, (int) year, 4);
+        out[4] = '-';
+        writeDigits(out, 5, month, 2);
+        out[7] = '-';
+        writeDigits(out, 8, day, 2);
+        out[10] = 'T';
+        writeDigits(out, 11, secondOfDay / 3_600, 2);
+        out[13] = ':';
+        writeDigits(out, 14, secondOfDay / 60 % 60, 2);
+        out[16] = ':';
+        writeDigits(out, 17, secondOfDay % 60, 2);
+        int length = 19;
+        int nanos = value.getNano();
+        if (nanos != 0) {
+            out[length++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                writeDigits(out, length, nanos / 1_000_000, 3);
+                length += 3;
+            } else if (nanos % 1_000 == 0) {
+                writeDigits(out, length, nanos / 1_000, 6);
+                length += 6;
+            } else {
+                writeDigits(out, length, nanos, 9);
+                length += 9;
+            }
+        }
+        out[length++] = 'Z';
+        return length;
+    }
+
+    private static void writeDigits(char[] out, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void writeDecimal(JsonGenerator generator, String name, BigDecimal value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeNumber(value.intValue());
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    private static boolean isEmpty(Collection<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private static int estimateBytes(TransactionResponse response) {
+        List<TransactionResponse.Transaction> transactions = response.getTransactions();
+        if (isEmpty(transactions)) {
+            return ENVELOPE_BYTES;
+        }
+        List<TransactionResponse.Detail> firstDetails = transactions.get(0).getDetails();
+        int detailsPerTransaction = firstDetails != null ? firstDetails.size() : 0;
+        return ENVELOPE_BYTES + transactions.size() * (TRANSACTION_BYTES + detailsPerTransaction * DETAIL_BYTES);
+    }
+}
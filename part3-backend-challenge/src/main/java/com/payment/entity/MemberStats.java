@@ -0,0 +1,74 @@
+package com.payment.entity;
+
+import io.micronaut.data.annotation.*;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Serdeable
+@MappedEntity(value = "member_stats", schema = "operators")
+public class MemberStats {
+
+    @Id
+    private String merchantId;
+
+    private Long txnCount;
+    private BigDecimal totalAmount;
+    private Instant lastTxnDateTime;
+    private Instant updatedAt;
+    private Long revision;
+
+    // Constructors
+    public MemberStats() {
+    }
+
+    // Getters and Setters
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public void setMerchantId(String merchantId) {
+        this.merchantId = merchantId;
+    }
+
+    public Long getTxnCount() {
+        return txnCount;
+    }
+
+    public void setTxnCount(Long txnCount) {
+        this.txnCount = txnCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Instant getLastTxnDateTime() {
+        return lastTxnDateTime;
+    }
+
+    public void setLastTxnDateTime(Instant lastTxnDateTime) {
+        this.lastTxnDateTime = lastTxnDateTime;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+}
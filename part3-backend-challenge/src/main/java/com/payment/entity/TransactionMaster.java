@@ -1,5 +1,6 @@
 package com.payment.entity;
 
+import com.payment.util.StringInterner;
 import io.micronaut.data.annotation.*;
 import io.micronaut.serde.annotation.Serdeable;
 
@@ -21,7 +22,7 @@ public class TransactionMaster {
     private Instant localTxnDateTime;
     private BigDecimal amount;
     private String currency;
-    private String status;
+    private TransactionStatus status;
     private String cardType;
     private String cardLast4;
     private String authCode;
@@ -48,7 +49,7 @@ public class TransactionMaster {
     }
 
     public void setMerchantId(String merchantId) {
-        this.merchantId = merchantId;
+        this.merchantId = StringInterner.intern(merchantId);
     }
 
     public Long getGpAcquirerId() {
@@ -96,14 +97,14 @@ public class TransactionMaster {
     }
 
     public void setCurrency(String currency) {
-        this.currency = currency;
+        this.currency = StringInterner.intern(currency);
     }
 
-    public String getStatus() {
+    public TransactionStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(TransactionStatus status) {
         this.status = status;
     }
 
@@ -112,7 +113,7 @@ public class TransactionMaster {
     }
 
     public void setCardType(String cardType) {
-        this.cardType = cardType;
+        this.cardType = StringInterner.intern(cardType);
     }
 
     public String getCardLast4() {
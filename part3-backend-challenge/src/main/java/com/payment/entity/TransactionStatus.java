@@ -0,0 +1,75 @@
+package com.payment.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The values the status column of transaction_master allows, see its CHECK constraint. Serialized as the lowercase
+ * value; Micronaut Data writes it with {@link #toString()} and reads the column back into the constant of the same
+ * name. Every transaction of a status shares its constant instead of holding its own string, and per-status counts
+ * can be kept in an array indexed by {@link #ordinal()}.
+ */
+@Serdeable
+public enum TransactionStatus {
+
+    PENDING("pending"),
+    COMPLETED("completed"),
+    FAILED("failed"),
+    REVERSED("reversed");
+
+    // Cached, values() copies the array on every call
+    private static final TransactionStatus[] VALUES = values();
+    public static final int COUNT = VALUES.length;
+    private static final List<String> NAMES = Arrays.stream(VALUES).map(TransactionStatus::getValue)
+            .collect(Collectors.toUnmodifiableList());
+
+    private final String value;
+
+    TransactionStatus(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public static TransactionStatus ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    // The status with the column value, or null when there is none
+    @Nullable
+    public static TransactionStatus find(@Nullable String value) {
+        if (value != null) {
+            for (TransactionStatus status : VALUES) {
+                if (status.value.equals(value)) {
+                    return status;
+                }
+            }
+        }
+        return null;
+    }
+
+    // The status with the column value, throwing IllegalArgumentException when there is none
+    @JsonCreator
+    public static TransactionStatus fromValue(String value) {
+        TransactionStatus status = find(value);
+        if (status == null) {
+            throw new IllegalArgumentException("status must be one of " + NAMES + " got: " + value);
+        }
+        return status;
+    }
+
+    // The column value, so string concatenation, hashes and COPY text keep reading "completed"
+    @Override
+    public String toString() {
+        return value;
+    }
+}
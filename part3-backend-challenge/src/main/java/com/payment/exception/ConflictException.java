@@ -0,0 +1,11 @@
+package com.payment.exception;
+
+/**
+ * Thrown when a request collides with stored state, e.g. an Idempotency-Key reused for a different request.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
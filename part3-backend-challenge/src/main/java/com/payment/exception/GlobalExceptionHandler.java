@@ -26,7 +26,13 @@ public class GlobalExceptionHandler implements ExceptionHandler<Exception, HttpR
 
     @Override
     public HttpResponse<Map<String, Object>> handle(HttpRequest request, Exception exception) {
-        LOG.error("Exception occurred: ", exception);
+        // Shedding load is expected under overload and conflicts are client errors, neither needs a stack trace
+        if (exception instanceof LimitExceededException || exception instanceof ConflictException
+                || exception instanceof PayloadTooLargeException) {
+            LOG.warn("Request rejected: {}", exception.getMessage());
+        } else {
+            LOG.error("Exception occurred: ", exception);
+        }
 
         if (exception instanceof NotFoundException) {
             return HttpResponse.notFound(buildErrorResponse(
@@ -46,6 +52,33 @@ public class GlobalExceptionHandler implements ExceptionHandler<Exception, HttpR
             ));
         }
 
+        if (exception instanceof ConflictException) {
+            return HttpResponse.<Map<String, Object>>status(HttpStatus.CONFLICT).body(buildErrorResponse(
+                HttpStatus.CONFLICT.getCode(),
+                "Conflict",
+                exception.getMessage(),
+                request.getPath()
+            ));
+        }
+
+        if (exception instanceof PayloadTooLargeException) {
+            return HttpResponse.<Map<String, Object>>status(HttpStatus.REQUEST_ENTITY_TOO_LARGE).body(buildErrorResponse(
+                HttpStatus.REQUEST_ENTITY_TOO_LARGE.getCode(),
+                "Payload Too Large",
+                exception.getMessage(),
+                request.getPath()
+            ));
+        }
+
+        if (exception instanceof LimitExceededException) {
+            return HttpResponse.<Map<String, Object>>status(HttpStatus.SERVICE_UNAVAILABLE).body(buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.getCode(),
+                "Service Unavailable",
+                exception.getMessage(),
+                request.getPath()
+            ));
+        }
+
         // Default to 500 Internal Server Error
         return HttpResponse.serverError(buildErrorResponse(
             HttpStatus.INTERNAL_SERVER_ERROR.getCode(),
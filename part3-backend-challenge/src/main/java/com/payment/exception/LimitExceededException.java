@@ -0,0 +1,11 @@
+package com.payment.exception;
+
+/**
+ * Thrown when a request can not be admitted: the wait queue is full or the queue timeout elapsed.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    public LimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.payment.exception;
+
+/**
+ * Thrown when a streamed request body grows past the limit of its route.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
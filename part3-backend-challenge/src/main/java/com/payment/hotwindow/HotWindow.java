@@ -0,0 +1,626 @@
+package com.payment.hotwindow;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.TransactionRepository;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The listing columns of recent transactions in off-heap, primitive columns: txn ids, epoch micros and amounts in
+ * cents as longs, txn_date as an epoch day, status as its {@link TransactionStatus} ordinal, merchant, currency and
+ * card type as dictionary codes and the card's last four characters packed into an int. Rows live in direct buffers
+ * of {@value #SEGMENT_ROWS} rows, one fixed-width slot per row and column, so millions of rows cost the heap a few
+ * arrays rather than millions of entities; only the rows of a requested page are turned into
+ * {@link TransactionMaster} objects, without the acquirer, issuer, auth and response codes the listings do not
+ * return.
+ * <p>
+ * Each merchant has its rows' positions in (local_txn_date_time, txn_id) order. Changes take the object's lock,
+ * one writer at a time; readers take no lock and see every row added before they read the merchant's row list.
+ * Rows dated before the first day are not kept.
+ */
+public class HotWindow {
+
+    public static final int SEGMENT_ROWS = 1 << 16;
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SLOT_MASK = SEGMENT_ROWS - 1;
+
+    // Column offsets within a segment, widest first so every slot is aligned
+    private static final int TXN_ID = 0;
+    private static final int MICROS = TXN_ID + 8 * SEGMENT_ROWS;
+    private static final int CENTS = MICROS + 8 * SEGMENT_ROWS;
+    private static final int DAY = CENTS + 8 * SEGMENT_ROWS;
+    private static final int MERCHANT = DAY + 4 * SEGMENT_ROWS;
+    private static final int CARD_LAST4 = MERCHANT + 4 * SEGMENT_ROWS;
+    private static final int STATUS = CARD_LAST4 + 4 * SEGMENT_ROWS;
+    private static final int CURRENCY = STATUS + 2 * SEGMENT_ROWS;
+    private static final int CARD_TYPE = CURRENCY + 2 * SEGMENT_ROWS;
+    private static final int DELETED = CARD_TYPE + 2 * SEGMENT_ROWS;
+    public static final int SEGMENT_BYTES = DELETED + SEGMENT_ROWS;
+
+    // Keeps the txn id index below 2 GB, 12 bytes a slot at half load
+    public static final int MAX_ROWS = 64_000_000;
+
+    private static final int ANY_STATUS = -1;
+
+    private final int firstDay;
+    private final int maxRows;
+
+    private final Dictionary merchants = new Dictionary(Integer.MAX_VALUE);
+    private final Dictionary currencies = new Dictionary(Short.MAX_VALUE);
+    private final Dictionary cardTypes = new Dictionary(Short.MAX_VALUE);
+    // Card suffixes that do not pack into an int, stored as negative codes
+    private final Dictionary oddCardLast4s = new Dictionary(Integer.MAX_VALUE);
+    private final TxnIdIndex txnIdIndex = new TxnIdIndex();
+
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private volatile MerchantRows[] rowsByMerchant = new MerchantRows[0];
+    private volatile int rowCount;
+    private volatile int deletedCount;
+
+    public HotWindow(LocalDate firstDay, int maxRows) {
+        if (maxRows < 1 || maxRows > MAX_ROWS) {
+            throw new IllegalArgumentException("maxRows must be 1 to " + MAX_ROWS + " got: " + maxRows);
+        }
+        this.firstDay = (int) firstDay.toEpochDay();
+        this.maxRows = maxRows;
+    }
+
+    public LocalDate getFirstDay() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    // Whether listings from startDate on are held completely: the first day they include is in the window
+    public boolean covers(Instant startDate) {
+        return firstDayOf(startDate) >= firstDay;
+    }
+
+    public synchronized boolean put(TransactionMaster transaction) {
+        return put(transaction.getTxnId(), transaction.getMerchantId(),
+                (int) transaction.getTxnDate().toLocalDate().toEpochDay(), epochMicros(transaction.getLocalTxnDateTime()),
+                cents(transaction.getAmount()), transaction.getCurrency(), transaction.getStatus(),
+                transaction.getCardType(), transaction.getCardLast4());
+    }
+
+    /**
+     * Adds the row, or overwrites it when a row with its txn id is held for the same merchant, day and timestamp;
+     * otherwise the held row is replaced by the new one. Rows dated before the first day are ignored. Returns false,
+     * changing nothing, when maxRows are held already.
+     */
+    public synchronized boolean put(long txnId, String merchantId, int epochDay, long epochMicros, long cents,
+                                    String currency, TransactionStatus status, @Nullable String cardType,
+                                    @Nullable String cardLast4) {
+        if (epochDay < firstDay) {
+            return true;
+        }
+        int merchant = merchants.encode(merchantId);
+        int held = txnIdIndex.get(txnId);
+        if (held >= 0 && !isDeleted(held)) {
+            ByteBuffer segment = segments[held >>> SEGMENT_SHIFT];
+            int slot = held & SLOT_MASK;
+            if (segment.getInt(MERCHANT + slot * 4) == merchant && segment.getInt(DAY + slot * 4) == epochDay
+                    && segment.getLong(MICROS + slot * 8) == epochMicros) {
+                writeValues(segment, slot, cents, currency, status, cardType, cardLast4);
+                return true;
+            }
+        }
+        if (rowCount == maxRows) {
+            return false;
+        }
+        if (held >= 0) {
+            delete(held);
+        }
+
+        int row = rowCount;
+        ByteBuffer segment = segmentFor(row);
+        int slot = row & SLOT_MASK;
+        segment.putLong(TXN_ID + slot * 8, txnId);
+        segment.putLong(MICROS + slot * 8, epochMicros);
+        segment.putInt(DAY + slot * 4, epochDay);
+        segment.putInt(MERCHANT + slot * 4, merchant);
+        writeValues(segment, slot, cents, currency, status, cardType, cardLast4);
+        rowCount = row + 1;
+        txnIdIndex.put(txnId, row);
+        // Publishes the row to readers
+        rowsOf(merchant).insert(row);
+        return true;
+    }
+
+    // Drops the row with the txn id, if held
+    public synchronized void delete(long txnId) {
+        int held = txnIdIndex.get(txnId);
+        if (held >= 0) {
+            delete(held);
+        }
+    }
+
+    // Sets the merchant_day_revisions revision of the merchant's day, ignored for days before the first day
+    public synchronized void setRevision(String merchantId, int epochDay, long revision) {
+        if (epochDay >= firstDay) {
+            rowsOf(merchants.encode(merchantId)).revisions.put(epochDay, revision);
+        }
+    }
+
+    // Txn ids of the rows held for the merchant's day
+    public long[] txnIds(String merchantId, LocalDate day) {
+        MerchantRows rows = rowsOf(merchantId);
+        if (rows == null) {
+            return new long[0];
+        }
+        int size = rows.size;
+        int[] order = rows.rows;
+        ByteBuffer[] columns = segments;
+        int epochDay = (int) day.toEpochDay();
+        long[] txnIds = new long[16];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            ByteBuffer segment = columns[row >>> SEGMENT_SHIFT];
+            int slot = row & SLOT_MASK;
+            if (segment.get(DELETED + slot) == 0 && segment.getInt(DAY + slot * 4) == epochDay) {
+                if (count == txnIds.length) {
+                    txnIds = Arrays.copyOf(txnIds, count * 2);
+                }
+                txnIds[count++] = segment.getLong(TXN_ID + slot * 8);
+            }
+        }
+        return Arrays.copyOf(txnIds, count);
+    }
+
+    /**
+     * One page of the merchant's rows in the range, newest first, with the total count: what
+     * {@link TransactionRepository#findByMerchantAndDateRange} returns for a range the window covers. Ties on the
+     * timestamp are ordered by txn id.
+     */
+    public Page<TransactionMaster> findPage(String merchantId, Instant startDate, Instant endDate,
+                                            @Nullable String status, Pageable pageable) {
+        MerchantRows rows = rowsOf(merchantId);
+        TransactionStatus wanted = TransactionStatus.find(status);
+        int statusCode = wanted == null ? ANY_STATUS : wanted.ordinal();
+        if (rows == null || (status != null && wanted == null)) {
+            return Page.of(Collections.emptyList(), pageable, 0L);
+        }
+        int size = rows.size;
+        int[] order = rows.rows;
+        ByteBuffer[] columns = segments;
+        int first = firstDayOf(startDate);
+        int last = lastDayOf(endDate);
+        long offset = pageable.getOffset();
+        int[] pageRows = new int[pageable.getSize()];
+        int taken = 0;
+        long total = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            int row = order[i];
+            if (matches(columns[row >>> SEGMENT_SHIFT], row & SLOT_MASK, first, last, statusCode)) {
+                if (total >= offset && taken < pageRows.length) {
+                    pageRows[taken++] = row;
+                }
+                total++;
+            }
+        }
+        List<TransactionMaster> content = new ArrayList<>(taken);
+        for (int i = 0; i < taken; i++) {
+            content.add(materialize(columns, pageRows[i], merchantId));
+        }
+        return Page.of(content, pageable, total);
+    }
+
+    /**
+     * Count and total per (currency, status) of the merchant's rows in the range, like
+     * {@link TransactionRepository#summarize}. Adds up cents in primitive arrays of one cell per currency code and
+     * status ordinal, one pass over the merchant's rows.
+     */
+    public List<TransactionRepository.SummaryRow> summarize(String merchantId, Instant startDate, Instant endDate) {
+        MerchantRows rows = rowsOf(merchantId);
+        if (rows == null) {
+            return Collections.emptyList();
+        }
+        int size = rows.size;
+        int[] order = rows.rows;
+        ByteBuffer[] columns = segments;
+        // Read after the rows, so every code in them is below the dictionary size
+        int statusCount = TransactionStatus.COUNT;
+        int currencyCount = currencies.size();
+        long[] counts = new long[currencyCount * statusCount];
+        long[] totals = new long[currencyCount * statusCount];
+        int first = firstDayOf(startDate);
+        int last = lastDayOf(endDate);
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            ByteBuffer segment = columns[row >>> SEGMENT_SHIFT];
+            int slot = row & SLOT_MASK;
+            if (matches(segment, slot, first, last, ANY_STATUS)) {
+                int cell = segment.getShort(CURRENCY + slot * 2) * statusCount + segment.getShort(STATUS + slot * 2);
+                counts[cell]++;
+                totals[cell] = Math.addExact(totals[cell], segment.getLong(CENTS + slot * 8));
+            }
+        }
+        List<TransactionRepository.SummaryRow> summary = new ArrayList<>();
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (counts[cell] > 0) {
+                summary.add(new TransactionRepository.SummaryRow(currencies.decode(cell / statusCount),
+                        TransactionStatus.ofOrdinal(cell % statusCount).getValue(), counts[cell], BigDecimal.valueOf(totals[cell], 2)));
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Row count and highest txn id of the merchant's rows in the range and the sum of the revisions of its days,
+     * like {@link TransactionRepository#findVersion}.
+     */
+    public TransactionRepository.RangeVersion version(String merchantId, Instant startDate, Instant endDate) {
+        MerchantRows rows = rowsOf(merchantId);
+        if (rows == null) {
+            return new TransactionRepository.RangeVersion(0, 0, 0);
+        }
+        int size = rows.size;
+        int[] order = rows.rows;
+        ByteBuffer[] columns = segments;
+        int first = firstDayOf(startDate);
+        int last = lastDayOf(endDate);
+        long count = 0;
+        long maxTxnId = 0;
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            ByteBuffer segment = columns[row >>> SEGMENT_SHIFT];
+            int slot = row & SLOT_MASK;
+            if (matches(segment, slot, first, last, ANY_STATUS)) {
+                count++;
+                maxTxnId = Math.max(maxTxnId, segment.getLong(TXN_ID + slot * 8));
+            }
+        }
+        long revision = 0;
+        for (Map.Entry<Integer, Long> day : rows.revisions.entrySet()) {
+            if (day.getKey() >= first && day.getKey() <= last) {
+                revision += day.getValue();
+            }
+        }
+        return new TransactionRepository.RangeVersion(count, maxTxnId, revision);
+    }
+
+    public int size() {
+        return rowCount - deletedCount;
+    }
+
+    // Direct memory held by the columns and the txn id index
+    public long offHeapBytes() {
+        return (long) segments.length * SEGMENT_BYTES + txnIdIndex.bytes();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("firstDay", getFirstDay().toString());
+        description.put("rows", size());
+        description.put("deletedRows", deletedCount);
+        description.put("maxRows", maxRows);
+        description.put("merchants", merchants.size() - 1);
+        description.put("offHeapBytes", offHeapBytes());
+        return description;
+    }
+
+    // Microseconds since the epoch, the precision of a Postgres timestamp
+    public static long epochMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    // Rounded like the DECIMAL(15,2) column rounds
+    public static long cents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // The first txn_date BETWEEN startDate AND ... matches: txn_date compares as midnight UTC of its day
+    static int firstDayOf(Instant startDate) {
+        LocalDate day = LocalDate.ofInstant(startDate, ZoneOffset.UTC);
+        return (int) (day.atStartOfDay(ZoneOffset.UTC).toInstant().equals(startDate) ? day : day.plusDays(1)).toEpochDay();
+    }
+
+    static int lastDayOf(Instant endDate) {
+        return (int) LocalDate.ofInstant(endDate, ZoneOffset.UTC).toEpochDay();
+    }
+
+    private static boolean matches(ByteBuffer segment, int slot, int first, int last, int statusCode) {
+        if (segment.get(DELETED + slot) != 0) {
+            return false;
+        }
+        int day = segment.getInt(DAY + slot * 4);
+        return day >= first && day <= last && (statusCode == ANY_STATUS || segment.getShort(STATUS + slot * 2) == statusCode);
+    }
+
+    private TransactionMaster materialize(ByteBuffer[] columns, int row, String merchantId) {
+        ByteBuffer segment = columns[row >>> SEGMENT_SHIFT];
+        int slot = row & SLOT_MASK;
+        long micros = segment.getLong(MICROS + slot * 8);
+        TransactionMaster transaction = new TransactionMaster();
+        transaction.setTxnId(segment.getLong(TXN_ID + slot * 8));
+        transaction.setMerchantId(merchantId);
+        transaction.setTxnDate(Date.valueOf(LocalDate.ofEpochDay(segment.getInt(DAY + slot * 4))));
+        transaction.setLocalTxnDateTime(Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                Math.floorMod(micros, 1_000_000L) * 1_000L));
+        transaction.setAmount(BigDecimal.valueOf(segment.getLong(CENTS + slot * 8), 2));
+        transaction.setCurrency(currencies.decode(segment.getShort(CURRENCY + slot * 2)));
+        transaction.setStatus(TransactionStatus.ofOrdinal(segment.getShort(STATUS + slot * 2)));
+        transaction.setCardType(cardTypes.decode(segment.getShort(CARD_TYPE + slot * 2)));
+        transaction.setCardLast4(unpackCardLast4(segment.getInt(CARD_LAST4 + slot * 4)));
+        return transaction;
+    }
+
+    //    Helper writing the columns a row may change without moving
+    private void writeValues(ByteBuffer segment, int slot, long cents, String currency, TransactionStatus status,
+                             String cardType, String cardLast4) {
+        segment.putLong(CENTS + slot * 8, cents);
+        segment.putShort(CURRENCY + slot * 2, (short) currencies.encode(currency));
+        segment.putShort(STATUS + slot * 2, (short) status.ordinal());
+        segment.putShort(CARD_TYPE + slot * 2, (short) cardTypes.encode(cardType));
+        segment.putInt(CARD_LAST4 + slot * 4, packCardLast4(cardLast4));
+    }
+
+    private boolean isDeleted(int row) {
+        return segments[row >>> SEGMENT_SHIFT].get(DELETED + (row & SLOT_MASK)) != 0;
+    }
+
+    private void delete(int row) {
+        if (!isDeleted(row)) {
+            segments[row >>> SEGMENT_SHIFT].put(DELETED + (row & SLOT_MASK), (byte) 1);
+            deletedCount++;
+        }
+    }
+
+    private ByteBuffer segmentFor(int row) {
+        int index = row >>> SEGMENT_SHIFT;
+        ByteBuffer[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        ByteBuffer[] grown = Arrays.copyOf(current, index + 1);
+        grown[index] = ByteBuffer.allocateDirect(SEGMENT_BYTES).order(ByteOrder.nativeOrder());
+        segments = grown;
+        return grown[index];
+    }
+
+    private MerchantRows rowsOf(String merchantId) {
+        int merchant = merchants.find(merchantId);
+        MerchantRows[] all = rowsByMerchant;
+        return merchant > 0 && merchant < all.length ? all[merchant] : null;
+    }
+
+    private MerchantRows rowsOf(int merchant) {
+        MerchantRows[] all = rowsByMerchant;
+        if (merchant < all.length && all[merchant] != null) {
+            return all[merchant];
+        }
+        MerchantRows[] grown = Arrays.copyOf(all, Math.max(all.length, Math.max(16, merchant * 2)));
+        grown[merchant] = new MerchantRows();
+        rowsByMerchant = grown;
+        return grown[merchant];
+    }
+
+    // 4 ASCII characters or fewer pack into 28 bits plus the length; 0 is null
+    private int packCardLast4(String cardLast4) {
+        if (cardLast4 == null) {
+            return 0;
+        }
+        int length = cardLast4.length();
+        if (length > 0 && length <= 4) {
+            int packed = length << 28;
+            int i = 0;
+            while (i < length && cardLast4.charAt(i) < 128) {
+                packed |= cardLast4.charAt(i) << (7 * (3 - i));
+                i++;
+            }
+            if (i == length) {
+                return packed;
+            }
+        }
+        return -oddCardLast4s.encode(cardLast4);
+    }
+
+    private String unpackCardLast4(int packed) {
+        if (packed <= 0) {
+            return packed == 0 ? null : oddCardLast4s.decode(-packed);
+        }
+        char[] chars = new char[packed >>> 28];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ((packed >>> (7 * (3 - i))) & 0x7F);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Positions of one merchant's rows ordered by (local_txn_date_time, txn_id), and the revisions of its days. Rows usually arrive in order and
+     * are appended in place; an earlier row is inserted into a copy, so readers keep a consistent array.
+     */
+    private final class MerchantRows {
+        // merchant_day_revisions of the merchant's days that have one, by epoch day
+        private final Map<Integer, Long> revisions = new ConcurrentHashMap<>();
+        private volatile int[] rows = new int[16];
+        private volatile int size;
+
+        void insert(int row) {
+            int[] current = rows;
+            int count = size;
+            int at = insertionPoint(current, count, row);
+            if (at == count && count < current.length) {
+                current[count] = row;
+            } else {
+                int[] copy = new int[count < current.length ? current.length : current.length * 2];
+                System.arraycopy(current, 0, copy, 0, at);
+                copy[at] = row;
+                System.arraycopy(current, at, copy, at + 1, count - at);
+                rows = copy;
+            }
+            size = count + 1;
+        }
+
+        private int insertionPoint(int[] current, int count, int row) {
+            if (count == 0 || compare(current[count - 1], row) <= 0) {
+                return count;
+            }
+            int low = 0;
+            int high = count - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(current[middle], row) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int compare(int left, int right) {
+            ByteBuffer leftSegment = segments[left >>> SEGMENT_SHIFT];
+            ByteBuffer rightSegment = segments[right >>> SEGMENT_SHIFT];
+            int leftSlot = left & SLOT_MASK;
+            int rightSlot = right & SLOT_MASK;
+            int byTime = Long.compare(leftSegment.getLong(MICROS + leftSlot * 8), rightSegment.getLong(MICROS + rightSlot * 8));
+            return byTime != 0 ? byTime
+                    : Long.compare(leftSegment.getLong(TXN_ID + leftSlot * 8), rightSegment.getLong(TXN_ID + rightSlot * 8));
+        }
+    }
+
+    /**
+     * String to code table, code 0 stands for null. Codes are only added by the writer; lookups take no lock.
+     */
+    private static final class Dictionary {
+        private final int maxCodes;
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[16];
+        private volatile int size = 1;
+
+        Dictionary(int maxCodes) {
+            this.maxCodes = maxCodes;
+        }
+
+        int encode(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int next = size;
+            if (next == maxCodes) {
+                throw new IllegalStateException("More than " + (maxCodes - 1) + " distinct values");
+            }
+            String[] current = values;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = value;
+            values = current;
+            codes.put(value, next);
+            size = next + 1;
+            return next;
+        }
+
+        // -1 for a value never added
+        int find(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer code = codes.get(value);
+            return code != null ? code : -1;
+        }
+
+        String decode(int code) {
+            return values[code];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Txn id to row, open addressing in a direct buffer of 12-byte slots (id, row); id 0 marks a free slot, the
+     * sequence starts at 1. Used by the writer only.
+     */
+    private static final class TxnIdIndex {
+        private static final int SLOT_BYTES = 12;
+
+        private ByteBuffer slots;
+        private int capacity;
+        private int size;
+
+        TxnIdIndex() {
+            allocate(1 << 16);
+        }
+
+        int get(long txnId) {
+            int mask = capacity - 1;
+            for (int i = hash(txnId) & mask; ; i = (i + 1) & mask) {
+                long key = slots.getLong(i * SLOT_BYTES);
+                if (key == txnId) {
+                    return slots.getInt(i * SLOT_BYTES + 8);
+                }
+                if (key == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long txnId, int row) {
+            if ((size + 1) * 2 > capacity) {
+                grow();
+            }
+            int mask = capacity - 1;
+            for (int i = hash(txnId) & mask; ; i = (i + 1) & mask) {
+                long key = slots.getLong(i * SLOT_BYTES);
+                if (key == 0 || key == txnId) {
+                    if (key == 0) {
+                        slots.putLong(i * SLOT_BYTES, txnId);
+                        size++;
+                    }
+                    slots.putInt(i * SLOT_BYTES + 8, row);
+                    return;
+                }
+            }
+        }
+
+        long bytes() {
+            return (long) capacity * SLOT_BYTES;
+        }
+
+        private void grow() {
+            ByteBuffer old = slots;
+            int oldCapacity = capacity;
+            allocate(capacity * 2);
+            size = 0;
+            for (int i = 0; i < oldCapacity; i++) {
+                long key = old.getLong(i * SLOT_BYTES);
+                if (key != 0) {
+                    put(key, old.getInt(i * SLOT_BYTES + 8));
+                }
+            }
+        }
+
+        private void allocate(int slotCount) {
+            capacity = slotCount;
+            slots = ByteBuffer.allocateDirect(slotCount * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        }
+
+        private static int hash(long txnId) {
+            return (int) ((txnId * 0x9E3779B97F4A7C15L) >>> 32);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.payment.hotwindow;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-process store of recent transactions, bound from hot-window.* in application.yml.
+ * The rebuild-interval, refresh-interval and initial-delay are read by the scheduled jobs of {@link HotWindowStore}.
+ */
+@ConfigurationProperties("hot-window")
+public class HotWindowConfiguration {
+
+    private boolean enabled = false;
+    private Duration window = Duration.ofHours(48);
+    private int maxRows = 10_000_000;
+    private int tailLookback = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public int getTailLookback() {
+        return tailLookback;
+    }
+
+    public void setTailLookback(int tailLookback) {
+        this.tailLookback = tailLookback;
+    }
+}
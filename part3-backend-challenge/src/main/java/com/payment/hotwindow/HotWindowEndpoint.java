@@ -0,0 +1,26 @@
+package com.payment.hotwindow;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.Map;
+
+/**
+ * Management endpoint at /hotwindow with the rows, merchants and off-heap memory of the hot window store.
+ */
+@Endpoint(id = "hotwindow")
+@Requires(beans = HotWindowStore.class)
+public class HotWindowEndpoint {
+
+    private final HotWindowStore hotWindowStore;
+
+    public HotWindowEndpoint(HotWindowStore hotWindowStore) {
+        this.hotWindowStore = hotWindowStore;
+    }
+
+    @Read
+    public Map<String, Object> stats() {
+        return hotWindowStore.stats();
+    }
+}
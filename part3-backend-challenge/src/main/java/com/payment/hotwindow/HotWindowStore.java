@@ -0,0 +1,288 @@
+package com.payment.hotwindow;
+
+import com.payment.cache.TransactionHistoryChangedEvent;
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.HotWindowRepository;
+import com.payment.repository.TransactionRepository;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves listings, summaries and versions of ranges within the last hot-window.window (48 hours by default) from a
+ * {@link HotWindow} instead of the database. Off unless hot-window.enabled is true.
+ * <p>
+ * The window is loaded from the database on startup and rebuilt every hot-window.rebuild-interval, which also drops
+ * the days that fell out of it. In between it is fed by this application's writes, by a poll for rows with a
+ * txn_id above the highest one seen (re-reading the last hot-window.tail-lookback ids for rows that committed late)
+ * and, for updates and deletes, by reloading the rows and revision of the merchant days named in
+ * transaction_history_changed notifications every hot-window.refresh-interval. Other writers' rows may therefore show
+ * up one refresh interval late. Without the notification listener (range-cache.listen false) their updates and
+ * deletes wait for the next rebuild.
+ * <p>
+ * Until the first load has finished, and once more than hot-window.max-rows would be held, requests go to the
+ * database. The columns live in direct memory: -XX:MaxDirectMemorySize has to leave room for two windows while one
+ * is rebuilt.
+ */
+@Singleton
+@Requires(property = "hot-window.enabled", value = "true")
+public class HotWindowStore implements ApplicationEventListener<TransactionHistoryChangedEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HotWindowStore.class);
+
+    private static final int TAIL_BATCH = 10_000;
+
+    private final HotWindowRepository hotWindowRepository;
+    private final HotWindowConfiguration configuration;
+    private final Clock clock;
+
+    // Merchant days to reload from the database on the next refresh
+    private final Set<TransactionHistoryChangedEvent> changedDays = ConcurrentHashMap.newKeySet();
+    private final Object feedLock = new Object();
+
+    private volatile HotWindow window;
+    private volatile boolean rebuildRequested;
+    // Guarded by feedLock: this application's writes while a rebuild loads, replayed into the new window
+    private List<TransactionMaster> writesDuringRebuild;
+    // Guarded by this
+    private long tailTxnId;
+
+    @Inject
+    public HotWindowStore(HotWindowRepository hotWindowRepository, HotWindowConfiguration configuration) {
+        this(hotWindowRepository, configuration, Clock.systemUTC());
+    }
+
+    HotWindowStore(HotWindowRepository hotWindowRepository, HotWindowConfiguration configuration, Clock clock) {
+        this.hotWindowRepository = hotWindowRepository;
+        this.configuration = configuration;
+        this.clock = clock;
+    }
+
+    /**
+     * The page {@link TransactionRepository#findByMerchantAndDateRange} would return, or null when the range starts
+     * before the window or the window is not loaded.
+     */
+    @Nullable
+    public Page<TransactionMaster> findByMerchantAndDateRange(String merchantId, Instant startDate, Instant endDate,
+                                                             @Nullable String status, Pageable pageable) {
+        HotWindow current = window;
+        return current != null && current.covers(startDate)
+                ? current.findPage(merchantId, startDate, endDate, status, pageable)
+                : null;
+    }
+
+    // The rows TransactionRepository#summarize would return, or null when the range is not covered
+    @Nullable
+    public List<TransactionRepository.SummaryRow> summarize(String merchantId, Instant startDate, Instant endDate) {
+        HotWindow current = window;
+        return current != null && current.covers(startDate)
+                ? current.summarize(merchantId, startDate, endDate)
+                : null;
+    }
+
+    // The version TransactionRepository#findVersion would return, or null when the range is not covered
+    @Nullable
+    public TransactionRepository.RangeVersion findVersion(String merchantId, Instant startDate, Instant endDate) {
+        HotWindow current = window;
+        return current != null && current.covers(startDate)
+                ? current.version(merchantId, startDate, endDate)
+                : null;
+    }
+
+    // Adds a committed transaction of this application, txn id set, so its own listings show it right away
+    public void add(TransactionMaster transaction) {
+        synchronized (feedLock) {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(transaction);
+            }
+            HotWindow current = window;
+            if (current != null && !current.put(transaction)) {
+                stopServing(current);
+            }
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(TransactionHistoryChangedEvent event) {
+        if (event.isAll()) {
+            rebuildRequested = true;
+        } else {
+            changedDays.add(event);
+        }
+    }
+
+    /**
+     * Loads the window from the database into a new {@link HotWindow} and swaps it in; requests keep using the
+     * previous one meanwhile.
+     */
+    @Scheduled(fixedDelay = "${hot-window.rebuild-interval:1h}", initialDelay = "${hot-window.initial-delay:0s}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // Requests from here on are for changes this load may not see
+        rebuildRequested = false;
+        LocalDate firstDay = LocalDate.ofInstant(clock.instant().minus(configuration.getWindow()), ZoneOffset.UTC);
+        HotWindow rebuilt = new HotWindow(firstDay, configuration.getMaxRows());
+        synchronized (feedLock) {
+            writesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Loader loader = new Loader(rebuilt);
+            hotWindowRepository.loadSince(firstDay, loader);
+            synchronized (feedLock) {
+                for (TransactionMaster transaction : writesDuringRebuild) {
+                    loader.full |= !rebuilt.put(transaction);
+                }
+                if (loader.full) {
+                    LOG.warn("The hot window from {} holds more than {} transactions, it is not served",
+                            firstDay, configuration.getMaxRows());
+                    window = null;
+                    return;
+                }
+                window = rebuilt;
+            }
+            tailTxnId = loader.maxTxnId;
+            LOG.info("Hot window from {} loaded: {} transactions, {} MB off-heap in {} ms", firstDay, rebuilt.size(),
+                    rebuilt.offHeapBytes() >> 20, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not load the hot window from {}: {}", firstDay, e.getMessage());
+        } finally {
+            synchronized (feedLock) {
+                writesDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Adds rows committed since the last poll and reloads the merchant days other writers changed. Rebuilds instead
+     * when notifications may have been missed.
+     */
+    @Scheduled(fixedDelay = "${hot-window.refresh-interval:5s}", initialDelay = "${hot-window.refresh-interval:5s}")
+    public synchronized void refresh() {
+        if (rebuildRequested) {
+            rebuild();
+            return;
+        }
+        HotWindow current = window;
+        if (current == null) {
+            return;
+        }
+        try {
+            long after = Math.max(0, tailTxnId - configuration.getTailLookback());
+            long rows;
+            do {
+                Loader loader = new Loader(current);
+                rows = hotWindowRepository.loadAfter(current.getFirstDay(), after, TAIL_BATCH, loader);
+                if (loader.full) {
+                    stopServing(current);
+                    return;
+                }
+                tailTxnId = Math.max(tailTxnId, loader.maxTxnId);
+                after = loader.maxTxnId;
+            } while (rows == TAIL_BATCH);
+
+            Iterator<TransactionHistoryChangedEvent> days = changedDays.iterator();
+            while (days.hasNext()) {
+                TransactionHistoryChangedEvent day = days.next();
+                days.remove();
+                if (!day.getTxnDate().isBefore(current.getFirstDay()) && !reload(current, day)) {
+                    stopServing(current);
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not refresh the hot window: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        HotWindow current = window;
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("serving", current != null);
+        if (current != null) {
+            description.putAll(current.stats());
+        }
+        description.put("tailTxnId", tailTxnId);
+        description.put("pendingDays", changedDays.size());
+        return description;
+    }
+
+    //    Helper replacing the rows and the revision of one merchant day with the database's. Rows added while the day
+    //    is read are newer than the read and are kept
+    private boolean reload(HotWindow current, TransactionHistoryChangedEvent day) {
+        long[] held = current.txnIds(day.getMerchantId(), day.getTxnDate());
+        Loader loader = new Loader(current);
+        loader.txnIds = new long[16];
+        hotWindowRepository.loadDay(day.getMerchantId(), day.getTxnDate(), loader);
+        long[] loaded = Arrays.copyOf(loader.txnIds, loader.count);
+        Arrays.sort(loaded);
+        for (long txnId : held) {
+            if (Arrays.binarySearch(loaded, txnId) < 0) {
+                current.delete(txnId);
+            }
+        }
+        return !loader.full;
+    }
+
+    private void stopServing(HotWindow current) {
+        synchronized (feedLock) {
+            if (window == current) {
+                LOG.warn("The hot window holds {} transactions, the most allowed, it is not served until the next rebuild",
+                        current.size());
+                window = null;
+            }
+        }
+    }
+
+    //    Puts the rows and day revisions read into a window, keeping the highest txn id and, when asked, the ids read
+    private static final class Loader implements HotWindowRepository.RowHandler {
+        private final HotWindow target;
+        private long maxTxnId;
+        private boolean full;
+        private long[] txnIds;
+        private int count;
+
+        private Loader(HotWindow target) {
+            this.target = target;
+        }
+
+        @Override
+        public void row(long txnId, String merchantId, int epochDay, long epochMicros, long cents,
+                        String currency, String status, String cardType, String cardLast4) {
+            maxTxnId = Math.max(maxTxnId, txnId);
+            full |= !target.put(txnId, merchantId, epochDay, epochMicros, cents, currency,
+                    TransactionStatus.fromValue(status), cardType, cardLast4);
+            if (txnIds != null) {
+                if (count == txnIds.length) {
+                    txnIds = Arrays.copyOf(txnIds, count * 2);
+                }
+                txnIds[count++] = txnId;
+            }
+        }
+
+        @Override
+        public void revision(String merchantId, int epochDay, long revision) {
+            target.setRevision(merchantId, epochDay, revision);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.payment.job;
+
+import com.payment.coalescer.TransactionWriteConfiguration;
+import com.payment.repository.TransactionWriteRepository;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Removes idempotency keys older than transaction-write.key-retention, in bounded batches.
+ * A retry arriving after its key was purged creates a second transaction, so the retention must
+ * exceed the longest client retry window.
+ */
+@Singleton
+public class IdempotencyKeyPurgeJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyKeyPurgeJob.class);
+
+    private static final int BATCH_ROWS = 10_000;
+
+    private final TransactionWriteRepository transactionWriteRepository;
+    private final Duration keyRetention;
+
+    public IdempotencyKeyPurgeJob(TransactionWriteRepository transactionWriteRepository,
+                                  TransactionWriteConfiguration configuration) {
+        this.transactionWriteRepository = transactionWriteRepository;
+        this.keyRetention = configuration.getKeyRetention();
+    }
+
+    @Scheduled(cron = "${transaction-write.purge-cron:0 45 1 * * *}")
+    public int purge() {
+        Instant cutoff = Instant.now().minus(keyRetention);
+        int purged = 0;
+        int batch;
+        do {
+            batch = transactionWriteRepository.purgeKeys(cutoff, BATCH_ROWS);
+            purged += batch;
+        } while (batch == BATCH_ROWS);
+
+        LOG.info("Purged {} idempotency key(s) created before {}", purged, cutoff);
+        return purged;
+    }
+}
@@ -0,0 +1,42 @@
+package com.payment.job;
+
+import com.payment.repository.MemberStatsRepository;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Rebuilds operators.member_stats from transaction_master on a schedule
+ * and logs every merchant whose trigger-maintained stats had drifted.
+ */
+@Singleton
+public class MemberStatsReconcileJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MemberStatsReconcileJob.class);
+
+    private final MemberStatsRepository memberStatsRepository;
+
+    public MemberStatsReconcileJob(MemberStatsRepository memberStatsRepository) {
+        this.memberStatsRepository = memberStatsRepository;
+    }
+
+    @Scheduled(cron = "${member-stats.reconcile-cron:0 30 2 * * *}")
+    public List<MemberStatsRepository.StatsDrift> reconcile() {
+        List<MemberStatsRepository.StatsDrift> drift = memberStatsRepository.rebuild();
+
+        if (drift.isEmpty()) {
+            LOG.info("Member stats reconciled, no drift found");
+        } else {
+            LOG.warn("Member stats reconciled, {} merchant(s) had drifted", drift.size());
+            for (MemberStatsRepository.StatsDrift row : drift) {
+                LOG.warn("Member stats drift merchant={} count stored={} actual={} amount stored={} actual={}",
+                        row.getMerchantId(), row.getStoredCount(), row.getActualCount(),
+                        row.getStoredAmount(), row.getActualAmount());
+            }
+        }
+        return drift;
+    }
+}
@@ -0,0 +1,34 @@
+package com.payment.job;
+
+import com.payment.repository.MerchantDailyRollupRepository;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Extends operators.merchant_daily_rollup with the days completed since the last run.
+ * Runs after midnight and once shortly after startup, so days missed while the application was down are caught up.
+ */
+@Singleton
+public class MerchantDailyRollupJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MerchantDailyRollupJob.class);
+
+    private final MerchantDailyRollupRepository rollupRepository;
+
+    public MerchantDailyRollupJob(MerchantDailyRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    @Scheduled(initialDelay = "${merchant-daily-rollup.initial-delay:15s}")
+    @Scheduled(cron = "${merchant-daily-rollup.refresh-cron:0 5 0 * * *}")
+    public int refresh() {
+        long start = System.nanoTime();
+        int rows = rollupRepository.refresh();
+        if (rows > 0) {
+            LOG.info("Merchant daily rollup refreshed, {} row(s) written in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        }
+        return rows;
+    }
+}
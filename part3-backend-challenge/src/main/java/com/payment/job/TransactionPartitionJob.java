@@ -0,0 +1,83 @@
+package com.payment.job;
+
+import com.payment.repository.TransactionPartitionRepository;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Keeps the txn_date partitions of transaction_master ahead of the calendar: creates the partitions
+ * for the current period and the next create-ahead periods, and detaches partitions older than
+ * retention-days. Runs shortly after startup and then daily.
+ */
+@Singleton
+public class TransactionPartitionJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionPartitionJob.class);
+
+    private final TransactionPartitionRepository partitionRepository;
+    private final String granularity;
+    private final int createAhead;
+    private final int retentionDays;
+
+    @Inject
+    public TransactionPartitionJob(TransactionPartitionRepository partitionRepository,
+                                   @Value("${transaction-partitions.granularity:month}") String granularity,
+                                   @Value("${transaction-partitions.create-ahead:3}") int createAhead,
+                                   @Value("${transaction-partitions.retention-days:0}") int retentionDays) {
+        if (!"month".equals(granularity) && !"day".equals(granularity)) {
+            throw new IllegalArgumentException("transaction-partitions.granularity must be month or day, got " + granularity);
+        }
+        this.partitionRepository = partitionRepository;
+        this.granularity = granularity;
+        this.createAhead = createAhead;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(initialDelay = "${transaction-partitions.initial-delay:10s}")
+    @Scheduled(cron = "${transaction-partitions.cron:0 15 1 * * *}")
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        createPartitions(today);
+        detachPartitions(today);
+    }
+
+//    Creates the partitions from the start of the current period through createAhead further periods
+    List<String> createPartitions(LocalDate today) {
+        LocalDate from;
+        LocalDate to;
+        if ("month".equals(granularity)) {
+            from = today.withDayOfMonth(1);
+            to = from.plusMonths(createAhead + 1L);
+        } else {
+            from = today;
+            to = from.plusDays(createAhead + 1L);
+        }
+
+        List<String> created = partitionRepository.createPartitions(from, to, granularity);
+        if (!created.isEmpty()) {
+            LOG.info("Created transaction partitions {}", created);
+        }
+        return created;
+    }
+
+//    Detaches partitions whose whole range is older than retentionDays, nothing when retention is off
+    List<String> detachPartitions(LocalDate today) {
+        if (retentionDays <= 0) {
+            return List.of();
+        }
+
+        List<String> detached = partitionRepository.detachPartitions(today.minusDays(retentionDays));
+        if (!detached.isEmpty()) {
+            LOG.info("Detached transaction partitions {}, archive or drop them", detached);
+        }
+        return detached;
+    }
+}
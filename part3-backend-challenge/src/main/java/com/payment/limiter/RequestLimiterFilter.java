@@ -0,0 +1,74 @@
+package com.payment.limiter;
+
+import com.payment.coalescer.TransactionWriteConfiguration;
+import com.payment.exception.LimitExceededException;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Admission control for the API routes. Runs on the event loop before the route is dispatched to the
+ * blocking executor, so a request waiting for a permit holds neither a worker thread nor a connection.
+ * Transaction creates bypass it while they are coalesced: they wait in the coalescer's own bounded queue and
+ * use flush-threads connections at most, and a permit held per queued create would cap a batch at max-concurrent rows.
+ */
+@Filter("/api/**")
+@Requires(property = "request-limiter.enabled", notEquals = "false")
+public class RequestLimiterFilter implements HttpServerFilter {
+
+    private static final Pattern CREATE_TRANSACTION = Pattern.compile("/api/v1/merchants/[^/]+/transactions/?");
+
+    private final RequestLimiter requestLimiter;
+    private final Duration queueTimeout;
+    private final boolean writesCoalesced;
+
+    public RequestLimiterFilter(RequestLimiter requestLimiter, RequestLimiterConfiguration configuration,
+                                TransactionWriteConfiguration writeConfiguration) {
+        this.requestLimiter = requestLimiter;
+        this.queueTimeout = configuration.getQueueTimeout();
+        this.writesCoalesced = writeConfiguration.isCoalesce();
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        if (writesCoalesced && request.getMethod() == HttpMethod.POST
+                && CREATE_TRANSACTION.matcher(request.getPath()).matches()) {
+            return chain.proceed(request);
+        }
+
+        Mono<RequestLimiter.Permit> permit = requestLimiter.acquire()
+                .timeout(queueTimeout)
+                .onErrorMap(TimeoutException.class,
+                        e -> new LimitExceededException("Request waited longer than " + queueTimeout + " for a free slot"));
+
+        // The permit is released once the response is written, on error and on client disconnect
+        return permit.flatMapMany(granted -> Flux.from(chain.proceed(request))
+                .map(response -> releaseAfterBody(request, response, granted))
+                .doOnError(e -> granted.release())
+                .doOnCancel(granted::release));
+    }
+
+    // A streamed body (the transaction export) keeps its connection after the response is emitted, until the last
+    // chunk is written or the client goes away, so it keeps the permit until then. HEAD responses never subscribe
+    // to the body and release right away
+    private static MutableHttpResponse<?> releaseAfterBody(HttpRequest<?> request, MutableHttpResponse<?> response,
+                                                           RequestLimiter.Permit granted) {
+        Object body = response.getBody().orElse(null);
+        if (body instanceof Publisher<?> stream && request.getMethod() != HttpMethod.HEAD) {
+            return response.body(Flux.from(stream).doFinally(signal -> granted.release()));
+        }
+        granted.release();
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+package com.payment.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * In-memory registry behind the /metrics endpoint, plus the percentile setup of the latency meters.
+ */
+@Factory
+@Requires(property = "micronaut.metrics.enabled", notEquals = "false")
+public class MetricsFactory {
+
+    // Server routes, repository calls and the wait for a pooled connection
+    private static final Set<String> LATENCY_METERS = Set.of(
+            "http.server.requests",
+            RepositoryMetricsInterceptor.QUERY_TIMER,
+            "hikaricp.connections.acquire"
+    );
+
+    @Singleton
+    SimpleMeterRegistry simpleMeterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    /**
+     * Publishes p50/p99/p99.9 gauges (name.percentile, tag phi) and a percentile histogram for the latency meters.
+     * Percentiles decay over a one minute window so they follow current load rather than the process lifetime.
+     */
+    @Singleton
+    MeterFilter latencyPercentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!LATENCY_METERS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.99, 0.999)
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                        .expiry(Duration.ofMinutes(1))
+                        .bufferLength(3)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
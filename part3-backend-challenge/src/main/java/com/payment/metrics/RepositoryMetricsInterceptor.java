@@ -0,0 +1,107 @@
+package com.payment.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.model.Slice;
+import jakarta.inject.Singleton;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times repository calls per repository and method and records how many rows each call returned,
+ * so the cost of one request can be split into its queries. Each call is also added to the slow request
+ * trace of the current request.
+ */
+@Singleton
+@InterceptorBean(RepositoryMetrics.class)
+public class RepositoryMetricsInterceptor implements MethodInterceptor<Object, Object> {
+
+    public static final String QUERY_TIMER = "repository.query";
+    public static final String ROWS_SUMMARY = "repository.rows";
+
+    // Introduced repositories are generated classes like TransactionRepository$Intercepted, plain JDBC ones
+    // subclasses of the repository class
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getPackageName().startsWith("com.payment")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            Class<?> superclass = type.getSuperclass();
+            if (superclass != null && superclass.getPackageName().startsWith("com.payment")) {
+                return superclass.getSimpleName();
+            }
+            return type.getSimpleName();
+        }
+    };
+
+    private final MeterRegistry meterRegistry;
+    private final SlowRequestLog slowRequestLog;
+
+    public RepositoryMetricsInterceptor(MeterRegistry meterRegistry, SlowRequestLog slowRequestLog) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        String repository = REPOSITORY_NAMES.get(context.getTarget().getClass());
+        String method = context.getMethodName();
+        long start = System.nanoTime();
+        String outcome = "error";
+        long rows = -1;
+        try {
+            Object result = context.proceed();
+            outcome = "success";
+            rows = countRows(result);
+            if (rows >= 0) {
+                DistributionSummary.builder(ROWS_SUMMARY)
+                        .tag("repository", repository)
+                        .tag("method", method)
+                        .register(meterRegistry)
+                        .record(rows);
+            }
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Timer.builder(QUERY_TIMER)
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            RequestTrace trace = slowRequestLog.currentTrace();
+            if (trace != null) {
+                // Micronaut Data stores the SQL of derived queries as @Query too
+                trace.recordStatement(repository, method, context.stringValue(Query.class).orElse(null), nanos, rows);
+            }
+        }
+    }
+
+    //    Helper returning the number of rows of a repository result, -1 for scalar results (counts, exists, void)
+    //    and for open cursors, whose rows are read after the call
+    static long countRows(Object result) {
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result == null || result instanceof Number || result instanceof Boolean || result instanceof AutoCloseable) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,135 @@
+package com.payment.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one request did: its route, the repository statements it issued and the bytes written back.
+ * Statements are kept in parallel primitive arrays allocated on the first statement, so a request
+ * without queries costs a single small object. Written by one thread at a time (the request hops
+ * threads, it does not run on two at once), read on the connection's event loop when the response is written:
+ * the statement count is volatile and written after the statement, so a reader that sees a count sees its
+ * statements.
+ */
+public final class RequestTrace {
+
+    private final String method;
+    private final String uri;
+    private final long startEpochMillis;
+    private final long startNanos;
+    private final int maxStatements;
+
+    private volatile String route;
+    private volatile int status;
+    // Set on the event loop and published to readers of the log by its ring
+    private long durationNanos;
+    private long responseBytes = -1;
+
+    private String[] statementRepositories;
+    private String[] statementMethods;
+    private String[] statementSql;
+    private long[] statementNanos;
+    private long[] statementRows;
+    private volatile int statementCount;
+    private volatile int droppedStatements;
+
+    RequestTrace(String method, String uri, int maxStatements) {
+        this.method = method;
+        this.uri = uri;
+        this.maxStatements = maxStatements;
+        this.startEpochMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    public void recordStatement(String repository, String method, String sql, long nanos, long rows) {
+        int count = statementCount;
+        if (count == maxStatements) {
+            droppedStatements++;
+            return;
+        }
+        if (statementMethods == null) {
+            statementRepositories = new String[maxStatements];
+            statementMethods = new String[maxStatements];
+            statementSql = new String[maxStatements];
+            statementNanos = new long[maxStatements];
+            statementRows = new long[maxStatements];
+        }
+        statementRepositories[count] = repository;
+        statementMethods[count] = method;
+        statementSql[count] = sql;
+        statementNanos[count] = nanos;
+        statementRows[count] = rows;
+        statementCount = count + 1;
+    }
+
+    public void setResponse(String route, int status) {
+        this.route = route;
+        this.status = status;
+    }
+
+    void finish(long responseBytes) {
+        this.durationNanos = System.nanoTime() - startNanos;
+        this.responseBytes = responseBytes;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    // Multi-line log entry; the wall clock start time lines requests up with profiler and GC timelines
+    String format() {
+        int statementCount = this.statementCount;
+        StringBuilder builder = new StringBuilder(256 + statementCount * 128)
+                .append("Slow request ").append(method).append(' ').append(uri)
+                .append(" route=").append(route)
+                .append(" status=").append(status)
+                .append(" took=").append(TimeUnit.NANOSECONDS.toMillis(durationNanos)).append("ms")
+                .append(" bytes=").append(responseBytes)
+                .append(" startedAt=").append(startEpochMillis)
+                .append(" statements=").append(statementCount + droppedStatements);
+        for (int i = 0; i < statementCount; i++) {
+            builder.append("\n  ").append(statementRepositories[i]).append('.').append(statementMethods[i])
+                    .append(' ').append(TimeUnit.NANOSECONDS.toMicros(statementNanos[i]) / 1000.0).append("ms")
+                    .append(" rows=").append(statementRows[i]);
+            if (statementSql[i] != null) {
+                builder.append(" sql=").append(statementSql[i]);
+            }
+        }
+        if (droppedStatements > 0) {
+            builder.append("\n  ... ").append(droppedStatements).append(" more statements not recorded");
+        }
+        return builder.toString();
+    }
+
+    Map<String, Object> toMap() {
+        int statementCount = this.statementCount;
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("method", method);
+        map.put("uri", uri);
+        map.put("route", route);
+        map.put("status", status);
+        map.put("startedAt", startEpochMillis);
+        map.put("durationMs", TimeUnit.NANOSECONDS.toMicros(durationNanos) / 1000.0);
+        map.put("responseBytes", responseBytes);
+        map.put("droppedStatements", droppedStatements);
+        List<Map<String, Object>> statements = new ArrayList<>(statementCount);
+        for (int i = 0; i < statementCount; i++) {
+            Map<String, Object> statement = new LinkedHashMap<>();
+            statement.put("repository", statementRepositories[i]);
+            statement.put("method", statementMethods[i]);
+            statement.put("durationMs", TimeUnit.NANOSECONDS.toMicros(statementNanos[i]) / 1000.0);
+            statement.put("rows", statementRows[i]);
+            statement.put("sql", statementSql[i]);
+            statements.add(statement);
+        }
+        map.put("statements", statements);
+        return map;
+    }
+}
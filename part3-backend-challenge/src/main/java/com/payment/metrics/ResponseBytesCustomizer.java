@@ -0,0 +1,140 @@
+package com.payment.metrics;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.http.netty.channel.ChannelPipelineCustomizer;
+import io.micronaut.http.server.netty.NettyServerCustomizer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+import jakarta.inject.Singleton;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Adds a handler next to the HTTP codec that counts the body bytes written for each response and completes
+ * the request's trace when the last chunk goes out, so slow request durations include serialization and streaming.
+ * <p>
+ * The handler numbers the requests of its connection as they are read and stamps the number on the request in
+ * {@link #SEQUENCE_HEADER}, overwriting anything the client sent. The filter registers the request's trace under
+ * that number. HTTP/1.1 answers requests in order, so the n-th final response written belongs to the n-th request,
+ * whether or not a trace was registered for it; interim 1xx responses are not counted.
+ */
+@Singleton
+@Requires(property = "slow-request-log.enabled", notEquals = "false")
+public class ResponseBytesCustomizer implements BeanCreatedEventListener<NettyServerCustomizer.Registry> {
+
+    public static final String SEQUENCE_HEADER = "x-slow-request-sequence";
+
+    // Traces registered by the filter, by request number; written from any thread, removed on the event loop
+    static final AttributeKey<ConcurrentMap<Long, RequestTrace>> TRACES = AttributeKey.valueOf("slow-request-log.traces");
+
+    private static final String HANDLER_NAME = "slow-request-bytes";
+
+    private final SlowRequestLog slowRequestLog;
+
+    public ResponseBytesCustomizer(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    public NettyServerCustomizer.Registry onCreated(BeanCreatedEvent<NettyServerCustomizer.Registry> event) {
+        NettyServerCustomizer.Registry registry = event.getBean();
+        registry.register(new ChannelCustomizer(null));
+        return registry;
+    }
+
+    // Registers the trace of the connection's request with the given number; the map publishes it to the event loop
+    public static void attach(Channel channel, long sequence, RequestTrace trace) {
+        ConcurrentMap<Long, RequestTrace> traces = channel.attr(TRACES).get();
+        if (traces != null) {
+            traces.put(sequence, trace);
+        }
+    }
+
+    private final class ChannelCustomizer implements NettyServerCustomizer {
+
+        private final Channel channel;
+
+        private ChannelCustomizer(Channel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public NettyServerCustomizer specializeForChannel(Channel channel, ChannelRole role) {
+            return role == ChannelRole.CONNECTION ? new ChannelCustomizer(channel) : this;
+        }
+
+        @Override
+        public void onStreamPipelineBuilt() {
+            if (channel != null && channel.pipeline().get(ChannelPipelineCustomizer.HANDLER_HTTP_SERVER_CODEC) != null) {
+                channel.pipeline().addAfter(ChannelPipelineCustomizer.HANDLER_HTTP_SERVER_CODEC, HANDLER_NAME,
+                        new ByteCountingHandler(slowRequestLog));
+            }
+        }
+    }
+
+    // Only runs on the connection's event loop
+    static final class ByteCountingHandler extends ChannelDuplexHandler {
+
+        private final SlowRequestLog slowRequestLog;
+        // Numbers of the requests read and not answered yet, oldest first
+        private final Queue<Long> pending = new ArrayDeque<>(2);
+        private long received;
+        private long bytes;
+        private boolean interim;
+
+        ByteCountingHandler(SlowRequestLog slowRequestLog) {
+            this.slowRequestLog = slowRequestLog;
+        }
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) {
+            ctx.channel().attr(TRACES).set(new ConcurrentHashMap<>(4));
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (msg instanceof HttpRequest request) {
+                long sequence = ++received;
+                request.headers().set(SEQUENCE_HEADER, sequence);
+                pending.add(sequence);
+            }
+            super.channelRead(ctx, msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (msg instanceof HttpResponse response) {
+                interim = response.status().codeClass() == HttpStatusClass.INFORMATIONAL;
+            }
+            if (!interim && msg instanceof HttpContent content) {
+                bytes += content.content().readableBytes();
+            }
+            if (msg instanceof LastHttpContent) {
+                if (interim) {
+                    interim = false;
+                } else {
+                    Long sequence = pending.poll();
+                    RequestTrace trace = sequence != null ? ctx.channel().attr(TRACES).get().remove(sequence) : null;
+                    if (trace != null) {
+                        slowRequestLog.complete(trace, bytes);
+                    }
+                    bytes = 0;
+                }
+            }
+            super.write(ctx, msg, promise);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.payment.metrics;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management endpoint at /slowrequests with the most recent requests over the slow request threshold,
+ * including their statements. Sensitive, since entries carry raw URIs and SQL.
+ */
+@Endpoint(id = "slowrequests")
+public class SlowRequestEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public SlowRequestEndpoint(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Read(sensitive = true)
+    public List<Map<String, Object>> recent() {
+        return slowRequestLog.recent();
+    }
+}
@@ -0,0 +1,81 @@
+package com.payment.metrics;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent slow requests in a fixed size ring and logs each one as it completes.
+ * Publishing is a getAndIncrement plus an array store, no lock, so it can stay on at full traffic;
+ * a reader may see an entry overwritten while it takes a snapshot, which is fine for diagnostics.
+ */
+@Singleton
+public class SlowRequestLog {
+
+    public static final String TRACE_ATTRIBUTE = "slow-request-log.trace";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SlowRequestLog.class);
+
+    private final long thresholdNanos;
+    private final int maxStatements;
+    private final AtomicReferenceArray<RequestTrace> ring;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowRequestLog(SlowRequestLogConfiguration configuration) {
+        this.thresholdNanos = configuration.getThreshold().toNanos();
+        this.maxStatements = configuration.getMaxStatements();
+        // Rounded up to a power of two so the slot is a mask instead of a modulo
+        int capacity = Integer.highestOneBit(Math.max(1, configuration.getCapacity() - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public RequestTrace start(HttpRequest<?> request) {
+        String rawQuery = request.getUri().getRawQuery();
+        String uri = rawQuery == null ? request.getPath() : request.getPath() + "?" + rawQuery;
+        RequestTrace trace = new RequestTrace(request.getMethodName(), uri, maxStatements);
+        request.setAttribute(TRACE_ATTRIBUTE, trace);
+        return trace;
+    }
+
+    // Trace of the request being served on this thread, null outside of a request or when the filter is off
+    public RequestTrace currentTrace() {
+        return ServerRequestContext.currentRequest()
+                .flatMap(request -> request.getAttribute(TRACE_ATTRIBUTE, RequestTrace.class))
+                .orElse(null);
+    }
+
+    public void complete(RequestTrace trace, long responseBytes) {
+        trace.finish(responseBytes);
+        if (trace.getDurationNanos() < thresholdNanos) {
+            return;
+        }
+        ring.set((int) (sequence.getAndIncrement() & mask), trace);
+        if (LOG.isWarnEnabled()) {
+            LOG.warn(trace.format());
+        }
+    }
+
+    // Newest first
+    public List<Map<String, Object>> recent() {
+        long end = sequence.get();
+        long start = Math.max(0, end - ring.length());
+        List<Map<String, Object>> entries = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            RequestTrace trace = ring.get((int) (i & mask));
+            if (trace != null) {
+                entries.add(trace.toMap());
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,49 @@
+package com.payment.metrics;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the slow request log, bound from slow-request-log.* in application.yml.
+ */
+@ConfigurationProperties("slow-request-log")
+public class SlowRequestLogConfiguration {
+
+    private boolean enabled = true;
+    private Duration threshold = Duration.ofMillis(500);
+    private int maxStatements = 32;
+    private int capacity = 256;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+}
@@ -0,0 +1,21 @@
+package com.payment.replica;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated read-only method on connections from the read replica while the replica is within
+ * read-replica.max-lag, on the primary otherwise. Only for methods that write nothing and tolerate data that
+ * is up to max-lag old; connections already open when the method is entered are not rerouted.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface ReadReplica {
+}
@@ -0,0 +1,40 @@
+package com.payment.replica;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for read replica routing, bound from read-replica.* in application.yml.
+ */
+@ConfigurationProperties("read-replica")
+public class ReadReplicaConfiguration {
+
+    private boolean enabled = false;
+    private String datasource = "replica";
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDatasource() {
+        return datasource;
+    }
+
+    public void setDatasource(String datasource) {
+        this.datasource = datasource;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+}
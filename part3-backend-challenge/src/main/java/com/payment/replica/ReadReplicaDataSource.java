@@ -0,0 +1,77 @@
+package com.payment.replica;
+
+import io.micronaut.context.BeanProvider;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * The default datasource with replica routing: connections opened inside a {@link ReadReplica} method come from
+ * the replica when {@link ReadReplicaRouter} allows it, every other connection comes from the primary pool.
+ */
+class ReadReplicaDataSource implements DataSource {
+
+    private final DataSource primary;
+    private final BeanProvider<ReadReplicaRouter> router;
+
+    ReadReplicaDataSource(DataSource primary, BeanProvider<ReadReplicaRouter> router) {
+        this.primary = primary;
+        this.router = router;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadReplicaRouter.isReplicaRead()) {
+            Connection replica = router.get().openReplicaConnection();
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    // Pool metrics and health checks unwrap to the primary Hikari pool
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+}
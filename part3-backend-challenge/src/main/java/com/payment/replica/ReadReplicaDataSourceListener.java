@@ -0,0 +1,40 @@
+package com.payment.replica;
+
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.order.Ordered;
+import jakarta.inject.Singleton;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the default datasource in a {@link ReadReplicaDataSource} as soon as the pool is created, ahead of
+ * Micronaut Data's own connection proxy, so repositories and plain JDBC code both see the routing datasource.
+ */
+@Singleton
+@Requires(property = "read-replica.enabled", value = "true")
+public class ReadReplicaDataSourceListener implements BeanCreatedEventListener<DataSource>, Ordered {
+
+    private static final String PRIMARY = "default";
+
+    private final BeanProvider<ReadReplicaRouter> router;
+
+    public ReadReplicaDataSourceListener(BeanProvider<ReadReplicaRouter> router) {
+        this.router = router;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+        if (!PRIMARY.equals(event.getBeanIdentifier().getName())) {
+            return event.getBean();
+        }
+        return new ReadReplicaDataSource(event.getBean(), router);
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,26 @@
+package com.payment.replica;
+
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import jakarta.inject.Singleton;
+
+/**
+ * Marks the current thread as reading from the replica for the duration of a {@link ReadReplica} method.
+ */
+@Singleton
+@InterceptorBean(ReadReplica.class)
+public class ReadReplicaInterceptor implements MethodInterceptor<Object, Object> {
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        // Nested calls keep the outer marker once they return
+        boolean outer = ReadReplicaRouter.isReplicaRead();
+        ReadReplicaRouter.setReplicaRead(true);
+        try {
+            return context.proceed();
+        } finally {
+            ReadReplicaRouter.setReplicaRead(outer);
+        }
+    }
+}
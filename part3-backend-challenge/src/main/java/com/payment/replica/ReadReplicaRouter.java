@@ -0,0 +1,206 @@
+package com.payment.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.jdbc.DataSourceResolver;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+/**
+ * Decides whether a {@link ReadReplica} read goes to the replica datasource, once per HTTP request and per
+ * connection outside of requests.
+ * The replica's replay lag is measured every read-replica.check-interval; reads fall back to the primary while it
+ * is over read-replica.max-lag, while the replica can not be reached and until the first check has passed.
+ * Without a datasources.replica entry every read stays on the primary.
+ */
+@Singleton
+@Requires(property = "read-replica.enabled", value = "true")
+public class ReadReplicaRouter {
+
+    public static final String LAG_GAUGE = "read-replica.lag";
+    public static final String CONNECTIONS_COUNTER = "read-replica.connections";
+
+    // Whether the reads of the current request go to the replica, set by the first one
+    static final String ROUTE_ATTRIBUTE = "read-replica.route";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadReplicaRouter.class);
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    // Replay lag in milliseconds: 0 when caught up with everything received (an idle primary sends nothing, so the
+    // age of the last replayed transaction alone would grow forever), NULL when not streaming from the primary.
+    // A server that is not in recovery is its own primary and never lags.
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE (EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000)::bigint END";
+
+    private final BeanContext beanContext;
+    private final DataSourceResolver dataSourceResolver;
+    private final String datasourceName;
+    private final long maxLagMillis;
+    private final Counter replicaConnections;
+    private final Counter lagFallbacks;
+    private final Counter unavailableFallbacks;
+
+    private volatile DataSource replica;
+    private volatile boolean replicaLookedUp;
+    // -1 until the first check, and while the replica can not be reached or is not streaming
+    private volatile long lagMillis = -1;
+
+    public ReadReplicaRouter(BeanContext beanContext,
+                             @Nullable DataSourceResolver dataSourceResolver,
+                             ReadReplicaConfiguration configuration,
+                             MeterRegistry meterRegistry) {
+        this.beanContext = beanContext;
+        this.dataSourceResolver = dataSourceResolver;
+        this.datasourceName = configuration.getDatasource();
+        this.maxLagMillis = configuration.getMaxLag().toMillis();
+        this.replicaConnections = connectionCounter(meterRegistry, "replica", "ok");
+        this.lagFallbacks = connectionCounter(meterRegistry, "primary", "lag");
+        this.unavailableFallbacks = connectionCounter(meterRegistry, "primary", "unavailable");
+        Gauge.builder(LAG_GAUGE, this, router -> router.lagMillis)
+                .description("Replay lag of the read replica in milliseconds, -1 when unknown or unreachable")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    static void setReplicaRead(boolean replicaRead) {
+        if (replicaRead) {
+            REPLICA_READ.set(Boolean.TRUE);
+        } else {
+            REPLICA_READ.remove();
+        }
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public boolean isReplicaUsable() {
+        long lag = lagMillis;
+        return lag >= 0 && lag <= maxLagMillis;
+    }
+
+    @Scheduled(fixedDelay = "${read-replica.check-interval:2s}", initialDelay = "${read-replica.initial-delay:0s}")
+    public void checkLag() {
+        DataSource dataSource = replica();
+        if (dataSource == null) {
+            return;
+        }
+        long previous = lagMillis;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            long lag = rs.getLong(1);
+            lagMillis = rs.wasNull() ? -1 : lag;
+        } catch (SQLException e) {
+            lagMillis = -1;
+            if (previous >= 0) {
+                LOG.warn("Read replica {} unreachable, reads go to the primary: {}", datasourceName, e.getMessage());
+            }
+            return;
+        }
+        boolean wasUsable = previous >= 0 && previous <= maxLagMillis;
+        if (wasUsable != isReplicaUsable()) {
+            LOG.warn("Read replica {} {} (lag {} ms, max {} ms)", datasourceName,
+                    isReplicaUsable() ? "serving reads again" : "out of rotation, reads go to the primary",
+                    lagMillis, maxLagMillis);
+        }
+    }
+
+    /**
+     * A replica connection for the current {@link ReadReplica} read, or null when the read has to use the primary.
+     * A replica that fails to hand out a connection is taken out of rotation until the next successful check.
+     * Within an HTTP request the first read decides: later reads of the request go to the same server, so an ETag
+     * version and the page it describes are never read from two servers at different points of replay.
+     */
+    Connection openReplicaConnection() {
+        DataSource dataSource = replica;
+        if (dataSource == null) {
+            return null;
+        }
+        Optional<HttpRequest<Object>> request = ServerRequestContext.currentRequest();
+        Boolean route = request.flatMap(r -> r.getAttribute(ROUTE_ATTRIBUTE, Boolean.class)).orElse(null);
+        Connection connection;
+        if (route != null) {
+            connection = route ? connect(dataSource) : null;
+        } else {
+            connection = isRoutable() ? connect(dataSource) : null;
+        }
+        request.ifPresent(r -> r.setAttribute(ROUTE_ATTRIBUTE, connection != null));
+        return connection;
+    }
+
+    private boolean isRoutable() {
+        long lag = lagMillis;
+        if (lag < 0) {
+            unavailableFallbacks.increment();
+            return false;
+        }
+        if (lag > maxLagMillis) {
+            lagFallbacks.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private Connection connect(DataSource dataSource) {
+        try {
+            Connection connection = dataSource.getConnection();
+            connection.setReadOnly(true);
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            lagMillis = -1;
+            unavailableFallbacks.increment();
+            LOG.warn("Read replica {} refused a connection, reads go to the primary: {}", datasourceName, e.getMessage());
+            return null;
+        }
+    }
+
+    //    Helper looking the replica datasource up once, unwrapped like the plain JDBC repositories do
+    private DataSource replica() {
+        if (!replicaLookedUp) {
+            Optional<DataSource> found = beanContext.findBean(DataSource.class, Qualifiers.byName(datasourceName));
+            if (found.isPresent()) {
+                replica = dataSourceResolver != null ? dataSourceResolver.resolve(found.get()) : found.get();
+                LOG.info("Read replica routing to datasources.{}, max lag {} ms", datasourceName, maxLagMillis);
+            } else {
+                LOG.info("No datasources.{} configured, reads stay on the primary", datasourceName);
+            }
+            replicaLookedUp = true;
+        }
+        return replica;
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder(CONNECTIONS_COUNTER)
+                .description("Connections opened for @ReadReplica reads, by where they went and why")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,142 @@
+package com.payment.repository;
+
+import com.payment.metrics.RepositoryMetrics;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.jdbc.DataSourceResolver;
+import jakarta.inject.Singleton;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Plain JDBC reader feeding the hot window store (see com.payment.hotwindow.HotWindowStore) with the listing columns
+ * of recent transactions. Postgres converts the date, timestamp and amount to integers (epoch day, epoch micros,
+ * cents), so rows stream into the store's columns without a date or decimal object per row; the warm-up reads
+ * through a server-side cursor, autocommit off plus a fetch size. Full and day loads also read the days'
+ * merchant_day_revisions, in the same REPEATABLE READ snapshot as the rows.
+ */
+@Singleton
+@RepositoryMetrics
+public class HotWindowRepository {
+
+    private static final String COLUMNS = "SELECT txn_id, merchant_id, txn_date - DATE '1970-01-01', " +
+            "(EXTRACT(EPOCH FROM local_txn_date_time) * 1000000)::BIGINT, (amount * 100)::BIGINT, " +
+            "currency, status, card_type, card_last4 " +
+            "FROM operators.transaction_master ";
+
+    private static final String LOAD_SINCE = COLUMNS + "WHERE txn_date >= ? ORDER BY local_txn_date_time, txn_id";
+
+    private static final String LOAD_AFTER = COLUMNS + "WHERE txn_date >= ? AND txn_id > ? ORDER BY txn_id LIMIT ?";
+
+    private static final String LOAD_DAY = COLUMNS + "WHERE merchant_id = ? AND txn_date = ?";
+
+    private static final String REVISIONS = "SELECT merchant_id, txn_date - DATE '1970-01-01', revision " +
+            "FROM operators.merchant_day_revisions ";
+
+    private static final String REVISIONS_SINCE = REVISIONS + "WHERE txn_date >= ?";
+
+    private static final String REVISION_OF_DAY = REVISIONS + "WHERE merchant_id = ? AND txn_date = ?";
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final DataSource dataSource;
+
+    public HotWindowRepository(DataSource dataSource, @Nullable DataSourceResolver dataSourceResolver) {
+        this.dataSource = dataSourceResolver != null ? dataSourceResolver.resolve(dataSource) : dataSource;
+    }
+
+    // Every row and merchant day revision from the day on, rows oldest first, all from one snapshot. Returns the
+    // number of rows read
+    public long loadSince(LocalDate fromDay, RowHandler handler) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            try (PreparedStatement revisions = connection.prepareStatement(REVISIONS_SINCE);
+                 PreparedStatement statement = connection.prepareStatement(LOAD_SINCE)) {
+                revisions.setObject(1, fromDay);
+                readRevisions(revisions, handler);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setObject(1, fromDay);
+                long rows = read(statement, handler);
+                connection.commit();
+                return rows;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load transactions since " + fromDay, e);
+        }
+    }
+
+    // Up to limit rows from the day on with a txn_id above afterTxnId, in txn_id order. Returns the number read
+    public long loadAfter(LocalDate fromDay, long afterTxnId, int limit, RowHandler handler) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(LOAD_AFTER)) {
+            statement.setObject(1, fromDay);
+            statement.setLong(2, afterTxnId);
+            statement.setInt(3, limit);
+            return read(statement, handler);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load transactions after " + afterTxnId, e);
+        }
+    }
+
+    // Every row of one merchant's day and the day's revision, from one snapshot
+    public long loadDay(String merchantId, LocalDate day, RowHandler handler) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            try (PreparedStatement revision = connection.prepareStatement(REVISION_OF_DAY);
+                 PreparedStatement statement = connection.prepareStatement(LOAD_DAY)) {
+                revision.setString(1, merchantId);
+                revision.setObject(2, day);
+                readRevisions(revision, handler);
+                statement.setString(1, merchantId);
+                statement.setObject(2, day);
+                long rows = read(statement, handler);
+                connection.commit();
+                return rows;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load transactions of " + merchantId + " on " + day, e);
+        }
+    }
+
+    private static long read(PreparedStatement statement, RowHandler handler) throws SQLException {
+        long rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                handler.row(resultSet.getLong(1), resultSet.getString(2), resultSet.getInt(3), resultSet.getLong(4),
+                        resultSet.getLong(5), resultSet.getString(6), resultSet.getString(7), resultSet.getString(8),
+                        resultSet.getString(9));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void readRevisions(PreparedStatement statement, RowHandler handler) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                handler.revision(resultSet.getString(1), resultSet.getInt(2), resultSet.getLong(3));
+            }
+        }
+    }
+
+    /**
+     * Receives one transaction row: txn_date as days since 1970-01-01, local_txn_date_time as microseconds since the
+     * epoch and the amount in cents.
+     */
+    public interface RowHandler {
+
+        void row(long txnId, String merchantId, int epochDay, long epochMicros, long cents,
+                 String currency, String status, @Nullable String cardType, @Nullable String cardLast4);
+
+        // The merchant_day_revisions revision of one merchant day, txn_date as days since 1970-01-01
+        void revision(String merchantId, int epochDay, long revision);
+    }
+}
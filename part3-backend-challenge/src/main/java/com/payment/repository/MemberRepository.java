@@ -1,34 +1,50 @@
 package com.payment.repository;
 
 import com.payment.entity.Member;
+import com.payment.metrics.RepositoryMetrics;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
-import io.micronaut.data.model.Page;
-import io.micronaut.data.model.Pageable;
 import io.micronaut.data.model.query.builder.sql.Dialect;
 import io.micronaut.data.repository.PageableRepository;
+import io.micronaut.data.repository.jpa.JpaSpecificationExecutor;
+import io.micronaut.serde.annotation.Serdeable;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
 @JdbcRepository(dialect = Dialect.POSTGRES)
-public interface MemberRepository extends PageableRepository<Member, Long> {
+@RepositoryMetrics
+public interface MemberRepository extends PageableRepository<Member, Long>, JpaSpecificationExecutor<Member> {
 
     Optional<Member> findByMemberCode(String memberCode);
 
-    @Query(value = "SELECT * FROM operators.members WHERE " +
-            "(COALESCE(:search, '') = '' OR LOWER(member_name) LIKE LOWER(CONCAT('%', :search, '%')) OR CAST(member_id AS TEXT) LIKE CONCAT('%', :search, '%')) " +
-            "AND (COALESCE(:memberType, '') = '' OR member_type = :memberType) " +
-            "AND (COALESCE(:status, '') = '' OR status = :status)",
-            countQuery = "SELECT COUNT(*) FROM operators.members WHERE " +
-            "(COALESCE(:search, '') = '' OR LOWER(member_name) LIKE LOWER(CONCAT('%', :search, '%')) OR CAST(member_id AS TEXT) LIKE CONCAT('%', :search, '%')) " +
-            "AND (COALESCE(:memberType, '') = '' OR member_type = :memberType) " +
-            "AND (COALESCE(:status, '') = '' OR status = :status)",
-            nativeQuery = true)
-    Page<Member> findWithFilters(@Nullable String search, 
-                                  @Nullable String memberType, 
-                                  @Nullable String status, 
-                                  Pageable pageable);
+    // Filtered search goes through findAll(PredicateSpecification, Pageable) with MemberSpecifications,
+    // so only the filters that were supplied end up in the SQL
+
+    // Version of the whole table for ETags of the member search: members are never deleted, so a new or
+    // changed member changes the count or the latest updated_at
+    @Query("SELECT COUNT(*) AS row_count, MAX(updated_at) AS last_updated_at FROM operators.members")
+    MembersVersion findVersion();
+
+    @Serdeable
+    class MembersVersion {
+        private final long rowCount;
+        private final Instant lastUpdatedAt;
+
+        public MembersVersion(long rowCount, @Nullable Instant lastUpdatedAt) {
+            this.rowCount = rowCount;
+            this.lastUpdatedAt = lastUpdatedAt;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public Instant getLastUpdatedAt() {
+            return lastUpdatedAt;
+        }
+    }
 }
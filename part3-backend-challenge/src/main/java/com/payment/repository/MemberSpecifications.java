@@ -0,0 +1,46 @@
+package com.payment.repository;
+
+import com.payment.entity.Member;
+import io.micronaut.data.model.jpa.criteria.PersistentEntityCriteriaBuilder;
+import io.micronaut.data.repository.jpa.criteria.PredicateSpecification;
+
+/**
+ * Predicates for MemberRepository.findAll(PredicateSpecification, Pageable).
+ * Each one maps to a single indexed condition so absent filters add nothing to the query.
+ */
+public final class MemberSpecifications {
+
+    private MemberSpecifications() {
+    }
+
+    // member_name ILIKE '%x%', served by the idx_members_member_name_trgm GIN index
+    // (the criteria builder has no lower(), so LOWER(..) LIKE is not an option)
+    public static PredicateSpecification<Member> nameContains(String search) {
+        String term = escapeLike(search);
+        return (root, criteriaBuilder) -> ((PersistentEntityCriteriaBuilder) criteriaBuilder)
+                .containsStringIgnoreCase(root.get("memberName"), criteriaBuilder.literal(term));
+    }
+
+    // Exact primary key match for numeric searches
+    public static PredicateSpecification<Member> idEquals(Long memberId) {
+        return (root, criteriaBuilder) -> criteriaBuilder.equal(root.get("memberId"), memberId);
+    }
+
+    // Exact match on the unique member_code index
+    public static PredicateSpecification<Member> codeEquals(String memberCode) {
+        return (root, criteriaBuilder) -> criteriaBuilder.equal(root.get("memberCode"), memberCode);
+    }
+
+    public static PredicateSpecification<Member> typeEquals(String memberType) {
+        return (root, criteriaBuilder) -> criteriaBuilder.equal(root.get("memberType"), memberType);
+    }
+
+    public static PredicateSpecification<Member> statusEquals(String status) {
+        return (root, criteriaBuilder) -> criteriaBuilder.equal(root.get("status"), status);
+    }
+
+    // Treats % and _ typed by the user as literals
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,66 @@
+package com.payment.repository;
+
+import com.payment.entity.MemberStats;
+import com.payment.metrics.RepositoryMetrics;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.repository.CrudRepository;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repository for the per-merchant stats rollup.
+ * Rows are written by database triggers on transaction_master, the application only reads them.
+ */
+@Repository
+@JdbcRepository(dialect = Dialect.POSTGRES)
+@RepositoryMetrics
+public interface MemberStatsRepository extends CrudRepository<MemberStats, String> {
+
+//    Rebuilds member_stats from transaction_master and returns the merchants whose stored stats had drifted
+    @Query("SELECT * FROM operators.rebuild_member_stats()")
+    List<StatsDrift> rebuild();
+
+//    Stats Drift Type Defination
+    @Serdeable
+    class StatsDrift {
+        private String merchantId;
+        private Long storedCount;
+        private Long actualCount;
+        private BigDecimal storedAmount;
+        private BigDecimal actualAmount;
+
+    public StatsDrift(String merchantId, Long storedCount, Long actualCount, BigDecimal storedAmount, BigDecimal actualAmount) {
+        this.merchantId = merchantId;
+        this.storedCount = storedCount;
+        this.actualCount = actualCount;
+        this.storedAmount = storedAmount;
+        this.actualAmount = actualAmount;
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public Long getStoredCount() {
+        return storedCount;
+    }
+
+    public Long getActualCount() {
+        return actualCount;
+    }
+
+    public BigDecimal getStoredAmount() {
+        return storedAmount;
+    }
+
+    public BigDecimal getActualAmount() {
+        return actualAmount;
+    }
+}
+
+}
@@ -0,0 +1,23 @@
+package com.payment.repository;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.metrics.RepositoryMetrics;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.repository.GenericRepository;
+
+/**
+ * Maintenance of operators.merchant_daily_rollup, the per day totals behind the transaction summaries.
+ * Late changes to rolled up days are applied by triggers, only new days need a refresh.
+ */
+@Repository
+@JdbcRepository(dialect = Dialect.POSTGRES)
+@RepositoryMetrics
+public interface MerchantDailyRollupRepository extends GenericRepository<TransactionMaster, Long> {
+
+//    Rolls up every complete day (through yesterday, UTC) not rolled up yet, returns the rollup rows written
+    @Query("SELECT operators.refresh_merchant_daily_rollup() AS rows_written")
+    int refresh();
+}
@@ -1,6 +1,7 @@
 package com.payment.repository;
 
 import com.payment.entity.TransactionDetail;
+import com.payment.metrics.RepositoryMetrics;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
 import io.micronaut.data.model.query.builder.sql.Dialect;
@@ -13,6 +14,7 @@ import java.util.List;
  */
 @Repository
 @JdbcRepository(dialect = Dialect.POSTGRES)
+@RepositoryMetrics
 public interface TransactionDetailRepository extends CrudRepository<TransactionDetail, Long> {
 
     List<TransactionDetail> findByMasterTxnId(Long masterTxnId);
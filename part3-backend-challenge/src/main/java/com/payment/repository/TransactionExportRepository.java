@@ -0,0 +1,313 @@
+package com.payment.repository;
+
+import com.payment.metrics.RepositoryMetrics;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.jdbc.DataSourceResolver;
+import jakarta.inject.Singleton;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Plain JDBC reader for the transaction export.
+ * Micronaut Data materialises whole result lists, the export reads the range in keyset batches instead: each query
+ * takes the next fetchSize masters in (txn_date, txn_id) order, which idx_tm_merchant_date_cover returns without a
+ * sort, and joins their details. All batches run in one read-only REPEATABLE READ transaction, so the export is a
+ * single snapshot of the range.
+ */
+@Singleton
+@RepositoryMetrics
+public class TransactionExportRepository {
+
+    // The masters CTE stops after LIMIT index entries, the LATERAL join reads each master's details through
+    // idx_td_master_time, and the nested loop keeps the masters' order, so no step sorts more than one master's details
+    private static final String BATCH_QUERY = "WITH m AS (" +
+            "SELECT txn_id, txn_date, local_txn_date_time, amount, currency, status, " +
+            "card_type, card_last4, auth_code, response_code " +
+            "FROM operators.transaction_master " +
+            "WHERE merchant_id = ? AND txn_date BETWEEN ? AND ? AND (txn_date, txn_id) > (?, ?) %s" +
+            "ORDER BY txn_date, txn_id LIMIT ?) " +
+            "SELECT m.txn_id, m.local_txn_date_time, m.amount, m.currency, m.status, " +
+            "m.card_type, m.card_last4, m.auth_code, m.response_code, " +
+            "d.txn_detail_id, d.detail_type, d.amount, d.currency, d.description, m.txn_date " +
+            "FROM m LEFT JOIN LATERAL (" +
+            "SELECT txn_detail_id, detail_type, amount, currency, description " +
+            "FROM operators.transaction_details WHERE master_txn_id = m.txn_id ORDER BY txn_detail_id) d ON true " +
+            "ORDER BY m.txn_date, m.txn_id, d.txn_detail_id";
+
+    private final DataSource dataSource;
+
+    public TransactionExportRepository(DataSource dataSource, @Nullable DataSourceResolver dataSourceResolver) {
+        this.dataSource = dataSourceResolver != null ? dataSourceResolver.resolve(dataSource) : dataSource;
+    }
+
+    // Opens a cursor over master rows joined with their details, in (txn_date, txn_id) order so details of one master
+    // are adjacent. The first batch runs here, the next ones when the cursor reaches the end of the previous one
+    public ExportCursor openCursor(String merchantId, Instant startDate, Instant endDate, @Nullable String status, int fetchSize) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+
+            String sql = String.format(BATCH_QUERY, status != null ? "AND status = ? " : "");
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, merchantId);
+            LocalDate startDay = LocalDate.ofInstant(startDate, ZoneOffset.UTC);
+            statement.setObject(2, startDay);
+            statement.setObject(3, LocalDate.ofInstant(endDate, ZoneOffset.UTC));
+            int limitIndex = 6;
+            if (status != null) {
+                statement.setString(6, status);
+                limitIndex = 7;
+            }
+            statement.setInt(limitIndex, fetchSize);
+
+            JdbcExportCursor cursor = new JdbcExportCursor(connection, statement, fetchSize);
+            // txn_id starts at 1, so (first day, 0) is before every row of the range
+            cursor.query(startDay, 0L);
+            return cursor;
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IllegalStateException("Could not open transaction export cursor", e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+            connection.close();
+        } catch (SQLException ignored) {
+            // connection is being discarded anyway
+        }
+    }
+
+    /**
+     * Forward-only view of the export result set, one row per master/detail pair.
+     * Getters read the current row of the current batch, nothing is buffered per row. Not thread safe.
+     */
+    public interface ExportCursor extends AutoCloseable {
+
+        boolean next();
+
+        long getTxnId();
+
+        Instant getLocalTxnDateTime();
+
+        BigDecimal getAmount();
+
+        String getCurrency();
+
+        String getStatus();
+
+        String getCardType();
+
+        String getCardLast4();
+
+        String getAuthCode();
+
+        String getResponseCode();
+
+        // False when the master row has no details (LEFT JOIN produced nulls)
+        boolean hasDetail();
+
+        long getDetailId();
+
+        String getDetailType();
+
+        BigDecimal getDetailAmount();
+
+        String getDetailCurrency();
+
+        String getDetailDescription();
+
+        @Override
+        void close();
+    }
+
+    private static final class JdbcExportCursor implements ExportCursor {
+
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final int batchSize;
+        private ResultSet resultSet;
+
+        // Key of the last master read and the number of masters read from the current batch
+        private LocalDate lastTxnDate;
+        private long lastTxnId;
+        private int batchMasters;
+
+        private JdbcExportCursor(Connection connection, PreparedStatement statement, int batchSize) {
+            this.connection = connection;
+            this.statement = statement;
+            this.batchSize = batchSize;
+        }
+
+        // Runs the batch of masters after (txnDate, txnId)
+        private void query(LocalDate txnDate, long txnId) throws SQLException {
+            statement.setObject(4, txnDate);
+            statement.setLong(5, txnId);
+            resultSet = statement.executeQuery();
+            batchMasters = 0;
+        }
+
+        @Override
+        public boolean next() {
+            try {
+                while (!resultSet.next()) {
+                    // A short batch was the last one
+                    if (batchMasters < batchSize) {
+                        return false;
+                    }
+                    resultSet.close();
+                    query(lastTxnDate, lastTxnId);
+                }
+                long txnId = resultSet.getLong(1);
+                if (batchMasters == 0 || txnId != lastTxnId) {
+                    batchMasters++;
+                    lastTxnId = txnId;
+                    lastTxnDate = resultSet.getObject(15, LocalDate.class);
+                }
+                return true;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Transaction export failed while reading", e);
+            }
+        }
+
+        @Override
+        public long getTxnId() {
+            return getLong(1);
+        }
+
+        @Override
+        public Instant getLocalTxnDateTime() {
+            try {
+                OffsetDateTime value = resultSet.getObject(2, OffsetDateTime.class);
+                return value != null ? value.toInstant() : null;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Transaction export failed while reading", e);
+            }
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return getBigDecimal(3);
+        }
+
+        @Override
+        public String getCurrency() {
+            return getString(4);
+        }
+
+        @Override
+        public String getStatus() {
+            return getString(5);
+        }
+
+        @Override
+        public String getCardType() {
+            return getString(6);
+        }
+
+        @Override
+        public String getCardLast4() {
+            return getString(7);
+        }
+
+        @Override
+        public String getAuthCode() {
+            return getString(8);
+        }
+
+        @Override
+        public String getResponseCode() {
+            return getString(9);
+        }
+
+        @Override
+        public boolean hasDetail() {
+            getLong(10);
+            try {
+                return !resultSet.wasNull();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Transaction export failed while reading", e);
+            }
+        }
+
+        @Override
+        public long getDetailId() {
+            return getLong(10);
+        }
+
+        @Override
+        public String getDetailType() {
+            return getString(11);
+        }
+
+        @Override
+        public BigDecimal getDetailAmount() {
+            return getBigDecimal(12);
+        }
+
+        @Override
+        public String getDetailCurrency() {
+            return getString(13);
+        }
+
+        @Override
+        public String getDetailDescription() {
+            return getString(14);
+        }
+
+        private long getLong(int column) {
+            try {
+                return resultSet.getLong(column);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Transaction export failed while reading", e);
+            }
+        }
+
+        private String getString(int column) {
+            try {
+                return resultSet.getString(column);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Transaction export failed while reading", e);
+            }
+        }
+
+        private BigDecimal getBigDecimal(int column) {
+            try {
+                return resultSet.getBigDecimal(column);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Transaction export failed while reading", e);
+            }
+        }
+
+        // Ends the read-only transaction and hands the connection back to the pool
+        @Override
+        public void close() {
+            try {
+                resultSet.close();
+                statement.close();
+                connection.commit();
+            } catch (SQLException ignored) {
+                // nothing was written, closing the connection below is what matters
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+}
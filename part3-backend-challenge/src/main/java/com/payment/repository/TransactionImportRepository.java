@@ -0,0 +1,377 @@
+package com.payment.repository;
+
+import com.payment.entity.TransactionDetail;
+import com.payment.entity.TransactionMaster;
+import com.payment.metrics.RepositoryMetrics;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.jdbc.DataSourceResolver;
+import jakarta.inject.Singleton;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC writer for bulk transaction imports.
+ * Each chunk is written with two COPY ... FROM STDIN statements (masters, then details) in one transaction,
+ * together with its transaction_import_chunks row, so a chunk is either fully imported and recorded or not at all.
+ */
+@Singleton
+@RepositoryMetrics
+public class TransactionImportRepository {
+
+    private static final String START_IMPORT = "INSERT INTO operators.transaction_imports (import_key, chunk_rows) " +
+            "VALUES (?, ?) ON CONFLICT (import_key) DO NOTHING";
+
+    private static final String FIND_IMPORT = "SELECT chunk_rows, completed_at IS NOT NULL " +
+            "FROM operators.transaction_imports WHERE import_key = ?";
+
+    private static final String COMPLETE_IMPORT = "UPDATE operators.transaction_imports SET completed_at = NOW() " +
+            "WHERE import_key = ? AND completed_at IS NULL";
+
+    private static final String FIND_CHUNKS = "SELECT chunk_no, master_rows, detail_rows, copy_ms " +
+            "FROM operators.transaction_import_chunks WHERE import_key = ? ORDER BY chunk_no";
+
+    private static final String CHUNK_EXISTS = "SELECT 1 FROM operators.transaction_import_chunks " +
+            "WHERE import_key = ? AND chunk_no = ?";
+
+    private static final String INSERT_CHUNK = "INSERT INTO operators.transaction_import_chunks " +
+            "(import_key, chunk_no, master_rows, detail_rows, copy_ms) VALUES (?, ?, ?, ?, ?)";
+
+    // Master ids are taken up front so the detail rows can reference them without reading anything back
+    private static final String RESERVE_TXN_IDS = "SELECT nextval('operators.transaction_master_txn_id_seq') " +
+            "FROM generate_series(1, ?)";
+
+    private static final String COPY_MASTERS = "COPY operators.transaction_master (txn_id, merchant_id, gp_acquirer_id, " +
+            "gp_issuer_id, txn_date, local_txn_date_time, amount, currency, status, card_type, card_last4, auth_code, " +
+            "response_code) FROM STDIN";
+
+    private static final String COPY_DETAILS = "COPY operators.transaction_details (master_txn_id, detail_type, amount, " +
+            "currency, description, local_txn_date_time) FROM STDIN";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final DataSource dataSource;
+
+    public TransactionImportRepository(DataSource dataSource, @Nullable DataSourceResolver dataSourceResolver) {
+        this.dataSource = dataSourceResolver != null ? dataSourceResolver.resolve(dataSource) : dataSource;
+    }
+
+    // Registers the import on first use. Returns the stored state, whose chunk size wins over chunkRows on a retry
+    public ImportState startImport(String importKey, int chunkRows) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement insert = connection.prepareStatement(START_IMPORT)) {
+                insert.setString(1, importKey);
+                insert.setInt(2, chunkRows);
+                insert.executeUpdate();
+            }
+            try (PreparedStatement select = connection.prepareStatement(FIND_IMPORT)) {
+                select.setString(1, importKey);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    return new ImportState(rs.getInt(1), rs.getBoolean(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not start transaction import " + importKey, e);
+        }
+    }
+
+    public void completeImport(String importKey) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement(COMPLETE_IMPORT)) {
+            connection.setAutoCommit(true);
+            update.setString(1, importKey);
+            update.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not complete transaction import " + importKey, e);
+        }
+    }
+
+    // Chunks already imported under the key, in chunk order
+    public List<ChunkRecord> findChunks(String importKey) {
+        List<ChunkRecord> chunks = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(FIND_CHUNKS)) {
+            select.setString(1, importKey);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    chunks.add(new ChunkRecord(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getLong(4)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read transaction import " + importKey, e);
+        }
+        return chunks;
+    }
+
+    /**
+     * Copies one chunk and records it under (importKey, chunkNo) in the same transaction. Once committed the chunk's
+     * masters carry their txn ids.
+     * Returns null when the chunk was already imported, by an earlier attempt or a concurrent one.
+     * Rows the database rejects (constraint or format errors) surface as IllegalArgumentException.
+     */
+    public ChunkRecord copyChunk(String importKey, int chunkNo, ImportChunk chunk) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+
+            if (chunkExists(connection, importKey, chunkNo)) {
+                connection.rollback();
+                return null;
+            }
+
+            long start = System.nanoTime();
+            long[] txnIds = reserveTxnIds(connection, chunk.size());
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copy(copyManager, COPY_MASTERS, encodeMasters(chunk, txnIds));
+            if (chunk.getDetailCount() > 0) {
+                copy(copyManager, COPY_DETAILS, encodeDetails(chunk, txnIds));
+            }
+            long copyMs = (System.nanoTime() - start) / 1_000_000;
+
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_CHUNK)) {
+                insert.setString(1, importKey);
+                insert.setInt(2, chunkNo);
+                insert.setInt(3, chunk.size());
+                insert.setInt(4, chunk.getDetailCount());
+                insert.setLong(5, copyMs);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            for (int i = 0; i < txnIds.length; i++) {
+                chunk.getMasters().get(i).setTxnId(txnIds[i]);
+            }
+            return new ChunkRecord(chunkNo, chunk.size(), chunk.getDetailCount(), copyMs);
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            if (UNIQUE_VIOLATION.equals(e.getSQLState()) && isChunkConstraint(e)) {
+                return null;
+            }
+            // Class 22 (data exception) and 23 (integrity constraint violation) are bad input, not a failure of ours
+            String state = e.getSQLState();
+            if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+                throw new IllegalArgumentException("Chunk " + chunkNo + " rejected: " + e.getMessage());
+            }
+            throw new IllegalStateException("Could not import chunk " + chunkNo + " of " + importKey, e);
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    private boolean chunkExists(Connection connection, String importKey, int chunkNo) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(CHUNK_EXISTS)) {
+            select.setString(1, importKey);
+            select.setInt(2, chunkNo);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private long[] reserveTxnIds(Connection connection, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (PreparedStatement select = connection.prepareStatement(RESERVE_TXN_IDS)) {
+            select.setInt(1, count);
+            try (ResultSet rs = select.executeQuery()) {
+                for (int i = 0; i < count && rs.next(); i++) {
+                    ids[i] = rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void copy(CopyManager copyManager, String sql, byte[] rows) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn(sql);
+        try {
+            copyIn.writeToCopy(rows, 0, rows.length);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static boolean isChunkConstraint(SQLException e) {
+        return e.getMessage() != null && e.getMessage().contains("transaction_import_chunks_pkey");
+    }
+
+    //    Helper encoding the masters of a chunk in COPY text format, one line per row
+    static byte[] encodeMasters(ImportChunk chunk, long[] txnIds) {
+        StringBuilder rows = new StringBuilder(chunk.size() * 160);
+        for (int i = 0; i < chunk.size(); i++) {
+            TransactionMaster master = chunk.getMasters().get(i);
+            rows.append(txnIds[i]);
+            appendField(rows, master.getMerchantId());
+            appendField(rows, master.getGpAcquirerId());
+            appendField(rows, master.getGpIssuerId());
+            appendField(rows, master.getTxnDate());
+            appendField(rows, master.getLocalTxnDateTime());
+            appendField(rows, master.getAmount());
+            appendField(rows, master.getCurrency());
+            appendField(rows, master.getStatus().getValue());
+            appendField(rows, master.getCardType());
+            appendField(rows, master.getCardLast4());
+            appendField(rows, master.getAuthCode());
+            appendField(rows, master.getResponseCode());
+            rows.append('\n');
+        }
+        return rows.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    //    Helper encoding the details of a chunk in COPY text format, pointing at the reserved master ids
+    static byte[] encodeDetails(ImportChunk chunk, long[] txnIds) {
+        StringBuilder rows = new StringBuilder(chunk.getDetailCount() * 120);
+        for (int i = 0; i < chunk.size(); i++) {
+            for (TransactionDetail detail : chunk.getDetails().get(i)) {
+                rows.append(txnIds[i]);
+                appendField(rows, detail.getDetailType());
+                appendField(rows, detail.getAmount());
+                appendField(rows, detail.getCurrency());
+                appendField(rows, detail.getDescription());
+                appendField(rows, detail.getLocalTxnDateTime());
+                rows.append('\n');
+            }
+        }
+        return rows.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    //    Helper appending a tab and the value, \N for null, escaping what the text format treats specially
+    private static void appendField(StringBuilder rows, Object value) {
+        rows.append('\t');
+        if (value == null) {
+            rows.append("\\N");
+            return;
+        }
+        String text = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString()
+                : value instanceof Instant ? value.toString()
+                : String.valueOf(value);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                rows.append("\\\\");
+            } else if (c == '\t') {
+                rows.append("\\t");
+            } else if (c == '\n') {
+                rows.append("\\n");
+            } else if (c == '\r') {
+                rows.append("\\r");
+            } else {
+                rows.append(c);
+            }
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // the connection is closed next, which discards the transaction anyway
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(true);
+            connection.close();
+        } catch (SQLException ignored) {
+            // connection is being discarded anyway
+        }
+    }
+
+    /**
+     * Masters of one chunk in file order, each with its details (possibly none).
+     * Filled by the decoders, bounded by the configured chunk size, reused across chunks.
+     */
+    public static final class ImportChunk {
+        private final List<TransactionMaster> masters = new ArrayList<>();
+        private final List<List<TransactionDetail>> details = new ArrayList<>();
+        private int detailCount;
+
+        public void add(TransactionMaster master, List<TransactionDetail> masterDetails) {
+            masters.add(master);
+            details.add(masterDetails);
+            detailCount += masterDetails.size();
+        }
+
+        public void clear() {
+            masters.clear();
+            details.clear();
+            detailCount = 0;
+        }
+
+        public int size() {
+            return masters.size();
+        }
+
+        public int getDetailCount() {
+            return detailCount;
+        }
+
+        public List<TransactionMaster> getMasters() {
+            return masters;
+        }
+
+        public List<List<TransactionDetail>> getDetails() {
+            return details;
+        }
+    }
+
+    /**
+     * Stored state of an import key: the chunk size it was started with and whether it completed.
+     */
+    public static final class ImportState {
+        private final int chunkRows;
+        private final boolean completed;
+
+        public ImportState(int chunkRows, boolean completed) {
+            this.chunkRows = chunkRows;
+            this.completed = completed;
+        }
+
+        public int getChunkRows() { return chunkRows; }
+        public boolean isCompleted() { return completed; }
+    }
+
+    /**
+     * One imported chunk: rows written and how long the COPY statements took.
+     */
+    public static final class ChunkRecord {
+        private final int chunkNo;
+        private final int masterRows;
+        private final int detailRows;
+        private final long copyMs;
+
+        public ChunkRecord(int chunkNo, int masterRows, int detailRows, long copyMs) {
+            this.chunkNo = chunkNo;
+            this.masterRows = masterRows;
+            this.detailRows = detailRows;
+            this.copyMs = copyMs;
+        }
+
+        public int getChunkNo() { return chunkNo; }
+        public int getMasterRows() { return masterRows; }
+        public int getDetailRows() { return detailRows; }
+        public long getCopyMs() { return copyMs; }
+    }
+}
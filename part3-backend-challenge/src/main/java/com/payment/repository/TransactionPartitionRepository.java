@@ -0,0 +1,30 @@
+package com.payment.repository;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.metrics.RepositoryMetrics;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.repository.GenericRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintenance of the txn_date range partitions of transaction_master.
+ * Both calls go to the partition functions in schema.sql and return the affected partition names.
+ */
+@Repository
+@JdbcRepository(dialect = Dialect.POSTGRES)
+@RepositoryMetrics
+public interface TransactionPartitionRepository extends GenericRepository<TransactionMaster, Long> {
+
+//    Creates the missing partitions covering [fromDate, toDate), granularity is 'month' or 'day'
+    @Query("SELECT p AS partition_name FROM operators.create_transaction_partitions(:fromDate, :toDate, :granularity) p")
+    List<String> createPartitions(LocalDate fromDate, LocalDate toDate, String granularity);
+
+//    Detaches the partitions whose range ends on or before the given date
+    @Query("SELECT p AS partition_name FROM operators.detach_transaction_partitions(:beforeDate) p")
+    List<String> detachPartitions(LocalDate beforeDate);
+}
@@ -1,16 +1,20 @@
 package com.payment.repository;
 
 import com.payment.entity.TransactionMaster;
+import com.payment.metrics.RepositoryMetrics;
 import com.vladsch.flexmark.ext.ins.Ins;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Slice;
 import io.micronaut.data.model.query.builder.sql.Dialect;
 import io.micronaut.data.repository.CrudRepository;
 import io.micronaut.serde.annotation.Serdeable;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
@@ -26,6 +30,7 @@ import java.util.List;
  */
 @Repository
 @JdbcRepository(dialect = Dialect.POSTGRES)
+@RepositoryMetrics
 public interface TransactionRepository extends CrudRepository<TransactionMaster, Long> {
 
     // Example: Basic finder method (provided)
@@ -33,6 +38,12 @@ public interface TransactionRepository extends CrudRepository<TransactionMaster,
 
     boolean existsByMerchantId(String merchantId);
 
+    // Paged member transactions with total count, sorting comes from the Pageable
+    Page<TransactionMaster> findByMerchantId(String merchantId, Pageable pageable);
+
+    // Paged member transactions without the COUNT query
+    Slice<TransactionMaster> listByMerchantId(String merchantId, Pageable pageable);
+
     // Query Method to find transaction by MerchantID and Date Range with pagination and status filtering
     @Query(value = "SELECT * FROM operators.transaction_master "+
                     "WHERE merchant_id = :merchantId "+
@@ -45,27 +56,101 @@ public interface TransactionRepository extends CrudRepository<TransactionMaster,
       String merchantId,
       Instant startDate,
       Instant endDate,
-      String status,
+      @Nullable String status,
       Pageable pageable
     );
 
-//    To find transactions by merchant and date range for summary so no pagination required.
-    List<TransactionMaster>findByMerchantIdAndLocalTxnDateTimeBetween(
+//    Keyset paging: first page ordered by (local_txn_date_time, txn_id) so no OFFSET is needed
+    @Query("SELECT * FROM operators.transaction_master " +
+            "WHERE merchant_id = :merchantId " +
+            "AND txn_date BETWEEN :startDate AND :endDate AND (:status IS NULL OR status = :status) " +
+            "ORDER BY local_txn_date_time DESC, txn_id DESC " +
+            "LIMIT :limit")
+    List<TransactionMaster> findFirstByMerchantAndDateRange(
+            String merchantId,
+            Instant startDate,
+            Instant endDate,
+            @Nullable String status,
+            int limit
+    );
+
+//    Keyset paging: rows strictly after the cursor position
+    @Query("SELECT * FROM operators.transaction_master " +
+            "WHERE merchant_id = :merchantId " +
+            "AND txn_date BETWEEN :startDate AND :endDate AND (:status IS NULL OR status = :status) " +
+            "AND (local_txn_date_time, txn_id) < (:cursorTime, :cursorTxnId) " +
+            "ORDER BY local_txn_date_time DESC, txn_id DESC " +
+            "LIMIT :limit")
+    List<TransactionMaster> findNextByMerchantAndDateRange(
+            String merchantId,
+            Instant startDate,
+            Instant endDate,
+            @Nullable String status,
+            Instant cursorTime,
+            Long cursorTxnId,
+            int limit
+    );
+
+//    Optional total for keyset paging
+    @Query("SELECT COUNT(*) FROM operators.transaction_master " +
+            "WHERE merchant_id = :merchantId AND txn_date BETWEEN :startDate AND :endDate " +
+            "AND (:status IS NULL OR status = :status)")
+    long countByMerchantAndDateRange(
+            String merchantId,
+            Instant startDate,
+            Instant endDate,
+            @Nullable String status
+    );
+
+//    Summary aggregation: one row per (currency, status). Days up to the rollup watermark come from
+//    merchant_daily_rollup (a few rows per day), only the later days (normally today) are read from transaction_master
+    @Query("SELECT currency, status, SUM(txn_count)::BIGINT AS count, COALESCE(SUM(total_amount), 0) AS total_amount FROM (" +
+            "SELECT currency, status, txn_count, total_amount FROM operators.merchant_daily_rollup " +
+            "WHERE merchant_id = :merchantId AND txn_date BETWEEN :startDate AND :endDate " +
+            "AND txn_date <= (SELECT complete_through FROM operators.merchant_daily_rollup_state) " +
+            "UNION ALL " +
+            "SELECT currency, status, COUNT(*), SUM(amount) FROM operators.transaction_master " +
+            "WHERE merchant_id = :merchantId AND txn_date BETWEEN :startDate AND :endDate " +
+            "AND txn_date > (SELECT complete_through FROM operators.merchant_daily_rollup_state) " +
+            "GROUP BY currency, status" +
+            ") totals GROUP BY currency, status HAVING SUM(txn_count) > 0")
+    List<SummaryRow> summarize(
             String merchantId,
             Instant startDate,
             Instant endDate
     );
 
-//    Transaction Count by Status
-    @Query("SELECT status, COUNT(*) as count FROM operators.transaction_master " +
+//    Transaction Count by Status, rollup days plus the live tail like summarize
+    @Query("SELECT status, SUM(txn_count)::BIGINT AS count FROM (" +
+            "SELECT status, txn_count FROM operators.merchant_daily_rollup " +
+            "WHERE merchant_id = :merchantId AND txn_date BETWEEN :startDate AND :endDate " +
+            "AND txn_date <= (SELECT complete_through FROM operators.merchant_daily_rollup_state) " +
+            "UNION ALL " +
+            "SELECT status, COUNT(*) FROM operators.transaction_master " +
             "WHERE merchant_id = :merchantId AND txn_date BETWEEN :startDate AND :endDate " +
-            "GROUP BY status")
+            "AND txn_date > (SELECT complete_through FROM operators.merchant_daily_rollup_state) " +
+            "GROUP BY status" +
+            ") totals GROUP BY status HAVING SUM(txn_count) > 0")
     List<StatusCount> countByStatus(
             String merchantId,
             Instant startDate,
             Instant endDate
     );
 
+//    Version of the rows behind a listing of the range, for ETags. Inserts change the count or the highest txn_id;
+//    updates and deletes, status-only ones included, and changes to the details of existing transactions bump the
+//    merchant_day_revisions of the days they touch
+    @Query("SELECT COUNT(*) AS row_count, COALESCE(MAX(txn_id), 0) AS max_txn_id, " +
+            "(SELECT COALESCE(SUM(r.revision), 0) FROM operators.merchant_day_revisions r " +
+            "WHERE r.merchant_id = :merchantId AND r.txn_date BETWEEN :startDate AND :endDate) AS revision " +
+            "FROM operators.transaction_master " +
+            "WHERE merchant_id = :merchantId AND txn_date BETWEEN :startDate AND :endDate")
+    RangeVersion findVersion(
+            String merchantId,
+            Instant startDate,
+            Instant endDate
+    );
+
 //    Status Count Type Defination
     @Serdeable
     class StatusCount {
@@ -94,4 +179,78 @@ public interface TransactionRepository extends CrudRepository<TransactionMaster,
     }
 }
 
+//    Range Version Type Defination
+    @Serdeable
+    class RangeVersion {
+        private final long rowCount;
+        private final long maxTxnId;
+        private final long revision;
+
+        public RangeVersion(long rowCount, long maxTxnId, long revision) {
+            this.rowCount = rowCount;
+            this.maxTxnId = maxTxnId;
+            this.revision = revision;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getMaxTxnId() {
+            return maxTxnId;
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+    }
+
+//    Summary Row Type Defination
+    @Serdeable
+    class SummaryRow {
+        private String currency;
+        private String status;
+        private Long count;
+        private BigDecimal totalAmount;
+
+    public SummaryRow(String currency, String status, Long count, BigDecimal totalAmount) {
+        this.currency = currency;
+        this.status = status;
+        this.count = count;
+        this.totalAmount = totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
+
 }
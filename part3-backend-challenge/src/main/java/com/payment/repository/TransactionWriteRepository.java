@@ -0,0 +1,309 @@
+package com.payment.repository;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.metrics.RepositoryMetrics;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.jdbc.DataSourceResolver;
+import jakarta.inject.Singleton;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writer for transactions created through the API, one multi-row statement per batch.
+ * The rows are bound as one text array per column and unnested, so every batch size shares a single
+ * statement shape (and server-side plan) instead of one VALUES list per size.
+ */
+@Singleton
+@RepositoryMetrics
+public class TransactionWriteRepository {
+
+    // Each row takes a txn_id, claims its key and is inserted only if the claim succeeded. A key already taken,
+    // by an earlier request or one committing concurrently (ON CONFLICT waits for it), writes nothing.
+    // The key row and the transaction commit together, the statement runs in autocommit.
+    private static final String INSERT_BATCH = "WITH input AS (" +
+            "SELECT nextval('operators.transaction_master_txn_id_seq') AS txn_id, r.idempotency_key, r.request_hash, " +
+            "r.merchant_id, r.gp_acquirer_id::bigint AS gp_acquirer_id, r.gp_issuer_id::bigint AS gp_issuer_id, " +
+            "r.txn_date::date AS txn_date, r.local_txn_date_time::timestamptz AS local_txn_date_time, " +
+            "r.amount::numeric AS amount, r.currency, r.status, r.card_type, r.card_last4, r.auth_code, r.response_code " +
+            "FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], " +
+            "?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[]) " +
+            "AS r(idempotency_key, request_hash, merchant_id, gp_acquirer_id, gp_issuer_id, txn_date, local_txn_date_time, " +
+            "amount, currency, status, card_type, card_last4, auth_code, response_code)" +
+            "), keys AS (" +
+            "INSERT INTO operators.transaction_idempotency_keys (merchant_id, idempotency_key, request_hash, txn_id, txn_date) " +
+            "SELECT merchant_id, idempotency_key, request_hash, txn_id, txn_date FROM input " +
+            "ON CONFLICT (merchant_id, idempotency_key) DO NOTHING " +
+            "RETURNING merchant_id, idempotency_key, txn_id, created_at" +
+            "), masters AS (" +
+            "INSERT INTO operators.transaction_master (txn_id, merchant_id, gp_acquirer_id, gp_issuer_id, txn_date, " +
+            "local_txn_date_time, amount, currency, status, card_type, card_last4, auth_code, response_code) " +
+            "SELECT i.txn_id, i.merchant_id, i.gp_acquirer_id, i.gp_issuer_id, i.txn_date, i.local_txn_date_time, i.amount, " +
+            "i.currency, i.status, i.card_type, i.card_last4, i.auth_code, i.response_code " +
+            "FROM input i JOIN keys k ON k.txn_id = i.txn_id " +
+            "RETURNING txn_id" +
+            ") " +
+            "SELECT k.merchant_id, k.idempotency_key, k.txn_id, k.created_at FROM keys k JOIN masters m ON m.txn_id = k.txn_id";
+
+    private static final String FIND_KEYS = "SELECT k.merchant_id, k.idempotency_key, k.request_hash, k.txn_id, " +
+            "k.txn_date, k.created_at FROM operators.transaction_idempotency_keys k " +
+            "JOIN unnest(?::text[], ?::text[]) AS r(merchant_id, idempotency_key) " +
+            "ON k.merchant_id = r.merchant_id AND k.idempotency_key = r.idempotency_key";
+
+    // Bounded batches keep each purge statement short next to the inserts
+    private static final String PURGE_KEYS = "DELETE FROM operators.transaction_idempotency_keys WHERE ctid IN (" +
+            "SELECT ctid FROM operators.transaction_idempotency_keys WHERE created_at < ? LIMIT ?)";
+
+    private static final Comparator<WriteRequest> KEY_ORDER = Comparator
+            .comparing((WriteRequest request) -> request.getTransaction().getMerchantId())
+            .thenComparing(WriteRequest::getIdempotencyKey);
+
+    private final DataSource dataSource;
+
+    public TransactionWriteRepository(DataSource dataSource, @Nullable DataSourceResolver dataSourceResolver) {
+        this.dataSource = dataSourceResolver != null ? dataSourceResolver.resolve(dataSource) : dataSource;
+    }
+
+    /**
+     * Inserts the batch in one statement and returns one result per request, in request order.
+     * Requests whose key was already used come back with {@link WriteResult#isCreated()} false and the stored
+     * hash and txn_id; comparing the hash is up to the caller. Keys must be unique within the batch.
+     * Rows the database rejects (constraint or format errors) fail the whole batch with IllegalArgumentException.
+     * A batch chosen as a deadlock victim or failing serialization is rolled back whole and tried once more.
+     */
+    public List<WriteResult> insert(List<WriteRequest> requests) {
+        WriteResult[] results = new WriteResult[requests.size()];
+        Map<String, Integer> positions = new HashMap<>(requests.size() * 2);
+        for (int i = 0; i < requests.size(); i++) {
+            WriteRequest request = requests.get(i);
+            positions.put(keyOf(request.getTransaction().getMerchantId(), request.getIdempotencyKey()), i);
+        }
+        // Concurrent batches claim their keys in the same order, so overlapping ones wait on each other instead
+        // of deadlocking
+        List<WriteRequest> ordered = new ArrayList<>(requests);
+        ordered.sort(KEY_ORDER);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            int created;
+            try {
+                created = insertBatch(connection, requests, ordered, results, positions);
+            } catch (SQLException e) {
+                if (!isTransient(e)) {
+                    throw e;
+                }
+                Arrays.fill(results, null);
+                created = insertBatch(connection, requests, ordered, results, positions);
+            }
+            if (created < requests.size()) {
+                findExisting(connection, requests, results, positions);
+            }
+        } catch (SQLException e) {
+            // Class 22 (data exception) and 23 (integrity constraint violation) are bad input, not a failure of ours
+            String state = e.getSQLState();
+            if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+                throw new IllegalArgumentException("Transaction rejected: " + e.getMessage());
+            }
+            throw new IllegalStateException("Could not insert " + requests.size() + " transactions", e);
+        }
+        return List.of(results);
+    }
+
+    // Removes up to limit keys created before the cutoff, returns how many were removed
+    public int purgeKeys(Instant createdBefore, int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement delete = connection.prepareStatement(PURGE_KEYS)) {
+            connection.setAutoCommit(true);
+            delete.setTimestamp(1, Timestamp.from(createdBefore));
+            delete.setInt(2, limit);
+            return delete.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not purge idempotency keys", e);
+        }
+    }
+
+    // Runs the batch statement with the rows bound in key order, returns how many were created
+    private static int insertBatch(Connection connection, List<WriteRequest> requests, List<WriteRequest> ordered,
+                                   WriteResult[] results, Map<String, Integer> positions) throws SQLException {
+        int created = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_BATCH)) {
+            bindColumns(connection, insert, ordered);
+            try (ResultSet rs = insert.executeQuery()) {
+                while (rs.next()) {
+                    int position = positions.get(keyOf(rs.getString(1), rs.getString(2)));
+                    WriteRequest request = requests.get(position);
+                    results[position] = new WriteResult(true, rs.getLong(3),
+                            request.getTransaction().getTxnDate(), rs.getTimestamp(4).toInstant(),
+                            request.getRequestHash());
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    // Class 40 (transaction rollback): deadlock detected, serialization failure
+    private static boolean isTransient(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("40");
+    }
+
+    private void findExisting(Connection connection, List<WriteRequest> requests, WriteResult[] results,
+                              Map<String, Integer> positions) throws SQLException {
+        int missing = 0;
+        for (WriteResult result : results) {
+            if (result == null) {
+                missing++;
+            }
+        }
+        String[] merchantIds = new String[missing];
+        String[] keys = new String[missing];
+        int next = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                merchantIds[next] = requests.get(i).getTransaction().getMerchantId();
+                keys[next] = requests.get(i).getIdempotencyKey();
+                next++;
+            }
+        }
+
+        try (PreparedStatement select = connection.prepareStatement(FIND_KEYS)) {
+            select.setArray(1, connection.createArrayOf("text", merchantIds));
+            select.setArray(2, connection.createArrayOf("text", keys));
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    int position = positions.get(keyOf(rs.getString(1), rs.getString(2)));
+                    results[position] = new WriteResult(false, rs.getLong(4), rs.getDate(5),
+                            rs.getTimestamp(6).toInstant(), rs.getString(3));
+                }
+            }
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                // Only possible when the key was purged between the two statements
+                throw new IllegalStateException("Idempotency key " + requests.get(i).getIdempotencyKey()
+                        + " conflicted but could not be read back");
+            }
+        }
+    }
+
+    // Binds one text array per column, nulls included
+    private static void bindColumns(Connection connection, PreparedStatement insert, List<WriteRequest> requests)
+            throws SQLException {
+        int size = requests.size();
+        String[][] columns = new String[14][size];
+        for (int i = 0; i < size; i++) {
+            WriteRequest request = requests.get(i);
+            TransactionMaster master = request.getTransaction();
+            columns[0][i] = request.getIdempotencyKey();
+            columns[1][i] = request.getRequestHash();
+            columns[2][i] = master.getMerchantId();
+            columns[3][i] = text(master.getGpAcquirerId());
+            columns[4][i] = text(master.getGpIssuerId());
+            columns[5][i] = text(master.getTxnDate());
+            columns[6][i] = text(master.getLocalTxnDateTime());
+            columns[7][i] = text(master.getAmount());
+            columns[8][i] = master.getCurrency();
+            columns[9][i] = master.getStatus().getValue();
+            columns[10][i] = master.getCardType();
+            columns[11][i] = master.getCardLast4();
+            columns[12][i] = master.getAuthCode();
+            columns[13][i] = master.getResponseCode();
+        }
+        for (int column = 0; column < columns.length; column++) {
+            Array array = connection.createArrayOf("text", columns[column]);
+            insert.setArray(column + 1, array);
+        }
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+    }
+
+    private static String keyOf(String merchantId, String idempotencyKey) {
+        return merchantId + '\u0000' + idempotencyKey;
+    }
+
+    /**
+     * A transaction to create under a client idempotency key, with the hash of the normalized request.
+     */
+    public static final class WriteRequest {
+        private final String idempotencyKey;
+        private final String requestHash;
+        private final TransactionMaster transaction;
+
+        public WriteRequest(String idempotencyKey, String requestHash, TransactionMaster transaction) {
+            this.idempotencyKey = idempotencyKey;
+            this.requestHash = requestHash;
+            this.transaction = transaction;
+        }
+
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        public String getRequestHash() {
+            return requestHash;
+        }
+
+        public TransactionMaster getTransaction() {
+            return transaction;
+        }
+    }
+
+    /**
+     * Outcome of one request: the transaction it created, or the one stored earlier under its key.
+     */
+    public static final class WriteResult {
+        private final boolean created;
+        private final long txnId;
+        private final Date txnDate;
+        private final Instant createdAt;
+        private final String requestHash;
+
+        public WriteResult(boolean created, long txnId, Date txnDate, Instant createdAt, String requestHash) {
+            this.created = created;
+            this.txnId = txnId;
+            this.txnDate = txnDate;
+            this.createdAt = createdAt;
+            this.requestHash = requestHash;
+        }
+
+        public boolean isCreated() {
+            return created;
+        }
+
+        public long getTxnId() {
+            return txnId;
+        }
+
+        public Date getTxnDate() {
+            return txnDate;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        // Hash of the request that created the transaction
+        public String getRequestHash() {
+            return requestHash;
+        }
+    }
+}
@@ -17,5 +17,10 @@ public interface MemberService {
 
     MemberStatsResponse getStats(String memberCode);
 
-    MemberTransactionListResponse getTransactions(String memberCode, int page, int size);
+    MemberTransactionListResponse getTransactions(String memberCode, int page, int size, boolean includeTotal);
+
+    // Opaque versions for ETags: of the members table, and of one member's transactions (stats and listing)
+    String findAllVersion();
+
+    String getTransactionsVersion(String memberCode);
 }
@@ -0,0 +1,17 @@
+package com.payment.service;
+
+import com.payment.dto.TransactionCreateRequest;
+import com.payment.dto.TransactionCreateResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface TransactionCreateService {
+
+    /**
+     * Creates one transaction for the merchant, at most once per idempotencyKey.
+     * A retry with the same key and request completes with the stored transaction and replayed set; the same key
+     * with a different request fails with ConflictException. The future completes once the write has committed.
+     */
+    CompletableFuture<TransactionCreateResponse> createTransaction(String merchantId, String idempotencyKey,
+                                                                  TransactionCreateRequest request);
+}
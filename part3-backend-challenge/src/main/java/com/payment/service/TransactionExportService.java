@@ -0,0 +1,19 @@
+package com.payment.service;
+
+import org.reactivestreams.Publisher;
+
+import java.time.Instant;
+
+public interface TransactionExportService {
+
+    enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Streams every transaction of the merchant in the date range, details included.
+     * The publisher emits encoded byte chunks and only reads further rows from the database as chunks are requested.
+     */
+    Publisher<byte[]> export(String merchantId, Instant startDate, Instant endDate, String status, Format format);
+}
@@ -0,0 +1,20 @@
+package com.payment.service;
+
+import com.payment.dto.TransactionImportResponse;
+
+import java.io.InputStream;
+
+public interface TransactionImportService {
+
+    enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Streams transactions with their details from the body into the database in chunks, each chunk in its own
+     * transaction. Idempotent on importKey: chunks already imported under the key are skipped, so a failed import
+     * can be retried with the same key and file, and a completed one returns its stored result without reading the body.
+     */
+    TransactionImportResponse importTransactions(String importKey, InputStream body, Format format);
+}
@@ -6,14 +6,31 @@ import com.vladsch.flexmark.ext.ins.Ins;
 import java.time.Instant;
 import java.time.LocalDate;
 public interface TransactionService {
-    static TransactionResponse getTransactions(
+    TransactionResponse getTransactions(
             String merchantId,
             Instant startDate,
             Instant endDate,
             String status,
             int page,
-            int size
-    ){
-        return  null;
-    }
+            int size,
+            boolean includeDetails
+    );
+
+    TransactionResponse getTransactionsByCursor(
+            String merchantId,
+            Instant startDate,
+            Instant endDate,
+            String status,
+            String cursor,
+            int size,
+            boolean includeDetails,
+            boolean includeTotal
+    );
+
+    // Opaque version of the range's transactions, changes whenever one is added to, updated in or removed from it
+    String getTransactionsVersion(
+            String merchantId,
+            Instant startDate,
+            Instant endDate
+    );
 }
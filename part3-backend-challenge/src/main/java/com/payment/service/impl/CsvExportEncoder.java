@@ -0,0 +1,106 @@
+package com.payment.service.impl;
+
+import com.payment.repository.TransactionExportRepository.ExportCursor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One line per master/detail pair, master columns repeated; masters without details get empty detail columns.
+ */
+final class CsvExportEncoder extends TransactionExportEncoder {
+
+    private static final String HEADER = "txn_id,timestamp,amount,currency,status,card_type,card_last4,auth_code,response_code," +
+            "detail_id,detail_type,detail_amount,detail_currency,detail_description\n";
+
+    // Lines are built as chars and encoded once per chunk
+    private final StringBuilder line;
+
+    CsvExportEncoder(int chunkBytes) {
+        super(chunkBytes);
+        this.line = new StringBuilder(chunkBytes + 1024);
+    }
+
+    @Override
+    protected void writeHeader() {
+        line.append(HEADER);
+    }
+
+    @Override
+    protected void writeRow(ExportCursor cursor) {
+        Instant timestamp = cursor.getLocalTxnDateTime();
+        line.append(cursor.getTxnId());
+        line.append(',');
+        writeField(timestamp != null ? timestamp.toString() : null);
+        line.append(',');
+        writeAmount(cursor.getAmount());
+        line.append(',');
+        writeField(cursor.getCurrency());
+        line.append(',');
+        writeField(cursor.getStatus());
+        line.append(',');
+        writeField(cursor.getCardType());
+        line.append(',');
+        writeField(cursor.getCardLast4());
+        line.append(',');
+        writeField(cursor.getAuthCode());
+        line.append(',');
+        writeField(cursor.getResponseCode());
+        line.append(',');
+        if (cursor.hasDetail()) {
+            line.append(cursor.getDetailId());
+            line.append(',');
+            writeField(cursor.getDetailType());
+            line.append(',');
+            writeAmount(cursor.getDetailAmount());
+            line.append(',');
+            writeField(cursor.getDetailCurrency());
+            line.append(',');
+            writeField(cursor.getDetailDescription());
+        } else {
+            line.append(",,,,");
+        }
+        line.append('\n');
+    }
+
+    @Override
+    protected int pendingBytes() {
+        return line.length();
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        buffer.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        line.setLength(0);
+    }
+
+    private void writeAmount(BigDecimal amount) {
+        if (amount != null) {
+            line.append(amount.toPlainString());
+        }
+    }
+
+    //    Helper to quote a field only when it contains a separator, quote or line break (RFC 4180)
+    private void writeField(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        line.append(value.replace("\"", "\"\""));
+        line.append('"');
+    }
+}
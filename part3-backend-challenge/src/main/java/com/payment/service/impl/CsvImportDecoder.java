@@ -0,0 +1,241 @@
+package com.payment.service.impl;
+
+import com.payment.entity.TransactionDetail;
+import com.payment.entity.TransactionMaster;
+import com.payment.repository.TransactionImportRepository.ImportChunk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * RFC 4180 CSV with a header line, one line per master/detail pair like the export. Columns are named after the
+ * database columns, detail columns prefixed with detail_. Consecutive lines with the same txn_ref are one
+ * transaction; without a txn_ref every line is its own transaction. Empty fields are null.
+ */
+final class CsvImportDecoder extends TransactionImportDecoder {
+
+    private static final List<String> COLUMNS = List.of(
+            "txn_ref", "merchant_id", "gp_acquirer_id", "gp_issuer_id", "txn_date", "local_txn_date_time", "amount",
+            "currency", "status", "card_type", "card_last4", "auth_code", "response_code",
+            "detail_type", "detail_amount", "detail_currency", "detail_description", "detail_local_txn_date_time");
+
+    private static final int TXN_REF = 0;
+    private static final int MERCHANT_ID = 1;
+    private static final int GP_ACQUIRER_ID = 2;
+    private static final int GP_ISSUER_ID = 3;
+    private static final int TXN_DATE = 4;
+    private static final int LOCAL_TXN_DATE_TIME = 5;
+    private static final int AMOUNT = 6;
+    private static final int CURRENCY = 7;
+    private static final int STATUS = 8;
+    private static final int CARD_TYPE = 9;
+    private static final int CARD_LAST4 = 10;
+    private static final int AUTH_CODE = 11;
+    private static final int RESPONSE_CODE = 12;
+    private static final int DETAIL_TYPE = 13;
+    private static final int DETAIL_AMOUNT = 14;
+    private static final int DETAIL_CURRENCY = 15;
+    private static final int DETAIL_DESCRIPTION = 16;
+    private static final int DETAIL_LOCAL_TXN_DATE_TIME = 17;
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+    // Position in the file of each known column, -1 when the file does not have it
+    private int[] positions;
+    // Line read ahead that starts the next transaction
+    private String[] pending;
+    private long pendingLine;
+    private long line = 1;
+    private long recordLine = 1;
+    private boolean endOfInput;
+
+    CsvImportDecoder(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    boolean readTransaction(ImportChunk chunk) throws IOException {
+        if (positions == null) {
+            readHeader();
+        }
+        String[] record = pending;
+        if (record != null) {
+            recordLine = pendingLine;
+            pending = null;
+        } else {
+            record = readRecord();
+        }
+        if (record == null) {
+            return false;
+        }
+
+        long masterLine = recordLine;
+        TransactionMaster master = toMaster(record);
+        List<TransactionDetail> details = new ArrayList<>();
+        addDetail(record, details);
+
+        String txnRef = record[TXN_REF];
+        if (txnRef != null) {
+            String[] next;
+            while ((next = readRecord()) != null && txnRef.equals(next[TXN_REF])) {
+                addDetail(next, details);
+            }
+            pending = next;
+            pendingLine = recordLine;
+        }
+        // Missing required fields are reported on the first line of the transaction
+        recordLine = masterLine;
+        add(chunk, master, details);
+        return true;
+    }
+
+    @Override
+    protected long line() {
+        return recordLine;
+    }
+
+    private void readHeader() throws IOException {
+        if (!readFields()) {
+            throw invalid("header line is missing");
+        }
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i);
+            if (name != null) {
+                header.put(name.trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        positions = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            positions[i] = header.getOrDefault(COLUMNS.get(i), -1);
+        }
+        for (int required : new int[]{MERCHANT_ID, LOCAL_TXN_DATE_TIME, AMOUNT, STATUS}) {
+            if (positions[required] < 0) {
+                throw invalid("header has no " + COLUMNS.get(required) + " column");
+            }
+        }
+    }
+
+    // Next line as values in COLUMNS order, null at the end of the input
+    private String[] readRecord() throws IOException {
+        if (!readFields()) {
+            return null;
+        }
+        String[] record = new String[COLUMNS.size()];
+        for (int i = 0; i < positions.length; i++) {
+            int position = positions[i];
+            record[i] = position >= 0 && position < fields.size() ? fields.get(position) : null;
+        }
+        return record;
+    }
+
+    private TransactionMaster toMaster(String[] record) {
+        TransactionMaster master = new TransactionMaster();
+        master.setMerchantId(record[MERCHANT_ID]);
+        master.setGpAcquirerId(parseId(record[GP_ACQUIRER_ID], "gp_acquirer_id"));
+        master.setGpIssuerId(parseId(record[GP_ISSUER_ID], "gp_issuer_id"));
+        master.setTxnDate(parseDate(record[TXN_DATE], "txn_date"));
+        master.setLocalTxnDateTime(parseInstant(record[LOCAL_TXN_DATE_TIME], "local_txn_date_time"));
+        master.setAmount(parseAmount(record[AMOUNT], "amount"));
+        master.setCurrency(record[CURRENCY]);
+        master.setStatus(parseStatus(record[STATUS]));
+        master.setCardType(record[CARD_TYPE]);
+        master.setCardLast4(record[CARD_LAST4]);
+        master.setAuthCode(record[AUTH_CODE]);
+        master.setResponseCode(record[RESPONSE_CODE]);
+        return master;
+    }
+
+    //    Helper adding the detail columns of a line, lines of masters without details leave them empty
+    private void addDetail(String[] record, List<TransactionDetail> details) {
+        boolean empty = Arrays.stream(record, DETAIL_TYPE, DETAIL_LOCAL_TXN_DATE_TIME + 1).allMatch(Objects::isNull);
+        if (empty) {
+            return;
+        }
+        TransactionDetail detail = new TransactionDetail();
+        detail.setDetailType(record[DETAIL_TYPE]);
+        detail.setAmount(parseAmount(record[DETAIL_AMOUNT], "detail_amount"));
+        detail.setCurrency(record[DETAIL_CURRENCY]);
+        detail.setDescription(record[DETAIL_DESCRIPTION]);
+        detail.setLocalTxnDateTime(parseInstant(record[DETAIL_LOCAL_TXN_DATE_TIME], "detail_local_txn_date_time"));
+        details.add(detail);
+    }
+
+    //    Helper reading one CSV record into fields; quoted fields may contain separators, quotes and line breaks.
+    //    Blank lines are skipped. Returns false at the end of the input.
+    private boolean readFields() throws IOException {
+        while (true) {
+            if (endOfInput) {
+                return false;
+            }
+            fields.clear();
+            field.setLength(0);
+            recordLine = line;
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while (true) {
+                c = reader.read();
+                if (c == -1) {
+                    if (quoted) {
+                        throw invalid("unterminated quoted field");
+                    }
+                    endOfInput = true;
+                    break;
+                }
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    endField();
+                } else if (c == '\n') {
+                    line++;
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (!any || (fields.isEmpty() && field.length() == 0)) {
+                // blank line or end of input
+                continue;
+            }
+            endField();
+            return true;
+        }
+    }
+
+    private void endField() {
+        fields.add(field.length() == 0 ? null : field.toString());
+        field.setLength(0);
+    }
+}
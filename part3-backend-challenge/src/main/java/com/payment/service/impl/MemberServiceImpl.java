@@ -1,18 +1,25 @@
 package com.payment.service.impl;
 
+import com.payment.cache.LookupCache;
 import com.payment.dto.*;
 import com.payment.entity.Member;
+import com.payment.entity.MemberStats;
 import com.payment.entity.TransactionDetail;
 import com.payment.entity.TransactionMaster;
 import com.payment.exception.NotFoundException;
+import com.payment.replica.ReadReplica;
 import com.payment.repository.MemberRepository;
+import com.payment.repository.MemberSpecifications;
+import com.payment.repository.MemberStatsRepository;
 import com.payment.repository.TransactionDetailRepository;
 import com.payment.repository.TransactionRepository;
 import com.payment.service.MemberService;
 import com.payment.service.TransactionService;
+import com.payment.util.AmountAccumulator;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.model.Sort;
+import io.micronaut.data.repository.jpa.criteria.PredicateSpecification;
 import jakarta.inject.Singleton;
 
 import java.math.BigDecimal;
@@ -21,39 +28,50 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Singleton
 public class MemberServiceImpl implements MemberService {
 
+    private static final Pattern NUMERIC_ID = Pattern.compile("\\d{1,18}");
+    private static final Pattern MEMBER_CODE = Pattern.compile("(?i)[A-Z]{3}-[A-Z0-9]{3,8}");
+
     private final MemberRepository memberRepository;
     private final TransactionRepository transactionRepository;
     private final TransactionDetailRepository transactionDetailRepository;
+    private final MemberStatsRepository memberStatsRepository;
+    private final LookupCache lookupCache;
 
     public MemberServiceImpl(MemberRepository memberRepository,
                             TransactionRepository transactionRepository,
-                            TransactionDetailRepository transactionDetailRepository) {
+                            TransactionDetailRepository transactionDetailRepository,
+                            MemberStatsRepository memberStatsRepository,
+                            LookupCache lookupCache) {
         this.memberRepository = memberRepository;
         this.transactionRepository = transactionRepository;
         this.transactionDetailRepository = transactionDetailRepository;
+        this.memberStatsRepository = memberStatsRepository;
+        this.lookupCache = lookupCache;
     }
 
     @Override
+    @ReadReplica
     public MemberListResponse findAll(String search, String memberType, String status,
                                       String sortBy, String sortOrder, int page, int size) {
         
         String effectiveSortBy = sortBy != null ? sortBy : "createdAt";
         String effectiveSortOrder = sortOrder != null ? sortOrder : "desc";
         
-        String columnName = mapSortByToColumn(effectiveSortBy);
+        String propertyName = mapSortByToProperty(effectiveSortBy);
         Sort.Order order = effectiveSortOrder.equalsIgnoreCase("asc") 
-            ? Sort.Order.asc(columnName) 
-            : Sort.Order.desc(columnName);
+            ? Sort.Order.asc(propertyName) 
+            : Sort.Order.desc(propertyName);
         
         Pageable pageable = Pageable.from(page - 1, size, Sort.of(order));
         
-        Page<Member> memberPage = memberRepository.findWithFilters(
-            search, memberType, status, pageable
+        Page<Member> memberPage = memberRepository.findAll(
+            buildSearchSpecification(search, memberType, status), pageable
         );
 
         List<MemberResponse> memberResponses = memberPage.getContent()
@@ -74,19 +92,46 @@ public class MemberServiceImpl implements MemberService {
         return response;
     }
     
-    private String mapSortByToColumn(String sortBy) {
+    private String mapSortByToProperty(String sortBy) {
         switch (sortBy) {
             case "memberName":
-                return "member_name";
-            case "createdAt":
-                return "created_at";
+                return "memberName";
             case "updatedAt":
-                return "updated_at";
+                return "updatedAt";
+            case "createdAt":
             default:
-                return "created_at";
+                return "createdAt";
         }
     }
 
+    // Only the filters that are present become predicates.
+    // Numeric searches and member codes take the exact-match path, anything else is a trigram name search.
+    private PredicateSpecification<Member> buildSearchSpecification(String search, String memberType, String status) {
+        PredicateSpecification<Member> specification = null;
+
+        if (search != null && !search.isBlank()) {
+            String term = search.trim();
+            if (NUMERIC_ID.matcher(term).matches()) {
+                specification = and(specification, MemberSpecifications.idEquals(Long.parseLong(term)));
+            } else if (MEMBER_CODE.matcher(term).matches()) {
+                specification = and(specification, MemberSpecifications.codeEquals(term.toUpperCase()));
+            } else {
+                specification = and(specification, MemberSpecifications.nameContains(term));
+            }
+        }
+        if (memberType != null && !memberType.isBlank()) {
+            specification = and(specification, MemberSpecifications.typeEquals(memberType));
+        }
+        if (status != null && !status.isBlank()) {
+            specification = and(specification, MemberSpecifications.statusEquals(status));
+        }
+        return specification;
+    }
+
+    private PredicateSpecification<Member> and(PredicateSpecification<Member> current, PredicateSpecification<Member> next) {
+        return current == null ? next : current.and(next);
+    }
+
     @Override
     public MemberResponse findById(Long memberId) {
         Member member = memberRepository.findById(memberId)
@@ -107,6 +152,7 @@ public class MemberServiceImpl implements MemberService {
         member.setStatus("active");
 
         Member savedMember = memberRepository.save(member);
+        lookupCache.invalidateMember(savedMember.getMemberCode());
         return mapToResponse(savedMember);
     }
 
@@ -122,6 +168,7 @@ public class MemberServiceImpl implements MemberService {
         member.setCountry(request.getCountry());
 
         Member updatedMember = memberRepository.update(member);
+        lookupCache.invalidateMember(updatedMember.getMemberCode());
         return mapToResponse(updatedMember);
     }
 
@@ -132,36 +179,29 @@ public class MemberServiceImpl implements MemberService {
 
         member.setStatus("inactive");
         memberRepository.update(member);
+        lookupCache.invalidateMember(member.getMemberCode());
     }
 
     @Override
+    @ReadReplica
     public MemberStatsResponse getStats(String memberCode) {
-        Member member = memberRepository.findByMemberCode(memberCode)
+        lookupCache.findMemberByCode(memberCode)
             .orElseThrow(() -> new NotFoundException("Member not found with member code: " + memberCode));
 
-        List<TransactionMaster> transactions = transactionRepository.findByMerchantId(String.valueOf(memberCode));
-
         MemberStatsResponse stats = new MemberStatsResponse();
-        stats.setTotalTransactions((long) transactions.size());
-
-        if (!transactions.isEmpty()) {
-            double totalRevenue = transactions.stream()
-                .mapToDouble(t -> t.getAmount() != null ? t.getAmount().doubleValue() : 0.0)
-                .sum();
-            
-            stats.setTotalRevenue(totalRevenue);
-            stats.setAvgTransactionAmount(totalRevenue / transactions.size());
-
-            Instant lastTxnDate = transactions.stream()
-                .map(TransactionMaster::getLocalTxnDateTime)
-                .filter(Objects::nonNull)
-                .max(Instant::compareTo)
-                .orElse(null);
-            
-            stats.setLastTransactionDate(lastTxnDate != null ? lastTxnDate.toString() : null);
+        MemberStats rollup = memberStatsRepository.findById(memberCode).orElse(null);
+
+        if (rollup != null && rollup.getTxnCount() != null && rollup.getTxnCount() > 0) {
+            long totalCents = AmountAccumulator.toCents(rollup.getTotalAmount());
+
+            stats.setTotalTransactions(rollup.getTxnCount());
+            stats.setTotalRevenue(AmountAccumulator.toAmount(totalCents));
+            stats.setAvgTransactionAmount(AmountAccumulator.average(totalCents, rollup.getTxnCount()));
+            stats.setLastTransactionDate(rollup.getLastTxnDateTime() != null ? rollup.getLastTxnDateTime().toString() : null);
         } else {
-            stats.setTotalRevenue(0.0);
-            stats.setAvgTransactionAmount(0.0);
+            stats.setTotalTransactions(0L);
+            stats.setTotalRevenue(AmountAccumulator.toAmount(0L));
+            stats.setAvgTransactionAmount(AmountAccumulator.toAmount(0L));
             stats.setLastTransactionDate(null);
         }
 
@@ -169,40 +209,77 @@ public class MemberServiceImpl implements MemberService {
     }
 
     @Override
-    public MemberTransactionListResponse getTransactions(String memberCode, int page, int size) {
-        Member member = memberRepository.findByMemberCode(memberCode)
+    @ReadReplica
+    public MemberTransactionListResponse getTransactions(String memberCode, int page, int size, boolean includeTotal) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page number must be greater or equal to 0");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0");
+        }
+
+        lookupCache.findMemberByCode(memberCode)
             .orElseThrow(() -> new NotFoundException("Member not found with id: " + memberCode));
 
-        List<TransactionMaster> transactions = transactionRepository.findByMerchantId(String.valueOf(memberCode));
+        Pageable pageable = Pageable.from(page, size, Sort.of(
+            Sort.Order.desc("localTxnDateTime"),
+            Sort.Order.desc("txnId")
+        ));
+
+        MemberTransactionListResponse.Pagination pagination = new MemberTransactionListResponse.Pagination();
+        pagination.setCurrentPage(page + 1);
+        pagination.setPageSize(size);
 
-        int start = page * size;
-        int end = Math.min(start + size, transactions.size());
-        List<TransactionMaster> paginatedTransactions = transactions.subList(start, end);
+        List<TransactionMaster> transactions;
+        if (includeTotal) {
+            Page<TransactionMaster> transactionPage = transactionRepository.findByMerchantId(memberCode, pageable);
+            transactions = transactionPage.getContent();
+            pagination.setTotalRecords(transactionPage.getTotalSize());
+            pagination.setTotalPages(transactionPage.getTotalPages());
+        } else {
+            transactions = transactionRepository.listByMerchantId(memberCode, pageable).getContent();
+        }
 
-        List<MemberTransactionResponse> transactionResponses = paginatedTransactions.stream()
+        List<MemberTransactionResponse> transactionResponses = transactions.stream()
             .map(this::mapToTransactionResponse)
             .collect(Collectors.toList());
 
         MemberTransactionListResponse response = new MemberTransactionListResponse();
         response.setTransactions(transactionResponses);
-
-        MemberTransactionListResponse.Pagination pagination = new MemberTransactionListResponse.Pagination();
-        pagination.setCurrentPage(page + 1);
-        pagination.setPageSize(size);
-        pagination.setTotalRecords(transactions.size());
-        pagination.setTotalPages((int) Math.ceil((double) transactions.size() / size));
         response.setPagination(pagination);
 
         return response;
     }
 
+    @Override
+    @ReadReplica
+    public String findAllVersion() {
+        MemberRepository.MembersVersion version = memberRepository.findVersion();
+        Instant lastUpdatedAt = version.getLastUpdatedAt();
+        return version.getRowCount() + "-" + (lastUpdatedAt != null ? lastUpdatedAt.toString() : "");
+    }
+
+    // member_stats is maintained by the transaction_master triggers: inserts raise txn_count, updates and deletes
+    // bump revision, so the pair changes with every change to the member's transactions. updated_at is NOW(), the
+    // start time of the writing transaction, and is not monotonic across concurrent writers
+    @Override
+    @ReadReplica
+    public String getTransactionsVersion(String memberCode) {
+        lookupCache.findMemberByCode(memberCode)
+            .orElseThrow(() -> new NotFoundException("Member not found with member code: " + memberCode));
+
+        return memberStatsRepository.findById(memberCode)
+            .map(stats -> stats.getTxnCount() + "-" + stats.getRevision())
+            .orElse("0");
+    }
+
     private MemberTransactionResponse mapToTransactionResponse(TransactionMaster transaction) {
         MemberTransactionResponse response = new MemberTransactionResponse();
         response.setTxnId(transaction.getTxnId());
         response.setTimestamp(transaction.getLocalTxnDateTime() != null ? transaction.getLocalTxnDateTime().toString() : null);
         response.setAmount(transaction.getAmount() != null ? transaction.getAmount().doubleValue() : 0.0);
         response.setCurrency(transaction.getCurrency());
-        response.setStatus(transaction.getStatus());
+        response.setStatus(transaction.getStatus().getValue());
         response.setCardLast4(transaction.getCardLast4());
         response.setCardType("VISA");
         return response;
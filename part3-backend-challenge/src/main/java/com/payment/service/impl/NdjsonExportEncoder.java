@@ -0,0 +1,95 @@
+package com.payment.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.payment.repository.TransactionExportRepository.ExportCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * One JSON object per master transaction and line, its details nested in a "details" array.
+ * Relies on the cursor returning the rows of one master next to each other.
+ */
+final class NdjsonExportEncoder extends TransactionExportEncoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+    private boolean masterOpen;
+    private long currentTxnId;
+
+    NdjsonExportEncoder(int chunkBytes) {
+        super(chunkBytes);
+        try {
+            this.generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8);
+            // Lines are separated explicitly, not with Jackson's default space between root values
+            this.generator.setRootValueSeparator(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void writeRow(ExportCursor cursor) throws IOException {
+        long txnId = cursor.getTxnId();
+        if (masterOpen && txnId != currentTxnId) {
+            closeMaster();
+        }
+        if (!masterOpen) {
+            openMaster(cursor, txnId);
+        }
+        if (cursor.hasDetail()) {
+            generator.writeStartObject();
+            generator.writeNumberField("detailId", cursor.getDetailId());
+            generator.writeStringField("type", cursor.getDetailType());
+            generator.writeNumberField("amount", cursor.getDetailAmount());
+            generator.writeStringField("currency", cursor.getDetailCurrency());
+            generator.writeStringField("description", cursor.getDetailDescription());
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    protected void writeFooter() throws IOException {
+        if (masterOpen) {
+            closeMaster();
+        }
+    }
+
+    @Override
+    protected int pendingBytes() {
+        return generator.getOutputBuffered();
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        generator.flush();
+    }
+
+    private void openMaster(ExportCursor cursor, long txnId) throws IOException {
+        Instant timestamp = cursor.getLocalTxnDateTime();
+        generator.writeStartObject();
+        generator.writeNumberField("txnId", txnId);
+        generator.writeStringField("timestamp", timestamp != null ? timestamp.toString() : null);
+        generator.writeNumberField("amount", cursor.getAmount());
+        generator.writeStringField("currency", cursor.getCurrency());
+        generator.writeStringField("status", cursor.getStatus());
+        generator.writeStringField("cardType", cursor.getCardType());
+        generator.writeStringField("cardLast4", cursor.getCardLast4());
+        generator.writeStringField("authCode", cursor.getAuthCode());
+        generator.writeStringField("responseCode", cursor.getResponseCode());
+        generator.writeArrayFieldStart("details");
+        masterOpen = true;
+        currentTxnId = txnId;
+    }
+
+    private void closeMaster() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        masterOpen = false;
+    }
+}
@@ -0,0 +1,157 @@
+package com.payment.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.payment.entity.TransactionDetail;
+import com.payment.entity.TransactionMaster;
+import com.payment.repository.TransactionImportRepository.ImportChunk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One TransactionMaster JSON object per line (field names as on the entity), its details in a "details" array
+ * of TransactionDetail objects. Ids are assigned by the database, txnId and unknown fields are ignored.
+ * Streams the body with a Jackson parser, no line is materialised as a String.
+ */
+final class NdjsonImportDecoder extends TransactionImportDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+
+    NdjsonImportDecoder(InputStream input) {
+        try {
+            this.parser = JSON_FACTORY.createParser(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    boolean readTransaction(ImportChunk chunk) throws IOException {
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return false;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw invalid("expected a JSON object per line");
+            }
+            TransactionMaster master = new TransactionMaster();
+            List<TransactionDetail> details = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                readMasterField(field, master, details);
+            }
+            add(chunk, master, details);
+            return true;
+        } catch (JsonParseException e) {
+            throw invalid("malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    protected long line() {
+        return parser.getCurrentLocation().getLineNr();
+    }
+
+    private void readMasterField(String field, TransactionMaster master, List<TransactionDetail> details) throws IOException {
+        switch (field) {
+            case "merchantId":
+                master.setMerchantId(text());
+                break;
+            case "gpAcquirerId":
+                master.setGpAcquirerId(parseId(text(), field));
+                break;
+            case "gpIssuerId":
+                master.setGpIssuerId(parseId(text(), field));
+                break;
+            case "txnDate":
+                master.setTxnDate(parseDate(text(), field));
+                break;
+            case "localTxnDateTime":
+                master.setLocalTxnDateTime(parseInstant(text(), field));
+                break;
+            case "amount":
+                master.setAmount(parseAmount(text(), field));
+                break;
+            case "currency":
+                master.setCurrency(text());
+                break;
+            case "status":
+                master.setStatus(parseStatus(text()));
+                break;
+            case "cardType":
+                master.setCardType(text());
+                break;
+            case "cardLast4":
+                master.setCardLast4(text());
+                break;
+            case "authCode":
+                master.setAuthCode(text());
+                break;
+            case "responseCode":
+                master.setResponseCode(text());
+                break;
+            case "details":
+                readDetails(details);
+                break;
+            default:
+                parser.skipChildren();
+        }
+    }
+
+    private void readDetails(List<TransactionDetail> details) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw invalid("details must be an array");
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            TransactionDetail detail = new TransactionDetail();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "detailType":
+                        detail.setDetailType(text());
+                        break;
+                    case "amount":
+                        detail.setAmount(parseAmount(text(), "detail amount"));
+                        break;
+                    case "currency":
+                        detail.setCurrency(text());
+                        break;
+                    case "description":
+                        detail.setDescription(text());
+                        break;
+                    case "localTxnDateTime":
+                        detail.setLocalTxnDateTime(parseInstant(text(), "detail localTxnDateTime"));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            details.add(detail);
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw invalid("details must contain objects only");
+        }
+    }
+
+    // Scalar value as text (numbers included), null for JSON null
+    private String text() throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT || parser.currentToken() == JsonToken.START_ARRAY) {
+            throw invalid(parser.getCurrentName() + " must be a scalar value");
+        }
+        return parser.getValueAsString();
+    }
+}
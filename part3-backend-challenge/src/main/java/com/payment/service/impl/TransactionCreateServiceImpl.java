@@ -0,0 +1,177 @@
+package com.payment.service.impl;
+
+import com.payment.cache.LookupCache;
+import com.payment.cache.RangeResultCache;
+import com.payment.coalescer.TransactionWriteCoalescer;
+import com.payment.coalescer.TransactionWriteConfiguration;
+import com.payment.dto.TransactionCreateRequest;
+import com.payment.dto.TransactionCreateResponse;
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.exception.ConflictException;
+import com.payment.exception.LimitExceededException;
+import com.payment.hotwindow.HotWindowStore;
+import com.payment.repository.TransactionWriteRepository.WriteRequest;
+import com.payment.repository.TransactionWriteRepository.WriteResult;
+import com.payment.service.TransactionCreateService;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Singleton;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Singleton
+public class TransactionCreateServiceImpl implements TransactionCreateService {
+
+    private static final int MAX_MERCHANT_ID_LENGTH = 50;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    private final TransactionWriteCoalescer transactionWriteCoalescer;
+    private final LookupCache lookupCache;
+    private final RangeResultCache rangeResultCache;
+    // Null unless hot-window.enabled is true
+    private final HotWindowStore hotWindowStore;
+    private final Duration writeTimeout;
+
+    public TransactionCreateServiceImpl(TransactionWriteCoalescer transactionWriteCoalescer,
+                                        LookupCache lookupCache,
+                                        RangeResultCache rangeResultCache,
+                                        @Nullable HotWindowStore hotWindowStore,
+                                        TransactionWriteConfiguration configuration) {
+        this.transactionWriteCoalescer = transactionWriteCoalescer;
+        this.lookupCache = lookupCache;
+        this.rangeResultCache = rangeResultCache;
+        this.hotWindowStore = hotWindowStore;
+        this.writeTimeout = configuration.getWriteTimeout();
+    }
+
+    @Override
+    public CompletableFuture<TransactionCreateResponse> createTransaction(String merchantId, String idempotencyKey,
+                                                                         TransactionCreateRequest request) {
+        if (merchantId == null || merchantId.isBlank() || merchantId.length() > MAX_MERCHANT_ID_LENGTH) {
+            throw new IllegalArgumentException("merchantId must be 1 to " + MAX_MERCHANT_ID_LENGTH + " characters");
+        }
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new IllegalArgumentException("Idempotency-Key header is required");
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        TransactionMaster transaction = toTransaction(merchantId, request);
+        String requestHash = requestHash(transaction);
+
+        return transactionWriteCoalescer.submit(new WriteRequest(idempotencyKey, requestHash, transaction))
+                .orTimeout(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        throw translate(error);
+                    }
+                    if (!result.isCreated() && !result.getRequestHash().equals(requestHash)) {
+                        throw new ConflictException("Idempotency-Key " + idempotencyKey
+                                + " was already used for a different transaction " + result.getTxnId());
+                    }
+                    if (result.isCreated()) {
+                        lookupCache.invalidateMerchant(merchantId);
+                        rangeResultCache.invalidate(merchantId, result.getTxnDate().toLocalDate());
+                        if (hotWindowStore != null) {
+                            transaction.setTxnId(result.getTxnId());
+                            transaction.setTxnDate(result.getTxnDate());
+                            hotWindowStore.add(transaction);
+                        }
+                    }
+                    return toResponse(transaction, result);
+                });
+    }
+
+    // Applies the defaults and normalizes case, so equal requests hash equally
+    private static TransactionMaster toTransaction(String merchantId, TransactionCreateRequest request) {
+        if (request.getLocalTxnDateTime() == null || request.getAmount() == null || request.getStatus() == null) {
+            throw new IllegalArgumentException("localTxnDateTime, amount and status are required");
+        }
+        if (request.getAmount().scale() > 2) {
+            throw new IllegalArgumentException("amount must have at most 2 fraction digits got: " + request.getAmount());
+        }
+        TransactionStatus status = TransactionStatus.fromValue(request.getStatus().trim().toLowerCase(Locale.ROOT));
+        LocalDate txnDate = request.getTxnDate() != null
+                ? request.getTxnDate()
+                : request.getLocalTxnDateTime().atOffset(ZoneOffset.UTC).toLocalDate();
+
+        TransactionMaster transaction = new TransactionMaster();
+        transaction.setMerchantId(merchantId);
+        transaction.setGpAcquirerId(request.getGpAcquirerId());
+        transaction.setGpIssuerId(request.getGpIssuerId());
+        transaction.setTxnDate(Date.valueOf(txnDate));
+        transaction.setLocalTxnDateTime(request.getLocalTxnDateTime());
+        transaction.setAmount(request.getAmount().setScale(2));
+        transaction.setCurrency(request.getCurrency() != null ? request.getCurrency().toUpperCase(Locale.ROOT) : "USD");
+        transaction.setStatus(status);
+        transaction.setCardType(request.getCardType());
+        transaction.setCardLast4(request.getCardLast4());
+        transaction.setAuthCode(request.getAuthCode());
+        transaction.setResponseCode(request.getResponseCode());
+        return transaction;
+    }
+
+    // Hash of the normalized request (SHA-256, hex), one field per line
+    static String requestHash(TransactionMaster transaction) {
+        StringBuilder text = new StringBuilder(160);
+        for (Object field : new Object[]{transaction.getMerchantId(), transaction.getGpAcquirerId(),
+                transaction.getGpIssuerId(), transaction.getTxnDate(), transaction.getLocalTxnDateTime(),
+                transaction.getAmount().toPlainString(), transaction.getCurrency(), transaction.getStatus(),
+                transaction.getCardType(), transaction.getCardLast4(), transaction.getAuthCode(),
+                transaction.getResponseCode()}) {
+            text.append(field == null ? "\u0000" : field.toString()).append('\n');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private RuntimeException translate(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            // The write may still commit; a retry with the same key returns it instead of writing twice
+            return new LimitExceededException("Transaction write did not finish within " + writeTimeout
+                    + ", retry with the same Idempotency-Key");
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static TransactionCreateResponse toResponse(TransactionMaster transaction, WriteResult result) {
+        TransactionCreateResponse response = new TransactionCreateResponse();
+        response.setTxnId(result.getTxnId());
+        response.setMerchantId(transaction.getMerchantId());
+        response.setGpAcquirerId(transaction.getGpAcquirerId());
+        response.setGpIssuerId(transaction.getGpIssuerId());
+        response.setTxnDate(result.getTxnDate().toLocalDate());
+        response.setLocalTxnDateTime(transaction.getLocalTxnDateTime());
+        response.setAmount(transaction.getAmount());
+        response.setCurrency(transaction.getCurrency());
+        response.setStatus(transaction.getStatus().getValue());
+        response.setCardType(transaction.getCardType());
+        response.setCardLast4(transaction.getCardLast4());
+        response.setAuthCode(transaction.getAuthCode());
+        response.setResponseCode(transaction.getResponseCode());
+        response.setCreatedAt(result.getCreatedAt());
+        response.setReplayed(!result.isCreated());
+        return response;
+    }
+}
@@ -0,0 +1,72 @@
+package com.payment.service.impl;
+
+import com.payment.repository.TransactionExportRepository.ExportCursor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Turns export cursor rows into byte chunks of roughly chunkBytes each.
+ * One instance per export: it keeps the reusable buffer and the state of a master row spanning several detail rows.
+ */
+abstract class TransactionExportEncoder {
+
+    protected final ByteArrayOutputStream buffer;
+    private final int chunkBytes;
+    private boolean started;
+    private boolean finished;
+
+    protected TransactionExportEncoder(int chunkBytes) {
+        this.chunkBytes = chunkBytes;
+        // Headroom for the row that crosses the threshold so the buffer never has to grow
+        this.buffer = new ByteArrayOutputStream(chunkBytes + 4096);
+    }
+
+    // Returns the next chunk, or null once the cursor is exhausted and everything has been emitted
+    byte[] nextChunk(ExportCursor cursor) {
+        if (finished) {
+            return null;
+        }
+        try {
+            if (!started) {
+                writeHeader();
+                started = true;
+            }
+            while (buffer.size() + pendingBytes() < chunkBytes) {
+                if (!cursor.next()) {
+                    writeFooter();
+                    finished = true;
+                    break;
+                }
+                writeRow(cursor);
+            }
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (buffer.size() == 0) {
+            return null;
+        }
+        byte[] chunk = buffer.toByteArray();
+        buffer.reset();
+        return chunk;
+    }
+
+    protected void writeHeader() throws IOException {
+    }
+
+    protected abstract void writeRow(ExportCursor cursor) throws IOException;
+
+    protected void writeFooter() throws IOException {
+    }
+
+    // Bytes the format holds in its own buffer and has not flushed into the shared one yet
+    protected int pendingBytes() {
+        return 0;
+    }
+
+    // Pushes anything the format keeps in its own buffer into the shared one
+    protected void flush() throws IOException {
+    }
+}
@@ -0,0 +1,68 @@
+package com.payment.service.impl;
+
+import com.payment.cache.LookupCache;
+import com.payment.exception.NotFoundException;
+import com.payment.repository.TransactionExportRepository;
+import com.payment.service.TransactionExportService;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+
+@Singleton
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private final TransactionExportRepository transactionExportRepository;
+    private final LookupCache lookupCache;
+    private final int fetchSize;
+    private final int chunkBytes;
+
+    public TransactionExportServiceImpl(TransactionExportRepository transactionExportRepository,
+                                        LookupCache lookupCache,
+                                        @Value("${transaction-export.fetch-size:1000}") int fetchSize,
+                                        @Value("${transaction-export.chunk-bytes:65536}") int chunkBytes) {
+        this.transactionExportRepository = transactionExportRepository;
+        this.lookupCache = lookupCache;
+        this.fetchSize = fetchSize;
+        this.chunkBytes = chunkBytes;
+    }
+
+    @Override
+    public Publisher<byte[]> export(String merchantId, Instant startDate, Instant endDate, String status, Format format) {
+        //        Validating before the stream starts so errors still map to 404/400 instead of a broken body
+        if (!lookupCache.merchantExists(merchantId)) {
+            throw new NotFoundException("Merchant not found");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+
+        //        One cursor per subscriber, rows are only pulled when the client asks for the next chunk.
+        //        The blocking JDBC reads run on boundedElastic, never on the event loop, and the
+        //        connection is released on completion, error and cancellation (client disconnect)
+        return Flux.using(
+                        () -> transactionExportRepository.openCursor(merchantId, startDate, endDate, status, fetchSize),
+                        cursor -> {
+                            TransactionExportEncoder encoder = newEncoder(format);
+                            return Flux.<byte[]>generate(sink -> {
+                                byte[] chunk = encoder.nextChunk(cursor);
+                                if (chunk == null) {
+                                    sink.complete();
+                                } else {
+                                    sink.next(chunk);
+                                }
+                            });
+                        },
+                        TransactionExportRepository.ExportCursor::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private TransactionExportEncoder newEncoder(Format format) {
+        return format == Format.CSV
+                ? new CsvExportEncoder(chunkBytes)
+                : new NdjsonExportEncoder(chunkBytes);
+    }
+}
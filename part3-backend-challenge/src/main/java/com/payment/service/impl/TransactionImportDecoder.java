@@ -0,0 +1,121 @@
+package com.payment.service.impl;
+
+import com.payment.entity.TransactionDetail;
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.TransactionImportRepository.ImportChunk;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Reads import rows from the request body one transaction at a time, so memory is bounded by the chunk size
+ * and not by the size of the file. One instance per import. Bad input is reported as IllegalArgumentException
+ * with the line it was found on.
+ */
+abstract class TransactionImportDecoder {
+
+    private static final String DEFAULT_CURRENCY = "USD";
+
+    // Appends the next transaction with its details to the chunk, false once the input is exhausted
+    abstract boolean readTransaction(ImportChunk chunk) throws IOException;
+
+    // Line the decoder is on, for error messages
+    protected abstract long line();
+
+    //    Helper applying the column defaults and checking the required fields before the row is added
+    protected void add(ImportChunk chunk, TransactionMaster master, List<TransactionDetail> details) {
+        require(master.getMerchantId(), "merchantId");
+        require(master.getLocalTxnDateTime(), "localTxnDateTime");
+        require(master.getAmount(), "amount");
+        require(master.getStatus(), "status");
+        if (master.getTxnDate() == null) {
+            master.setTxnDate(Date.valueOf(LocalDate.ofInstant(master.getLocalTxnDateTime(), ZoneOffset.UTC)));
+        }
+        if (master.getCurrency() == null) {
+            master.setCurrency(DEFAULT_CURRENCY);
+        }
+        for (TransactionDetail detail : details) {
+            require(detail.getDetailType(), "detailType");
+            require(detail.getAmount(), "detail amount");
+            if (detail.getCurrency() == null) {
+                detail.setCurrency(master.getCurrency());
+            }
+            if (detail.getLocalTxnDateTime() == null) {
+                detail.setLocalTxnDateTime(master.getLocalTxnDateTime());
+            }
+        }
+        chunk.add(master, details);
+    }
+
+    protected Instant parseInstant(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalid(field + " must be an ISO-8601 instant got: " + value);
+        }
+    }
+
+    protected Date parseDate(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Date.valueOf(LocalDate.parse(value));
+        } catch (DateTimeParseException e) {
+            throw invalid(field + " must be in format YYYY-MM-DD got: " + value);
+        }
+    }
+
+    protected BigDecimal parseAmount(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw invalid(field + " must be a decimal number got: " + value);
+        }
+    }
+
+    protected TransactionStatus parseStatus(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return TransactionStatus.fromValue(value);
+        } catch (IllegalArgumentException e) {
+            throw invalid(e.getMessage());
+        }
+    }
+
+    protected Long parseId(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw invalid(field + " must be a number got: " + value);
+        }
+    }
+
+    protected IllegalArgumentException invalid(String message) {
+        return new IllegalArgumentException("Line " + line() + ": " + message);
+    }
+
+    private void require(Object value, String field) {
+        if (value == null) {
+            throw invalid(field + " is required");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.payment.service.impl;
+
+import com.payment.cache.LookupCache;
+import com.payment.cache.RangeResultCache;
+import com.payment.dto.TransactionImportResponse;
+import com.payment.entity.TransactionMaster;
+import com.payment.hotwindow.HotWindowStore;
+import com.payment.repository.TransactionImportRepository;
+import com.payment.repository.TransactionImportRepository.ChunkRecord;
+import com.payment.repository.TransactionImportRepository.ImportChunk;
+import com.payment.repository.TransactionImportRepository.ImportState;
+import com.payment.service.TransactionImportService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Singleton
+public class TransactionImportServiceImpl implements TransactionImportService {
+
+    public static final String CHUNK_TIMER = "transaction.import.chunk";
+    public static final String ROWS_COUNTER = "transaction.import.rows";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionImportServiceImpl.class);
+
+    private static final int MAX_IMPORT_KEY_LENGTH = 100;
+
+    private final TransactionImportRepository transactionImportRepository;
+    private final LookupCache lookupCache;
+    private final RangeResultCache rangeResultCache;
+    // Null unless hot-window.enabled is true
+    private final HotWindowStore hotWindowStore;
+    private final MeterRegistry meterRegistry;
+    private final int chunkRows;
+
+    public TransactionImportServiceImpl(TransactionImportRepository transactionImportRepository,
+                                        LookupCache lookupCache,
+                                        RangeResultCache rangeResultCache,
+                                        @Nullable HotWindowStore hotWindowStore,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${transaction-import.chunk-rows:5000}") int chunkRows) {
+        this.transactionImportRepository = transactionImportRepository;
+        this.lookupCache = lookupCache;
+        this.rangeResultCache = rangeResultCache;
+        this.hotWindowStore = hotWindowStore;
+        this.meterRegistry = meterRegistry;
+        this.chunkRows = chunkRows;
+    }
+
+    @Override
+    public TransactionImportResponse importTransactions(String importKey, InputStream body, Format format) {
+        if (importKey == null || importKey.isBlank()) {
+            throw new IllegalArgumentException("Idempotency-Key header is required");
+        }
+        if (importKey.length() > MAX_IMPORT_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_IMPORT_KEY_LENGTH + " characters");
+        }
+
+        long start = System.nanoTime();
+        ImportState state = transactionImportRepository.startImport(importKey, chunkRows);
+        if (state.isCompleted()) {
+            return storedResult(importKey, start);
+        }
+
+        TransactionImportResponse response = new TransactionImportResponse();
+        response.setImportKey(importKey);
+        response.setStatus(TransactionImportResponse.STATUS_IMPORTED);
+
+        //        Only one chunk is held in memory, its size fixed by the first attempt so retries line up
+        TransactionImportDecoder decoder = newDecoder(format, body);
+        ImportChunk chunk = new ImportChunk();
+        int chunkNo = 0;
+        boolean more = true;
+        try {
+            while (more) {
+                while (more && chunk.size() < state.getChunkRows()) {
+                    more = decoder.readTransaction(chunk);
+                }
+                if (chunk.size() == 0) {
+                    break;
+                }
+                chunkNo++;
+                response.getChunks().add(importChunk(importKey, chunkNo, chunk));
+                chunk.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the import body", e);
+        }
+
+        transactionImportRepository.completeImport(importKey);
+        return finish(response, start);
+    }
+
+    //    Helper copying one chunk, recording its throughput and making newly imported merchants visible to listings
+    private TransactionImportResponse.Chunk importChunk(String importKey, int chunkNo, ImportChunk chunk) {
+        long start = System.nanoTime();
+        ChunkRecord record = transactionImportRepository.copyChunk(importKey, chunkNo, chunk);
+        long nanos = System.nanoTime() - start;
+
+        Timer.builder(CHUNK_TIMER)
+                .tag("outcome", record != null ? "imported" : "skipped")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (record == null) {
+            LOG.debug("Import {} chunk {} already imported, skipped", importKey, chunkNo);
+            return new TransactionImportResponse.Chunk(chunkNo, chunk.size(), chunk.getDetailCount(), true, 0);
+        }
+
+        Counter.builder(ROWS_COUNTER).tag("table", "transaction_master").register(meterRegistry).increment(record.getMasterRows());
+        Counter.builder(ROWS_COUNTER).tag("table", "transaction_details").register(meterRegistry).increment(record.getDetailRows());
+
+        // A merchant cached as missing would otherwise stay hidden for the negative TTL, and cached pages of
+        // closed ranges would miss back-dated rows; the hot window gets the rows without waiting for its poll
+        Set<String> merchants = new HashSet<>();
+        Set<String> merchantDays = new HashSet<>();
+        for (TransactionMaster master : chunk.getMasters()) {
+            if (merchants.add(master.getMerchantId())) {
+                lookupCache.invalidateMerchant(master.getMerchantId());
+            }
+            if (merchantDays.add(master.getMerchantId() + '|' + master.getTxnDate())) {
+                rangeResultCache.invalidate(master.getMerchantId(), master.getTxnDate().toLocalDate());
+            }
+            if (hotWindowStore != null) {
+                hotWindowStore.add(master);
+            }
+        }
+
+        TransactionImportResponse.Chunk result = new TransactionImportResponse.Chunk(
+                chunkNo, record.getMasterRows(), record.getDetailRows(), false, record.getCopyMs());
+        LOG.debug("Import {} chunk {}: {} transactions, {} details in {} ms ({} rows/s)",
+                importKey, chunkNo, result.getTransactions(), result.getDetails(), result.getCopyMs(), result.getRowsPerSecond());
+        return result;
+    }
+
+    //    Helper answering a retry of a completed import from the chunks stored under its key
+    private TransactionImportResponse storedResult(String importKey, long start) {
+        TransactionImportResponse response = new TransactionImportResponse();
+        response.setImportKey(importKey);
+        response.setStatus(TransactionImportResponse.STATUS_ALREADY_IMPORTED);
+        for (ChunkRecord record : transactionImportRepository.findChunks(importKey)) {
+            response.getChunks().add(new TransactionImportResponse.Chunk(
+                    record.getChunkNo(), record.getMasterRows(), record.getDetailRows(), true, record.getCopyMs()));
+        }
+        return finish(response, start);
+    }
+
+    //    Helper adding up the chunks; rowsPerSecond is over the whole request, reading the body included
+    private TransactionImportResponse finish(TransactionImportResponse response, long start) {
+        long transactions = 0;
+        long details = 0;
+        int skipped = 0;
+        for (TransactionImportResponse.Chunk chunk : response.getChunks()) {
+            transactions += chunk.getTransactions();
+            details += chunk.getDetails();
+            if (chunk.isSkipped()) {
+                skipped++;
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        response.setTransactions(transactions);
+        response.setDetails(details);
+        response.setSkippedChunks(skipped);
+        response.setElapsedMs(elapsedMs);
+        response.setRowsPerSecond(skipped == response.getChunks().size() ? 0 : (transactions + details) * 1000 / Math.max(elapsedMs, 1));
+
+        if (TransactionImportResponse.STATUS_IMPORTED.equals(response.getStatus())) {
+            LOG.info("Import {} done: {} transactions, {} details in {} chunk(s), {} skipped, {} ms ({} rows/s)",
+                    response.getImportKey(), transactions, details, response.getChunks().size(), skipped, elapsedMs,
+                    response.getRowsPerSecond());
+        }
+        return response;
+    }
+
+    private TransactionImportDecoder newDecoder(Format format, InputStream body) {
+        return format == Format.CSV
+                ? new CsvImportDecoder(body)
+                : new NdjsonImportDecoder(body);
+    }
+}
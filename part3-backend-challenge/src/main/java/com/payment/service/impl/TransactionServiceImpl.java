@@ -1,20 +1,29 @@
 package com.payment.service.impl;
+import com.payment.cache.LookupCache;
+import com.payment.cache.RangeResultCache;
 import com.payment.dto.TransactionResponse;
 import com.payment.entity.TransactionDetail;
 import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
 import com.payment.exception.NotFoundException;
+import com.payment.hotwindow.HotWindowStore;
+import com.payment.replica.ReadReplica;
 import com.payment.repository.TransactionDetailRepository;
 import com.payment.repository.TransactionRepository;
 import com.payment.service.TransactionService;
+import com.payment.util.AmountAccumulator;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import jakarta.inject.Singleton;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Singleton
@@ -22,19 +31,33 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final TransactionDetailRepository transactionDetailRepository;
+    private final LookupCache lookupCache;
+    private final RangeResultCache rangeResultCache;
+    // Null unless hot-window.enabled is true
+    private final HotWindowStore hotWindowStore;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository, TransactionDetailRepository transactionDetailRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  TransactionDetailRepository transactionDetailRepository,
+                                  LookupCache lookupCache,
+                                  RangeResultCache rangeResultCache,
+                                  @Nullable HotWindowStore hotWindowStore) {
         this.transactionRepository = transactionRepository;
         this.transactionDetailRepository = transactionDetailRepository;
+        this.lookupCache = lookupCache;
+        this.rangeResultCache = rangeResultCache;
+        this.hotWindowStore = hotWindowStore;
     }
 
+    @Override
+    @ReadReplica
     public TransactionResponse getTransactions(
             String merchantId,
             Instant startDate,
             Instant endDate,
             String status,
             int page,
-            int size
+            int size,
+            boolean includeDetails
     ) {
         //        Validation: Checking if the member exists
         validateMerchant(merchantId);
@@ -42,26 +65,119 @@ public class TransactionServiceImpl implements TransactionService {
         //        Validatation: Checking if the Date range is valid
         validateDateRange(startDate, endDate);
 
-        Pageable pageable = Pageable.from(page, size);
-        Page<TransactionMaster> transactionPage = transactionRepository.findByMerchantAndDateRange(
-                merchantId,
-                startDate,
-                endDate,
-                status,
-                pageable
-        );
+        //        Pages of closed date ranges are served from the range cache, the page, COUNT and summary queries
+        //        only run on a miss
+        RangeResultCache.Key key = new RangeResultCache.Key(merchantId, startDate, endDate, status, page, size, includeDetails);
+        return rangeResultCache.get(key, () -> {
+            Pageable pageable = Pageable.from(page, size);
+            //        Ranges within the hot window are served from memory
+            Page<TransactionMaster> transactionPage = hotWindowStore != null
+                    ? hotWindowStore.findByMerchantAndDateRange(merchantId, startDate, endDate, status, pageable)
+                    : null;
+            if (transactionPage == null) {
+                transactionPage = transactionRepository.findByMerchantAndDateRange(
+                        merchantId,
+                        startDate,
+                        endDate,
+                        status,
+                        pageable
+                );
+            }
 
-        //        Building the response
+            //        Seting pagination DTO
+            TransactionResponse.Pagination pagination = new TransactionResponse.Pagination(
+                    page,
+                    size,
+                    transactionPage.getTotalPages(),
+                    transactionPage.getTotalSize()
+            );
+
+            return buildResponse(merchantId, startDate, endDate, transactionPage.getContent(), includeDetails, pagination);
+        });
+    }
+
+    @Override
+    @ReadReplica
+    public TransactionResponse getTransactionsByCursor(
+            String merchantId,
+            Instant startDate,
+            Instant endDate,
+            String status,
+            String cursor,
+            int size,
+            boolean includeDetails,
+            boolean includeTotal
+    ) {
+        validateMerchant(merchantId);
+        validateDateRange(startDate, endDate);
+
+        //        Fetching one extra row tells us whether another page exists without a COUNT
+        List<TransactionMaster> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = transactionRepository.findFirstByMerchantAndDateRange(
+                    merchantId, startDate, endDate, status, size + 1);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            rows = transactionRepository.findNextByMerchantAndDateRange(
+                    merchantId, startDate, endDate, status, position.timestamp, position.txnId, size + 1);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<TransactionMaster> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        Integer totalPages = null;
+        Long totalElements = null;
+        if (includeTotal) {
+            totalElements = transactionRepository.countByMerchantAndDateRange(merchantId, startDate, endDate, status);
+            totalPages = (int) ((totalElements + size - 1) / size);
+        }
+
+        TransactionResponse.Pagination pagination = new TransactionResponse.Pagination(null, size, totalPages, totalElements);
+        if (hasNext) {
+            pagination.setNextCursor(encodeCursor(pageRows.get(pageRows.size() - 1)));
+        }
+
+        return buildResponse(merchantId, startDate, endDate, pageRows, includeDetails, pagination);
+    }
+
+    @Override
+    @ReadReplica
+    public String getTransactionsVersion(String merchantId, Instant startDate, Instant endDate) {
+        validateMerchant(merchantId);
+        validateDateRange(startDate, endDate);
+
+        //        Versioned from the same source as the listing, so ETags change with what is served
+        TransactionRepository.RangeVersion version = hotWindowStore != null
+                ? hotWindowStore.findVersion(merchantId, startDate, endDate)
+                : null;
+        if (version == null) {
+            version = transactionRepository.findVersion(merchantId, startDate, endDate);
+        }
+        return version.getRowCount() + "-" + version.getMaxTxnId() + "-" + version.getRevision();
+    }
+
+    //        Helper to build the response shared by the offset and keyset paging modes
+    private TransactionResponse buildResponse(String merchantId,
+                                              Instant startDate,
+                                              Instant endDate,
+                                              List<TransactionMaster> masters,
+                                              boolean includeDetails,
+                                              TransactionResponse.Pagination pagination) {
         TransactionResponse response = new TransactionResponse();
         response.setMerchantId(merchantId);
 
         TransactionResponse.DateRange dateRange = new TransactionResponse.DateRange(startDate, endDate);
         response.setDateRange(dateRange);
 
+        //        Loading details for the whole page in one query instead of one query per row
+        Map<Long, List<TransactionDetail>> detailsByMaster = includeDetails
+                ? loadDetails(masters)
+                : null;
+
         //        Setting transactions to the response
-        List<TransactionResponse.Transaction> transactionDTOs= transactionPage.getContent()
+        List<TransactionResponse.Transaction> transactionDTOs= masters
                 .stream()
-                .map(this::mapToTransactionDTO)
+                .map(master -> mapToTransactionDTO(master, detailsByMaster))
                 .collect(Collectors.toList());
         response.setTransactions(transactionDTOs);
 
@@ -69,23 +185,43 @@ public class TransactionServiceImpl implements TransactionService {
         TransactionResponse.Summary summary = calcSummary(merchantId, startDate, endDate);
         response.setSummary(summary);
 
-        //        Seting pagination DTO
-        TransactionResponse.Pagination pagination = new TransactionResponse.Pagination(
-                page,
-                size,
-                transactionPage.getTotalPages(),
-                transactionPage.getTotalSize()
-        );
         response.setPagination(pagination);
 
         return  response;
     }
 
+    //        Helper to encode the (local_txn_date_time, txn_id) of the last row as an opaque cursor
+    private String encodeCursor(TransactionMaster last) {
+        String raw = last.getLocalTxnDateTime().toString() + "|" + last.getTxnId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //        Helper to decode a cursor produced by encodeCursor
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(Instant.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    //    Position of the last row returned in keyset mode
+    private static final class Cursor {
+        private final Instant timestamp;
+        private final Long txnId;
+
+        private Cursor(Instant timestamp, Long txnId) {
+            this.timestamp = timestamp;
+            this.txnId = txnId;
+        }
+    }
 
     //        Helper method to validate if the merchant exists
     private void validateMerchant(String merchantId) {
-        // Check if merchant exists in the system
-        boolean exists = transactionRepository.existsByMerchantId(merchantId);
+        // Check if merchant exists in the system, served from the lookup cache when warm
+        boolean exists = lookupCache.merchantExists(merchantId);
         if (!exists) {
             throw new NotFoundException("Merchant not found");
         }
@@ -98,21 +234,38 @@ public class TransactionServiceImpl implements TransactionService {
         }
     }
 
-    //    Helper to Map the TransactionMaster entity to Response DTO
-    private TransactionResponse.Transaction mapToTransactionDTO(TransactionMaster master) {
+    //    Helper to fetch the details of all masters on a page and group them by master id
+    private Map<Long, List<TransactionDetail>> loadDetails(List<TransactionMaster> masters) {
+        if (masters.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> masterIds = masters.stream()
+                .map(TransactionMaster::getTxnId)
+                .collect(Collectors.toList());
+        return transactionDetailRepository.findByMasterTxnIdInList(masterIds)
+                .stream()
+                .collect(Collectors.groupingBy(TransactionDetail::getMasterTxnId));
+    }
+
+    //    Helper to Map the TransactionMaster entity to Response DTO.
+    //    detailsByMaster is null when the caller asked for master rows only.
+    private TransactionResponse.Transaction mapToTransactionDTO(TransactionMaster master,
+                                                                Map<Long, List<TransactionDetail>> detailsByMaster) {
         TransactionResponse.Transaction dto = new TransactionResponse.Transaction();
         dto.setTxnId(master.getTxnId());
         dto.setTimestamp(master.getLocalTxnDateTime());
         dto.setAmount(master.getAmount());
         dto.setCurrency(master.getCurrency());
-        dto.setStatus(master.getStatus());
+        dto.setStatus(master.getStatus().getValue());
         dto.setCardLast4(master.getCardLast4());
         dto.setCardType(master.getCardType());
 
         //        Transaction Details
-        List<TransactionDetail> details = transactionDetailRepository.findByMasterTxnId(master.getTxnId());
-        List<TransactionResponse.Detail> detailDto = details.stream().map(this::mapToDetailDto).collect(Collectors.toList());
-        dto.setDetails(detailDto);
+        if (detailsByMaster != null) {
+            List<TransactionDetail> details = detailsByMaster.getOrDefault(master.getTxnId(), Collections.emptyList());
+            List<TransactionResponse.Detail> detailDto = details.stream().map(this::mapToDetailDto).collect(Collectors.toList());
+            dto.setDetails(detailDto);
+        }
 
         return dto;
     }
@@ -126,31 +279,41 @@ public class TransactionServiceImpl implements TransactionService {
         return dto;
     }
 
-    //    Helper to calculate summary
+    //    Helper to calculate summary from one grouped query, so memory stays constant for any range size
     private TransactionResponse.Summary calcSummary(String merchantId, Instant startDate, Instant endDate) {
         TransactionResponse.Summary summary = new TransactionResponse.Summary();
-        //        Fetching transactions for the date range
-        List<TransactionMaster> allTransactions= transactionRepository.findByMerchantIdAndLocalTxnDateTimeBetween(merchantId,startDate,endDate);
-
-        //        Total Count
-        summary.setTotalTransactions(allTransactions.size());
-
-        //        For Total Amount
-        BigDecimal totalAmount = allTransactions.stream().map(TransactionMaster::getAmount).filter(Objects::nonNull).reduce(BigDecimal.ZERO,BigDecimal::add);
-        summary.setTotalAmount(totalAmount);
-
-        //        Currency
-        String currency = allTransactions.get(0).getCurrency();
-        summary.setCurrency(currency);
-
-        //        Status Stats
-        List<TransactionRepository.StatusCount> statusCounts = transactionRepository.countByStatus(merchantId,startDate,endDate);
-        Map<String, Integer> byStatus = statusCounts.stream().collect(Collectors.toMap(
-                TransactionRepository.StatusCount::getStatus,
-                sc -> sc.getCount().intValue()
-        ));
+        List<TransactionRepository.SummaryRow> rows = hotWindowStore != null
+                ? hotWindowStore.summarize(merchantId, startDate, endDate)
+                : null;
+        if (rows == null) {
+            rows = transactionRepository.summarize(merchantId, startDate, endDate);
+        }
+
+        AmountAccumulator amounts = new AmountAccumulator();
+        //        Counts per status, indexed by TransactionStatus ordinal
+        long[] statusCounts = new long[TransactionStatus.COUNT];
+
+        for (TransactionRepository.SummaryRow row : rows) {
+            long count = row.getCount();
+            amounts.add(row.getCurrency(), row.getTotalAmount(), count);
+            statusCounts[TransactionStatus.fromValue(row.getStatus()).ordinal()] += count;
+        }
+
+        Map<String, Integer> byStatus = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < statusCounts.length; ordinal++) {
+            if (statusCounts[ordinal] > 0) {
+                byStatus.put(TransactionStatus.ofOrdinal(ordinal).getValue(), (int) statusCounts[ordinal]);
+            }
+        }
+
+        summary.setTotalTransactions((int) amounts.getTotalCount());
+        summary.setTotalAmount(amounts.getTotalAmount());
         summary.setByStatus(byStatus);
+        summary.setByCurrency(amounts.toAmountByCurrency());
+
+        //        Currency: the one most transactions were made in, null when the range is empty
+        summary.setCurrency(amounts.getDominantCurrency());
 
         return summary;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.payment.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exact accumulator for DECIMAL(15,2) amounts.
+ * Totals are kept as scaled long cents, one slot per currency, so adding an amount
+ * does not allocate once the currency has been seen. Overflow throws ArithmeticException.
+ * Not thread safe, use one instance per aggregation.
+ */
+public class AmountAccumulator {
+
+    public static final int SCALE = 2;
+
+    private String[] currencies = new String[4];
+    private long[] cents = new long[4];
+    private long[] counts = new long[4];
+    private int size;
+
+    private long totalCents;
+    private long totalCount;
+
+    // Adds a single amount in cents
+    public void add(String currency, long amountCents) {
+        add(currency, amountCents, 1);
+    }
+
+    // Adds a pre-aggregated group, e.g. one row of a GROUP BY currency query
+    public void add(String currency, long amountCents, long count) {
+        int slot = slotOf(currency);
+        cents[slot] = Math.addExact(cents[slot], amountCents);
+        counts[slot] = Math.addExact(counts[slot], count);
+        totalCents = Math.addExact(totalCents, amountCents);
+        totalCount = Math.addExact(totalCount, count);
+    }
+
+    public void add(String currency, BigDecimal amount) {
+        add(currency, toCents(amount), 1);
+    }
+
+    public void add(String currency, BigDecimal amount, long count) {
+        add(currency, toCents(amount), count);
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return toAmount(totalCents);
+    }
+
+    public long getCents(String currency) {
+        int slot = indexOf(currency);
+        return slot < 0 ? 0L : cents[slot];
+    }
+
+    public long getCount(String currency) {
+        int slot = indexOf(currency);
+        return slot < 0 ? 0L : counts[slot];
+    }
+
+    // Currency with the most transactions, null when nothing was added
+    public String getDominantCurrency() {
+        String dominant = null;
+        long max = -1;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] > max) {
+                max = counts[i];
+                dominant = currencies[i];
+            }
+        }
+        return dominant;
+    }
+
+    // Totals per currency in insertion order
+    public Map<String, BigDecimal> toAmountByCurrency() {
+        Map<String, BigDecimal> byCurrency = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            byCurrency.put(currencies[i], toAmount(cents[i]));
+        }
+        return byCurrency;
+    }
+
+    // Converts an amount with at most two decimals to cents, throws if it would lose precision
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    // Average in cents rounded half-even, zero when count is zero
+    public static BigDecimal average(long cents, long count) {
+        if (count == 0) {
+            return toAmount(0L);
+        }
+        return BigDecimal.valueOf(cents, SCALE).divide(BigDecimal.valueOf(count), SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private int slotOf(String currency) {
+        int slot = indexOf(currency);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (size == currencies.length) {
+            currencies = Arrays.copyOf(currencies, size * 2);
+            cents = Arrays.copyOf(cents, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        currencies[size] = currency;
+        return size++;
+    }
+
+    // Linear scan, there are only a handful of currencies per merchant
+    private int indexOf(String currency) {
+        for (int i = 0; i < size; i++) {
+            String candidate = currencies[i];
+            if (candidate == null ? currency == null : candidate.equals(currency)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
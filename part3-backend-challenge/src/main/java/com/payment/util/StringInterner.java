@@ -0,0 +1,48 @@
+package com.payment.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one String instance per distinct value of the low-cardinality columns of a transaction (merchant id,
+ * currency, card type, detail type), so a page of a merchant's transactions holds one merchant id and a handful of
+ * currency codes rather than one copy per row. The entities' setters intern through {@link #intern(String)}, which
+ * uses a table of up to {@value #MAX_SIZE} values; once it is full new values are kept as they are, so a column with
+ * more distinct values than expected costs no more than it did without the table. Thread safe.
+ */
+public final class StringInterner {
+
+    public static final int MAX_SIZE = 100_000;
+
+    private static final StringInterner SHARED = new StringInterner(MAX_SIZE);
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    StringInterner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    // The shared instance equal to value, value itself when it is new and the table is full
+    public static String intern(String value) {
+        return SHARED.get(value);
+    }
+
+    String get(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = values.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (values.size() >= maxSize) {
+            return value;
+        }
+        shared = values.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,61 @@
+package com.payment.cache;
+
+import com.payment.entity.Member;
+import com.payment.repository.MemberRepository;
+import com.payment.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LookupCacheTest {
+
+    private TransactionRepository transactionRepository;
+    private MemberRepository memberRepository;
+    private LookupCache lookupCache;
+
+    @BeforeEach
+    public void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        memberRepository = mock(MemberRepository.class);
+        lookupCache = new LookupCache(transactionRepository, memberRepository, new LookupCacheConfiguration());
+    }
+
+    @Test
+    public void testMerchantExistsIsReadThrough() {
+        when(transactionRepository.existsByMerchantId("MCH-00001")).thenReturn(true);
+        when(transactionRepository.existsByMerchantId("MCH-99999")).thenReturn(false);
+
+        assertThat(lookupCache.merchantExists("MCH-00001")).isTrue();
+        assertThat(lookupCache.merchantExists("MCH-00001")).isTrue();
+        assertThat(lookupCache.merchantExists("MCH-99999")).isFalse();
+        assertThat(lookupCache.merchantExists("MCH-99999")).isFalse();
+
+        verify(transactionRepository, times(1)).existsByMerchantId("MCH-00001");
+        verify(transactionRepository, times(1)).existsByMerchantId("MCH-99999");
+    }
+
+    @Test
+    public void testInvalidateMemberReloads() {
+        Member member = new Member();
+        member.setMemberCode("MEM-1");
+        when(memberRepository.findByMemberCode("MEM-1")).thenReturn(Optional.of(member));
+
+        lookupCache.findMemberByCode("MEM-1");
+        lookupCache.findMemberByCode("MEM-1");
+        lookupCache.invalidateMember("MEM-1");
+        lookupCache.findMemberByCode("MEM-1");
+
+        verify(memberRepository, times(2)).findByMemberCode("MEM-1");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> members = (Map<String, Object>) lookupCache.stats().get("membersByCode");
+        assertThat(members).containsEntry("hitCount", 1L).containsEntry("missCount", 2L);
+    }
+}
@@ -0,0 +1,215 @@
+package com.payment.cache;
+
+import com.payment.dto.TransactionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RangeResultCacheTest {
+
+    private static final String MERCHANT_ID = "MCH-00001";
+    private static final Instant NOW = Instant.parse("2025-11-20T12:00:00Z");
+    private static final RangeResultCache.Key CLOSED = key(MERCHANT_ID, "2025-11-16T00:00:00Z", "2025-11-18T00:00:00Z", 0);
+    private static final RangeResultCache.Key OPEN = key(MERCHANT_ID, "2025-11-16T00:00:00Z", "2025-11-20T00:00:00Z", 0);
+
+    private MutableClock clock;
+    private RangeResultCacheConfiguration configuration;
+    private RangeResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new MutableClock(NOW);
+        configuration = new RangeResultCacheConfiguration();
+        cache = new RangeResultCache(configuration, clock);
+        cache.setListening(true);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testClosedRangeIsLoadedOnce() {
+        TransactionResponse first = cache.get(CLOSED, loader(20));
+
+        assertThat(cache.get(CLOSED, loader(20))).isSameAs(first);
+        assertThat(cache.get(key(MERCHANT_ID, "2025-11-16T00:00:00Z", "2025-11-18T00:00:00Z", 1), loader(20)))
+                .isNotSameAs(first);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats()).containsEntry("hitCount", 1L).containsEntry("missCount", 2L);
+    }
+
+    @Test
+    public void testOpenRangeUsesTheShortTtl() {
+        cache.get(OPEN, loader(20));
+        cache.get(OPEN, loader(20));
+        clock.advance(configuration.getOpenTtl().plusMillis(1));
+        cache.get(OPEN, loader(20));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void testOpenRangeBypassesWithoutOpenTtl() {
+        configuration.setOpenTtl(Duration.ZERO);
+        cache = new RangeResultCache(configuration, clock);
+        cache.setListening(true);
+
+        cache.get(OPEN, loader(20));
+        cache.get(OPEN, loader(20));
+        cache.get(CLOSED, loader(20));
+        cache.get(CLOSED, loader(20));
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.stats()).containsEntry("bypassCount", 2L);
+    }
+
+    @Test
+    public void testClosedRangesBypassWhileNotListening() {
+        cache.setListening(false);
+
+        cache.get(CLOSED, loader(20));
+        cache.get(CLOSED, loader(20));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void testYesterdayCountsAsOpenForTheSettleTime() {
+        clock.set(Instant.parse("2025-11-19T00:00:05Z"));
+        RangeResultCache.Key yesterday = key(MERCHANT_ID, "2025-11-16T00:00:00Z", "2025-11-18T00:00:00Z", 0);
+
+        cache.get(yesterday, loader(20));
+        clock.advance(configuration.getOpenTtl().plusMillis(1));
+        cache.get(yesterday, loader(20));
+        clock.advance(Duration.ofMinutes(1));
+        cache.get(yesterday, loader(20));
+
+        // Expired after the open TTL, the load once the settle time is over is kept as closed
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void testLateWriteDropsTheRangesCoveringItsDay() {
+        RangeResultCache.Key otherMerchant = key("MCH-00002", "2025-11-16T00:00:00Z", "2025-11-18T00:00:00Z", 0);
+        RangeResultCache.Key earlier = key(MERCHANT_ID, "2025-11-01T00:00:00Z", "2025-11-15T00:00:00Z", 0);
+        cache.get(CLOSED, loader(20));
+        cache.get(otherMerchant, loader(20));
+        cache.get(earlier, loader(20));
+
+        cache.invalidate(MERCHANT_ID, LocalDate.of(2025, 11, 17));
+        // Only the merchant's pages are looked at, the dropped one leaves the index
+        assertThat(cache.indexedKeyCount()).isEqualTo(2);
+        clock.advance(configuration.getSettleTime().multipliedBy(3));
+        cache.get(CLOSED, loader(20));
+        cache.get(otherMerchant, loader(20));
+        cache.get(earlier, loader(20));
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    public void testLoadsSoonAfterALateWriteAreNotKept() {
+        cache.invalidate(MERCHANT_ID, LocalDate.of(2025, 11, 17));
+        clock.advance(Duration.ofSeconds(1));
+
+        cache.get(CLOSED, loader(20));
+        cache.get(CLOSED, loader(20));
+        clock.advance(configuration.getSettleTime());
+        cache.get(CLOSED, loader(20));
+        cache.get(CLOSED, loader(20));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    public void testWritesOfTodayAreLeftToTheOpenTtl() {
+        cache.get(OPEN, loader(20));
+
+        cache.invalidate(MERCHANT_ID, LocalDate.ofInstant(NOW, ZoneOffset.UTC));
+        cache.get(OPEN, loader(20));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void testEvictsPastTheMemoryBudget() {
+        // Room for about ten pages of 20 transactions
+        configuration.setMaximumBytes(10 * (1_024 + 20 * 480));
+        cache = new RangeResultCache(configuration, clock);
+        cache.setListening(true);
+
+        List<RangeResultCache.Key> keys = new ArrayList<>();
+        for (int page = 0; page < 50; page++) {
+            RangeResultCache.Key key = key(MERCHANT_ID, "2025-11-16T00:00:00Z", "2025-11-18T00:00:00Z", page);
+            keys.add(key);
+            cache.get(key, loader(20));
+        }
+        keys.forEach(key -> cache.get(key, loader(20)));
+
+        Map<String, Object> stats = cache.stats();
+        assertThat((Long) stats.get("weightedBytes")).isLessThanOrEqualTo(configuration.getMaximumBytes());
+        assertThat((Long) stats.get("evictionCount")).isGreaterThanOrEqualTo(40L);
+        // Evicted pages leave the merchant index with them
+        assertThat(cache.indexedKeyCount()).isEqualTo(((Long) stats.get("size")).intValue());
+    }
+
+    private Supplier<TransactionResponse> loader(int transactions) {
+        return () -> {
+            loads.incrementAndGet();
+            TransactionResponse response = new TransactionResponse();
+            List<TransactionResponse.Transaction> rows = new ArrayList<>();
+            for (int i = 0; i < transactions; i++) {
+                rows.add(new TransactionResponse.Transaction());
+            }
+            response.setTransactions(rows);
+            return response;
+        };
+    }
+
+    private static RangeResultCache.Key key(String merchantId, String start, String end, int page) {
+        return new RangeResultCache.Key(merchantId, Instant.parse(start), Instant.parse(end), null, page, 20, false);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant instant) {
+            now = instant;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
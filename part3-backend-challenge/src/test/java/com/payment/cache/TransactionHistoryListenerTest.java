@@ -0,0 +1,133 @@
+package com.payment.cache;
+
+import com.payment.dto.TransactionResponse;
+import com.payment.service.TransactionService;
+import io.micronaut.context.ApplicationContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drops cached pages of a closed range on a committed late write to one of its days, notified by the
+ * transaction_history_changed triggers of the seeded database in PAYMENT_IT_DB_URL. The writes set a status or a
+ * detail description to itself, so the data is left as it was.
+ */
+@EnabledIfEnvironmentVariable(named = "PAYMENT_IT_DB_URL", matches = ".+")
+public class TransactionHistoryListenerTest {
+
+    private static final String MERCHANT_ID = "MCH-00036";
+    private static final Instant START = Instant.parse("2025-11-16T00:00:00Z");
+    private static final Instant END = Instant.parse("2025-11-18T00:00:00Z");
+    private static final String TOUCH_NOVEMBER_17 = "UPDATE operators.transaction_master SET status = status " +
+            "WHERE txn_id = (SELECT MIN(txn_id) FROM operators.transaction_master " +
+            "WHERE merchant_id = '" + MERCHANT_ID + "' AND txn_date = DATE '2025-11-17')";
+    private static final String TOUCH_DETAIL_OF_NOVEMBER_17 = "UPDATE operators.transaction_details " +
+            "SET description = description WHERE txn_detail_id = (SELECT MIN(d.txn_detail_id) " +
+            "FROM operators.transaction_details d JOIN operators.transaction_master m ON m.txn_id = d.master_txn_id " +
+            "WHERE m.merchant_id = '" + MERCHANT_ID + "' AND m.txn_date = DATE '2025-11-17')";
+
+    private static ApplicationContext context;
+    private static TransactionHistoryListener listener;
+    private static TransactionService transactionService;
+
+    @BeforeAll
+    public static void setUp() {
+        context = ApplicationContext.builder()
+                .properties(Map.of(
+                        "datasources.default.url", System.getenv("PAYMENT_IT_DB_URL"),
+                        "range-cache.settle-time", "100ms",
+                        // Polled from the tests after the first run
+                        "range-cache.poll-interval", "1h",
+                        "micronaut.metrics.binders.jdbc.enabled", "false",
+                        "transaction-partitions.initial-delay", "1h",
+                        "merchant-daily-rollup.initial-delay", "1h"))
+                .start();
+        listener = context.getBean(TransactionHistoryListener.class);
+        transactionService = context.getBean(TransactionService.class);
+        listener.poll();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    // Pages loaded within the settle time of connecting or of a late write are not kept
+    @BeforeEach
+    public void settle() throws InterruptedException {
+        Thread.sleep(200);
+    }
+
+    @Test
+    public void testCommittedLateWriteDropsTheRange() throws Exception {
+        TransactionResponse cached = page();
+        assertThat(page()).isSameAs(cached);
+
+        execute(TOUCH_NOVEMBER_17, true);
+
+        assertThat(pollUntilDropped(cached)).isTrue();
+    }
+
+    @Test
+    public void testCommittedDetailWriteDropsTheRange() throws Exception {
+        TransactionResponse cached = page();
+        assertThat(page()).isSameAs(cached);
+
+        execute(TOUCH_DETAIL_OF_NOVEMBER_17, true);
+
+        assertThat(pollUntilDropped(cached)).isTrue();
+    }
+
+    @Test
+    public void testRolledBackWriteKeepsTheRange() throws Exception {
+        TransactionResponse cached = page();
+        assertThat(page()).isSameAs(cached);
+
+        execute(TOUCH_NOVEMBER_17, false);
+
+        assertThat(pollUntilDropped(cached)).isFalse();
+    }
+
+    private static TransactionResponse page() {
+        return transactionService.getTransactions(MERCHANT_ID, START, END, null, 0, 20, false);
+    }
+
+    // Notifications are delivered asynchronously, polls for up to 2 seconds
+    private static boolean pollUntilDropped(TransactionResponse cached) throws InterruptedException {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            listener.poll();
+            if (page() != cached) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private static void execute(String sql, boolean commit) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(System.getenv("PAYMENT_IT_DB_URL"))) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(sql);
+            }
+            if (commit) {
+                connection.commit();
+            } else {
+                connection.rollback();
+            }
+        }
+    }
+}
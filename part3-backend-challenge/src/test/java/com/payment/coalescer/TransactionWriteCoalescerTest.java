@@ -0,0 +1,218 @@
+package com.payment.coalescer;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.exception.LimitExceededException;
+import com.payment.metrics.RequestTrace;
+import com.payment.metrics.SlowRequestLog;
+import com.payment.metrics.SlowRequestLogConfiguration;
+import com.payment.repository.TransactionWriteRepository;
+import com.payment.repository.TransactionWriteRepository.WriteRequest;
+import com.payment.repository.TransactionWriteRepository.WriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransactionWriteCoalescerTest {
+
+    private static final Date TXN_DATE = Date.valueOf(LocalDate.of(2025, 11, 16));
+
+    private TransactionWriteRepository writeRepository;
+    // Size of every batch passed to the repository, in call order
+    private List<Integer> batchSizes;
+    private AtomicLong nextTxnId;
+    private SlowRequestLog slowRequestLog;
+    private TransactionWriteCoalescer coalescer;
+
+    @BeforeEach
+    public void setUp() {
+        writeRepository = mock(TransactionWriteRepository.class);
+        batchSizes = Collections.synchronizedList(new ArrayList<>());
+        nextTxnId = new AtomicLong(1000);
+        slowRequestLog = new SlowRequestLog(new SlowRequestLogConfiguration());
+        when(writeRepository.insert(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    @Test
+    public void testFlushesOnceMaxBatchRowsAreQueued() throws Exception {
+        coalescer = newCoalescer(3, Duration.ofSeconds(30), 100);
+
+        List<CompletableFuture<WriteResult>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(coalescer.submit(request("key-" + i, "1.00")));
+        }
+
+        for (CompletableFuture<WriteResult> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).isCreated()).isTrue();
+        }
+        assertThat(batchSizes).containsExactly(3);
+        assertThat(results).extracting(result -> result.join().getTxnId()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void testFlushesAPartialBatchAfterMaxDelay() throws Exception {
+        coalescer = newCoalescer(500, Duration.ofMillis(20), 100);
+
+        WriteResult result = coalescer.submit(request("key-1", "1.00")).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.isCreated()).isTrue();
+        assertThat(batchSizes).containsExactly(1);
+    }
+
+    @Test
+    public void testSameKeyTwiceInOneBatchWritesOnce() throws Exception {
+        coalescer = newCoalescer(2, Duration.ofSeconds(30), 100);
+
+        CompletableFuture<WriteResult> first = coalescer.submit(request("key-1", "1.00"));
+        CompletableFuture<WriteResult> second = coalescer.submit(request("key-1", "1.00"));
+
+        assertThat(first.get(5, TimeUnit.SECONDS).isCreated()).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS).isCreated()).isFalse();
+        assertThat(second.join().getTxnId()).isEqualTo(first.join().getTxnId());
+        assertThat(batchSizes).containsExactly(1);
+    }
+
+    @Test
+    public void testRejectedBatchFailsOnlyTheBadRow() throws Exception {
+        doAnswer(invocation -> {
+            List<WriteRequest> requests = invocation.getArgument(0);
+            for (WriteRequest request : requests) {
+                if (request.getTransaction().getAmount().signum() < 0) {
+                    batchSizes.add(requests.size());
+                    throw new IllegalArgumentException("Transaction rejected: amount");
+                }
+            }
+            return created(requests);
+        }).when(writeRepository).insert(anyList());
+        coalescer = newCoalescer(3, Duration.ofSeconds(30), 100);
+
+        CompletableFuture<WriteResult> good = coalescer.submit(request("key-1", "1.00"));
+        CompletableFuture<WriteResult> bad = coalescer.submit(request("key-2", "-1.00"));
+        CompletableFuture<WriteResult> alsoGood = coalescer.submit(request("key-3", "3.00"));
+
+        assertThat(good.get(5, TimeUnit.SECONDS).isCreated()).isTrue();
+        assertThat(alsoGood.get(5, TimeUnit.SECONDS).isCreated()).isTrue();
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        // The batch, then each row on its own
+        assertThat(batchSizes).containsExactly(3, 1, 1, 1);
+    }
+
+    @Test
+    public void testRejectsWhenMaxPendingAreQueued() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return created(invocation.getArgument(0));
+        }).when(writeRepository).insert(anyList());
+        coalescer = newCoalescer(1, Duration.ZERO, 1);
+
+        CompletableFuture<WriteResult> inFlight = coalescer.submit(request("key-1", "1.00"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<WriteResult> queued = coalescer.submit(request("key-2", "1.00"));
+
+        assertThatThrownBy(() -> coalescer.submit(request("key-3", "1.00")))
+                .isInstanceOf(LimitExceededException.class);
+
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).isCreated()).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS).isCreated()).isTrue();
+    }
+
+    @Test
+    public void testBatchInsertIsAddedToTheTraceOfEachRequest() throws Exception {
+        coalescer = newCoalescer(2, Duration.ofSeconds(30), 100);
+        HttpRequest<?> first = HttpRequest.POST("/api/v1/merchants/MCH-00001/transactions", "{}");
+        HttpRequest<?> second = HttpRequest.POST("/api/v1/merchants/MCH-00001/transactions", "{}");
+        RequestTrace firstTrace = slowRequestLog.start(first);
+        RequestTrace secondTrace = slowRequestLog.start(second);
+
+        // Typed, a bare lambda would match both the Supplier and the Callable overload
+        Supplier<CompletableFuture<WriteResult>> submitFirst = () -> coalescer.submit(request("key-1", "1.00"));
+        Supplier<CompletableFuture<WriteResult>> submitSecond = () -> coalescer.submit(request("key-2", "2.00"));
+        CompletableFuture<WriteResult> firstResult = ServerRequestContext.with(first, submitFirst);
+        CompletableFuture<WriteResult> secondResult = ServerRequestContext.with(second, submitSecond);
+        firstResult.get(5, TimeUnit.SECONDS);
+        secondResult.get(5, TimeUnit.SECONDS);
+
+        assertThat(firstTrace.getStatementCount()).isEqualTo(1);
+        assertThat(secondTrace.getStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWritesOnTheCallerWhenCoalescingIsOff() {
+        TransactionWriteConfiguration configuration = new TransactionWriteConfiguration();
+        configuration.setCoalesce(false);
+        coalescer = new TransactionWriteCoalescer(writeRepository, new SimpleMeterRegistry(), slowRequestLog, configuration);
+
+        CompletableFuture<WriteResult> result = coalescer.submit(request("key-1", "1.00"));
+
+        assertThat(result).isCompleted();
+        assertThat(batchSizes).containsExactly(1);
+    }
+
+    private TransactionWriteCoalescer newCoalescer(int maxBatchRows, Duration maxDelay, int maxPending) {
+        TransactionWriteConfiguration configuration = new TransactionWriteConfiguration();
+        configuration.setMaxBatchRows(maxBatchRows);
+        configuration.setMaxDelay(maxDelay);
+        configuration.setMaxPending(maxPending);
+        configuration.setFlushThreads(1);
+        return new TransactionWriteCoalescer(writeRepository, new SimpleMeterRegistry(), slowRequestLog, configuration);
+    }
+
+    private List<WriteResult> created(List<WriteRequest> requests) {
+        batchSizes.add(requests.size());
+        List<WriteResult> results = new ArrayList<>();
+        for (WriteRequest request : requests) {
+            results.add(new WriteResult(true, nextTxnId.incrementAndGet(), TXN_DATE, Instant.now(),
+                    request.getRequestHash()));
+        }
+        return results;
+    }
+
+    private static WriteRequest request(String idempotencyKey, String amount) {
+        TransactionMaster transaction = new TransactionMaster();
+        transaction.setMerchantId("MCH-00001");
+        transaction.setTxnDate(TXN_DATE);
+        transaction.setLocalTxnDateTime(Instant.parse("2025-11-16T08:00:00Z"));
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setCurrency("USD");
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        return new WriteRequest(idempotencyKey, "hash-" + amount, transaction);
+    }
+}
@@ -0,0 +1,56 @@
+package com.payment.controller;
+
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the ETag hashing and If-None-Match matching of the listing GETs.
+ */
+public class ETagsTest {
+
+    @Test
+    public void testSameVersionAndParametersGiveSameTag() {
+        String etag = ETags.of("120-9001", "MCH-00001", 0, 20, null);
+
+        assertThat(etag).isEqualTo(ETags.of("120-9001", "MCH-00001", 0, 20, null));
+        // Weak: the same tag goes on the compressed and the identity body
+        assertThat(etag).matches("W/\"[0-9a-f]{32}\"");
+    }
+
+    @Test
+    public void testVersionAndParametersChangeTag() {
+        String etag = ETags.of("120-9001", "MCH-00001", 0, 20, null);
+
+        assertThat(ETags.of("121-9002", "MCH-00001", 0, 20, null)).isNotEqualTo(etag);
+        assertThat(ETags.of("120-9001", "MCH-00001", 1, 20, null)).isNotEqualTo(etag);
+        assertThat(ETags.of("120-9001", "MCH-00001", 0, 20, "completed")).isNotEqualTo(etag);
+        // A null parameter is not the string "null"
+        assertThat(ETags.of("120-9001", "MCH-00001", 0, 20, "null")).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void testMatchesIfNoneMatch() {
+        String etag = ETags.of("120-9001", "MCH-00001");
+
+        assertThat(ETags.matches(etag, etag)).isTrue();
+        // A client may send the tag back without its W/ prefix
+        assertThat(ETags.matches(etag.substring(2), etag)).isTrue();
+        assertThat(ETags.matches("\"0\", " + etag, etag)).isTrue();
+        assertThat(ETags.matches("*", etag)).isTrue();
+        assertThat(ETags.matches("\"0\"", etag)).isFalse();
+        assertThat(ETags.matches(null, etag)).isFalse();
+        assertThat(ETags.matches(" ", etag)).isFalse();
+    }
+
+    @Test
+    public void testTaggedResponsesVaryOnAcceptEncoding() {
+        String etag = ETags.of("120-9001", "MCH-00001");
+
+        assertThat(ETags.tag(HttpResponse.ok(), etag).getHeaders().get(HttpHeaders.VARY))
+                .isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(ETags.notModified(etag).getHeaders().get(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+}
@@ -0,0 +1,86 @@
+package com.payment.controller;
+
+import com.payment.dto.MemberStatsResponse;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.runtime.server.EmbeddedServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Calls the member routes over HTTP against the seeded database of PAYMENT_IT_DB_URL, so path variables are bound
+ * the way the router binds them.
+ */
+@EnabledIfEnvironmentVariable(named = "PAYMENT_IT_DB_URL", matches = ".+")
+public class MemberControllerTest {
+
+    private static EmbeddedServer server;
+    private static HttpClient httpClient;
+    private static BlockingHttpClient client;
+
+    @BeforeAll
+    public static void setUp() {
+        server = ApplicationContext.run(EmbeddedServer.class, Map.of(
+                "micronaut.server.port", "-1",
+                "datasources.default.url", System.getenv("PAYMENT_IT_DB_URL"),
+                "range-cache.listen", "false",
+                "micronaut.metrics.binders.jdbc.enabled", "false",
+                "transaction-partitions.initial-delay", "1h",
+                "merchant-daily-rollup.initial-delay", "1h"));
+        httpClient = server.getApplicationContext().createBean(HttpClient.class, server.getURL());
+        client = httpClient.toBlocking();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testStatsBindsTheMemberCodeFromThePath() {
+        HttpResponse<MemberStatsResponse> response = client.exchange(
+                HttpRequest.GET("/api/v1/merchants/GPS-001/stats"), MemberStatsResponse.class);
+
+        assertThat(response.status()).isEqualTo(HttpStatus.OK);
+        assertThat(response.body()).isNotNull();
+        assertThat(response.body().getTotalTransactions()).isNotNull();
+        assertThat(response.header(HttpHeaders.ETAG)).isNotBlank();
+    }
+
+    @Test
+    public void testStatsAnswersItsOwnTagWith304() {
+        String etag = client.exchange(HttpRequest.GET("/api/v1/merchants/GPS-001/stats"), MemberStatsResponse.class)
+                .header(HttpHeaders.ETAG);
+
+        HttpResponse<MemberStatsResponse> response = client.exchange(
+                HttpRequest.GET("/api/v1/merchants/GPS-001/stats").header(HttpHeaders.IF_NONE_MATCH, etag),
+                MemberStatsResponse.class);
+
+        assertThat(response.status()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    public void testStatsOfUnknownMemberIsNotFound() {
+        assertThatThrownBy(() -> client.exchange(HttpRequest.GET("/api/v1/merchants/NOP-999/stats")))
+                .isInstanceOfSatisfying(HttpClientResponseException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+}
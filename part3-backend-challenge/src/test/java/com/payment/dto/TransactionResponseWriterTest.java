@@ -0,0 +1,145 @@
+package com.payment.dto;
+
+import io.micronaut.serde.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The streaming writer has to produce exactly what Serde writes for the same response.
+ */
+public class TransactionResponseWriterTest {
+
+    private static ObjectMapper objectMapper;
+
+    private final TransactionResponseWriter writer = new TransactionResponseWriter();
+
+    @BeforeAll
+    public static void setUp() {
+        objectMapper = ObjectMapper.getDefault();
+    }
+
+    @Test
+    public void testOffsetPageWithDetailsMatchesSerde() throws IOException {
+        TransactionResponse response = response(25, true);
+        response.setPagination(new TransactionResponse.Pagination(0, 25, 4, 90L));
+
+        assertMatchesSerde(response);
+    }
+
+    @Test
+    public void testKeysetPageWithoutDetailsMatchesSerde() throws IOException {
+        TransactionResponse response = response(3, false);
+        TransactionResponse.Pagination pagination = new TransactionResponse.Pagination(null, 3, null, null);
+        pagination.setNextCursor("MjAyNS0xMS0xOFQxODoxMDoxMFp8MjU1MA");
+        response.setPagination(pagination);
+
+        assertMatchesSerde(response);
+    }
+
+    @Test
+    public void testEmptyPageMatchesSerde() throws IOException {
+        TransactionResponse response = response(0, false);
+        response.getSummary().setByStatus(Map.of());
+        response.setPagination(new TransactionResponse.Pagination(0, 20, 0, 0L));
+
+        assertMatchesSerde(response);
+    }
+
+    @Test
+    public void testFormatsInstantsLikeToString() {
+        char[] out = new char[32];
+        Instant[] instants = {
+                Instant.EPOCH,
+                Instant.parse("2024-02-29T23:59:59.999Z"),
+                Instant.parse("2000-03-01T00:00:00.000001Z"),
+                Instant.parse("1969-12-31T23:59:59.123456789Z"),
+                Instant.parse("0000-01-01T00:00:00Z"),
+                Instant.parse("9999-12-31T23:59:59.5Z")
+        };
+        for (Instant instant : instants) {
+            assertThat(format(instant, out)).isEqualTo(instant.toString());
+        }
+        // Just under a day per step over about 1,900 years, through every month and leap year rule
+        for (long seconds = -30_000_000_000L; seconds < 30_000_000_000L; seconds += 86_399_917L) {
+            Instant instant = Instant.ofEpochSecond(seconds, Math.floorMod(seconds, 1_000) * 1_000_000L);
+            assertThat(format(instant, out)).isEqualTo(instant.toString());
+        }
+        assertThat(TransactionResponseWriter.formatInstant(Instant.parse("+10000-01-01T00:00:00Z"), out)).isEqualTo(-1);
+    }
+
+    private static String format(Instant instant, char[] out) {
+        return new String(out, 0, TransactionResponseWriter.formatInstant(instant, out));
+    }
+
+    private void assertMatchesSerde(TransactionResponse response) throws IOException {
+        ByteBuf buffer = writer.write(response);
+        try {
+            String streamed = buffer.toString(StandardCharsets.UTF_8);
+            assertThat(streamed).isEqualTo(objectMapper.writeValueAsString(response));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static TransactionResponse response(int rows, boolean includeDetails) {
+        TransactionResponse response = new TransactionResponse();
+        response.setMerchantId("MCH-00001");
+        response.setDateRange(new TransactionResponse.DateRange(
+                Instant.parse("2025-11-16T00:00:00Z"), Instant.parse("2025-11-18T00:00:00Z")));
+
+        TransactionResponse.Summary summary = new TransactionResponse.Summary();
+        summary.setTotalTransactions(rows);
+        summary.setTotalAmount(new BigDecimal("162139.50"));
+        summary.setCurrency("USD");
+        Map<String, Integer> byStatus = new LinkedHashMap<>();
+        byStatus.put("completed", rows - rows / 10);
+        byStatus.put("failed", rows / 10);
+        summary.setByStatus(byStatus);
+        Map<String, BigDecimal> byCurrency = new LinkedHashMap<>();
+        byCurrency.put("USD", new BigDecimal("160000.00"));
+        byCurrency.put("EUR", new BigDecimal("2139.50"));
+        summary.setByCurrency(byCurrency);
+        response.setSummary(summary);
+
+        List<TransactionResponse.Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            TransactionResponse.Transaction transaction = new TransactionResponse.Transaction();
+            transaction.setTxnId(10_000L - i);
+            transaction.setAmount(BigDecimal.valueOf(1_000 + i * 7_919L, 2));
+            transaction.setCurrency(i % 20 == 0 ? "EUR" : "USD");
+            transaction.setStatus(i % 10 == 9 ? "failed" : "completed");
+            // Whole seconds and fractions, Instant.toString drops trailing zeros
+            transaction.setTimestamp(Instant.parse("2025-11-17T08:00:00Z").plusMillis(i * 1_250L));
+            transaction.setCardType(i % 2 == 0 ? "VISA" : "AMEX");
+            transaction.setCardLast4(String.valueOf(1000 + i));
+            transaction.setAcquirer(i % 3 == 0 ? null : "Acquirer \"" + i + "\"");
+            transaction.setIssuer(i % 4 == 0 ? "" : "Issuer " + i);
+            if (includeDetails) {
+                List<TransactionResponse.Detail> details = new ArrayList<>();
+                for (int d = 0; d < i % 4; d++) {
+                    TransactionResponse.Detail detail = new TransactionResponse.Detail();
+                    detail.setType(d == 0 ? "fee" : "tax");
+                    detail.setAmount(new BigDecimal("1.10").multiply(BigDecimal.valueOf(d + 1)));
+                    detail.setCurrency("USD");
+                    details.add(detail);
+                }
+                transaction.setDetails(details);
+            }
+            transactions.add(transaction);
+        }
+        response.setTransactions(transactions);
+        return response;
+    }
+}
@@ -0,0 +1,233 @@
+package com.payment.hotwindow;
+
+import com.payment.cache.TransactionHistoryChangedEvent;
+import com.payment.entity.TransactionMaster;
+import com.payment.repository.TransactionRepository;
+import com.payment.service.TransactionService;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads the hot window from the seeded database in PAYMENT_IT_DB_URL, with a window reaching back over all of its
+ * days, and checks it answers like the repository queries it stands in for.
+ */
+@EnabledIfEnvironmentVariable(named = "PAYMENT_IT_DB_URL", matches = ".+")
+public class HotWindowStoreTest {
+
+    private static final String MERCHANT_ID = "MCH-00036";
+    private static final Instant START = Instant.parse("2025-11-16T00:00:00Z");
+    private static final Instant END = Instant.parse("2025-11-18T00:00:00Z");
+
+    private static ApplicationContext context;
+    private static HotWindowStore store;
+    private static TransactionRepository transactionRepository;
+    private static TransactionService transactionService;
+
+    @BeforeAll
+    public static void setUp() {
+        context = ApplicationContext.builder()
+                .properties(Map.of(
+                        "datasources.default.url", System.getenv("PAYMENT_IT_DB_URL"),
+                        "hot-window.enabled", "true",
+                        "hot-window.window", "87600h",
+                        // Loaded and refreshed from the tests
+                        "hot-window.initial-delay", "1h",
+                        "hot-window.refresh-interval", "1h",
+                        "range-cache.listen", "false",
+                        "micronaut.metrics.binders.jdbc.enabled", "false",
+                        "transaction-partitions.initial-delay", "1h",
+                        "merchant-daily-rollup.initial-delay", "1h"))
+                .start();
+        store = context.getBean(HotWindowStore.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionService = context.getBean(TransactionService.class);
+        store.rebuild();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    public void testPagesMatchTheDatabase() {
+        for (String status : new String[]{null, "completed", "failed"}) {
+            Pageable pageable = Pageable.from(1, 7);
+            Page<TransactionMaster> served = store.findByMerchantAndDateRange(MERCHANT_ID, START, END, status, pageable);
+            Page<TransactionMaster> expected = transactionRepository.findByMerchantAndDateRange(MERCHANT_ID, START, END,
+                    status, pageable);
+
+            assertThat(served).isNotNull();
+            assertThat(served.getTotalSize()).isEqualTo(expected.getTotalSize());
+            // The database leaves the order of equal timestamps open
+            assertThat(served.getContent()).extracting(TransactionMaster::getLocalTxnDateTime)
+                    .containsExactlyElementsOf(expected.getContent().stream()
+                            .map(TransactionMaster::getLocalTxnDateTime).collect(Collectors.toList()));
+        }
+        TransactionMaster served = store.findByMerchantAndDateRange(MERCHANT_ID, START, END, null, Pageable.from(0, 1))
+                .getContent().get(0);
+        TransactionMaster expected = transactionRepository.findById(served.getTxnId()).orElseThrow();
+        assertThat(served).usingRecursiveComparison()
+                .comparingOnlyFields("merchantId", "txnDate", "localTxnDateTime", "amount", "currency", "status",
+                        "cardType", "cardLast4")
+                .isEqualTo(expected);
+    }
+
+    @Test
+    public void testSummaryAndVersionMatchTheDatabase() {
+        assertThat(sorted(store.summarize(MERCHANT_ID, START, END)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(sorted(transactionRepository.summarize(MERCHANT_ID, START, END)));
+        assertThat(store.findVersion(MERCHANT_ID, START, END))
+                .usingRecursiveComparison()
+                .isEqualTo(transactionRepository.findVersion(MERCHANT_ID, START, END));
+    }
+
+    @Test
+    public void testChangedDayIsReloaded() throws SQLException {
+        long txnId;
+        String status;
+        try (Connection connection = DriverManager.getConnection(System.getenv("PAYMENT_IT_DB_URL"));
+             PreparedStatement select = connection.prepareStatement("SELECT txn_id, status FROM operators.transaction_master " +
+                     "WHERE merchant_id = ? AND txn_date = DATE '2025-11-17' ORDER BY txn_id LIMIT 1")) {
+            select.setString(1, MERCHANT_ID);
+            try (ResultSet resultSet = select.executeQuery()) {
+                resultSet.next();
+                txnId = resultSet.getLong(1);
+                status = resultSet.getString(2);
+            }
+        }
+        String changed = "reversed".equals(status) ? "failed" : "reversed";
+        try {
+            setStatus(txnId, changed);
+            store.onApplicationEvent(new TransactionHistoryChangedEvent(MERCHANT_ID, LocalDate.of(2025, 11, 17)));
+            store.refresh();
+
+            assertThat(store.findByMerchantAndDateRange(MERCHANT_ID, START, END, changed, Pageable.from(0, 100))
+                    .getContent()).extracting(TransactionMaster::getTxnId).contains(txnId);
+        } finally {
+            setStatus(txnId, status);
+            store.onApplicationEvent(new TransactionHistoryChangedEvent(MERCHANT_ID, LocalDate.of(2025, 11, 17)));
+            store.refresh();
+        }
+    }
+
+    @Test
+    public void testStatusOnlyUpdateChangesTheVersion() throws SQLException {
+        long txnId;
+        String status;
+        try (Connection connection = DriverManager.getConnection(System.getenv("PAYMENT_IT_DB_URL"));
+             PreparedStatement select = connection.prepareStatement("SELECT txn_id, status FROM operators.transaction_master " +
+                     "WHERE merchant_id = ? AND txn_date = DATE '2025-11-16' ORDER BY txn_id LIMIT 1")) {
+            select.setString(1, MERCHANT_ID);
+            try (ResultSet resultSet = select.executeQuery()) {
+                resultSet.next();
+                txnId = resultSet.getLong(1);
+                status = resultSet.getString(2);
+            }
+        }
+        String changed = "reversed".equals(status) ? "failed" : "reversed";
+        String before = transactionService.getTransactionsVersion(MERCHANT_ID, START, END);
+        try {
+            setStatus(txnId, changed);
+            store.onApplicationEvent(new TransactionHistoryChangedEvent(MERCHANT_ID, LocalDate.of(2025, 11, 16)));
+            store.refresh();
+
+            // Count and highest txn id are unchanged, the day's revision is not
+            TransactionRepository.RangeVersion version = transactionRepository.findVersion(MERCHANT_ID, START, END);
+            assertThat(store.findVersion(MERCHANT_ID, START, END)).usingRecursiveComparison().isEqualTo(version);
+            assertThat(transactionService.getTransactionsVersion(MERCHANT_ID, START, END)).isNotEqualTo(before);
+        } finally {
+            setStatus(txnId, status);
+            store.onApplicationEvent(new TransactionHistoryChangedEvent(MERCHANT_ID, LocalDate.of(2025, 11, 16)));
+            store.refresh();
+        }
+    }
+
+    @Test
+    public void testDetailOnlyUpdateChangesTheVersion() throws SQLException {
+        long detailId;
+        String description;
+        try (Connection connection = DriverManager.getConnection(System.getenv("PAYMENT_IT_DB_URL"));
+             PreparedStatement select = connection.prepareStatement("SELECT d.txn_detail_id, d.description " +
+                     "FROM operators.transaction_details d JOIN operators.transaction_master m ON m.txn_id = d.master_txn_id " +
+                     "WHERE m.merchant_id = ? AND m.txn_date = DATE '2025-11-16' ORDER BY d.txn_detail_id LIMIT 1")) {
+            select.setString(1, MERCHANT_ID);
+            try (ResultSet resultSet = select.executeQuery()) {
+                resultSet.next();
+                detailId = resultSet.getLong(1);
+                description = resultSet.getString(2);
+            }
+        }
+        String before = transactionService.getTransactionsVersion(MERCHANT_ID, START, END);
+        try {
+            setDescription(detailId, description + " (corrected)");
+            store.onApplicationEvent(new TransactionHistoryChangedEvent(MERCHANT_ID, LocalDate.of(2025, 11, 16)));
+            store.refresh();
+
+            // The master is untouched, the day's revision is bumped by the details trigger
+            TransactionRepository.RangeVersion version = transactionRepository.findVersion(MERCHANT_ID, START, END);
+            assertThat(store.findVersion(MERCHANT_ID, START, END)).usingRecursiveComparison().isEqualTo(version);
+            assertThat(transactionService.getTransactionsVersion(MERCHANT_ID, START, END)).isNotEqualTo(before);
+        } finally {
+            setDescription(detailId, description);
+            store.onApplicationEvent(new TransactionHistoryChangedEvent(MERCHANT_ID, LocalDate.of(2025, 11, 16)));
+            store.refresh();
+        }
+    }
+
+    @Test
+    public void testRangesBeforeTheWindowAreNotServed() {
+        assertThat(store.findByMerchantAndDateRange(MERCHANT_ID, Instant.parse("2000-01-01T00:00:00Z"), END, null,
+                Pageable.from(0, 20))).isNull();
+        assertThat(store.summarize(MERCHANT_ID, Instant.parse("2000-01-01T00:00:00Z"), END)).isNull();
+    }
+
+    private static List<TransactionRepository.SummaryRow> sorted(List<TransactionRepository.SummaryRow> rows) {
+        return rows.stream()
+                .sorted(Comparator.comparing(TransactionRepository.SummaryRow::getCurrency)
+                        .thenComparing(TransactionRepository.SummaryRow::getStatus))
+                .collect(Collectors.toList());
+    }
+
+    private static void setStatus(long txnId, String status) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(System.getenv("PAYMENT_IT_DB_URL"));
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE operators.transaction_master SET status = ? WHERE txn_id = ?")) {
+            update.setString(1, status);
+            update.setLong(2, txnId);
+            update.executeUpdate();
+        }
+    }
+
+    private static void setDescription(long detailId, String description) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(System.getenv("PAYMENT_IT_DB_URL"));
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE operators.transaction_details SET description = ? WHERE txn_detail_id = ?")) {
+            update.setString(1, description);
+            update.setLong(2, detailId);
+            update.executeUpdate();
+        }
+    }
+}
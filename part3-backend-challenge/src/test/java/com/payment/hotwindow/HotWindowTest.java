@@ -0,0 +1,206 @@
+package com.payment.hotwindow;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.TransactionRepository;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class HotWindowTest {
+
+    private static final String MERCHANT_ID = "MCH-00001";
+    private static final LocalDate NOVEMBER_16 = LocalDate.of(2025, 11, 16);
+    private static final Instant START = Instant.parse("2025-11-16T00:00:00Z");
+    private static final Instant END = Instant.parse("2025-11-18T00:00:00Z");
+
+    private HotWindow window;
+
+    @BeforeEach
+    public void setUp() {
+        window = new HotWindow(NOVEMBER_16, 1_000);
+    }
+
+    @Test
+    public void testPagesAreNewestFirstWithTheTotal() {
+        put(1, MERCHANT_ID, "2025-11-16T08:00:00Z", "10.00", "USD", "completed");
+        put(2, MERCHANT_ID, "2025-11-16T09:00:00Z", "20.00", "USD", "failed");
+        put(3, MERCHANT_ID, "2025-11-17T08:00:00Z", "30.00", "USD", "completed");
+        put(4, MERCHANT_ID, "2025-11-18T08:00:00Z", "40.00", "EUR", "completed");
+        put(5, "MCH-00002", "2025-11-17T10:00:00Z", "50.00", "USD", "completed");
+
+        Page<TransactionMaster> first = window.findPage(MERCHANT_ID, START, END, null, Pageable.from(0, 3));
+        Page<TransactionMaster> second = window.findPage(MERCHANT_ID, START, END, null, Pageable.from(1, 3));
+
+        assertThat(first.getContent()).extracting(TransactionMaster::getTxnId).containsExactly(4L, 3L, 2L);
+        assertThat(second.getContent()).extracting(TransactionMaster::getTxnId).containsExactly(1L);
+        assertThat(first.getTotalSize()).isEqualTo(4);
+        assertThat(first.getTotalPages()).isEqualTo(2);
+        assertThat(window.findPage(MERCHANT_ID, START, END, "completed", Pageable.from(0, 20)).getContent())
+                .extracting(TransactionMaster::getTxnId).containsExactly(4L, 3L, 1L);
+        assertThat(window.findPage(MERCHANT_ID, START, END, "reversed", Pageable.from(0, 20)).getTotalSize()).isZero();
+        assertThat(window.findPage("MCH-09999", START, END, null, Pageable.from(0, 20)).getTotalSize()).isZero();
+    }
+
+    @Test
+    public void testRangesMatchDaysLikeTxnDateBetween() {
+        put(1, MERCHANT_ID, "2025-11-16T08:00:00Z", "10.00", "USD", "completed");
+        put(2, MERCHANT_ID, "2025-11-17T08:00:00Z", "20.00", "USD", "completed");
+        put(3, MERCHANT_ID, "2025-11-18T08:00:00Z", "30.00", "USD", "completed");
+
+        // txn_date compares as midnight: a start after midnight skips its day, an end after midnight includes it
+        Page<TransactionMaster> page = window.findPage(MERCHANT_ID, Instant.parse("2025-11-16T12:00:00Z"),
+                Instant.parse("2025-11-17T00:00:00Z"), null, Pageable.from(0, 20));
+
+        assertThat(page.getContent()).extracting(TransactionMaster::getTxnId).containsExactly(2L);
+    }
+
+    @Test
+    public void testSummaryAddsUpPerCurrencyAndStatus() {
+        put(1, MERCHANT_ID, "2025-11-16T08:00:00Z", "10.10", "USD", "completed");
+        put(2, MERCHANT_ID, "2025-11-16T09:00:00Z", "20.20", "USD", "completed");
+        put(3, MERCHANT_ID, "2025-11-17T08:00:00Z", "5.00", "USD", "failed");
+        put(4, MERCHANT_ID, "2025-11-17T09:00:00Z", "7.25", "EUR", "completed");
+        put(5, MERCHANT_ID, "2025-11-19T09:00:00Z", "99.00", "EUR", "completed");
+
+        assertThat(window.summarize(MERCHANT_ID, START, END))
+                .extracting(TransactionRepository.SummaryRow::getCurrency, TransactionRepository.SummaryRow::getStatus,
+                        TransactionRepository.SummaryRow::getCount, TransactionRepository.SummaryRow::getTotalAmount)
+                .containsExactlyInAnyOrder(
+                        tuple("USD", "completed", 2L, new BigDecimal("30.30")),
+                        tuple("USD", "failed", 1L, new BigDecimal("5.00")),
+                        tuple("EUR", "completed", 1L, new BigDecimal("7.25")));
+        assertThat(window.summarize("MCH-09999", START, END)).isEmpty();
+    }
+
+    @Test
+    public void testPutOverwritesTheRowOrMovesIt() {
+        put(1, MERCHANT_ID, "2025-11-16T08:00:00Z", "10.00", "USD", "completed");
+        put(2, MERCHANT_ID, "2025-11-16T09:00:00Z", "20.00", "USD", "completed");
+
+        put(1, MERCHANT_ID, "2025-11-16T08:00:00Z", "10.00", "USD", "reversed");
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.findPage(MERCHANT_ID, START, END, "reversed", Pageable.from(0, 20)).getContent())
+                .extracting(TransactionMaster::getTxnId).containsExactly(1L);
+
+        // A new timestamp moves the row to its place in the order
+        put(1, MERCHANT_ID, "2025-11-17T10:00:00Z", "10.00", "USD", "reversed");
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.findPage(MERCHANT_ID, START, END, null, Pageable.from(0, 20)).getContent())
+                .extracting(TransactionMaster::getTxnId).containsExactly(1L, 2L);
+        assertThat(window.txnIds(MERCHANT_ID, NOVEMBER_16)).containsExactly(2L);
+    }
+
+    @Test
+    public void testLateRowsAreKeptInTimeOrder() {
+        put(3, MERCHANT_ID, "2025-11-16T12:00:00Z", "1.00", "USD", "completed");
+        put(1, MERCHANT_ID, "2025-11-16T10:00:00Z", "1.00", "USD", "completed");
+        put(4, MERCHANT_ID, "2025-11-16T13:00:00Z", "1.00", "USD", "completed");
+        put(2, MERCHANT_ID, "2025-11-16T11:00:00Z", "1.00", "USD", "completed");
+        put(0x10000L + 5, MERCHANT_ID, "2025-11-16T11:00:00Z", "1.00", "USD", "completed");
+
+        assertThat(window.findPage(MERCHANT_ID, START, END, null, Pageable.from(0, 20)).getContent())
+                .extracting(TransactionMaster::getTxnId).containsExactly(4L, 3L, 0x10000L + 5, 2L, 1L);
+    }
+
+    @Test
+    public void testDeleteAndVersion() {
+        put(1, MERCHANT_ID, "2025-11-16T08:00:00Z", "10.00", "USD", "completed");
+        put(7, MERCHANT_ID, "2025-11-16T09:00:00Z", "20.00", "USD", "completed");
+        put(3, MERCHANT_ID, "2025-11-17T09:00:00Z", "20.00", "USD", "completed");
+
+        TransactionRepository.RangeVersion before = window.version(MERCHANT_ID, START, END);
+        window.delete(7);
+        TransactionRepository.RangeVersion after = window.version(MERCHANT_ID, START, END);
+
+        assertThat(before.getRowCount()).isEqualTo(3);
+        assertThat(before.getMaxTxnId()).isEqualTo(7);
+        assertThat(after.getRowCount()).isEqualTo(2);
+        assertThat(after.getMaxTxnId()).isEqualTo(3);
+        assertThat(window.txnIds(MERCHANT_ID, NOVEMBER_16)).containsExactly(1L);
+    }
+
+    @Test
+    public void testVersionAddsTheRevisionsOfTheRangesDays() {
+        put(1, MERCHANT_ID, "2025-11-16T08:00:00Z", "10.00", "USD", "completed");
+        TransactionRepository.RangeVersion before = window.version(MERCHANT_ID, START, END);
+
+        // A status-only update reloads the row in place and bumps its day's revision
+        put(1, MERCHANT_ID, "2025-11-16T08:00:00Z", "10.00", "USD", "reversed");
+        window.setRevision(MERCHANT_ID, (int) NOVEMBER_16.toEpochDay(), 1);
+        window.setRevision(MERCHANT_ID, (int) NOVEMBER_16.plusDays(5).toEpochDay(), 4);
+        window.setRevision("MCH-00002", (int) NOVEMBER_16.toEpochDay(), 2);
+        TransactionRepository.RangeVersion after = window.version(MERCHANT_ID, START, END);
+
+        assertThat(before.getRevision()).isZero();
+        assertThat(after.getRowCount()).isEqualTo(before.getRowCount());
+        assertThat(after.getMaxTxnId()).isEqualTo(before.getMaxTxnId());
+        assertThat(after.getRevision()).isEqualTo(1);
+        // Days with a revision but no rows held still count
+        assertThat(window.version("MCH-00002", START, END).getRevision()).isEqualTo(2);
+    }
+
+    @Test
+    public void testKeepsOnlyTheWindowAndUpToMaxRows() {
+        window = new HotWindow(NOVEMBER_16, 2);
+
+        assertThat(put(1, MERCHANT_ID, "2025-11-15T23:00:00Z", "1.00", "USD", "completed")).isTrue();
+        assertThat(put(2, MERCHANT_ID, "2025-11-16T08:00:00Z", "1.00", "USD", "completed")).isTrue();
+        assertThat(put(3, MERCHANT_ID, "2025-11-16T09:00:00Z", "1.00", "USD", "completed")).isTrue();
+        assertThat(put(4, MERCHANT_ID, "2025-11-16T10:00:00Z", "1.00", "USD", "completed")).isFalse();
+        // Overwriting a held row still works when full
+        assertThat(put(3, MERCHANT_ID, "2025-11-16T09:00:00Z", "1.00", "USD", "failed")).isTrue();
+
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.covers(START)).isTrue();
+        assertThat(window.covers(Instant.parse("2025-11-15T00:00:00Z"))).isFalse();
+        assertThat(window.covers(Instant.parse("2025-11-15T00:00:01Z"))).isTrue();
+    }
+
+    @Test
+    public void testMaterializesTheListingColumns() {
+        window.put(1, MERCHANT_ID, (int) NOVEMBER_16.toEpochDay(),
+                HotWindow.epochMicros(Instant.parse("2025-11-16T08:30:00.123456Z")), 12_345, "USD", TransactionStatus.COMPLETED,
+                "VISA", "0042");
+        window.put(2, MERCHANT_ID, (int) NOVEMBER_16.toEpochDay(),
+                HotWindow.epochMicros(Instant.parse("2025-11-16T08:00:00Z")), -500, "EUR", TransactionStatus.REVERSED, null, null);
+        window.put(3, MERCHANT_ID, (int) NOVEMBER_16.toEpochDay(),
+                HotWindow.epochMicros(Instant.parse("2025-11-16T07:00:00Z")), 0, "EUR", TransactionStatus.FAILED, "MC", "x€");
+
+        assertThat(window.findPage(MERCHANT_ID, START, END, null, Pageable.from(0, 20)).getContent())
+                .extracting(TransactionMaster::getTxnId, TransactionMaster::getLocalTxnDateTime, TransactionMaster::getAmount,
+                        TransactionMaster::getCurrency, TransactionMaster::getStatus, TransactionMaster::getCardType,
+                        TransactionMaster::getCardLast4)
+                .containsExactly(
+                        tuple(1L, Instant.parse("2025-11-16T08:30:00.123456Z"), new BigDecimal("123.45"), "USD",
+                                TransactionStatus.COMPLETED, "VISA", "0042"),
+                        tuple(2L, Instant.parse("2025-11-16T08:00:00Z"), new BigDecimal("-5.00"), "EUR",
+                                TransactionStatus.REVERSED, null, null),
+                        tuple(3L, Instant.parse("2025-11-16T07:00:00Z"), new BigDecimal("0.00"), "EUR",
+                                TransactionStatus.FAILED, "MC", "x€"));
+        assertThat(window.findPage(MERCHANT_ID, START, END, null, Pageable.from(0, 20)).getContent().get(0).getTxnDate())
+                .hasToString("2025-11-16");
+    }
+
+    private boolean put(long txnId, String merchantId, String timestamp, String amount, String currency, String status) {
+        TransactionMaster transaction = new TransactionMaster();
+        transaction.setTxnId(txnId);
+        transaction.setMerchantId(merchantId);
+        transaction.setLocalTxnDateTime(Instant.parse(timestamp));
+        transaction.setTxnDate(java.sql.Date.valueOf(LocalDate.parse(timestamp.substring(0, 10))));
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setCurrency(currency);
+        transaction.setStatus(TransactionStatus.fromValue(status));
+        transaction.setCardType("VISA");
+        transaction.setCardLast4("1234");
+        return window.put(transaction);
+    }
+}
@@ -0,0 +1,65 @@
+package com.payment.job;
+
+import com.payment.repository.TransactionPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionPartitionJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 11, 17);
+
+    private TransactionPartitionRepository partitionRepository;
+
+    @BeforeEach
+    public void setUp() {
+        partitionRepository = mock(TransactionPartitionRepository.class);
+    }
+
+    @Test
+    public void testMonthlyCreatesCurrentMonthAndAheadMonths() {
+        when(partitionRepository.createPartitions(any(), any(), any())).thenReturn(List.of("transaction_master_p202602"));
+        TransactionPartitionJob job = new TransactionPartitionJob(partitionRepository, "month", 3, 0);
+
+        assertThat(job.createPartitions(TODAY)).containsExactly("transaction_master_p202602");
+        verify(partitionRepository).createPartitions(LocalDate.of(2025, 11, 1), LocalDate.of(2026, 3, 1), "month");
+    }
+
+    @Test
+    public void testDailyCreatesTodayAndAheadDays() {
+        when(partitionRepository.createPartitions(any(), any(), any())).thenReturn(List.of());
+        TransactionPartitionJob job = new TransactionPartitionJob(partitionRepository, "day", 7, 0);
+
+        job.createPartitions(TODAY);
+
+        verify(partitionRepository).createPartitions(TODAY, LocalDate.of(2025, 11, 25), "day");
+    }
+
+    @Test
+    public void testDetachesOnlyWhenRetentionIsSet() {
+        when(partitionRepository.detachPartitions(any())).thenReturn(List.of("transaction_master_p202509"));
+
+        assertThat(new TransactionPartitionJob(partitionRepository, "month", 3, 0).detachPartitions(TODAY)).isEmpty();
+        verify(partitionRepository, never()).detachPartitions(any());
+
+        assertThat(new TransactionPartitionJob(partitionRepository, "month", 3, 30).detachPartitions(TODAY))
+                .containsExactly("transaction_master_p202509");
+        verify(partitionRepository).detachPartitions(LocalDate.of(2025, 10, 18));
+    }
+
+    @Test
+    public void testRejectsUnknownGranularity() {
+        assertThatThrownBy(() -> new TransactionPartitionJob(partitionRepository, "week", 3, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.payment.limiter;
+
+import com.payment.coalescer.TransactionWriteConfiguration;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.filter.ServerFilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestLimiterFilterTest {
+
+    private RequestLimiter limiter;
+    private RequestLimiterFilter filter;
+    private ServerFilterChain chain;
+
+    @BeforeEach
+    public void setUp() {
+        RequestLimiterConfiguration configuration = new RequestLimiterConfiguration();
+        configuration.setMaxConcurrent(1);
+        limiter = new RequestLimiter(configuration);
+        filter = new RequestLimiterFilter(limiter, configuration, new TransactionWriteConfiguration());
+        chain = mock(ServerFilterChain.class);
+    }
+
+    @Test
+    public void testPermitIsReleasedWhenTheResponseIsEmitted() {
+        when(chain.proceed(any())).thenReturn(Flux.<MutableHttpResponse<?>>just(HttpResponse.ok("{}")));
+
+        Flux.from(filter.doFilter(HttpRequest.GET("/api/v1/members"), chain)).blockLast();
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void testStreamedBodyKeepsThePermitUntilItCompletes() {
+        Sinks.Many<byte[]> rows = Sinks.many().unicast().onBackpressureBuffer();
+        when(chain.proceed(any())).thenReturn(Flux.<MutableHttpResponse<?>>just(HttpResponse.ok(rows.asFlux())));
+
+        MutableHttpResponse<?> response = Flux.from(filter.doFilter(
+                HttpRequest.GET("/api/v1/merchants/MCH-00001/transactions/export"), chain)).blockLast();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+
+        Flux<?> body = Flux.from((Publisher<?>) response.getBody().orElseThrow());
+        rows.tryEmitNext(new byte[] {'{', '}'});
+        rows.tryEmitComplete();
+        body.blockLast();
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void testStreamedBodyReleasesThePermitWhenTheClientGoesAway() {
+        Sinks.Many<byte[]> rows = Sinks.many().unicast().onBackpressureBuffer();
+        when(chain.proceed(any())).thenReturn(Flux.<MutableHttpResponse<?>>just(HttpResponse.ok(rows.asFlux())));
+
+        MutableHttpResponse<?> response = Flux.from(filter.doFilter(
+                HttpRequest.GET("/api/v1/merchants/MCH-00001/transactions/export"), chain)).blockLast();
+        Flux.from((Publisher<?>) response.getBody().orElseThrow()).subscribe().dispose();
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,69 @@
+package com.payment.limiter;
+
+import com.payment.exception.LimitExceededException;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RequestLimiterTest {
+
+    @Test
+    public void testQueuesOverLimitAndHandsOverOnRelease() {
+        RequestLimiter limiter = newLimiter(2, 10);
+        RequestLimiter.Permit first = limiter.acquire().block();
+        RequestLimiter.Permit second = limiter.acquire().block();
+
+        List<RequestLimiter.Permit> granted = new ArrayList<>();
+        limiter.acquire().subscribe(granted::add);
+
+        assertThat(granted).isEmpty();
+        assertThat(limiter.getQueued()).isEqualTo(1);
+
+        first.release();
+        // Released twice on purpose, only counts once
+        first.release();
+
+        assertThat(granted).hasSize(1);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getQueued()).isZero();
+
+        second.release();
+        granted.get(0).release();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() {
+        RequestLimiter limiter = newLimiter(1, 1);
+        limiter.acquire().block();
+        limiter.acquire().subscribe();
+
+        assertThatThrownBy(() -> limiter.acquire().block()).isInstanceOf(LimitExceededException.class);
+    }
+
+    @Test
+    public void testCancelledWaiterDoesNotLeakTheSlot() {
+        RequestLimiter limiter = newLimiter(1, 10);
+        RequestLimiter.Permit permit = limiter.acquire().block();
+
+        Disposable waiter = limiter.acquire().subscribe();
+        waiter.dispose();
+        assertThat(limiter.getQueued()).isZero();
+
+        permit.release();
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.acquire().block()).isNotNull();
+    }
+
+    private RequestLimiter newLimiter(int maxConcurrent, int maxQueued) {
+        RequestLimiterConfiguration configuration = new RequestLimiterConfiguration();
+        configuration.setMaxConcurrent(maxConcurrent);
+        configuration.setMaxQueued(maxQueued);
+        return new RequestLimiter(configuration);
+    }
+}
@@ -0,0 +1,91 @@
+package com.payment.metrics;
+
+import com.payment.repository.TransactionDetailRepository;
+import com.payment.repository.TransactionExportRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.aop.MethodInvocationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RepositoryMetricsInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RepositoryMetricsInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RepositoryMetricsInterceptor(meterRegistry, new SlowRequestLog(new SlowRequestLogConfiguration()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordsTimerAndRowsPerRepositoryMethod() {
+        MethodInvocationContext<Object, Object> context = mock(MethodInvocationContext.class);
+        when(context.getTarget()).thenReturn(mock(TransactionDetailRepository.class));
+        when(context.getMethodName()).thenReturn("findByMasterTxnIdInList");
+        when(context.proceed()).thenReturn(List.of("a", "b", "c"));
+
+        interceptor.intercept(context);
+
+        Timer timer = meterRegistry.get(RepositoryMetricsInterceptor.QUERY_TIMER)
+                .tag("repository", "TransactionDetailRepository")
+                .tag("method", "findByMasterTxnIdInList")
+                .tag("outcome", "success")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        DistributionSummary rows = meterRegistry.get(RepositoryMetricsInterceptor.ROWS_SUMMARY).summary();
+        assertThat(rows.totalAmount()).isEqualTo(3.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordsFailedCalls() {
+        MethodInvocationContext<Object, Object> context = mock(MethodInvocationContext.class);
+        when(context.getTarget()).thenReturn(mock(TransactionDetailRepository.class));
+        when(context.getMethodName()).thenReturn("findByMasterTxnId");
+        when(context.proceed()).thenThrow(new IllegalStateException("connection refused"));
+
+        assertThatThrownBy(() -> interceptor.intercept(context)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.QUERY_TIMER).tag("outcome", "error").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find(RepositoryMetricsInterceptor.ROWS_SUMMARY).summary()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNamesPlainJdbcRepositoriesAfterTheirClass() {
+        MethodInvocationContext<Object, Object> context = mock(MethodInvocationContext.class);
+        when(context.getTarget()).thenReturn(mock(TransactionExportRepository.class));
+        when(context.getMethodName()).thenReturn("openCursor");
+        when(context.proceed()).thenReturn(mock(TransactionExportRepository.ExportCursor.class));
+
+        interceptor.intercept(context);
+
+        assertThat(meterRegistry.get(RepositoryMetricsInterceptor.QUERY_TIMER)
+                .tag("repository", "TransactionExportRepository")
+                .tag("method", "openCursor")
+                .timer().count()).isEqualTo(1);
+        // Rows of a cursor are read after the call
+        assertThat(meterRegistry.find(RepositoryMetricsInterceptor.ROWS_SUMMARY).summary()).isNull();
+    }
+
+    @Test
+    public void testCountsRowsOfScalarAndOptionalResults() {
+        assertThat(RepositoryMetricsInterceptor.countRows(Optional.empty())).isZero();
+        assertThat(RepositoryMetricsInterceptor.countRows(Optional.of("member"))).isEqualTo(1);
+        assertThat(RepositoryMetricsInterceptor.countRows(42L)).isEqualTo(-1);
+        assertThat(RepositoryMetricsInterceptor.countRows(true)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.payment.metrics;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResponseBytesCustomizerTest {
+
+    @Test
+    public void testPipelinedResponsesCompleteTheTraceOfTheirOwnRequest() {
+        SlowRequestLog log = newLog();
+        EmbeddedChannel channel = new EmbeddedChannel(new ResponseBytesCustomizer.ByteCountingHandler(log));
+
+        // Two requests read back to back; the first is answered before routing, without a trace
+        HttpRequest rejected = request("/api/v1/members");
+        HttpRequest traced = request("/api/v1/merchants/MCH-00001/transactions");
+        channel.writeInbound(rejected, traced);
+        assertThat(rejected.headers().get(ResponseBytesCustomizer.SEQUENCE_HEADER)).isEqualTo("1");
+        ResponseBytesCustomizer.attach(channel, Long.parseLong(traced.headers().get(ResponseBytesCustomizer.SEQUENCE_HEADER)),
+                new RequestTrace("GET", "/api/v1/merchants/MCH-00001/transactions", 2));
+
+        channel.writeOutbound(response(HttpResponseStatus.BAD_REQUEST, 7), response(HttpResponseStatus.OK, 42));
+
+        List<Map<String, Object>> recent = log.recent();
+        assertThat(recent).hasSize(1);
+        assertThat(recent.get(0))
+                .containsEntry("uri", "/api/v1/merchants/MCH-00001/transactions")
+                .containsEntry("responseBytes", 42L);
+    }
+
+    @Test
+    public void testInterimResponsesAreNotCounted() {
+        SlowRequestLog log = newLog();
+        EmbeddedChannel channel = new EmbeddedChannel(new ResponseBytesCustomizer.ByteCountingHandler(log));
+        HttpRequest upload = request("/api/v1/transactions/imports");
+        channel.writeInbound(upload);
+        ResponseBytesCustomizer.attach(channel, 1, new RequestTrace("POST", "/api/v1/transactions/imports", 2));
+
+        channel.writeOutbound(response(HttpResponseStatus.CONTINUE, 0));
+        assertThat(log.recent()).isEmpty();
+        channel.writeOutbound(response(HttpResponseStatus.OK, 12));
+
+        assertThat(log.recent()).singleElement().satisfies(entry -> assertThat(entry).containsEntry("responseBytes", 12L));
+    }
+
+    @Test
+    public void testClientCannotChooseTheSequence() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ResponseBytesCustomizer.ByteCountingHandler(newLog()));
+        HttpRequest request = request("/api/v1/members");
+        request.headers().set(ResponseBytesCustomizer.SEQUENCE_HEADER, "99");
+
+        channel.writeInbound(request);
+
+        assertThat(request.headers().getAll(ResponseBytesCustomizer.SEQUENCE_HEADER)).containsExactly("1");
+    }
+
+    private static SlowRequestLog newLog() {
+        SlowRequestLogConfiguration configuration = new SlowRequestLogConfiguration();
+        configuration.setThreshold(Duration.ZERO);
+        return new SlowRequestLog(configuration);
+    }
+
+    private static HttpRequest request(String uri) {
+        return new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+    }
+
+    private static DefaultFullHttpResponse response(HttpResponseStatus status, int bytes) {
+        return new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, Unpooled.wrappedBuffer(new byte[bytes]));
+    }
+}
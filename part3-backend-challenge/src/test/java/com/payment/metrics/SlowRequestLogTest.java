@@ -0,0 +1,54 @@
+package com.payment.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowRequestLogTest {
+
+    @Test
+    public void testKeepsOnlyRequestsOverThreshold() {
+        SlowRequestLog log = newLog(Duration.ZERO, 4);
+        RequestTrace trace = new RequestTrace("GET", "/api/v1/merchants/MCH-00001/transactions?page=0", 2);
+        trace.recordStatement("TransactionRepository", "summarize", "SELECT ...", 2_500_000L, 3);
+        trace.setResponse("/api/v1/merchants/{merchantId}/transactions", 200);
+        log.complete(trace, 1024);
+
+        SlowRequestLog strict = newLog(Duration.ofHours(1), 4);
+        strict.complete(new RequestTrace("GET", "/health", 2), 10);
+
+        List<Map<String, Object>> recent = log.recent();
+        assertThat(recent).hasSize(1);
+        assertThat(recent.get(0))
+                .containsEntry("route", "/api/v1/merchants/{merchantId}/transactions")
+                .containsEntry("responseBytes", 1024L);
+        assertThat((List<?>) recent.get(0).get("statements")).hasSize(1);
+        assertThat(strict.recent()).isEmpty();
+    }
+
+    @Test
+    public void testRingOverwritesOldestAndCountsDroppedStatements() {
+        SlowRequestLog log = newLog(Duration.ZERO, 2);
+        for (int i = 0; i < 5; i++) {
+            RequestTrace trace = new RequestTrace("GET", "/r" + i, 1);
+            trace.recordStatement("MemberRepository", "findById", null, 1_000L, 1);
+            trace.recordStatement("MemberRepository", "findById", null, 1_000L, 1);
+            log.complete(trace, 0);
+        }
+
+        List<Map<String, Object>> recent = log.recent();
+        assertThat(recent).extracting(entry -> entry.get("uri")).containsExactly("/r4", "/r3");
+        assertThat(recent.get(0)).containsEntry("droppedStatements", 1);
+    }
+
+    private SlowRequestLog newLog(Duration threshold, int capacity) {
+        SlowRequestLogConfiguration configuration = new SlowRequestLogConfiguration();
+        configuration.setThreshold(threshold);
+        configuration.setCapacity(capacity);
+        return new SlowRequestLog(configuration);
+    }
+}
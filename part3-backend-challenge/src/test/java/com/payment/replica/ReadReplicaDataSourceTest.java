@@ -0,0 +1,63 @@
+package com.payment.replica;
+
+import io.micronaut.context.BeanProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class ReadReplicaDataSourceTest {
+
+    private DataSource primary;
+    private ReadReplicaRouter router;
+    private ReadReplicaDataSource dataSource;
+    private Connection primaryConnection;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        router = mock(ReadReplicaRouter.class);
+        BeanProvider<ReadReplicaRouter> provider = mock(BeanProvider.class);
+        when(provider.get()).thenReturn(router);
+        dataSource = new ReadReplicaDataSource(primary, provider);
+        primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReadReplicaRouter.setReplicaRead(false);
+    }
+
+    @Test
+    public void testUnmarkedReadsNeverAskTheRouter() throws SQLException {
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verifyNoInteractions(router);
+    }
+
+    @Test
+    public void testMarkedReadsUseTheReplicaConnection() throws SQLException {
+        Connection replicaConnection = mock(Connection.class);
+        when(router.openReplicaConnection()).thenReturn(replicaConnection);
+        ReadReplicaRouter.setReplicaRead(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    public void testMarkedReadsFallBackToThePrimary() throws SQLException {
+        when(router.openReplicaConnection()).thenReturn(null);
+        ReadReplicaRouter.setReplicaRead(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+}
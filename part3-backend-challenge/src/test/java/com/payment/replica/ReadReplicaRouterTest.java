@@ -0,0 +1,98 @@
+package com.payment.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.context.BeanContext;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing decisions of ReadReplicaRouter against a mocked replica whose lag the tests set.
+ */
+public class ReadReplicaRouterTest {
+
+    private ReadReplicaRouter router;
+    private Connection replicaConnection;
+    private volatile long lag;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        replicaConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getLong(1)).thenAnswer(invocation -> lag);
+
+        BeanContext beanContext = mock(BeanContext.class);
+        when(beanContext.findBean(eq(DataSource.class), any())).thenReturn(Optional.of(replica));
+        ReadReplicaConfiguration configuration = new ReadReplicaConfiguration();
+        configuration.setEnabled(true);
+        configuration.setMaxLag(Duration.ofSeconds(5));
+        router = new ReadReplicaRouter(beanContext, null, configuration, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testReadsOfARequestStayOnTheReplicaItStartedOn() {
+        HttpRequest<?> request = HttpRequest.GET("/api/v1/merchants/MCH-00001/transactions");
+        setLag(0);
+
+        ServerRequestContext.with(request, () -> {
+            // The ETag version is read from the replica
+            assertThat(router.openReplicaConnection()).isSameAs(replicaConnection);
+            setLag(60_000);
+            // So is the page, even though the replica fell behind in between
+            assertThat(router.openReplicaConnection()).isSameAs(replicaConnection);
+        });
+        // Reads outside of that request see the lag
+        assertThat(router.openReplicaConnection()).isNull();
+    }
+
+    @Test
+    public void testReadsOfARequestStayOnThePrimaryItStartedOn() {
+        HttpRequest<?> request = HttpRequest.GET("/api/v1/merchants/MCH-00001/transactions");
+        setLag(60_000);
+
+        ServerRequestContext.with(request, () -> {
+            assertThat(router.openReplicaConnection()).isNull();
+            setLag(0);
+            assertThat(router.openReplicaConnection()).isNull();
+        });
+        // The next request decides again
+        ServerRequestContext.with(HttpRequest.GET("/api/v1/merchants/MCH-00001/transactions"), () -> {
+            assertThat(router.openReplicaConnection()).isSameAs(replicaConnection);
+        });
+    }
+
+    @Test
+    public void testReadsOutsideOfRequestsAreRoutedOneByOne() {
+        setLag(0);
+        assertThat(router.openReplicaConnection()).isSameAs(replicaConnection);
+        setLag(60_000);
+        assertThat(router.openReplicaConnection()).isNull();
+    }
+
+    private void setLag(long lagMillis) {
+        lag = lagMillis;
+        router.checkLag();
+    }
+}
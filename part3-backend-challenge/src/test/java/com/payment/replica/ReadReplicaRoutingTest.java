@@ -0,0 +1,114 @@
+package com.payment.replica;
+
+import com.payment.dto.MemberListResponse;
+import com.payment.service.MemberService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.ApplicationContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes reads between the primary in PAYMENT_IT_DB_URL and a streaming standby of it in PAYMENT_IT_REPLICA_URL
+ * (e.g. jdbc:postgresql://localhost:5445/payment_platform?user=admin&password=admin). The lag case pauses
+ * WAL replay on the standby, which needs a superuser, and resumes it afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "PAYMENT_IT_DB_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = ReadReplicaRoutingTest.REPLICA_URL_ENV, matches = ".+")
+public class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL_ENV = "PAYMENT_IT_REPLICA_URL";
+
+    private static ApplicationContext context;
+    private static ReadReplicaRouter router;
+    private static ReplicaProbe probe;
+
+    @BeforeAll
+    public static void setUp() {
+        context = ApplicationContext.builder()
+                .properties(Map.of(
+                        "datasources.default.url", System.getenv("PAYMENT_IT_DB_URL"),
+                        "datasources.replica.url", System.getenv(REPLICA_URL_ENV),
+                        "datasources.replica.driverClassName", "org.postgresql.Driver",
+                        "datasources.replica.maximum-pool-size", "2",
+                        "read-replica.enabled", "true",
+                        "read-replica.max-lag", "200ms",
+                        // Checks run from the tests only
+                        "read-replica.initial-delay", "1h",
+                        "micronaut.metrics.binders.jdbc.enabled", "false",
+                        "transaction-partitions.initial-delay", "1h",
+                        "merchant-daily-rollup.initial-delay", "1h"))
+                .start();
+        router = context.getBean(ReadReplicaRouter.class);
+        probe = context.getBean(ReplicaProbe.class);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @AfterEach
+    public void resumeReplay() throws SQLException {
+        try (Connection replica = DriverManager.getConnection(System.getenv(REPLICA_URL_ENV));
+             Statement statement = replica.createStatement()) {
+            statement.execute("SELECT pg_wal_replay_resume()");
+        }
+    }
+
+    @Test
+    public void testMarkedReadsGoToTheStandbyOnceItIsChecked() throws SQLException {
+        router.checkLag();
+
+        assertThat(router.isReplicaUsable()).isTrue();
+        assertThat(probe.routedReadIsOnStandby()).isTrue();
+        assertThat(probe.isOnStandby()).isFalse();
+
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        double before = replicaConnections(meterRegistry);
+        MemberListResponse members = context.getBean(MemberService.class)
+                .findAll(null, null, null, null, null, 1, 5);
+        assertThat(members.getMerchants()).isNotEmpty();
+        assertThat(replicaConnections(meterRegistry)).isGreaterThan(before);
+    }
+
+    @Test
+    public void testLaggingStandbyFallsBackToThePrimary() throws Exception {
+        try (Connection replica = DriverManager.getConnection(System.getenv(REPLICA_URL_ENV));
+             Connection primary = DriverManager.getConnection(System.getenv("PAYMENT_IT_DB_URL"));
+             Statement onReplica = replica.createStatement();
+             Statement onPrimary = primary.createStatement()) {
+            onReplica.execute("SELECT pg_wal_replay_pause()");
+            // A committed transaction the standby receives but does not replay
+            onPrimary.execute("CREATE TABLE operators.read_replica_routing_test (id INT)");
+            onPrimary.execute("DROP TABLE operators.read_replica_routing_test");
+            Thread.sleep(500);
+
+            router.checkLag();
+            assertThat(router.getLagMillis()).isGreaterThan(200);
+            assertThat(router.isReplicaUsable()).isFalse();
+            assertThat(probe.routedReadIsOnStandby()).isFalse();
+
+            onReplica.execute("SELECT pg_wal_replay_resume()");
+            Thread.sleep(500);
+            router.checkLag();
+            assertThat(probe.routedReadIsOnStandby()).isTrue();
+        }
+    }
+
+    private static double replicaConnections(MeterRegistry meterRegistry) {
+        return meterRegistry.get(ReadReplicaRouter.CONNECTIONS_COUNTER).tag("target", "replica").counter().count();
+    }
+}
@@ -0,0 +1,38 @@
+package com.payment.replica;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.jdbc.DataSourceResolver;
+import jakarta.inject.Singleton;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Asks the server behind a default datasource connection whether it is a standby, with and without routing.
+ */
+@Singleton
+public class ReplicaProbe {
+
+    private final DataSource dataSource;
+
+    public ReplicaProbe(DataSource dataSource, @Nullable DataSourceResolver dataSourceResolver) {
+        this.dataSource = dataSourceResolver != null ? dataSourceResolver.resolve(dataSource) : dataSource;
+    }
+
+    @ReadReplica
+    public boolean routedReadIsOnStandby() throws SQLException {
+        return isOnStandby();
+    }
+
+    public boolean isOnStandby() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_is_in_recovery()")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.payment.repository;
+
+import io.micronaut.data.annotation.Query;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs EXPLAIN for repository SQL against the database in PAYMENT_IT_DB_URL
+ * (e.g. jdbc:postgresql://localhost:5444/payment_platform?user=admin&password=admin).
+ * Statements are PREPAREd with the parameter types the JDBC driver sends: varchar for strings (and null),
+ * int4/int8 for numbers and no type for timestamps and dates, which the planner types itself.
+ */
+final class ExplainSupport {
+
+    static final String DB_URL_ENV = "PAYMENT_IT_DB_URL";
+
+    static final String SEQ_SCAN = "Seq Scan";
+    static final String INDEX_SCAN = "Index Scan";
+    static final String INDEX_ONLY_SCAN = "Index Only Scan";
+    static final String BITMAP_HEAP_SCAN = "Bitmap Heap Scan";
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):([A-Za-z]\\w*)");
+
+    private ExplainSupport() {
+    }
+
+    static Connection connect() throws SQLException {
+        return DriverManager.getConnection(System.getenv(DB_URL_ENV));
+    }
+
+//    Native SQL of a repository method, taken from its @Query annotation
+    static String query(Class<?> repository, String methodName) {
+        Method method = Arrays.stream(repository.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No method " + methodName + " on " + repository.getSimpleName()));
+        Query query = method.getAnnotation(Query.class);
+        if (query == null) {
+            throw new IllegalArgumentException(methodName + " has no @Query");
+        }
+        return query.value();
+    }
+
+    /**
+     * EXPLAINs SQL with :named parameters, typed like the driver types the Java values.
+     * A generic plan is the one a cached prepared statement ends up with, a custom plan is built for the values.
+     */
+    static String explain(Connection connection, String sql, Map<String, Object> parameters, boolean genericPlan)
+            throws SQLException {
+        List<Object> values = new ArrayList<>();
+        String positional = toPositional(sql, parameters, "$", values);
+        return explainPrepared(connection, positional, values,
+                genericPlan ? "force_generic_plan" : "force_custom_plan", "EXPLAIN");
+    }
+
+    /**
+     * Prepares SQL with :named parameters as a JDBC statement, binding Instants as timestamps like the repositories do.
+     */
+    static PreparedStatement prepare(Connection connection, String sql, Map<String, Object> parameters) throws SQLException {
+        List<Object> values = new ArrayList<>();
+        PreparedStatement statement = connection.prepareStatement(toPositional(sql, parameters, "?", values));
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            statement.setObject(i + 1, value instanceof Instant ? Timestamp.from((Instant) value) : value);
+        }
+        return statement;
+    }
+
+//    Helper replacing :name parameters by $n or ? placeholders, collecting the values in placeholder order
+    private static String toPositional(String sql, Map<String, Object> parameters, String placeholder, List<Object> values) {
+        Map<String, Integer> positions = new LinkedHashMap<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder positional = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (!parameters.containsKey(name)) {
+                throw new IllegalArgumentException("No value for :" + name);
+            }
+            if ("?".equals(placeholder)) {
+                values.add(parameters.get(name));
+                matcher.appendReplacement(positional, "?");
+            } else {
+                int position = positions.computeIfAbsent(name, key -> {
+                    values.add(parameters.get(key));
+                    return positions.size() + 1;
+                });
+                matcher.appendReplacement(positional, "\\$" + position);
+            }
+        }
+        matcher.appendTail(positional);
+        return positional.toString();
+    }
+
+    /**
+     * EXPLAIN (ANALYZE, BUFFERS) of a statement as the driver ran it: JDBC ? placeholders and the bound values in order.
+     * The statement is executed, so only use it for queries.
+     */
+    static String explainAnalyze(Connection connection, String jdbcSql, List<Object> values) throws SQLException {
+        StringBuilder positional = new StringBuilder();
+        int position = 0;
+        for (int i = 0; i < jdbcSql.length(); i++) {
+            char c = jdbcSql.charAt(i);
+            if (c == '?') {
+                positional.append('$').append(++position);
+            } else {
+                positional.append(c);
+            }
+        }
+        return explainPrepared(connection, positional.toString(), values, "auto", "EXPLAIN (ANALYZE, BUFFERS)");
+    }
+
+//    Helper running PREPARE with driver-like parameter types, then EXPLAIN EXECUTE with the values as literals
+    private static String explainPrepared(Connection connection, String positionalSql, List<Object> values,
+                                          String planCacheMode, String explain) throws SQLException {
+        List<String> types = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        for (Object value : values) {
+            types.add(parameterType(value));
+            literals.add(literal(value));
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET plan_cache_mode = " + planCacheMode);
+            statement.execute("PREPARE explained" + (types.isEmpty() ? "" : "(" + String.join(", ", types) + ")")
+                    + " AS " + positionalSql);
+            try {
+                StringBuilder plan = new StringBuilder();
+                String execute = "EXECUTE explained" + (literals.isEmpty() ? "" : "(" + String.join(", ", literals) + ")");
+                try (ResultSet rs = statement.executeQuery(explain + " " + execute)) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } finally {
+                statement.execute("DEALLOCATE explained");
+                statement.execute("RESET plan_cache_mode");
+            }
+        }
+    }
+
+//    Helper mirroring the type the JDBC driver declares for a bound value
+    private static String parameterType(Object value) {
+        if (value instanceof Instant || value instanceof java.util.Date) {
+            return "unknown";
+        }
+        if (value instanceof Long) {
+            return "int8";
+        }
+        if (value instanceof Integer) {
+            return "int4";
+        }
+        if (value instanceof Boolean) {
+            return "bool";
+        }
+        return "varchar";
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        String text = value instanceof Timestamp ? ((Timestamp) value).toInstant().toString() : value.toString();
+        return "'" + text.replace("'", "''") + "'";
+    }
+
+//    Tables and partitions the plan reads, from its Seq/Index/Index Only/Bitmap Heap scan nodes
+    static Set<String> scannedRelations(String plan) {
+        Set<String> relations = new TreeSet<>();
+        for (String scanType : List.of(SEQ_SCAN, INDEX_SCAN, INDEX_ONLY_SCAN, BITMAP_HEAP_SCAN)) {
+            relations.addAll(relationsScannedBy(plan, scanType));
+        }
+        return relations;
+    }
+
+//    Tables and partitions read by one kind of scan node, e.g. SEQ_SCAN
+    static Set<String> relationsScannedBy(String plan, String scanType) {
+        Pattern pattern = Pattern.compile(
+                "(?<!Bitmap )" + Pattern.quote(scanType) + " (?:Backward )?(?:using \\S+ )?on (\\S+)");
+        Set<String> relations = new TreeSet<>();
+        Matcher matcher = pattern.matcher(plan);
+        while (matcher.find()) {
+            relations.add(matcher.group(1));
+        }
+        return relations;
+    }
+}
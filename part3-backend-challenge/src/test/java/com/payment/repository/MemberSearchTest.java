@@ -0,0 +1,101 @@
+package com.payment.repository;
+
+import com.payment.entity.Member;
+import io.micronaut.context.ApplicationContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs member name search through MemberRepository against the seeded database of PAYMENT_IT_DB_URL: matching is
+ * case-insensitive, LIKE wildcards typed by the user are literals, the term is a bound value rather than part of the
+ * SQL, and the statement can be served by the idx_members_member_name_trgm index on the plain member_name column.
+ */
+@EnabledIfEnvironmentVariable(named = ExplainSupport.DB_URL_ENV, matches = ".+")
+public class MemberSearchTest {
+
+    private static ApplicationContext context;
+    private static StatementRecorder recorder;
+    private static MemberRepository memberRepository;
+
+    @BeforeAll
+    public static void setUp() {
+        context = ApplicationContext.builder()
+                .properties(Map.of(
+                        "query-plan-advisor.enabled", "true",
+                        "datasources.default.url", System.getenv(ExplainSupport.DB_URL_ENV),
+                        "micronaut.metrics.binders.jdbc.enabled", "false",
+                        "transaction-partitions.initial-delay", "1h",
+                        "merchant-daily-rollup.initial-delay", "1h"))
+                .start();
+        recorder = context.getBean(StatementRecorder.class);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    public void testNameSearchIgnoresCase() {
+        assertThat(names("BANK")).containsExactly("European Bank Network");
+        assertThat(names("pacific pay")).containsExactly("Asia Pacific Payments");
+    }
+
+    @Test
+    public void testWildcardsAreLiterals() {
+        assertThat(names("%")).isEmpty();
+        assertThat(names("_")).isEmpty();
+    }
+
+    @Test
+    public void testSearchTermIsBoundNotInlined() {
+        recorder.drain();
+        assertThat(names("O'Brien")).isEmpty();
+        assertThat(names("x' OR '1'='1")).isEmpty();
+        List<StatementRecorder.RecordedStatement> statements = recorder.drain();
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0).getSql()).doesNotContain("Brien");
+        assertThat(statements.get(0).getValues()).anySatisfy(value -> assertThat(String.valueOf(value)).contains("O'Brien"));
+        assertThat(statements.get(1).getSql()).doesNotContain("'1'='1");
+        assertThat(statements.get(1).getValues()).anySatisfy(value -> assertThat(String.valueOf(value)).contains("x' OR '1'='1"));
+    }
+
+    @Test
+    public void testNameSearchCanUseTheTrigramIndex() throws SQLException {
+        recorder.drain();
+        memberRepository.findAll(MemberSpecifications.nameContains("bank"));
+        List<StatementRecorder.RecordedStatement> statements = recorder.drain();
+        assertThat(statements).hasSize(1);
+
+        try (Connection connection = ExplainSupport.connect();
+             Statement statement = connection.createStatement()) {
+            // members is small enough that a sequential scan wins, so rule it out to see whether the index applies
+            statement.execute("SET enable_seqscan = off");
+            String plan = ExplainSupport.explainAnalyze(connection, statements.get(0).getSql(),
+                    statements.get(0).getValues());
+
+            assertThat(plan).contains("idx_members_member_name_trgm");
+        }
+    }
+
+    private List<String> names(String search) {
+        return memberRepository.findAll(MemberSpecifications.nameContains(search)).stream()
+                .map(Member::getMemberName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.payment.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the statement triggers keep member_stats equal to aggregating transaction_master through multi-row
+ * inserts, status updates and deletes, and that updates and deletes bump the revision. Runs in a transaction that
+ * is rolled back, against the seeded database of PAYMENT_IT_DB_URL.
+ */
+@EnabledIfEnvironmentVariable(named = ExplainSupport.DB_URL_ENV, matches = ".+")
+public class MemberStatsTriggerTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = ExplainSupport.connect();
+        connection.setAutoCommit(false);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testOneInsertStatementAddsUpPerMerchant() throws SQLException {
+        execute("INSERT INTO operators.transaction_master (merchant_id, txn_date, local_txn_date_time, amount, status) VALUES " +
+                "('MCH-STATS-B', DATE '2025-11-16', TIMESTAMPTZ '2025-11-16 08:00:00+00', 10.00, 'completed'), " +
+                "('MCH-STATS-A', DATE '2025-11-16', TIMESTAMPTZ '2025-11-16 09:00:00+00', 1.50, 'completed'), " +
+                "('MCH-STATS-B', DATE '2025-11-17', TIMESTAMPTZ '2025-11-17 08:00:00+00', 5.25, 'pending')");
+
+        assertThat(stats("MCH-STATS-A")).isEqualTo("1/1.50/2025-11-16 09:00:00+00/0");
+        assertThat(stats("MCH-STATS-B")).isEqualTo("2/15.25/2025-11-17 08:00:00+00/0");
+        assertThat(drift()).isZero();
+    }
+
+    @Test
+    public void testStatusUpdatesAndDeletesBumpTheRevision() throws SQLException {
+        execute("INSERT INTO operators.transaction_master (merchant_id, txn_date, local_txn_date_time, amount, status) VALUES " +
+                "('MCH-STATS-A', DATE '2025-11-16', TIMESTAMPTZ '2025-11-16 08:00:00+00', 10.00, 'completed'), " +
+                "('MCH-STATS-A', DATE '2025-11-17', TIMESTAMPTZ '2025-11-17 08:00:00+00', 20.00, 'completed')");
+
+        execute("UPDATE operators.transaction_master SET status = 'reversed' " +
+                "WHERE merchant_id = 'MCH-STATS-A' AND txn_date = DATE '2025-11-17'");
+        assertThat(stats("MCH-STATS-A")).isEqualTo("2/30.00/2025-11-17 08:00:00+00/1");
+
+        // Removing the latest transaction recomputes last_txn_date_time
+        execute("DELETE FROM operators.transaction_master " +
+                "WHERE merchant_id = 'MCH-STATS-A' AND txn_date = DATE '2025-11-17'");
+        assertThat(stats("MCH-STATS-A")).isEqualTo("1/10.00/2025-11-16 08:00:00+00/2");
+        assertThat(drift()).isZero();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET TIME ZONE 'UTC'");
+            statement.execute(sql);
+        }
+    }
+
+    // "count/amount/last_txn_date_time/revision"
+    private String stats(String merchantId) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT txn_count, total_amount, last_txn_date_time, revision " +
+                     "FROM operators.member_stats WHERE merchant_id = '" + merchantId + "'")) {
+            assertThat(rs.next()).isTrue();
+            return rs.getLong(1) + "/" + rs.getBigDecimal(2).toPlainString() + "/" + rs.getString(3) + "/" + rs.getLong(4);
+        }
+    }
+
+    private int drift() throws SQLException {
+        int rows = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT * FROM operators.rebuild_member_stats()")) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
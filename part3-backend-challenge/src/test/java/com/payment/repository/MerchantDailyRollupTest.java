@@ -0,0 +1,108 @@
+package com.payment.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the rollup backed summarize query returns the same totals as aggregating transaction_master,
+ * before and after late changes to rolled up days, and that today's writes skip the refresh lock. Runs in
+ * transactions that are rolled back, against the seeded database of PAYMENT_IT_DB_URL.
+ */
+@EnabledIfEnvironmentVariable(named = ExplainSupport.DB_URL_ENV, matches = ".+")
+public class MerchantDailyRollupTest {
+
+    private static final String RAW_SUMMARY = "SELECT currency, status, COUNT(*) AS count, COALESCE(SUM(amount), 0) AS total_amount " +
+            "FROM operators.transaction_master " +
+            "WHERE merchant_id = :merchantId AND txn_date BETWEEN :startDate AND :endDate " +
+            "GROUP BY currency, status";
+
+    private static final Map<String, Object> NOVEMBER_16_TO_18 = Map.of(
+            "merchantId", "MCH-00001",
+            "startDate", Instant.parse("2025-11-16T00:00:00Z"),
+            "endDate", Instant.parse("2025-11-18T00:00:00Z"));
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = ExplainSupport.connect();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT operators.refresh_merchant_daily_rollup()");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    public void testSummaryMatchesRawAggregation() throws SQLException {
+        assertThat(summary(ExplainSupport.query(TransactionRepository.class, "summarize")))
+                .isNotEmpty()
+                .isEqualTo(summary(RAW_SUMMARY));
+    }
+
+    @Test
+    public void testLateChangesToRolledUpDaysReachTheSummary() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE operators.transaction_master SET status = 'reversed' " +
+                    "WHERE txn_id = (SELECT MIN(txn_id) FROM operators.transaction_master WHERE merchant_id = 'MCH-00001')");
+            statement.executeUpdate("DELETE FROM operators.transaction_master " +
+                    "WHERE txn_id = (SELECT MAX(txn_id) FROM operators.transaction_master WHERE merchant_id = 'MCH-00001')");
+            statement.executeUpdate("INSERT INTO operators.transaction_master " +
+                    "(merchant_id, txn_date, local_txn_date_time, amount, currency, status) " +
+                    "VALUES ('MCH-00001', DATE '2025-11-17', TIMESTAMPTZ '2025-11-17 10:00:00+00', 12.34, 'EUR', 'pending')");
+        }
+
+        assertThat(summary(ExplainSupport.query(TransactionRepository.class, "summarize")))
+                .containsKey("EUR/pending")
+                .isEqualTo(summary(RAW_SUMMARY));
+    }
+
+    @Test
+    public void testTodaysWritesDoNotWaitForARunningRefresh() throws SQLException {
+        // setUp's refresh holds the state row FOR UPDATE until tearDown rolls back
+        try (Connection writer = ExplainSupport.connect();
+             Statement statement = writer.createStatement()) {
+            writer.setAutoCommit(false);
+            statement.execute("SET LOCAL lock_timeout = '2s'");
+            statement.executeUpdate("INSERT INTO operators.transaction_master " +
+                    "(merchant_id, txn_date, local_txn_date_time, amount, currency, status) " +
+                    "VALUES ('MCH-00001', (NOW() AT TIME ZONE 'UTC')::DATE, NOW(), 12.34, 'USD', 'pending')");
+            int deleted = statement.executeUpdate("DELETE FROM operators.transaction_master " +
+                    "WHERE merchant_id = 'MCH-00001' AND txn_date = (NOW() AT TIME ZONE 'UTC')::DATE AND amount = 12.34");
+            writer.rollback();
+
+            assertThat(deleted).isPositive();
+        }
+    }
+
+    // "currency/status" -> "count/amount"
+    private Map<String, String> summary(String sql) throws SQLException {
+        Map<String, String> rows = new TreeMap<>();
+        try (PreparedStatement statement = ExplainSupport.prepare(connection, sql, NOVEMBER_16_TO_18);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rows.put(rs.getString("currency") + "/" + rs.getString("status"),
+                        rs.getLong("count") + "/" + rs.getBigDecimal("total_amount").toPlainString());
+            }
+        }
+        return rows;
+    }
+}
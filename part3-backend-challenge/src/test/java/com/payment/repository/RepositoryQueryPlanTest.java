@@ -0,0 +1,223 @@
+package com.payment.repository;
+
+import com.payment.entity.Member;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.data.repository.jpa.criteria.PredicateSpecification;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Index advisor for the repository query shapes. Runs every repository query the application issues against
+ * the seeded database of PAYMENT_IT_DB_URL (schema.sql, sample-data.sql and indexes.sql loaded), EXPLAINs each
+ * executed statement with ANALYZE and BUFFERS, and fails on sequential scans of large tables and on transaction
+ * queries that read large tables other than through index-only scans. Tables count as large from
+ * query-plan-advisor.large-table-rows rows (system property, default 1000).
+ */
+@EnabledIfEnvironmentVariable(named = ExplainSupport.DB_URL_ENV, matches = ".+")
+public class RepositoryQueryPlanTest {
+
+    private static final String MERCHANT_ID = "MCH-00001";
+    private static final Instant START_DATE = Instant.parse("2025-11-16T00:00:00Z");
+    private static final Instant END_DATE = Instant.parse("2025-11-18T00:00:00Z");
+    private static final Pageable LATEST_FIRST = Pageable.from(0, 20,
+            Sort.of(Sort.Order.desc("localTxnDateTime"), Sort.Order.desc("txnId")));
+
+    // Write or maintenance methods, never executed here
+    private static final Set<String> NOT_ADVISED = Set.of(
+            "MemberStatsRepository.rebuild",
+            "MerchantDailyRollupRepository.refresh",
+            "TransactionPartitionRepository.createPartitions",
+            "TransactionPartitionRepository.detachPartitions");
+
+    private static ApplicationContext context;
+    private static StatementRecorder recorder;
+    private static Connection connection;
+    private static Set<String> largeTables;
+
+    @BeforeAll
+    public static void setUp() throws SQLException {
+        connection = ExplainSupport.connect();
+        try (Statement statement = connection.createStatement()) {
+            // Fresh statistics and visibility map, index-only scans depend on both
+            statement.execute("VACUUM ANALYZE operators.transaction_master");
+            statement.execute("VACUUM ANALYZE operators.transaction_details");
+            statement.execute("VACUUM ANALYZE operators.members");
+        }
+        largeTables = largeTables(Long.getLong("query-plan-advisor.large-table-rows", 1000L));
+
+        context = ApplicationContext.builder()
+                .properties(Map.of(
+                        "query-plan-advisor.enabled", "true",
+                        "datasources.default.url", System.getenv(ExplainSupport.DB_URL_ENV),
+                        "micronaut.metrics.binders.jdbc.enabled", "false",
+                        "transaction-partitions.initial-delay", "1h",
+                        "merchant-daily-rollup.initial-delay", "1h"))
+                .start();
+        recorder = context.getBean(StatementRecorder.class);
+    }
+
+    @AfterAll
+    public static void tearDown() throws SQLException {
+        if (context != null) {
+            context.close();
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testRepositoryQueriesAvoidSequentialScansOfLargeTables() throws SQLException {
+        Map<String, QueryCase> cases = queryCases();
+        List<String> findings = new ArrayList<>();
+
+        for (Map.Entry<String, QueryCase> entry : cases.entrySet()) {
+            recorder.drain();
+            entry.getValue().invocation.accept(context);
+            List<StatementRecorder.RecordedStatement> statements = recorder.drain();
+            assertThat(statements).as(entry.getKey() + " executed no statement").isNotEmpty();
+
+            for (StatementRecorder.RecordedStatement statement : statements) {
+                String plan = ExplainSupport.explainAnalyze(connection, statement.getSql(), statement.getValues());
+
+                Set<String> seqScanned = new HashSet<>(ExplainSupport.relationsScannedBy(plan, ExplainSupport.SEQ_SCAN));
+                seqScanned.retainAll(largeTables);
+                if (!seqScanned.isEmpty()) {
+                    findings.add(entry.getKey() + ": sequential scan of " + seqScanned + "\n" + statement.getSql() + "\n" + plan);
+                }
+
+                if (entry.getValue().indexOnly) {
+                    Set<String> heapScanned = new HashSet<>(ExplainSupport.scannedRelations(plan));
+                    heapScanned.removeAll(ExplainSupport.relationsScannedBy(plan, ExplainSupport.INDEX_ONLY_SCAN));
+                    heapScanned.retainAll(largeTables);
+                    if (!heapScanned.isEmpty()) {
+                        findings.add(entry.getKey() + ": not index-only on " + heapScanned + "\n" + statement.getSql() + "\n" + plan);
+                    }
+                }
+            }
+        }
+
+        assertThat(findings).as(String.join("\n", findings)).isEmpty();
+    }
+
+    @Test
+    public void testEveryRepositoryQueryMethodIsAdvised() {
+        Set<String> advised = new HashSet<>(NOT_ADVISED);
+        queryCases().keySet().forEach(name -> advised.add(name.replaceFirst("#.*", "")));
+
+        List<String> missing = new ArrayList<>();
+        for (Class<?> repository : List.of(TransactionRepository.class, TransactionDetailRepository.class,
+                MemberRepository.class, MemberStatsRepository.class, TransactionPartitionRepository.class,
+                MerchantDailyRollupRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (!method.isSynthetic() && !method.isDefault() && !advised.contains(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        assertThat(missing).as("Repository methods without a query plan case").isEmpty();
+    }
+
+    // One case per query shape, keyed Repository.method with an optional #variant
+    private static Map<String, QueryCase> queryCases() {
+        Map<String, QueryCase> cases = new LinkedHashMap<>();
+
+        cases.put("TransactionRepository.findByMerchantId", transactions(true,
+                repository -> repository.findByMerchantId(MERCHANT_ID)));
+        cases.put("TransactionRepository.findByMerchantId#paged", transactions(true,
+                repository -> repository.findByMerchantId(MERCHANT_ID, LATEST_FIRST)));
+        cases.put("TransactionRepository.listByMerchantId", transactions(true,
+                repository -> repository.listByMerchantId(MERCHANT_ID, LATEST_FIRST)));
+        cases.put("TransactionRepository.existsByMerchantId", transactions(true,
+                repository -> repository.existsByMerchantId(MERCHANT_ID)));
+        cases.put("TransactionRepository.findByMerchantAndDateRange", transactions(true,
+                repository -> repository.findByMerchantAndDateRange(MERCHANT_ID, START_DATE, END_DATE, null, Pageable.from(0, 20))));
+        cases.put("TransactionRepository.findByMerchantAndDateRange#status", transactions(true,
+                repository -> repository.findByMerchantAndDateRange(MERCHANT_ID, START_DATE, END_DATE, "completed", Pageable.from(0, 20))));
+        cases.put("TransactionRepository.findFirstByMerchantAndDateRange", transactions(true,
+                repository -> repository.findFirstByMerchantAndDateRange(MERCHANT_ID, START_DATE, END_DATE, null, 20)));
+        cases.put("TransactionRepository.findNextByMerchantAndDateRange", transactions(true,
+                repository -> repository.findNextByMerchantAndDateRange(MERCHANT_ID, START_DATE, END_DATE, null,
+                        Instant.parse("2025-11-17T12:00:00Z"), 1500L, 20)));
+        cases.put("TransactionRepository.countByMerchantAndDateRange", transactions(true,
+                repository -> repository.countByMerchantAndDateRange(MERCHANT_ID, START_DATE, END_DATE, "completed")));
+        cases.put("TransactionRepository.summarize", transactions(true,
+                repository -> repository.summarize(MERCHANT_ID, START_DATE, END_DATE)));
+        cases.put("TransactionRepository.countByStatus", transactions(true,
+                repository -> repository.countByStatus(MERCHANT_ID, START_DATE, END_DATE)));
+        cases.put("TransactionRepository.findVersion", transactions(true,
+                repository -> repository.findVersion(MERCHANT_ID, START_DATE, END_DATE)));
+
+        cases.put("TransactionDetailRepository.findByMasterTxnId", new QueryCase(false,
+                ctx -> ctx.getBean(TransactionDetailRepository.class).findByMasterTxnId(1500L)));
+        cases.put("TransactionDetailRepository.findByMasterTxnIdInList", new QueryCase(false,
+                ctx -> ctx.getBean(TransactionDetailRepository.class).findByMasterTxnIdInList(List.of(1500L, 1501L, 1502L))));
+
+        cases.put("MemberRepository.findByMemberCode", new QueryCase(false,
+                ctx -> ctx.getBean(MemberRepository.class).findByMemberCode("GPS-001")));
+        cases.put("MemberRepository.findAll#default", new QueryCase(false,
+                ctx -> ctx.getBean(MemberRepository.class).findAll((PredicateSpecification<Member>) null,
+                        Pageable.from(0, 20, Sort.of(Sort.Order.desc("createdAt"))))));
+        cases.put("MemberRepository.findAll#filtered", new QueryCase(false,
+                ctx -> ctx.getBean(MemberRepository.class).findAll(
+                        MemberSpecifications.typeEquals("acquirer").and(MemberSpecifications.statusEquals("active")),
+                        Pageable.from(0, 20, Sort.of(Sort.Order.asc("memberName"))))));
+        cases.put("MemberRepository.findAll#search", new QueryCase(false,
+                ctx -> ctx.getBean(MemberRepository.class).findAll(MemberSpecifications.nameContains("bank"),
+                        Pageable.from(0, 20, Sort.of(Sort.Order.desc("createdAt"))))));
+        cases.put("MemberRepository.findVersion", new QueryCase(false,
+                ctx -> ctx.getBean(MemberRepository.class).findVersion()));
+
+        return cases;
+    }
+
+    private static QueryCase transactions(boolean indexOnly, Consumer<TransactionRepository> invocation) {
+        return new QueryCase(indexOnly, ctx -> invocation.accept(ctx.getBean(TransactionRepository.class)));
+    }
+
+    // Tables of the operators schema (partitions included) with at least minRows rows
+    private static Set<String> largeTables(long minRows) throws SQLException {
+        Set<String> tables = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT c.relname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE n.nspname = 'operators' AND c.relkind = 'r' AND c.reltuples >= ?")) {
+            statement.setLong(1, minRows);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static final class QueryCase {
+        private final boolean indexOnly;
+        private final Consumer<ApplicationContext> invocation;
+
+        private QueryCase(boolean indexOnly, Consumer<ApplicationContext> invocation) {
+            this.indexOnly = indexOnly;
+            this.invocation = invocation;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.payment.repository;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.order.Ordered;
+import jakarta.inject.Singleton;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Wraps the DataSource so every prepared statement the repositories execute is recorded with its bound values,
+ * for RepositoryQueryPlanTest to EXPLAIN afterwards. Only active with query-plan-advisor.enabled=true.
+ */
+@Singleton
+@Requires(property = "query-plan-advisor.enabled", value = "true")
+public class StatementRecorder implements BeanCreatedEventListener<DataSource>, Ordered {
+
+    private final List<RecordedStatement> statements = new ArrayList<>();
+
+    // Wraps the pool itself, before the transaction-aware DataSource proxy wraps it in turn
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+        DataSource target = event.getBean();
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection ? recordingConnection((Connection) result) : result;
+        });
+    }
+
+    synchronized List<RecordedStatement> drain() {
+        List<RecordedStatement> drained = new ArrayList<>(statements);
+        statements.clear();
+        return drained;
+    }
+
+    private synchronized void record(String sql, TreeMap<Integer, Object> values) {
+        statements.add(new RecordedStatement(sql, new ArrayList<>(values.values())));
+    }
+
+    private Connection recordingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement && method.getName().equals("prepareStatement")) {
+                return recordingStatement((PreparedStatement) result, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    // Keeps the values of the setXxx(index, value) calls and records them when the statement runs
+    private PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+        TreeMap<Integer, Object> values = new TreeMap<>();
+        return proxy(PreparedStatement.class, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("setNull")) {
+                values.put((Integer) args[0], null);
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                values.put((Integer) args[0], args[1]);
+            } else if (name.equals("clearParameters")) {
+                values.clear();
+            } else if (name.equals("executeQuery") || (name.equals("execute") && (args == null || args.length == 0))) {
+                record(sql, values);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * One executed statement: the JDBC SQL with ? placeholders and the bound values in parameter order.
+     */
+    static final class RecordedStatement {
+        private final String sql;
+        private final List<Object> values;
+
+        RecordedStatement(String sql, List<Object> values) {
+            this.sql = sql;
+            this.values = values;
+        }
+
+        String getSql() { return sql; }
+        List<Object> getValues() { return values; }
+    }
+}
@@ -0,0 +1,91 @@
+package com.payment.repository;
+
+import com.payment.repository.TransactionExportRepository.ExportCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads exports of the seeded database of PAYMENT_IT_DB_URL with batch sizes that split the range unevenly and
+ * evenly, and compares them with one query over the whole range in the same order.
+ */
+@EnabledIfEnvironmentVariable(named = ExplainSupport.DB_URL_ENV, matches = ".+")
+public class TransactionExportRepositoryTest {
+
+    private static final String MERCHANT_ID = "MCH-00001";
+    private static final Instant START_DATE = Instant.parse("2025-11-16T00:00:00Z");
+    private static final Instant END_DATE = Instant.parse("2025-11-18T00:00:00Z");
+
+    private TransactionExportRepository exportRepository;
+
+    @BeforeEach
+    public void setUp() {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setURL(System.getenv(ExplainSupport.DB_URL_ENV));
+        exportRepository = new TransactionExportRepository(dataSource, null);
+    }
+
+    @Test
+    public void testBatchesReadEveryMasterAndDetailOnceInKeyOrder() throws SQLException {
+        List<String> expected = expected(null);
+        assertThat(expected).hasSizeGreaterThan(7);
+
+        assertThat(export(null, 7)).isEqualTo(expected);
+        assertThat(export(null, 1000)).isEqualTo(expected);
+        // One batch per master, and a last batch that comes back empty
+        assertThat(export(null, 1)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testStatusFilterAppliesToEveryBatch() throws SQLException {
+        List<String> expected = expected("completed");
+        assertThat(expected).isNotEmpty();
+
+        assertThat(export("completed", 3)).isEqualTo(expected);
+    }
+
+    // "txn_id/txn_detail_id" per exported row
+    private List<String> export(String status, int fetchSize) {
+        List<String> rows = new ArrayList<>();
+        try (ExportCursor cursor = exportRepository.openCursor(MERCHANT_ID, START_DATE, END_DATE, status, fetchSize)) {
+            while (cursor.next()) {
+                rows.add(cursor.getTxnId() + "/" + (cursor.hasDetail() ? cursor.getDetailId() : "-"));
+            }
+            assertThat(cursor.next()).isFalse();
+        }
+        return rows;
+    }
+
+    private List<String> expected(String status) throws SQLException {
+        String sql = "SELECT m.txn_id, d.txn_detail_id FROM operators.transaction_master m " +
+                "LEFT JOIN operators.transaction_details d ON d.master_txn_id = m.txn_id " +
+                "WHERE m.merchant_id = ? AND m.txn_date BETWEEN DATE '2025-11-16' AND DATE '2025-11-18' " +
+                "AND (CAST(? AS VARCHAR) IS NULL OR m.status = ?) " +
+                "ORDER BY m.txn_date, m.txn_id, d.txn_detail_id";
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = ExplainSupport.connect();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, MERCHANT_ID);
+            statement.setString(2, status);
+            statement.setString(3, status);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    long detailId = rs.getLong(2);
+                    rows.add(rs.getLong(1) + "/" + (rs.wasNull() ? "-" : String.valueOf(detailId)));
+                }
+            }
+        }
+        return rows;
+    }
+}
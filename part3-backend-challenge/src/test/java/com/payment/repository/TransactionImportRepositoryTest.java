@@ -0,0 +1,145 @@
+package com.payment.repository;
+
+import com.payment.entity.TransactionDetail;
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.TransactionImportRepository.ChunkRecord;
+import com.payment.repository.TransactionImportRepository.ImportChunk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * COPYs chunks into the database of PAYMENT_IT_DB_URL under a test merchant and import key, removed afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = ExplainSupport.DB_URL_ENV, matches = ".+")
+public class TransactionImportRepositoryTest {
+
+    private static final String MERCHANT_ID = "MCH-IMPORT-TEST";
+    private static final String KEY = "transaction-import-repository-test";
+
+    private TransactionImportRepository importRepository;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setURL(System.getenv(ExplainSupport.DB_URL_ENV));
+        importRepository = new TransactionImportRepository(dataSource, null);
+        cleanUp();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        cleanUp();
+    }
+
+    @Test
+    public void testCopiesMastersWithTheirDetailsOnce() throws SQLException {
+        assertThat(importRepository.startImport(KEY, 500).getChunkRows()).isEqualTo(500);
+        assertThat(importRepository.startImport(KEY, 1000).getChunkRows()).isEqualTo(500);
+
+        ChunkRecord record = importRepository.copyChunk(KEY, 1, chunk("tab\there", "back\\slash\nnew line"));
+
+        assertThat(record.getMasterRows()).isEqualTo(2);
+        assertThat(record.getDetailRows()).isEqualTo(2);
+        assertThat(importRepository.copyChunk(KEY, 1, chunk("again", "again"))).isNull();
+
+        try (Connection connection = ExplainSupport.connect();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT m.amount, d.description FROM operators.transaction_master m " +
+                     "LEFT JOIN operators.transaction_details d ON d.master_txn_id = m.txn_id " +
+                     "WHERE m.merchant_id = ? ORDER BY m.amount, d.txn_detail_id")) {
+            statement.setString(1, MERCHANT_ID);
+            try (ResultSet rs = statement.executeQuery()) {
+                assertThat(rs.next()).isTrue();
+                assertThat(rs.getString(2)).isEqualTo("tab\there");
+                assertThat(rs.next()).isTrue();
+                assertThat(rs.getString(2)).isEqualTo("back\\slash\nnew line");
+                assertThat(rs.next()).isTrue();
+                assertThat(rs.getBigDecimal(1)).isEqualByComparingTo("20.00");
+                assertThat(rs.getString(2)).isNull();
+                assertThat(rs.next()).isFalse();
+            }
+        }
+
+        importRepository.completeImport(KEY);
+        assertThat(importRepository.startImport(KEY, 500).isCompleted()).isTrue();
+        assertThat(importRepository.findChunks(KEY)).extracting(ChunkRecord::getChunkNo).containsExactly(1);
+    }
+
+    @Test
+    public void testRejectedRowsRollBackTheWholeChunk() throws SQLException {
+        importRepository.startImport(KEY, 500);
+        ImportChunk chunk = chunk("fine", "fine");
+        // Longer than card_last4 VARCHAR(4)
+        chunk.getMasters().get(1).setCardLast4("12345");
+
+        assertThatThrownBy(() -> importRepository.copyChunk(KEY, 1, chunk))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Chunk 1 rejected");
+        assertThat(importRepository.findChunks(KEY)).isEmpty();
+        try (Connection connection = ExplainSupport.connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT COUNT(*) FROM operators.transaction_master WHERE merchant_id = '" + MERCHANT_ID + "'")) {
+            rs.next();
+            assertThat(rs.getLong(1)).isZero();
+        }
+    }
+
+    // Two masters: the first with two details, the second without
+    private static ImportChunk chunk(String firstDescription, String secondDescription) {
+        ImportChunk chunk = new ImportChunk();
+        chunk.add(master(new BigDecimal("10.00")), List.of(detail(firstDescription), detail(secondDescription)));
+        chunk.add(master(new BigDecimal("20.00")), List.of());
+        return chunk;
+    }
+
+    private static TransactionMaster master(BigDecimal amount) {
+        TransactionMaster master = new TransactionMaster();
+        master.setMerchantId(MERCHANT_ID);
+        master.setTxnDate(Date.valueOf(LocalDate.of(2025, 11, 16)));
+        master.setLocalTxnDateTime(Instant.parse("2025-11-16T08:00:00Z"));
+        master.setAmount(amount);
+        master.setCurrency("USD");
+        master.setStatus(TransactionStatus.COMPLETED);
+        return master;
+    }
+
+    private static TransactionDetail detail(String description) {
+        TransactionDetail detail = new TransactionDetail();
+        detail.setDetailType("fee");
+        detail.setAmount(new BigDecimal("0.10"));
+        detail.setCurrency("USD");
+        detail.setDescription(description);
+        detail.setLocalTxnDateTime(Instant.parse("2025-11-16T08:00:00Z"));
+        return detail;
+    }
+
+    private static void cleanUp() throws SQLException {
+        try (Connection connection = ExplainSupport.connect();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM operators.transaction_details WHERE master_txn_id IN " +
+                    "(SELECT txn_id FROM operators.transaction_master WHERE merchant_id = '" + MERCHANT_ID + "')");
+            statement.execute("DELETE FROM operators.transaction_master WHERE merchant_id = '" + MERCHANT_ID + "'");
+            statement.execute("DELETE FROM operators.member_stats WHERE merchant_id = '" + MERCHANT_ID + "'");
+            statement.execute("DELETE FROM operators.transaction_imports WHERE import_key = '" + KEY + "'");
+        }
+    }
+}
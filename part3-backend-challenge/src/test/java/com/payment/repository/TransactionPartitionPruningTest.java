@@ -0,0 +1,80 @@
+package com.payment.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the date range queries of TransactionRepository only touch the txn_date partitions
+ * of the requested range, for custom and generic plans. Needs schema.sql and sample-data.sql
+ * (November 2025) loaded in the database of PAYMENT_IT_DB_URL.
+ */
+@EnabledIfEnvironmentVariable(named = ExplainSupport.DB_URL_ENV, matches = ".+")
+public class TransactionPartitionPruningTest {
+
+    private static final List<String> DATE_RANGE_QUERIES = List.of(
+            "findByMerchantAndDateRange",
+            "findFirstByMerchantAndDateRange",
+            "findNextByMerchantAndDateRange",
+            "countByMerchantAndDateRange",
+            "summarize",
+            "countByStatus");
+
+    private static Connection connection;
+
+    @BeforeAll
+    public static void connect() throws SQLException {
+        connection = ExplainSupport.connect();
+    }
+
+    @AfterAll
+    public static void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testDateRangeQueriesScanOnlyMatchingPartitionWithCustomPlans() throws SQLException {
+        assertOnlyNovemberPartitionScanned(false);
+    }
+
+    @Test
+    public void testDateRangeQueriesScanOnlyMatchingPartitionWithGenericPlans() throws SQLException {
+        assertOnlyNovemberPartitionScanned(true);
+    }
+
+    private void assertOnlyNovemberPartitionScanned(boolean genericPlan) throws SQLException {
+        for (String method : DATE_RANGE_QUERIES) {
+            String sql = ExplainSupport.query(TransactionRepository.class, method);
+
+            String plan = ExplainSupport.explain(connection, sql, parameters(), genericPlan);
+
+            assertThat(ExplainSupport.scannedRelations(plan))
+                    .as(method + "\n" + plan)
+                    .filteredOn(relation -> relation.startsWith("transaction_master"))
+                    .isNotEmpty()
+                    .allMatch(relation -> relation.equals("transaction_master_p202511"));
+        }
+    }
+
+    private static Map<String, Object> parameters() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("merchantId", "MCH-00001");
+        parameters.put("startDate", Instant.parse("2025-11-16T00:00:00Z"));
+        parameters.put("endDate", Instant.parse("2025-11-18T00:00:00Z"));
+        parameters.put("status", null);
+        parameters.put("cursorTime", Instant.parse("2025-11-17T12:00:00Z"));
+        parameters.put("cursorTxnId", 1000L);
+        parameters.put("limit", 20);
+        return parameters;
+    }
+}
@@ -0,0 +1,124 @@
+package com.payment.repository;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.TransactionWriteRepository.WriteRequest;
+import com.payment.repository.TransactionWriteRepository.WriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Binding order and retries of the batch insert, against a mocked connection.
+ */
+public class TransactionWriteRepositoryRetryTest {
+
+    private static final String MERCHANT_ID = "MCH-WRITE-TEST";
+    private static final Timestamp CREATED_AT = Timestamp.from(Instant.parse("2025-11-16T08:00:01Z"));
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private TransactionWriteRepository writeRepository;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        insert = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(insert);
+        writeRepository = new TransactionWriteRepository(dataSource, null);
+    }
+
+    @Test
+    public void testRowsAreBoundInKeyOrderAndReturnedInRequestOrder() throws SQLException {
+        ResultSet created = created();
+        when(insert.executeQuery()).thenReturn(created);
+
+        List<WriteResult> results = writeRepository.insert(List.of(request("key-b"), request("key-a")));
+
+        ArgumentCaptor<Object[]> columns = ArgumentCaptor.forClass(Object[].class);
+        verify(connection, times(14)).createArrayOf(eq("text"), columns.capture());
+        assertThat(columns.getAllValues().get(0)).containsExactly("key-a", "key-b");
+        assertThat(results).extracting(WriteResult::getTxnId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testDeadlockedBatchIsRetriedOnce() throws SQLException {
+        ResultSet created = created();
+        when(insert.executeQuery())
+                .thenThrow(new SQLException("deadlock detected", "40P01"))
+                .thenReturn(created);
+
+        List<WriteResult> results = writeRepository.insert(List.of(request("key-b"), request("key-a")));
+
+        assertThat(results).extracting(WriteResult::isCreated).containsExactly(true, true);
+        assertThat(results).extracting(WriteResult::getTxnId).containsExactly(1L, 2L);
+        verify(insert, times(2)).executeQuery();
+    }
+
+    @Test
+    public void testSecondRollbackFailsTheBatch() throws SQLException {
+        when(insert.executeQuery())
+                .thenThrow(new SQLException("deadlock detected", "40P01"))
+                .thenThrow(new SQLException("could not serialize access", "40001"));
+
+        assertThatThrownBy(() -> writeRepository.insert(List.of(request("key-a"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Could not insert 1 transactions");
+        verify(insert, times(2)).executeQuery();
+    }
+
+    @Test
+    public void testOtherErrorsAreNotRetried() throws SQLException {
+        when(insert.executeQuery()).thenThrow(new SQLException("value too long", "22001"));
+
+        assertThatThrownBy(() -> writeRepository.insert(List.of(request("key-a"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Transaction rejected");
+        verify(insert, times(1)).executeQuery();
+    }
+
+    // Both keys created, in the order they were bound: key-a as txn 2, key-b as txn 1
+    private static ResultSet created() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getString(1)).thenReturn(MERCHANT_ID);
+        when(rs.getString(2)).thenReturn("key-a", "key-b");
+        when(rs.getLong(3)).thenReturn(2L, 1L);
+        when(rs.getTimestamp(4)).thenReturn(CREATED_AT);
+        return rs;
+    }
+
+    private static WriteRequest request(String idempotencyKey) {
+        TransactionMaster transaction = new TransactionMaster();
+        transaction.setMerchantId(MERCHANT_ID);
+        transaction.setTxnDate(Date.valueOf(LocalDate.of(2025, 11, 16)));
+        transaction.setLocalTxnDateTime(Instant.parse("2025-11-16T08:00:00Z"));
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setCurrency("USD");
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        return new WriteRequest(idempotencyKey, "hash-" + idempotencyKey, transaction);
+    }
+}
@@ -0,0 +1,137 @@
+package com.payment.repository;
+
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.TransactionWriteRepository.WriteRequest;
+import com.payment.repository.TransactionWriteRepository.WriteResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Inserts batches into the database of PAYMENT_IT_DB_URL under a test merchant, removed afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = ExplainSupport.DB_URL_ENV, matches = ".+")
+public class TransactionWriteRepositoryTest {
+
+    private static final String MERCHANT_ID = "MCH-WRITE-TEST";
+
+    private TransactionWriteRepository writeRepository;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setURL(System.getenv(ExplainSupport.DB_URL_ENV));
+        writeRepository = new TransactionWriteRepository(dataSource, null);
+        cleanUp();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        cleanUp();
+    }
+
+    @Test
+    public void testWritesEachKeyOnceAndReturnsTheStoredTransaction() throws SQLException {
+        List<WriteResult> first = writeRepository.insert(List.of(
+                request("key-1", "hash-1", "10.00"),
+                request("key-2", "hash-2", "20.00")));
+
+        assertThat(first).extracting(WriteResult::isCreated).containsExactly(true, true);
+        assertThat(first.get(0).getTxnId()).isNotEqualTo(first.get(1).getTxnId());
+
+        // key-2 again (with another hash), between two new keys
+        List<WriteResult> second = writeRepository.insert(List.of(
+                request("key-3", "hash-3", "30.00"),
+                request("key-2", "hash-other", "99.00"),
+                request("key-4", "hash-4", "40.00")));
+
+        assertThat(second).extracting(WriteResult::isCreated).containsExactly(true, false, true);
+        assertThat(second.get(1).getTxnId()).isEqualTo(first.get(1).getTxnId());
+        assertThat(second.get(1).getRequestHash()).isEqualTo("hash-2");
+        assertThat(second.get(1).getCreatedAt()).isEqualTo(first.get(1).getCreatedAt());
+
+        try (Connection connection = ExplainSupport.connect();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT m.txn_id, m.amount FROM operators.transaction_master m " +
+                     "JOIN operators.transaction_idempotency_keys k ON k.txn_id = m.txn_id AND k.merchant_id = m.merchant_id " +
+                     "WHERE m.merchant_id = ? ORDER BY m.amount")) {
+            statement.setString(1, MERCHANT_ID);
+            try (ResultSet rs = statement.executeQuery()) {
+                for (String amount : new String[]{"10.00", "20.00", "30.00", "40.00"}) {
+                    assertThat(rs.next()).isTrue();
+                    assertThat(rs.getBigDecimal(2)).isEqualByComparingTo(amount);
+                }
+                assertThat(rs.next()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    public void testRejectedRowFailsTheWholeBatch() throws SQLException {
+        WriteRequest unknownAcquirer = request("key-2", "hash-2", "20.00");
+        unknownAcquirer.getTransaction().setGpAcquirerId(-1L);
+
+        assertThatThrownBy(() -> writeRepository.insert(List.of(request("key-1", "hash-1", "10.00"), unknownAcquirer)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Transaction rejected");
+        assertThat(count("transaction_master")).isZero();
+        assertThat(count("transaction_idempotency_keys")).isZero();
+    }
+
+    @Test
+    public void testPurgesKeysCreatedBeforeTheCutoff() throws SQLException {
+        writeRepository.insert(List.of(request("key-1", "hash-1", "10.00")));
+
+        assertThat(writeRepository.purgeKeys(Instant.now().minusSeconds(3600), 100)).isZero();
+        assertThat(writeRepository.purgeKeys(Instant.now().plusSeconds(60), 100)).isGreaterThanOrEqualTo(1);
+        assertThat(count("transaction_idempotency_keys")).isZero();
+    }
+
+    private static WriteRequest request(String idempotencyKey, String requestHash, String amount) {
+        TransactionMaster transaction = new TransactionMaster();
+        transaction.setMerchantId(MERCHANT_ID);
+        transaction.setTxnDate(Date.valueOf(LocalDate.of(2025, 11, 16)));
+        transaction.setLocalTxnDateTime(Instant.parse("2025-11-16T08:00:00Z"));
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setCurrency("USD");
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setCardLast4("4242");
+        return new WriteRequest(idempotencyKey, requestHash, transaction);
+    }
+
+    private static long count(String table) throws SQLException {
+        try (Connection connection = ExplainSupport.connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT COUNT(*) FROM operators." + table + " WHERE merchant_id = '" + MERCHANT_ID + "'")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void cleanUp() throws SQLException {
+        try (Connection connection = ExplainSupport.connect();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM operators.transaction_master WHERE merchant_id = '" + MERCHANT_ID + "'");
+            statement.execute("DELETE FROM operators.member_stats WHERE merchant_id = '" + MERCHANT_ID + "'");
+            statement.execute("DELETE FROM operators.transaction_idempotency_keys WHERE merchant_id = '" + MERCHANT_ID + "'");
+        }
+    }
+}
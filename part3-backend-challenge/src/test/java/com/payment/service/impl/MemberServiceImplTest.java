@@ -0,0 +1,178 @@
+package com.payment.service.impl;
+
+import com.payment.cache.LookupCache;
+import com.payment.cache.LookupCacheConfiguration;
+import com.payment.dto.MemberStatsResponse;
+import com.payment.dto.MemberTransactionListResponse;
+import com.payment.dto.MemberTransactionResponse;
+import com.payment.entity.Member;
+import com.payment.entity.MemberStats;
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.exception.NotFoundException;
+import com.payment.repository.MemberRepository;
+import com.payment.repository.MemberStatsRepository;
+import com.payment.repository.TransactionDetailRepository;
+import com.payment.repository.TransactionRepository;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Slice;
+import io.micronaut.data.model.Sort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for MemberServiceImpl with mocked repositories.
+ */
+public class MemberServiceImplTest {
+
+    private static final String MEMBER_CODE = "MCH-00001";
+    private static final Instant TIMESTAMP = Instant.parse("2025-11-16T08:00:00Z");
+
+    private MemberRepository memberRepository;
+    private TransactionRepository transactionRepository;
+    private MemberStatsRepository memberStatsRepository;
+    private MemberServiceImpl memberService;
+
+    @BeforeEach
+    public void setUp() {
+        memberRepository = mock(MemberRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        memberStatsRepository = mock(MemberStatsRepository.class);
+        LookupCacheConfiguration cacheConfiguration = new LookupCacheConfiguration();
+        cacheConfiguration.setEnabled(false);
+        memberService = new MemberServiceImpl(memberRepository, transactionRepository,
+                mock(TransactionDetailRepository.class), memberStatsRepository,
+                new LookupCache(transactionRepository, memberRepository, cacheConfiguration));
+
+        Member member = new Member();
+        member.setMemberId(1L);
+        member.setMemberCode(MEMBER_CODE);
+        when(memberRepository.findByMemberCode(MEMBER_CODE)).thenReturn(Optional.of(member));
+    }
+
+    @Test
+    public void testGetTransactions_PagesInSqlNewestFirst() {
+        when(transactionRepository.findByMerchantId(eq(MEMBER_CODE), any(Pageable.class)))
+                .thenReturn(Page.of(List.of(master(4L), master(3L)), Pageable.from(1, 2), 5L));
+
+        MemberTransactionListResponse response = memberService.getTransactions(MEMBER_CODE, 1, 2, true);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(transactionRepository).findByMerchantId(eq(MEMBER_CODE), pageable.capture());
+        assertThat(pageable.getValue().getNumber()).isEqualTo(1);
+        assertThat(pageable.getValue().getSize()).isEqualTo(2);
+        assertThat(pageable.getValue().getSort().getOrderBy())
+                .containsExactly(Sort.Order.desc("localTxnDateTime"), Sort.Order.desc("txnId"));
+        // Never every transaction of the member loaded and paged in memory
+        verify(transactionRepository, never()).findByMerchantId(anyString());
+
+        assertThat(response.getTransactions()).extracting(MemberTransactionResponse::getTxnId).containsExactly(4L, 3L);
+        assertThat(response.getTransactions().get(0).getAmount()).isEqualTo(10.0);
+        assertThat(response.getTransactions().get(0).getStatus()).isEqualTo("completed");
+        assertThat(response.getTransactions().get(0).getTimestamp()).isEqualTo(TIMESTAMP.toString());
+        assertThat(response.getPagination().getCurrentPage()).isEqualTo(2);
+        assertThat(response.getPagination().getPageSize()).isEqualTo(2);
+        assertThat(response.getPagination().getTotalRecords()).isEqualTo(5L);
+        assertThat(response.getPagination().getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    public void testGetTransactions_WithoutTotalSkipsTheCount() {
+        when(transactionRepository.listByMerchantId(eq(MEMBER_CODE), any(Pageable.class)))
+                .thenReturn(Slice.of(List.of(master(2L)), Pageable.from(0, 1)));
+
+        MemberTransactionListResponse response = memberService.getTransactions(MEMBER_CODE, 0, 1, false);
+
+        verify(transactionRepository, never()).findByMerchantId(anyString(), any(Pageable.class));
+        assertThat(response.getTransactions()).extracting(MemberTransactionResponse::getTxnId).containsExactly(2L);
+        assertThat(response.getPagination().getCurrentPage()).isEqualTo(1);
+        assertThat(response.getPagination().getTotalRecords()).isNull();
+        assertThat(response.getPagination().getTotalPages()).isNull();
+    }
+
+    @Test
+    public void testGetTransactions_PagePastTheEndIsEmpty() {
+        when(transactionRepository.findByMerchantId(eq(MEMBER_CODE), any(Pageable.class)))
+                .thenReturn(Page.of(List.of(), Pageable.from(9, 2), 5L));
+
+        MemberTransactionListResponse response = memberService.getTransactions(MEMBER_CODE, 9, 2, true);
+
+        assertThat(response.getTransactions()).isEmpty();
+        assertThat(response.getPagination().getCurrentPage()).isEqualTo(10);
+        assertThat(response.getPagination().getTotalRecords()).isEqualTo(5L);
+        assertThat(response.getPagination().getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    public void testGetTransactions_UnknownMember() {
+        when(memberRepository.findByMemberCode("MCH-MISSING")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> memberService.getTransactions("MCH-MISSING", 0, 20, true))
+                .isInstanceOf(NotFoundException.class);
+        verify(transactionRepository, never()).findByMerchantId(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void testGetTransactions_InvalidPaging() {
+        assertThatThrownBy(() -> memberService.getTransactions(MEMBER_CODE, -1, 20, true))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberService.getTransactions(MEMBER_CODE, 0, 0, true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testGetStats_ReadsTheRollup() {
+        MemberStats rollup = new MemberStats();
+        rollup.setMerchantId(MEMBER_CODE);
+        rollup.setTxnCount(4L);
+        rollup.setTotalAmount(new BigDecimal("10.00"));
+        rollup.setLastTxnDateTime(TIMESTAMP);
+        when(memberStatsRepository.findById(MEMBER_CODE)).thenReturn(Optional.of(rollup));
+
+        MemberStatsResponse stats = memberService.getStats(MEMBER_CODE);
+
+        assertThat(stats.getTotalTransactions()).isEqualTo(4L);
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("10.00");
+        assertThat(stats.getAvgTransactionAmount()).isEqualByComparingTo("2.50");
+        assertThat(stats.getLastTransactionDate()).isEqualTo(TIMESTAMP.toString());
+    }
+
+    @Test
+    public void testGetStats_WithoutTransactions() {
+        when(memberStatsRepository.findById(MEMBER_CODE)).thenReturn(Optional.empty());
+
+        MemberStatsResponse stats = memberService.getStats(MEMBER_CODE);
+
+        assertThat(stats.getTotalTransactions()).isZero();
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("0");
+        assertThat(stats.getLastTransactionDate()).isNull();
+    }
+
+    private static TransactionMaster master(Long txnId) {
+        TransactionMaster master = new TransactionMaster();
+        master.setTxnId(txnId);
+        master.setMerchantId(MEMBER_CODE);
+        master.setAmount(new BigDecimal("10.00"));
+        master.setCurrency("USD");
+        master.setStatus(TransactionStatus.COMPLETED);
+        master.setLocalTxnDateTime(TIMESTAMP);
+        return master;
+    }
+}
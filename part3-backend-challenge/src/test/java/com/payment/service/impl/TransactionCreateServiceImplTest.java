@@ -0,0 +1,155 @@
+package com.payment.service.impl;
+
+import com.payment.cache.LookupCache;
+import com.payment.cache.RangeResultCache;
+import com.payment.coalescer.TransactionWriteCoalescer;
+import com.payment.coalescer.TransactionWriteConfiguration;
+import com.payment.dto.TransactionCreateRequest;
+import com.payment.dto.TransactionCreateResponse;
+import com.payment.entity.TransactionStatus;
+import com.payment.exception.ConflictException;
+import com.payment.exception.LimitExceededException;
+import com.payment.repository.TransactionWriteRepository.WriteRequest;
+import com.payment.repository.TransactionWriteRepository.WriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TransactionCreateServiceImpl with a mocked coalescer.
+ */
+public class TransactionCreateServiceImplTest {
+
+    private static final String MERCHANT_ID = "MCH-00001";
+    private static final String KEY = "auth-0001";
+    private static final Instant CREATED_AT = Instant.parse("2025-11-16T23:30:01Z");
+
+    private TransactionWriteCoalescer coalescer;
+    private LookupCache lookupCache;
+    private RangeResultCache rangeResultCache;
+    private TransactionCreateServiceImpl createService;
+
+    @BeforeEach
+    public void setUp() {
+        coalescer = mock(TransactionWriteCoalescer.class);
+        lookupCache = mock(LookupCache.class);
+        rangeResultCache = mock(RangeResultCache.class);
+        TransactionWriteConfiguration configuration = new TransactionWriteConfiguration();
+        configuration.setWriteTimeout(Duration.ofMillis(50));
+        createService = new TransactionCreateServiceImpl(coalescer, lookupCache, rangeResultCache, null, configuration);
+    }
+
+    @Test
+    public void testCreatesWithDefaultsAndNormalizedValues() {
+        ArgumentCaptor<WriteRequest> written = ArgumentCaptor.forClass(WriteRequest.class);
+        when(coalescer.submit(written.capture())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(stored(true, invocation.<WriteRequest>getArgument(0).getRequestHash())));
+
+        TransactionCreateResponse response = createService.createTransaction(MERCHANT_ID, KEY, request("125.5")).join();
+
+        WriteRequest request = written.getValue();
+        assertThat(request.getIdempotencyKey()).isEqualTo(KEY);
+        assertThat(request.getRequestHash()).hasSize(64);
+        assertThat(request.getTransaction().getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(request.getTransaction().getCurrency()).isEqualTo("USD");
+        assertThat(request.getTransaction().getAmount()).isEqualTo(new BigDecimal("125.50"));
+        // The UTC date of 23:30 local time in the request
+        assertThat(request.getTransaction().getTxnDate()).isEqualTo(Date.valueOf(LocalDate.of(2025, 11, 16)));
+
+        assertThat(response.getTxnId()).isEqualTo(42L);
+        assertThat(response.isReplayed()).isFalse();
+        assertThat(response.getCreatedAt()).isEqualTo(CREATED_AT);
+        verify(lookupCache).invalidateMerchant(MERCHANT_ID);
+        verify(rangeResultCache).invalidate(MERCHANT_ID, LocalDate.of(2025, 11, 16));
+    }
+
+    @Test
+    public void testEqualRequestsHashEqually() {
+        ArgumentCaptor<WriteRequest> written = ArgumentCaptor.forClass(WriteRequest.class);
+        when(coalescer.submit(written.capture())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(stored(false, invocation.<WriteRequest>getArgument(0).getRequestHash())));
+
+        TransactionCreateRequest lowerCase = request("125.50");
+        lowerCase.setStatus("completed");
+        lowerCase.setCurrency("usd");
+
+        TransactionCreateResponse first = createService.createTransaction(MERCHANT_ID, KEY, request("125.5")).join();
+        createService.createTransaction(MERCHANT_ID, KEY, lowerCase).join();
+
+        assertThat(first.isReplayed()).isTrue();
+        assertThat(written.getAllValues().get(0).getRequestHash()).isEqualTo(written.getAllValues().get(1).getRequestHash());
+        verify(lookupCache, never()).invalidateMerchant(any());
+        verify(rangeResultCache, never()).invalidate(any(), any());
+    }
+
+    @Test
+    public void testKeyReusedForADifferentRequestConflicts() {
+        when(coalescer.submit(any())).thenReturn(CompletableFuture.completedFuture(stored(false, "0".repeat(64))));
+
+        CompletableFuture<TransactionCreateResponse> response = createService.createTransaction(MERCHANT_ID, KEY, request("1.00"));
+
+        assertThatThrownBy(response::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    public void testWriteTimeoutAsksForARetryWithTheSameKey() {
+        when(coalescer.submit(any())).thenReturn(new CompletableFuture<>());
+
+        CompletableFuture<TransactionCreateResponse> response = createService.createTransaction(MERCHANT_ID, KEY, request("1.00"));
+
+        assertThatThrownBy(response::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(LimitExceededException.class)
+                .hasMessageContaining("retry with the same Idempotency-Key");
+    }
+
+    @Test
+    public void testRejectsBadInputBeforeQueueing() {
+        assertThatThrownBy(() -> createService.createTransaction(MERCHANT_ID, " ", request("1.00")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Idempotency-Key header is required");
+
+        TransactionCreateRequest unknownStatus = request("1.00");
+        unknownStatus.setStatus("settled");
+        assertThatThrownBy(() -> createService.createTransaction(MERCHANT_ID, KEY, unknownStatus))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("status must be one of");
+
+        assertThatThrownBy(() -> createService.createTransaction(MERCHANT_ID, KEY, request("1.005")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("amount must have at most 2 fraction digits");
+        verifyNoInteractions(coalescer);
+    }
+
+    private static TransactionCreateRequest request(String amount) {
+        TransactionCreateRequest request = new TransactionCreateRequest();
+        request.setLocalTxnDateTime(Instant.parse("2025-11-16T23:30:00Z"));
+        request.setAmount(new BigDecimal(amount));
+        request.setStatus("COMPLETED");
+        request.setCardLast4("4242");
+        return request;
+    }
+
+    private static WriteResult stored(boolean created, String requestHash) {
+        return new WriteResult(created, 42L, Date.valueOf(LocalDate.of(2025, 11, 16)), CREATED_AT, requestHash);
+    }
+}
@@ -0,0 +1,184 @@
+package com.payment.service.impl;
+
+import com.payment.repository.TransactionExportRepository.ExportCursor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionExportEncoderTest {
+
+    @Test
+    public void testNdjsonGroupsDetailsUnderTheirMaster() {
+        ListCursor cursor = new ListCursor(List.of(
+                row(1L, 10L, "fee"),
+                row(1L, 11L, "tax"),
+                row(2L, null, null)
+        ));
+
+        String output = drain(new NdjsonExportEncoder(64 * 1024), cursor);
+
+        String[] lines = output.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"txnId\":1,")
+                .contains("\"details\":[{\"detailId\":10,\"type\":\"fee\"")
+                .contains("{\"detailId\":11,\"type\":\"tax\"");
+        assertThat(lines[1]).startsWith("{\"txnId\":2,").endsWith("\"details\":[]}");
+        assertThat(output).endsWith("\n");
+    }
+
+    @Test
+    public void testCsvQuotesFieldsAndKeepsMastersWithoutDetails() {
+        ListCursor cursor = new ListCursor(List.of(
+                row(1L, 10L, "fee, \"card\""),
+                row(2L, null, null)
+        ));
+
+        String output = drain(new CsvExportEncoder(64 * 1024), cursor);
+
+        String[] lines = output.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("txn_id,timestamp,amount");
+        assertThat(lines[1]).contains(",10,\"fee, \"\"card\"\"\",1.50,USD,");
+        assertThat(lines[2]).startsWith("2,").endsWith(",,,,");
+    }
+
+    @Test
+    public void testSplitsLargeExportsIntoBoundedChunks() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long i = 0; i < 5_000; i++) {
+            rows.add(row(i, i, "fee"));
+        }
+        ListCursor cursor = new ListCursor(rows);
+        NdjsonExportEncoder encoder = new NdjsonExportEncoder(4096);
+
+        int chunks = 0;
+        int maxChunk = 0;
+        byte[] chunk;
+        while ((chunk = encoder.nextChunk(cursor)) != null) {
+            chunks++;
+            maxChunk = Math.max(maxChunk, chunk.length);
+        }
+
+        assertThat(chunks).isGreaterThan(10);
+        // A chunk only overshoots the threshold by the row that crossed it
+        assertThat(maxChunk).isLessThan(4096 + 512);
+        assertThat(encoder.nextChunk(cursor)).isNull();
+    }
+
+    //    Helper to read every chunk of an encoder into a string
+    private String drain(TransactionExportEncoder encoder, ExportCursor cursor) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk;
+        while ((chunk = encoder.nextChunk(cursor)) != null) {
+            out.writeBytes(chunk);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Object[] row(long txnId, Long detailId, String detailType) {
+        return new Object[]{txnId, detailId, detailType};
+    }
+
+    //    In-memory cursor over (txnId, detailId, detailType) rows, other columns fixed
+    private static final class ListCursor implements ExportCursor {
+
+        private final List<Object[]> rows;
+        private int position = -1;
+
+        private ListCursor(List<Object[]> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean next() {
+            position++;
+            return position < rows.size();
+        }
+
+        @Override
+        public long getTxnId() {
+            return (Long) rows.get(position)[0];
+        }
+
+        @Override
+        public Instant getLocalTxnDateTime() {
+            return Instant.parse("2025-11-18T14:32:15Z");
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return new BigDecimal("150.00");
+        }
+
+        @Override
+        public String getCurrency() {
+            return "USD";
+        }
+
+        @Override
+        public String getStatus() {
+            return "SUCCESS";
+        }
+
+        @Override
+        public String getCardType() {
+            return "VISA";
+        }
+
+        @Override
+        public String getCardLast4() {
+            return "4242";
+        }
+
+        @Override
+        public String getAuthCode() {
+            return "A1B2C3";
+        }
+
+        @Override
+        public String getResponseCode() {
+            return "00";
+        }
+
+        @Override
+        public boolean hasDetail() {
+            return rows.get(position)[1] != null;
+        }
+
+        @Override
+        public long getDetailId() {
+            return (Long) rows.get(position)[1];
+        }
+
+        @Override
+        public String getDetailType() {
+            return (String) rows.get(position)[2];
+        }
+
+        @Override
+        public BigDecimal getDetailAmount() {
+            return new BigDecimal("1.50");
+        }
+
+        @Override
+        public String getDetailCurrency() {
+            return "USD";
+        }
+
+        @Override
+        public String getDetailDescription() {
+            return "Processing fee";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
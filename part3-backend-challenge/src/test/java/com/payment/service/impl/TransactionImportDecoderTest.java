@@ -0,0 +1,122 @@
+package com.payment.service.impl;
+
+import com.payment.entity.TransactionDetail;
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.repository.TransactionImportRepository.ImportChunk;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TransactionImportDecoderTest {
+
+    @Test
+    public void testNdjsonReadsNestedDetailsAndAppliesDefaults() throws IOException {
+        String body = "{\"txnId\":99,\"merchantId\":\"MCH-00001\",\"gpAcquirerId\":1,\"localTxnDateTime\":\"2025-11-16T23:30:00Z\"," +
+                "\"amount\":125.50,\"status\":\"completed\",\"extra\":{\"ignored\":[1,2]}," +
+                "\"details\":[{\"detailType\":\"fee\",\"amount\":\"1.25\",\"description\":\"card fee\"},{\"detailType\":\"tax\",\"amount\":0.5}]}\n" +
+                "{\"merchantId\":\"MCH-00002\",\"txnDate\":\"2025-11-17\",\"localTxnDateTime\":\"2025-11-17T08:00:00Z\"," +
+                "\"amount\":10,\"currency\":\"EUR\",\"status\":\"pending\"}\n";
+
+        ImportChunk chunk = readAll(new NdjsonImportDecoder(stream(body)));
+
+        assertThat(chunk.size()).isEqualTo(2);
+        assertThat(chunk.getDetailCount()).isEqualTo(2);
+
+        TransactionMaster first = chunk.getMasters().get(0);
+        assertThat(first.getTxnId()).isNull();
+        assertThat(first.getGpAcquirerId()).isEqualTo(1L);
+        assertThat(first.getAmount()).isEqualByComparingTo("125.50");
+        assertThat(first.getCurrency()).isEqualTo("USD");
+        assertThat(first.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(first.getTxnDate()).isEqualTo(Date.valueOf(LocalDate.of(2025, 11, 16)));
+
+        TransactionDetail fee = chunk.getDetails().get(0).get(0);
+        assertThat(fee.getDetailType()).isEqualTo("fee");
+        assertThat(fee.getAmount()).isEqualByComparingTo(new BigDecimal("1.25"));
+        assertThat(fee.getCurrency()).isEqualTo("USD");
+        assertThat(fee.getLocalTxnDateTime()).isEqualTo(Instant.parse("2025-11-16T23:30:00Z"));
+
+        assertThat(chunk.getMasters().get(1).getCurrency()).isEqualTo("EUR");
+        assertThat(chunk.getDetails().get(1)).isEmpty();
+    }
+
+    @Test
+    public void testNdjsonReportsTheLineOfAnIncompleteRow() {
+        String body = "{\"merchantId\":\"MCH-00001\",\"localTxnDateTime\":\"2025-11-16T08:00:00Z\",\"amount\":1,\"status\":\"completed\"}\n" +
+                "{\"merchantId\":\"MCH-00001\",\"localTxnDateTime\":\"2025-11-16T08:00:00Z\",\"status\":\"completed\"}\n";
+
+        assertThatThrownBy(() -> readAll(new NdjsonImportDecoder(stream(body))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 2: amount is required");
+    }
+
+    @Test
+    public void testNdjsonRejectsAnUnknownStatusWithItsLine() {
+        String body = "{\"merchantId\":\"MCH-00001\",\"localTxnDateTime\":\"2025-11-16T08:00:00Z\",\"amount\":1,\"status\":\"settled\"}\n";
+
+        assertThatThrownBy(() -> readAll(new NdjsonImportDecoder(stream(body))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 1: status must be one of [pending, completed, failed, reversed] got: settled");
+    }
+
+    @Test
+    public void testCsvGroupsLinesOfOneTxnRefIntoOneTransaction() throws IOException {
+        String body = "txn_ref,merchant_id,local_txn_date_time,amount,status,detail_type,detail_amount,detail_description\r\n" +
+                "A,MCH-00001,2025-11-16T08:00:00Z,100.00,completed,fee,1.00,\"fee, \"\"card\"\"\nsecond line\"\r\n" +
+                "A,MCH-00001,2025-11-16T08:00:00Z,100.00,completed,tax,2.00,\r\n" +
+                "\r\n" +
+                "B,MCH-00002,2025-11-16T09:00:00Z,5.00,failed,,,\r\n" +
+                ",MCH-00003,2025-11-16T10:00:00Z,7.00,pending,fee,0.10,\r\n" +
+                ",MCH-00003,2025-11-16T10:00:00Z,8.00,pending,,,";
+
+        ImportChunk chunk = readAll(new CsvImportDecoder(stream(body)));
+
+        assertThat(chunk.size()).isEqualTo(4);
+        assertThat(chunk.getDetails().get(0)).extracting(TransactionDetail::getDetailType).containsExactly("fee", "tax");
+        assertThat(chunk.getDetails().get(0).get(0).getDescription()).isEqualTo("fee, \"card\"\nsecond line");
+        assertThat(chunk.getDetails().get(1)).isEmpty();
+        assertThat(chunk.getDetails().get(2)).hasSize(1);
+        assertThat(chunk.getMasters().get(3).getAmount()).isEqualByComparingTo("8.00");
+    }
+
+    @Test
+    public void testCsvRejectsBadValuesWithTheirLine() {
+        String body = "txn_ref,merchant_id,local_txn_date_time,amount,status\n" +
+                "A,MCH-00001,2025-11-16T08:00:00Z,1.00,completed\n" +
+                "A,MCH-00001,2025-11-16T08:00:00Z,1.00,completed\n" +
+                "B,MCH-00001,yesterday,1.00,completed\n";
+
+        assertThatThrownBy(() -> readAll(new CsvImportDecoder(stream(body))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Line 4: local_txn_date_time must be an ISO-8601 instant");
+    }
+
+    @Test
+    public void testCsvRequiresTheMasterColumns() {
+        assertThatThrownBy(() -> readAll(new CsvImportDecoder(stream("merchant_id,amount,status\n"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 1: header has no local_txn_date_time column");
+    }
+
+    private static ImportChunk readAll(TransactionImportDecoder decoder) throws IOException {
+        ImportChunk chunk = new ImportChunk();
+        while (decoder.readTransaction(chunk)) {
+            // reading everything into one chunk
+        }
+        return chunk;
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
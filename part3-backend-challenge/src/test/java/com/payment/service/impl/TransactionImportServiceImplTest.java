@@ -0,0 +1,130 @@
+package com.payment.service.impl;
+
+import com.payment.cache.LookupCache;
+import com.payment.cache.RangeResultCache;
+import com.payment.dto.TransactionImportResponse;
+import com.payment.repository.TransactionImportRepository;
+import com.payment.repository.TransactionImportRepository.ChunkRecord;
+import com.payment.repository.TransactionImportRepository.ImportChunk;
+import com.payment.repository.TransactionImportRepository.ImportState;
+import com.payment.service.TransactionImportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TransactionImportServiceImpl with a mocked repository.
+ */
+public class TransactionImportServiceImplTest {
+
+    private static final String KEY = "feed-2025-11-16";
+
+    private TransactionImportRepository importRepository;
+    private LookupCache lookupCache;
+    private RangeResultCache rangeResultCache;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionImportServiceImpl importService;
+    // Chunk sizes as passed to copyChunk, the service reuses and clears the chunk afterwards
+    private List<Integer> copiedSizes;
+
+    @BeforeEach
+    public void setUp() {
+        importRepository = mock(TransactionImportRepository.class);
+        lookupCache = mock(LookupCache.class);
+        rangeResultCache = mock(RangeResultCache.class);
+        meterRegistry = new SimpleMeterRegistry();
+        importService = new TransactionImportServiceImpl(importRepository, lookupCache, rangeResultCache, null, meterRegistry, 2);
+        copiedSizes = new ArrayList<>();
+
+        when(importRepository.copyChunk(eq(KEY), anyInt(), any())).thenAnswer(invocation -> {
+            ImportChunk chunk = invocation.getArgument(2);
+            copiedSizes.add(chunk.size());
+            return new ChunkRecord(invocation.getArgument(1), chunk.size(), chunk.getDetailCount(), 5);
+        });
+    }
+
+    @Test
+    public void testCopiesTheBodyInBoundedChunks() {
+        when(importRepository.startImport(KEY, 2)).thenReturn(new ImportState(2, false));
+
+        TransactionImportResponse response = importService.importTransactions(KEY, ndjson(5), TransactionImportService.Format.NDJSON);
+
+        assertThat(copiedSizes).containsExactly(2, 2, 1);
+        assertThat(response.getStatus()).isEqualTo(TransactionImportResponse.STATUS_IMPORTED);
+        assertThat(response.getTransactions()).isEqualTo(5);
+        assertThat(response.getDetails()).isEqualTo(5);
+        assertThat(response.getChunks()).extracting(TransactionImportResponse.Chunk::getRowsPerSecond)
+                .containsExactly(800L, 800L, 400L);
+        assertThat(meterRegistry.get(TransactionImportServiceImpl.ROWS_COUNTER).tag("table", "transaction_master")
+                .counter().count()).isEqualTo(5.0);
+        verify(lookupCache, times(3)).invalidateMerchant("MCH-00001");
+        verify(rangeResultCache, times(3)).invalidate("MCH-00001", LocalDate.of(2025, 11, 16));
+        verify(importRepository).completeImport(KEY);
+    }
+
+    @Test
+    public void testRetryKeepsTheFirstChunkSizeAndReportsSkippedChunks() {
+        when(importRepository.startImport(KEY, 2)).thenReturn(new ImportState(3, false));
+        when(importRepository.copyChunk(eq(KEY), eq(1), any())).thenReturn(null);
+
+        TransactionImportResponse response = importService.importTransactions(KEY, ndjson(5), TransactionImportService.Format.NDJSON);
+
+        assertThat(copiedSizes).containsExactly(2);
+        assertThat(response.getChunks()).extracting(TransactionImportResponse.Chunk::isSkipped).containsExactly(true, false);
+        assertThat(response.getSkippedChunks()).isEqualTo(1);
+        assertThat(response.getTransactions()).isEqualTo(5);
+    }
+
+    @Test
+    public void testCompletedImportIsAnsweredFromTheStoredChunks() {
+        when(importRepository.startImport(KEY, 2)).thenReturn(new ImportState(2, true));
+        when(importRepository.findChunks(KEY)).thenReturn(List.of(new ChunkRecord(1, 2, 4, 10), new ChunkRecord(2, 1, 2, 5)));
+        InputStream body = mock(InputStream.class);
+
+        TransactionImportResponse response = importService.importTransactions(KEY, body, TransactionImportService.Format.CSV);
+
+        assertThat(response.getStatus()).isEqualTo(TransactionImportResponse.STATUS_ALREADY_IMPORTED);
+        assertThat(response.getTransactions()).isEqualTo(3);
+        assertThat(response.getDetails()).isEqualTo(6);
+        assertThat(response.getSkippedChunks()).isEqualTo(2);
+        verifyNoInteractions(body);
+        verify(importRepository, never()).copyChunk(any(), anyInt(), any());
+    }
+
+    @Test
+    public void testRequiresAnImportKey() {
+        assertThatThrownBy(() -> importService.importTransactions(" ", ndjson(1), TransactionImportService.Format.NDJSON))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Idempotency-Key header is required");
+        verifyNoInteractions(importRepository);
+    }
+
+    private static InputStream ndjson(int transactions) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < transactions; i++) {
+            body.append("{\"merchantId\":\"MCH-00001\",\"localTxnDateTime\":\"2025-11-16T08:00:00Z\",\"amount\":")
+                    .append(i + 1)
+                    .append(",\"status\":\"completed\",\"details\":[{\"detailType\":\"fee\",\"amount\":0.10}]}\n");
+        }
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
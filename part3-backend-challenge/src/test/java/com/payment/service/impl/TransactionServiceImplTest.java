@@ -0,0 +1,231 @@
+package com.payment.service.impl;
+
+import com.payment.cache.LookupCache;
+import com.payment.cache.LookupCacheConfiguration;
+import com.payment.cache.RangeResultCache;
+import com.payment.cache.RangeResultCacheConfiguration;
+import com.payment.dto.TransactionResponse;
+import com.payment.entity.TransactionDetail;
+import com.payment.entity.TransactionMaster;
+import com.payment.entity.TransactionStatus;
+import com.payment.hotwindow.HotWindowStore;
+import com.payment.repository.MemberRepository;
+import com.payment.repository.TransactionDetailRepository;
+import com.payment.repository.TransactionRepository;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TransactionServiceImpl with mocked repositories.
+ */
+public class TransactionServiceImplTest {
+
+    private static final String MERCHANT_ID = "MCH-00001";
+    private static final Instant START = Instant.parse("2025-11-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2025-11-30T00:00:00Z");
+
+    private TransactionRepository transactionRepository;
+    private TransactionDetailRepository transactionDetailRepository;
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    public void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        transactionDetailRepository = mock(TransactionDetailRepository.class);
+        LookupCacheConfiguration cacheConfiguration = new LookupCacheConfiguration();
+        cacheConfiguration.setEnabled(false);
+        RangeResultCacheConfiguration rangeCacheConfiguration = new RangeResultCacheConfiguration();
+        rangeCacheConfiguration.setEnabled(false);
+        transactionService = new TransactionServiceImpl(transactionRepository, transactionDetailRepository,
+                new LookupCache(transactionRepository, mock(MemberRepository.class), cacheConfiguration),
+                new RangeResultCache(rangeCacheConfiguration), null);
+
+        List<TransactionMaster> masters = List.of(master(1L), master(2L), master(3L));
+        when(transactionRepository.existsByMerchantId(MERCHANT_ID)).thenReturn(true);
+        when(transactionRepository.findByMerchantAndDateRange(eq(MERCHANT_ID), eq(START), eq(END), any(), any()))
+                .thenReturn(Page.of(masters, Pageable.from(0, 20), 3L));
+        when(transactionRepository.summarize(MERCHANT_ID, START, END)).thenReturn(List.of(
+                new TransactionRepository.SummaryRow("USD", "completed", 2L, new BigDecimal("20.00")),
+                new TransactionRepository.SummaryRow("USD", "failed", 1L, new BigDecimal("10.00")),
+                new TransactionRepository.SummaryRow("EUR", "completed", 1L, new BigDecimal("5.50"))));
+    }
+
+    @Test
+    public void testGetTransactions_LoadsDetailsForPageInOneQuery() {
+        when(transactionDetailRepository.findByMasterTxnIdInList(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(detail(1L, "fee"), detail(1L, "tax"), detail(3L, "fee")));
+
+        TransactionResponse response = transactionService.getTransactions(MERCHANT_ID, START, END, null, 0, 20, true);
+
+        verify(transactionDetailRepository, times(1)).findByMasterTxnIdInList(anyList());
+        verify(transactionDetailRepository, never()).findByMasterTxnId(anyLong());
+        assertThat(response.getTransactions()).hasSize(3);
+        assertThat(response.getTransactions().get(0).getDetails()).extracting(TransactionResponse.Detail::getType)
+                .containsExactly("fee", "tax");
+        assertThat(response.getTransactions().get(1).getDetails()).isEmpty();
+        assertThat(response.getTransactions().get(2).getDetails()).hasSize(1);
+    }
+
+    @Test
+    public void testGetTransactions_WithoutDetailsSkipsDetailFetch() {
+        TransactionResponse response = transactionService.getTransactions(MERCHANT_ID, START, END, null, 0, 20, false);
+
+        verify(transactionDetailRepository, never()).findByMasterTxnIdInList(anyList());
+        assertThat(response.getTransactions()).hasSize(3);
+        assertThat(response.getTransactions()).allSatisfy(txn -> assertThat(txn.getDetails()).isNull());
+    }
+
+    @Test
+    public void testGetTransactions_ServedFromHotWindowWhenCovered() {
+        HotWindowStore hotWindowStore = mock(HotWindowStore.class);
+        when(hotWindowStore.findByMerchantAndDateRange(eq(MERCHANT_ID), eq(START), eq(END), any(), any()))
+                .thenReturn(Page.of(List.of(master(5L)), Pageable.from(0, 20), 1L));
+        when(hotWindowStore.summarize(MERCHANT_ID, START, END)).thenReturn(List.of(
+                new TransactionRepository.SummaryRow("USD", "pending", 1L, new BigDecimal("7.00"))));
+
+        TransactionResponse response = withHotWindow(hotWindowStore)
+                .getTransactions(MERCHANT_ID, START, END, null, 0, 20, false);
+
+        assertThat(response.getTransactions()).extracting(TransactionResponse.Transaction::getTxnId).containsExactly(5L);
+        assertThat(response.getSummary().getByStatus()).containsOnlyKeys("pending");
+        verify(transactionRepository, never()).findByMerchantAndDateRange(any(), any(), any(), any(), any());
+        verify(transactionRepository, never()).summarize(any(), any(), any());
+    }
+
+    @Test
+    public void testGetTransactions_FallsBackToTheDatabaseOutsideTheHotWindow() {
+        HotWindowStore hotWindowStore = mock(HotWindowStore.class);
+        when(hotWindowStore.findByMerchantAndDateRange(any(), any(), any(), any(), any())).thenReturn(null);
+        when(hotWindowStore.summarize(any(), any(), any())).thenReturn(null);
+
+        TransactionResponse response = withHotWindow(hotWindowStore)
+                .getTransactions(MERCHANT_ID, START, END, null, 0, 20, false);
+
+        assertThat(response.getTransactions()).hasSize(3);
+        assertThat(response.getSummary().getTotalTransactions()).isEqualTo(4);
+    }
+
+    @Test
+    public void testCalculateSummary_AggregatesGroupedRows() {
+        TransactionResponse.Summary summary = transactionService
+                .getTransactions(MERCHANT_ID, START, END, null, 0, 20, false)
+                .getSummary();
+
+        assertThat(summary.getTotalTransactions()).isEqualTo(4);
+        assertThat(summary.getTotalAmount()).isEqualByComparingTo("35.50");
+        assertThat(summary.getCurrency()).isEqualTo("USD");
+        // In TransactionStatus order
+        assertThat(summary.getByStatus()).containsExactly(entry("completed", 3), entry("failed", 1));
+        assertThat(summary.getByCurrency().get("USD")).isEqualByComparingTo("30.00");
+        assertThat(summary.getByCurrency().get("EUR")).isEqualByComparingTo("5.50");
+    }
+
+    @Test
+    public void testCalculateSummary_EmptyRange() {
+        when(transactionRepository.summarize(MERCHANT_ID, START, END)).thenReturn(Collections.emptyList());
+
+        TransactionResponse.Summary summary = transactionService
+                .getTransactions(MERCHANT_ID, START, END, null, 0, 20, false)
+                .getSummary();
+
+        assertThat(summary.getTotalTransactions()).isZero();
+        assertThat(summary.getTotalAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(summary.getCurrency()).isNull();
+        assertThat(summary.getByStatus()).isEmpty();
+    }
+
+    @Test
+    public void testKeysetPagination_ReturnsCursorWithoutCount() {
+        when(transactionRepository.findFirstByMerchantAndDateRange(MERCHANT_ID, START, END, null, 3))
+                .thenReturn(List.of(master(9L), master(8L), master(7L)));
+
+        TransactionResponse first = transactionService
+                .getTransactionsByCursor(MERCHANT_ID, START, END, null, null, 2, false, false);
+
+        assertThat(first.getTransactions()).extracting(TransactionResponse.Transaction::getTxnId).containsExactly(9L, 8L);
+        assertThat(first.getPagination().getNextCursor()).isNotNull();
+        assertThat(first.getPagination().getTotalElements()).isNull();
+        verify(transactionRepository, never()).countByMerchantAndDateRange(any(), any(), any(), any());
+
+        when(transactionRepository.findNextByMerchantAndDateRange(MERCHANT_ID, START, END, null, START, 8L, 3))
+                .thenReturn(List.of(master(7L)));
+
+        TransactionResponse second = transactionService
+                .getTransactionsByCursor(MERCHANT_ID, START, END, null, first.getPagination().getNextCursor(), 2, false, false);
+
+        assertThat(second.getTransactions()).extracting(TransactionResponse.Transaction::getTxnId).containsExactly(7L);
+        assertThat(second.getPagination().getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testKeysetPagination_InvalidCursor() {
+        assertThatThrownBy(() -> transactionService
+                .getTransactionsByCursor(MERCHANT_ID, START, END, null, "not-a-cursor", 2, false, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testTransactionsVersion_FollowsCountHighestTxnIdAndRevision() {
+        when(transactionRepository.findVersion(MERCHANT_ID, START, END))
+                .thenReturn(new TransactionRepository.RangeVersion(3L, 42L, 5L));
+
+        assertThat(transactionService.getTransactionsVersion(MERCHANT_ID, START, END)).isEqualTo("3-42-5");
+        verify(transactionRepository, never()).findByMerchantAndDateRange(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testTransactionsVersion_InvalidDateRange() {
+        assertThatThrownBy(() -> transactionService.getTransactionsVersion(MERCHANT_ID, END, START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TransactionServiceImpl withHotWindow(HotWindowStore hotWindowStore) {
+        LookupCacheConfiguration cacheConfiguration = new LookupCacheConfiguration();
+        cacheConfiguration.setEnabled(false);
+        RangeResultCacheConfiguration rangeCacheConfiguration = new RangeResultCacheConfiguration();
+        rangeCacheConfiguration.setEnabled(false);
+        return new TransactionServiceImpl(transactionRepository, transactionDetailRepository,
+                new LookupCache(transactionRepository, mock(MemberRepository.class), cacheConfiguration),
+                new RangeResultCache(rangeCacheConfiguration), hotWindowStore);
+    }
+
+    private static TransactionMaster master(Long txnId) {
+        TransactionMaster master = new TransactionMaster();
+        master.setTxnId(txnId);
+        master.setMerchantId(MERCHANT_ID);
+        master.setAmount(new BigDecimal("10.00"));
+        master.setCurrency("USD");
+        master.setStatus(TransactionStatus.COMPLETED);
+        master.setLocalTxnDateTime(START);
+        return master;
+    }
+
+    private static TransactionDetail detail(Long masterTxnId, String type) {
+        TransactionDetail detail = new TransactionDetail();
+        detail.setMasterTxnId(masterTxnId);
+        detail.setDetailType(type);
+        detail.setAmount(new BigDecimal("1.00"));
+        detail.setCurrency("USD");
+        return detail;
+    }
+}
@@ -0,0 +1,58 @@
+package com.payment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AmountAccumulatorTest {
+
+    @Test
+    public void testAccumulatesExactlyPerCurrency() {
+        AmountAccumulator accumulator = new AmountAccumulator();
+        for (int i = 0; i < 10; i++) {
+            accumulator.add("USD", new BigDecimal("0.10"));
+        }
+        accumulator.add("EUR", new BigDecimal("2.50"), 3);
+
+        // Ten times 0.10 as double is 0.9999999999999999
+        assertThat(accumulator.getCents("USD")).isEqualTo(100L);
+        assertThat(accumulator.getCents("EUR")).isEqualTo(250L);
+        assertThat(accumulator.getTotalAmount()).isEqualTo(new BigDecimal("3.50"));
+        assertThat(accumulator.getTotalCount()).isEqualTo(13L);
+        assertThat(accumulator.getDominantCurrency()).isEqualTo("USD");
+        assertThat(accumulator.toAmountByCurrency())
+                .containsEntry("USD", new BigDecimal("1.00"))
+                .containsEntry("EUR", new BigDecimal("2.50"));
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCurrencySlots() {
+        AmountAccumulator accumulator = new AmountAccumulator();
+        String[] currencies = {"USD", "EUR", "GBP", "JPY", "SGD", "CAD"};
+        for (String currency : currencies) {
+            accumulator.add(currency, 1L);
+        }
+
+        assertThat(accumulator.toAmountByCurrency()).containsOnlyKeys(currencies);
+        assertThat(accumulator.getTotalCents()).isEqualTo(6L);
+    }
+
+    @Test
+    public void testRejectsPrecisionLossAndOverflow() {
+        assertThatThrownBy(() -> AmountAccumulator.toCents(new BigDecimal("1.005")))
+                .isInstanceOf(ArithmeticException.class);
+
+        AmountAccumulator accumulator = new AmountAccumulator();
+        accumulator.add("USD", Long.MAX_VALUE);
+        assertThatThrownBy(() -> accumulator.add("USD", 1L)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    public void testAverageRoundsHalfEven() {
+        assertThat(AmountAccumulator.average(1000L, 3)).isEqualTo(new BigDecimal("3.33"));
+        assertThat(AmountAccumulator.average(0L, 0)).isEqualTo(new BigDecimal("0.00"));
+    }
+}
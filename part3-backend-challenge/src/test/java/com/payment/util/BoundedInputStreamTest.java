@@ -0,0 +1,36 @@
+package com.payment.util;
+
+import com.payment.exception.PayloadTooLargeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedInputStreamTest {
+
+    @Test
+    public void testBodyUpToTheLimitIsRead() throws IOException {
+        InputStream in = new BoundedInputStream(new ByteArrayInputStream(new byte[10]), 10);
+
+        assertThat(in.readAllBytes()).hasSize(10);
+        assertThat(in.read()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testReadingPastTheLimitFails() throws IOException {
+        InputStream in = new BoundedInputStream(new ByteArrayInputStream(new byte[11]), 10);
+        byte[] buffer = new byte[4];
+
+        assertThat(in.read(buffer)).isEqualTo(4);
+        assertThat(in.skip(4)).isEqualTo(4);
+        in.read();
+        in.read();
+        assertThatThrownBy(in::read)
+                .isInstanceOf(PayloadTooLargeException.class)
+                .hasMessageContaining("10 bytes");
+    }
+}
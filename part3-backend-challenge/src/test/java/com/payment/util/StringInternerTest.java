@@ -0,0 +1,29 @@
+package com.payment.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StringInternerTest {
+
+    @Test
+    public void testEqualValuesShareOneInstance() {
+        String first = StringInterner.intern(new String("MCH-00001"));
+        String second = StringInterner.intern(new String("MCH-00001"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(StringInterner.intern(null)).isNull();
+    }
+
+    @Test
+    public void testNewValuesAreKeptAsTheyAreOnceFull() {
+        StringInterner interner = new StringInterner(2);
+        String usd = interner.get(new String("USD"));
+        interner.get("EUR");
+        String gbp = new String("GBP");
+
+        assertThat(interner.get(gbp)).isSameAs(gbp);
+        assertThat(interner.get(new String("USD"))).isSameAs(usd);
+        assertThat(interner.size()).isEqualTo(2);
+    }
+}
@@ -1,63 +1,290 @@
 package com.payment.service;
 
-import io.micronaut.context.annotation.Prototype;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * BUGGY CODE - DO NOT USE IN PRODUCTION
- * This service has multiple critical bugs related to concurrency and error handling.
- * Candidates should identify and fix these issues.
+ * Batch payment processor.
+ * Payments are split into chunks that run on a dedicated, bounded executor (never the common fork-join pool).
+ * Each chunk validates its payments, sets their status, then persists successes and failures with one
+ * PaymentRepository.updateAll and their audit entries in one transaction, so a chunk is either fully written or
+ * reported as failed. Totals use LongAdder, whose striped cells keep worker threads from contending on a single
+ * counter.
  */
 @Singleton
 public class PaymentProcessingService {
-    
+
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentProcessingService.class);
+
     private final PaymentRepository paymentRepository;
     private final AuditService auditService;
-    private BigDecimal totalProcessed = BigDecimal.ZERO;
-    
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+
+    // Lifetime totals, amounts kept in cents so they can be added without BigDecimal allocation or locks
+    private final LongAdder processedCents = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
     @Inject
-    public PaymentProcessingService(PaymentRepository paymentRepository, 
-                                   AuditService auditService) {
+    public PaymentProcessingService(PaymentRepository paymentRepository,
+                                    AuditService auditService,
+                                    @Value("${payment-batch.chunk-size:1000}") int chunkSize,
+                                    @Value("${payment-batch.threads:0}") int threads,
+                                    @Value("${payment-batch.queue-capacity:64}") int queueCapacity) {
         this.paymentRepository = paymentRepository;
         this.auditService = auditService;
+        this.chunkSize = chunkSize;
+
+        // Default to one worker per core; the pool is also bounded by the connection pool in practice
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // Bounded queue plus CallerRunsPolicy: a full queue makes the submitting thread process the chunk
+        // itself instead of queueing an unbounded amount of work
+        this.executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new WorkerThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
     }
-    
+
     /**
-     * Processes a batch of payments in parallel
-     * WARNING: This method has critical bugs!
+     * Processes a batch of payments in parallel chunks.
+     *
+     * @param payments payments to process
+     * @return one result per payment, in input order, plus the totals of this batch
      */
-    public void processPaymentBatch(List<Payment> payments) {
-        payments.parallelStream().forEach(payment -> {
-            try {
-                // Validate payment
-                if (payment.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
-                    throw new IllegalArgumentException("Invalid amount");
+    public BatchResult processPaymentBatch(List<Payment> payments) {
+        ItemResult[] results = new ItemResult[payments.size()];
+        BatchTotals totals = new BatchTotals();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < payments.size(); from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, payments.size());
+            futures.add(executor.submit(() -> processChunk(payments, start, end, results, totals)));
+        }
+
+        // Every chunk is waited for, so none is still writing when the result is returned. Future.get also publishes
+        // the results array slots written by the workers to this thread
+        boolean interrupted = false;
+        for (int chunk = 0; chunk < futures.size(); chunk++) {
+            int start = chunk * chunkSize;
+            int end = Math.min(start + chunkSize, payments.size());
+            while (true) {
+                try {
+                    futures.get(chunk).get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    LOG.error("Payment chunk [{}, {}) failed", start, end, e.getCause());
+                    failChunk(payments, start, end, results, totals, "Chunk failed: " + e.getCause().getMessage());
+                    break;
                 }
-                
-                // BUG 1: Non-thread-safe operation on shared mutable state
-                totalProcessed = totalProcessed.add(payment.getAmount());
-                
-                // Process payment
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        return new BatchResult(Arrays.asList(results), totals);
+    }
+
+    // Processes payments[start, end) and writes their results to the same slots; chunks never share slots
+    private void processChunk(List<Payment> payments, int start, int end, ItemResult[] results, BatchTotals totals) {
+        long chunkCents = 0;
+        int completed = 0;
+        for (int i = start; i < end; i++) {
+            Payment payment = payments.get(i);
+            String error = validate(payment);
+            if (error == null) {
                 payment.setStatus("COMPLETED");
-                paymentRepository.update(payment);
-                
-                // Audit log
-                auditService.log("Payment " + payment.getId() + " processed");
-                
-            } catch (Exception e) {
-                // BUG 2: Failed status set but never persisted to database
+                payment.setErrorMessage(null);
+                results[i] = ItemResult.completed(payment.getId());
+                chunkCents += toCents(payment.getAmount());
+                completed++;
+            } else {
                 payment.setStatus("FAILED");
-                // Note: Not saving failed status to DB
+                payment.setErrorMessage(error);
+                results[i] = ItemResult.failed(payment.getId(), error);
             }
-        });
-        
-        // BUG 3: No transaction management - partial failures leave inconsistent state
-        // BUG 4: No error propagation - calling code doesn't know if processing failed
+        }
+
+        List<Payment> chunk = payments.subList(start, end);
+        try {
+            persistChunk(chunk);
+        } catch (RuntimeException e) {
+            LOG.error("Failed to persist payment chunk [{}, {})", start, end, e);
+            // Nothing of the chunk was committed, every item is reported as failed
+            failChunk(payments, start, end, results, totals, "Not persisted: " + e.getMessage());
+            return;
+        }
+
+        totals.completed.add(completed);
+        totals.failed.add(end - start - completed);
+        totals.cents.add(chunkCents);
+        completedCount.add(completed);
+        failedCount.add(end - start - completed);
+        processedCents.add(chunkCents);
     }
-    
+
+    /**
+     * Writes the status of every payment of a chunk with one repository batch update, and their audit entries, in
+     * one transaction.
+     */
+    @Transactional
+    protected void persistChunk(List<Payment> chunk) {
+        paymentRepository.updateAll(chunk);
+        for (Payment payment : chunk) {
+            if ("COMPLETED".equals(payment.getStatus())) {
+                auditService.log("Payment " + payment.getId() + " processed for amount " + payment.getAmount());
+            } else {
+                auditService.log("Payment " + payment.getId() + " failed: " + payment.getErrorMessage());
+            }
+        }
+    }
+
+    // Helper marking every payment of a chunk whose write failed as FAILED, and recording that status on a best
+    // effort basis so the database does not keep showing them as pending
+    private void failChunk(List<Payment> payments, int start, int end, ItemResult[] results, BatchTotals totals,
+                           String error) {
+        for (int i = start; i < end; i++) {
+            Payment payment = payments.get(i);
+            payment.setStatus("FAILED");
+            payment.setErrorMessage(error);
+            results[i] = ItemResult.failed(payment.getId(), error);
+        }
+        totals.failed.add(end - start);
+        failedCount.add(end - start);
+        try {
+            persistChunk(payments.subList(start, end));
+        } catch (RuntimeException e) {
+            LOG.error("Failed to record the FAILED status of payment chunk [{}, {})", start, end, e);
+        }
+    }
+
+    // Helper returning the validation error of a payment, null when it can be processed
+    private String validate(Payment payment) {
+        BigDecimal amount = payment.getAmount();
+        if (amount == null || amount.signum() <= 0) {
+            return "Invalid amount: " + amount;
+        }
+        if (amount.scale() > 2 && amount.stripTrailingZeros().scale() > 2) {
+            return "Amount has more than 2 decimals: " + amount;
+        }
+        return null;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2).unscaledValue().longValueExact();
+    }
+
     public BigDecimal getTotalProcessed() {
-        return totalProcessed;
+        return BigDecimal.valueOf(processedCents.sum(), 2);
+    }
+
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "payment-batch-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    // Per batch totals, shared by the chunks of one batch
+    private static final class BatchTotals {
+        private final LongAdder cents = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+    }
+
+    /**
+     * Outcome of one batch: a result per payment in input order, counts and the processed amount.
+     */
+    public static class BatchResult {
+        private final List<ItemResult> items;
+        private final long completedCount;
+        private final long failedCount;
+        private final BigDecimal totalProcessed;
+
+        private BatchResult(List<ItemResult> items, BatchTotals totals) {
+            this.items = Collections.unmodifiableList(items);
+            this.completedCount = totals.completed.sum();
+            this.failedCount = totals.failed.sum();
+            this.totalProcessed = BigDecimal.valueOf(totals.cents.sum(), 2);
+        }
+
+        public List<ItemResult> getItems() { return items; }
+        public long getCompletedCount() { return completedCount; }
+        public long getFailedCount() { return failedCount; }
+        public BigDecimal getTotalProcessed() { return totalProcessed; }
+        public boolean hasErrors() { return failedCount > 0; }
+    }
+
+    /**
+     * Outcome of one payment: COMPLETED, or FAILED with the reason.
+     */
+    public static class ItemResult {
+        private final String paymentId;
+        private final String status;
+        private final String errorMessage;
+
+        private ItemResult(String paymentId, String status, String errorMessage) {
+            this.paymentId = paymentId;
+            this.status = status;
+            this.errorMessage = errorMessage;
+        }
+
+        static ItemResult completed(String paymentId) {
+            return new ItemResult(paymentId, "COMPLETED", null);
+        }
+
+        static ItemResult failed(String paymentId, String errorMessage) {
+            return new ItemResult(paymentId, "FAILED", errorMessage);
+        }
+
+        public String getPaymentId() { return paymentId; }
+        public String getStatus() { return status; }
+        public String getErrorMessage() { return errorMessage; }
+        public boolean isCompleted() { return "COMPLETED".equals(status); }
     }
 }
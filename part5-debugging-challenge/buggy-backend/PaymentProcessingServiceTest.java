@@ -0,0 +1,107 @@
+package com.payment.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the chunked batch processor, with a mocked PaymentRepository and AuditService and chunks of 2.
+ */
+public class PaymentProcessingServiceTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final AuditService auditService = mock(AuditService.class);
+    private final PaymentProcessingService service =
+            new PaymentProcessingService(paymentRepository, auditService, 2, 2, 4);
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testStatusesArePersistedThroughTheRepositoryAndAudited() {
+        List<Payment> payments = payments("10.00", "-1.00", "2.50");
+
+        PaymentProcessingService.BatchResult result = service.processPaymentBatch(payments);
+
+        assertThat(result.getItems()).extracting(PaymentProcessingService.ItemResult::getStatus)
+                .containsExactly("COMPLETED", "FAILED", "COMPLETED");
+        assertThat(payments).extracting(Payment::getStatus).containsExactly("COMPLETED", "FAILED", "COMPLETED");
+        assertThat(payments.get(1).getErrorMessage()).contains("Invalid amount");
+        assertThat(result.getTotalProcessed()).isEqualByComparingTo("12.50");
+        assertThat(result.getCompletedCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isEqualTo(1);
+        // One batch update per chunk, one audit entry per payment
+        verify(paymentRepository, times(2)).updateAll(any());
+        verify(auditService, times(3)).log(anyString());
+    }
+
+    @Test
+    public void testChunkThatCannotBeWrittenIsReportedAndMarkedFailed() {
+        List<Payment> payments = payments("1.00", "2.00", "3.00", "4.00");
+        // Only the first write of the chunk fails, its FAILED status can still be recorded
+        doThrow(new IllegalStateException("connection reset")).doAnswer(invocation -> invocation.getArgument(0))
+                .when(paymentRepository).updateAll(argThat(chunk -> contains(chunk, "P-3")));
+
+        PaymentProcessingService.BatchResult result = service.processPaymentBatch(payments);
+
+        assertThat(result.getItems()).extracting(PaymentProcessingService.ItemResult::getStatus)
+                .containsExactly("COMPLETED", "COMPLETED", "FAILED", "FAILED");
+        assertThat(result.getItems().get(2).getErrorMessage()).contains("connection reset");
+        assertThat(payments.subList(2, 4)).extracting(Payment::getStatus).containsOnly("FAILED");
+        assertThat(result.getTotalProcessed()).isEqualByComparingTo("3.00");
+        // The FAILED status of the chunk is written afterwards
+        verify(paymentRepository, times(2)).updateAll(argThat(chunk -> contains(chunk, "P-3")));
+    }
+
+    @Test
+    public void testEveryChunkIsWaitedForWhenOneFails() {
+        List<Payment> payments = payments("1.00", "2.00", "3.00", "4.00");
+        // The first chunk dies with an Error, the second one is still running when that is noticed
+        doThrow(new AssertionError("audit unavailable")).doNothing()
+                .when(auditService).log(argThat(entry -> entry.startsWith("Payment P-1 ")));
+        doAnswer(invocation -> {
+            Thread.sleep(200);
+            return null;
+        }).when(auditService).log(argThat(entry -> entry.startsWith("Payment P-3 ")));
+
+        PaymentProcessingService.BatchResult result = service.processPaymentBatch(payments);
+
+        assertThat(result.getItems()).extracting(PaymentProcessingService.ItemResult::getStatus)
+                .containsExactly("FAILED", "FAILED", "COMPLETED", "COMPLETED");
+        assertThat(result.getItems().get(0).getErrorMessage()).contains("audit unavailable");
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getTotalProcessed()).isEqualByComparingTo("7.00");
+    }
+
+    private static List<Payment> payments(String... amounts) {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < amounts.length; i++) {
+            payments.add(new Payment("P-" + (i + 1), new BigDecimal(amounts[i])));
+        }
+        return payments;
+    }
+
+    private static boolean contains(Iterable<Payment> chunk, String paymentId) {
+        for (Payment payment : chunk) {
+            if (paymentId.equals(payment.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}